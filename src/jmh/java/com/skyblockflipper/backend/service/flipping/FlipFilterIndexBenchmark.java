@@ -0,0 +1,111 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-predicate flip filtering through the sorted-column bitmap index against a row-by-row scan of the
+ * same primitive columns. Every benchmark returns the match count so both sides do the same work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlipFilterIndexBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int flipCount;
+
+    private FlipType[] flipTypes;
+    private boolean[] partials;
+    private double[] liquidityScores;
+    private double[] riskScores;
+    private double[] rois;
+    private double[] roisPerHour;
+    private long[] expectedProfits;
+    private long[] requiredCapitals;
+    private FlipFilterIndex index;
+    private FlipMetricsCriteria selectiveCriteria;
+    private FlipMetricsCriteria broadCriteria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        flipTypes = new FlipType[flipCount];
+        partials = new boolean[flipCount];
+        liquidityScores = new double[flipCount];
+        riskScores = new double[flipCount];
+        rois = new double[flipCount];
+        roisPerHour = new double[flipCount];
+        expectedProfits = new long[flipCount];
+        requiredCapitals = new long[flipCount];
+        for (int row = 0; row < flipCount; row++) {
+            flipTypes[row] = FlipType.values()[random.nextInt(FlipType.values().length)];
+            partials[row] = random.nextInt(10) == 0;
+            liquidityScores[row] = random.nextInt(20) == 0 ? Double.NaN : random.nextDouble(100.0D);
+            riskScores[row] = random.nextInt(20) == 0 ? Double.NaN : random.nextDouble(100.0D);
+            rois[row] = random.nextDouble(-0.2D, 1.5D);
+            roisPerHour[row] = random.nextDouble(0.0D, 0.3D);
+            expectedProfits[row] = random.nextLong(-1_000_000L, 50_000_000L);
+            requiredCapitals[row] = random.nextInt(50) == 0 ? FlipView.NULL_LONG : random.nextLong(100_000L, 2_000_000_000L);
+        }
+        index = FlipFilterIndex.of(flipTypes, partials, liquidityScores, riskScores, rois, roisPerHour,
+                expectedProfits, requiredCapitals);
+        selectiveCriteria = new FlipMetricsCriteria(80.0D, 30.0D, 10_000_000L, 0.5D, null, 500_000_000L, false);
+        broadCriteria = new FlipMetricsCriteria(10.0D, null, 0L, null, null, null, null);
+    }
+
+    @Benchmark
+    public int indexSelective() {
+        return FlipFilterIndex.cardinality(index.matching(FlipType.CRAFTING, selectiveCriteria));
+    }
+
+    @Benchmark
+    public int scanSelective() {
+        return scan(FlipType.CRAFTING, selectiveCriteria);
+    }
+
+    @Benchmark
+    public int indexBroad() {
+        return FlipFilterIndex.cardinality(index.matching(null, broadCriteria));
+    }
+
+    @Benchmark
+    public int scanBroad() {
+        return scan(null, broadCriteria);
+    }
+
+    private int scan(FlipType flipType, FlipMetricsCriteria criteria) {
+        int count = 0;
+        for (int row = 0; row < flipCount; row++) {
+            if ((flipType == null || flipTypes[row] == flipType)
+                    && (criteria.minLiquidityScore() == null || liquidityScores[row] >= criteria.minLiquidityScore())
+                    && (criteria.maxRiskScore() == null || riskScores[row] <= criteria.maxRiskScore())
+                    && (criteria.minExpectedProfit() == null || expectedProfits[row] >= criteria.minExpectedProfit())
+                    && (criteria.minRoi() == null || rois[row] >= criteria.minRoi())
+                    && (criteria.minRoiPerHour() == null || roisPerHour[row] >= criteria.minRoiPerHour())
+                    && (criteria.maxRequiredCapital() == null
+                    || (requiredCapitals[row] != FlipView.NULL_LONG && requiredCapitals[row] <= criteria.maxRequiredCapital()))
+                    && (criteria.partial() == null || partials[row] == criteria.partial())) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,150 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode time and stored bytes per snapshot for the binary codec against the JSON text
+ * columns it replaces. Sizes are reported as the {@code storedBytes} aux counter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarketSnapshotCodecBenchmark {
+
+    private static final TypeReference<List<AuctionMarketRecord>> AUCTIONS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<Map<String, BazaarMarketRecord>> BAZAAR_TYPE = new TypeReference<>() {};
+    private static final String[] ITEMS = {
+            "Hyperion", "Aspect of the End", "Terminator", "Necron's Chestplate", "Juju Shortbow",
+            "Withered Dark Claymore", "Giant's Sword", "Shadow Fury", "Livid Dagger", "Spirit Sceptre"
+    };
+    private static final String[] TIERS = {"COMMON", "UNCOMMON", "RARE", "EPIC", "LEGENDARY", "MYTHIC"};
+
+    @Param({"30000"})
+    public int auctionCount;
+
+    @Param({"1500"})
+    public int bazaarCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MarketSnapshotCodec codec = new MarketSnapshotCodec();
+
+    private List<AuctionMarketRecord> auctions;
+    private Map<String, BazaarMarketRecord> bazaar;
+    private String auctionsJson;
+    private String bazaarJson;
+    private byte[] auctionsBlob;
+    private byte[] bazaarBlob;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42L);
+        long start = 1_700_000_000_000L;
+        auctions = new ArrayList<>(auctionCount);
+        for (int i = 0; i < auctionCount; i++) {
+            long startingBid = 1_000L + random.nextLong(500_000_000L);
+            long startTimestamp = start + random.nextLong(86_400_000L);
+            auctions.add(new AuctionMarketRecord(
+                    String.format("%016x%016x", random.nextLong(), random.nextLong()),
+                    ITEMS[random.nextInt(ITEMS.length)],
+                    "weapon",
+                    TIERS[random.nextInt(TIERS.length)],
+                    startingBid,
+                    random.nextBoolean() ? startingBid + random.nextLong(1_000_000L) : 0L,
+                    startTimestamp,
+                    startTimestamp + 3_600_000L * (1 + random.nextInt(48)),
+                    random.nextInt(20) == 0
+            ));
+        }
+        bazaar = new LinkedHashMap<>();
+        for (int i = 0; i < bazaarCount; i++) {
+            String productId = "PRODUCT_" + i;
+            double buy = Math.round(random.nextDouble(1D, 5_000_000D) * 10D) / 10D;
+            bazaar.put(productId, new BazaarMarketRecord(productId, buy, buy * 0.97D,
+                    random.nextLong(10_000_000L), random.nextLong(10_000_000L),
+                    random.nextLong(100_000_000L), random.nextLong(100_000_000L),
+                    random.nextInt(2_000), random.nextInt(2_000)));
+        }
+        auctionsJson = jsonEncodeAuctions();
+        bazaarJson = jsonEncodeBazaar();
+        auctionsBlob = codec.encodeAuctions(auctions);
+        bazaarBlob = codec.encodeBazaar(bazaar);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StoredBytes {
+        public long storedBytes;
+    }
+
+    @Benchmark
+    public String jsonEncodeAuctions() {
+        return objectMapper.writeValueAsString(auctions);
+    }
+
+    @Benchmark
+    public String jsonEncodeBazaar() {
+        return objectMapper.writeValueAsString(bazaar);
+    }
+
+    @Benchmark
+    public int jsonEncodeSnapshot(StoredBytes stored) {
+        int bytes = jsonEncodeAuctions().getBytes(StandardCharsets.UTF_8).length
+                + jsonEncodeBazaar().getBytes(StandardCharsets.UTF_8).length;
+        stored.storedBytes = bytes;
+        return bytes;
+    }
+
+    @Benchmark
+    public int codecEncodeSnapshot(StoredBytes stored) {
+        int bytes = codec.encodeAuctions(auctions).length + codec.encodeBazaar(bazaar).length;
+        stored.storedBytes = bytes;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<AuctionMarketRecord> jsonDecodeAuctions() {
+        return objectMapper.readValue(auctionsJson, AUCTIONS_TYPE);
+    }
+
+    @Benchmark
+    public Map<String, BazaarMarketRecord> jsonDecodeBazaar() {
+        return objectMapper.readValue(bazaarJson, BAZAAR_TYPE);
+    }
+
+    @Benchmark
+    public List<AuctionMarketRecord> codecDecodeAuctions() {
+        return codec.decodeAuctions(auctionsBlob);
+    }
+
+    @Benchmark
+    public Map<String, BazaarMarketRecord> codecDecodeBazaar() {
+        return codec.decodeBazaar(bazaarBlob);
+    }
+}
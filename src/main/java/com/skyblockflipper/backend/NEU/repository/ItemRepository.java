@@ -1,7 +1,14 @@
 package com.skyblockflipper.backend.NEU.repository;
 
 import com.skyblockflipper.backend.NEU.model.Item;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface ItemRepository extends JpaRepository<Item, String> {
+
+    List<Item> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<Item> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
 }
@@ -44,6 +44,31 @@ public class AuctionHouseController {
         );
     }
 
+    @GetMapping(value = "/listings/{itemId}", params = "cursor")
+    public CursorPageDto<AhListingDto> listingsByCursor(
+            @PathVariable String itemId,
+            @RequestParam(required = false) AhListingSortBy sortBy,
+            @RequestParam(required = false) Sort.Direction sortDirection,
+            @RequestParam(required = false) Boolean bin,
+            @RequestParam(required = false) Integer minStars,
+            @RequestParam(required = false) Integer maxStars,
+            @RequestParam(required = false) String reforge,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return CursorRequests.page(cursor, after -> auctionHouseReadService.listListingsAfter(
+                itemId,
+                sortBy,
+                sortDirection,
+                bin,
+                minStars,
+                maxStars,
+                reforge,
+                after,
+                size
+        ));
+    }
+
     @GetMapping("/listings/{itemId}/breakdown")
     public AhListingBreakdownDto breakdown(@PathVariable String itemId) {
         return auctionHouseReadService.breakdown(itemId);
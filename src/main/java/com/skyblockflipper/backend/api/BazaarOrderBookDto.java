@@ -14,7 +14,8 @@ public record BazaarOrderBookDto(
     public record OrderLevelDto(
             double pricePerUnit,
             long amount,
-            int orders
+            int orders,
+            long cumulativeAmount
     ) {
     }
 }
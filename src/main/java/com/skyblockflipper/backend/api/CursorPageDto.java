@@ -0,0 +1,20 @@
+package com.skyblockflipper.backend.api;
+
+import java.util.List;
+
+/**
+ * One keyset page. {@code nextCursor} is {@code null} on the last page.
+ */
+public record CursorPageDto<T>(
+        List<T> items,
+        int size,
+        String nextCursor
+) {
+    public CursorPageDto {
+        items = items == null ? List.of() : List.copyOf(items);
+    }
+
+    public static <T> CursorPageDto<T> empty(int size) {
+        return new CursorPageDto<>(List.of(), size, null);
+    }
+}
@@ -0,0 +1,24 @@
+package com.skyblockflipper.backend.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.function.Function;
+
+final class CursorRequests {
+
+    private CursorRequests() {
+    }
+
+    /**
+     * Decodes the client's token (blank for the first page) and loads the page after it; a token that does
+     * not decode or does not fit the listing is the client's error. Any other failure of the loader is not.
+     */
+    static <T> CursorPageDto<T> page(String token, Function<PageCursor, CursorPageDto<T>> loader) {
+        try {
+            return loader.apply(PageCursor.decode(token));
+        } catch (InvalidCursorException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.skyblockflipper.backend.api;
 
 import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.service.flipping.FlipMetricsCriteria;
 import com.skyblockflipper.backend.service.flipping.FlipReadService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -69,6 +70,18 @@ public class FlipController {
         return flipReadService.listFlips(flipType, snapshotTimestamp, pageable);
     }
 
+    @GetMapping(params = "cursor")
+    public CursorPageDto<UnifiedFlipDto> listFlipsByCursor(
+            @RequestParam(required = false) FlipType flipType,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant snapshotTimestamp,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return CursorRequests.page(cursor, after -> flipReadService.listFlipsAfter(flipType, snapshotTimestamp, after, size));
+    }
+
     @GetMapping("/filter")
     public Page<UnifiedFlipDto> filterFlips(
             @RequestParam(required = false) FlipType flipType,
@@ -102,6 +115,44 @@ public class FlipController {
         );
     }
 
+    @GetMapping(value = "/filter", params = "cursor")
+    public CursorPageDto<UnifiedFlipDto> filterFlipsByCursor(
+            @RequestParam(required = false) FlipType flipType,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            Instant snapshotTimestamp,
+            @RequestParam(required = false) Double minLiquidityScore,
+            @RequestParam(required = false) Double maxRiskScore,
+            @RequestParam(required = false) Long minExpectedProfit,
+            @RequestParam(required = false) Double minRoi,
+            @RequestParam(required = false) Double minRoiPerHour,
+            @RequestParam(required = false) Long maxRequiredCapital,
+            @RequestParam(required = false) Boolean partial,
+            @RequestParam(defaultValue = "EXPECTED_PROFIT") FlipSortBy sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        FlipMetricsCriteria criteria = new FlipMetricsCriteria(
+                minLiquidityScore,
+                maxRiskScore,
+                minExpectedProfit,
+                minRoi,
+                minRoiPerHour,
+                maxRequiredCapital,
+                partial
+        );
+        return CursorRequests.page(cursor, after -> flipReadService.filterFlipsAfter(
+                flipType,
+                snapshotTimestamp,
+                criteria,
+                sortBy,
+                sortDirection,
+                after,
+                size
+        ));
+    }
+
     @GetMapping("/top")
     public java.util.List<UnifiedFlipDto> topFlips(
             @RequestParam(required = false) FlipType flipType,
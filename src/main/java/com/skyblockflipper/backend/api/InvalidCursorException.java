@@ -0,0 +1,16 @@
+package com.skyblockflipper.backend.api;
+
+/**
+ * A client-supplied {@link PageCursor} that does not decode or does not fit the listing it was sent to.
+ * Only this is answered with 400; other argument errors raised while loading a page are server faults.
+ */
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
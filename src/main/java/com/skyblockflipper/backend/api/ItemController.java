@@ -37,6 +37,27 @@ public class ItemController {
         return itemReadService.listItems(itemId, search, category, rarity, marketplace, pageable);
     }
 
+    @GetMapping(params = "cursor")
+    public CursorPageDto<ItemDto> listItemsByCursor(
+            @RequestParam(required = false) String itemId,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String rarity,
+            @RequestParam(required = false) MarketplaceType marketplace,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size
+    ) {
+        return CursorRequests.page(cursor, after -> itemReadService.listItemsAfter(
+                itemId,
+                search,
+                category,
+                rarity,
+                marketplace,
+                after,
+                size
+        ));
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<ItemDto> getItem(@PathVariable String itemId) {
         return itemReadService.findItemById(itemId)
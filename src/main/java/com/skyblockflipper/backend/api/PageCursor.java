@@ -0,0 +1,126 @@
+package com.skyblockflipper.backend.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keyset position of the last row a client has seen: the data version the listing was read from, the
+ * ordering it was read in, the row's sort key ({@code null} when the row has no value for it) and its id
+ * as tiebreaker. Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+public record PageCursor(
+        long version,
+        String sortField,
+        boolean descending,
+        String sortKey,
+        String id
+) {
+    private static final byte FORMAT = 2;
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeLong(version);
+            writeNullable(out, sortField);
+            out.writeBoolean(descending);
+            writeNullable(out, sortKey);
+            writeNullable(out, id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for a blank token, which asks for the first page
+     * @throws InvalidCursorException if the token was not produced by {@link #encode()}
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token.trim());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != FORMAT) {
+                throw new InvalidCursorException("Unsupported cursor format");
+            }
+            PageCursor cursor = new PageCursor(in.readLong(), readNullable(in), in.readBoolean(),
+                    readNullable(in), readNullable(in));
+            if (in.available() > 0) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return cursor;
+        } catch (IOException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+    }
+
+    /**
+     * @throws InvalidCursorException if the cursor was issued for another sort field or direction, whose
+     *                                sort keys cannot be compared against this listing's order
+     */
+    public void requireSort(String expectedSortField, boolean expectedDescending) {
+        if (!Objects.equals(sortField, expectedSortField) || descending != expectedDescending) {
+            throw new InvalidCursorException("Cursor was issued for a different sort order");
+        }
+    }
+
+    /**
+     * @return the sort key as a long, or {@code null} when the row had no value for it
+     * @throws InvalidCursorException if the key is not a long
+     */
+    public Long longSortKey() {
+        try {
+            return sortKey == null ? null : Long.parseLong(sortKey);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Malformed cursor sort key", e);
+        }
+    }
+
+    /**
+     * @return the sort key as a double, or {@code null} when the row had no value for it
+     * @throws InvalidCursorException if the key is not a number
+     */
+    public Double doubleSortKey() {
+        try {
+            return sortKey == null ? null : Double.parseDouble(sortKey);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Malformed cursor sort key", e);
+        }
+    }
+
+    /**
+     * @throws InvalidCursorException if the id is missing or not a UUID
+     */
+    public UUID uuidId() {
+        try {
+            return UUID.fromString(Objects.requireNonNull(id, "id"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidCursorException("Malformed cursor id", e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -31,6 +31,14 @@ public class SnapshotController {
         return marketSnapshotReadService.listSnapshots(pageable);
     }
 
+    @GetMapping(params = "cursor")
+    public CursorPageDto<MarketSnapshotDto> listSnapshotsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size
+    ) {
+        return CursorRequests.page(cursor, after -> marketSnapshotReadService.listSnapshotsAfter(after, size));
+    }
+
     @GetMapping("/{snapshotEpochMillis}/flips")
     public Page<UnifiedFlipDto> listFlipsForSnapshot(
             @PathVariable long snapshotEpochMillis,
@@ -39,4 +47,19 @@ public class SnapshotController {
     ) {
         return flipReadService.listFlips(flipType, Instant.ofEpochMilli(snapshotEpochMillis), pageable);
     }
+
+    @GetMapping(value = "/{snapshotEpochMillis}/flips", params = "cursor")
+    public CursorPageDto<UnifiedFlipDto> listFlipsForSnapshotByCursor(
+            @PathVariable long snapshotEpochMillis,
+            @RequestParam(required = false) FlipType flipType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return CursorRequests.page(cursor, after -> flipReadService.listFlipsAfter(
+                flipType,
+                Instant.ofEpochMilli(snapshotEpochMillis),
+                after,
+                size
+        ));
+    }
 }
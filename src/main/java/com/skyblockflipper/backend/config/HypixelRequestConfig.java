@@ -0,0 +1,33 @@
+package com.skyblockflipper.backend.config;
+
+import com.skyblockflipper.backend.config.properties.AdaptivePollingProperties;
+import com.skyblockflipper.backend.hypixel.HypixelConditionalClient;
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class HypixelRequestConfig {
+
+    @Bean
+    public GlobalRequestLimiter globalRequestLimiter(AdaptivePollingProperties adaptivePollingProperties) {
+        return new GlobalRequestLimiter(
+                adaptivePollingProperties.getGlobalMaxRequestsPerSecond(),
+                adaptivePollingProperties.getGlobalBurstCapacity(),
+                adaptivePollingProperties.getGlobalPriorityReserve()
+        );
+    }
+
+    /**
+     * Client for the small resource endpoints. The pollers keep their own clients because they carry
+     * per-endpoint timeouts and page fetchers.
+     */
+    @Bean
+    public HypixelConditionalClient hypixelConditionalClient(@Value("${config.hypixel.api-url}") String apiUrl,
+                                                             @Value("${config.hypixel.api-key:}") String apiKey) {
+        return new HypixelConditionalClient(apiUrl, apiKey, Duration.ofSeconds(2), Duration.ofSeconds(8));
+    }
+}
@@ -4,7 +4,9 @@ import com.skyblockflipper.backend.NEU.NEUClient;
 import com.skyblockflipper.backend.NEU.NEUItemMapper;
 import com.skyblockflipper.backend.NEU.repository.ItemRepository;
 import com.skyblockflipper.backend.service.flipping.FlipGenerationService;
+import com.skyblockflipper.backend.service.flipping.FlipRetentionService;
 import com.skyblockflipper.backend.service.market.MarketDataProcessingService;
+import com.skyblockflipper.backend.service.market.TimePartitionMaintenanceService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,18 +26,24 @@ public class SourceJobs {
     private final ItemRepository itemRepository;
     private final MarketDataProcessingService marketDataProcessingService;
     private final FlipGenerationService flipGenerationService;
+    private final TimePartitionMaintenanceService timePartitionMaintenanceService;
+    private final FlipRetentionService flipRetentionService;
 
     @Autowired
     public SourceJobs(NEUClient neuClient,
                       NEUItemMapper neuItemMapper,
                       ItemRepository itemRepository,
                       MarketDataProcessingService marketDataProcessingService,
-                      FlipGenerationService flipGenerationService){
+                      FlipGenerationService flipGenerationService,
+                      TimePartitionMaintenanceService timePartitionMaintenanceService,
+                      FlipRetentionService flipRetentionService){
         this.neuClient = neuClient;
         this.neuItemMapper = neuItemMapper;
         this.itemRepository = itemRepository;
         this.marketDataProcessingService = marketDataProcessingService;
         this.flipGenerationService = flipGenerationService;
+        this.timePartitionMaintenanceService = timePartitionMaintenanceService;
+        this.flipRetentionService = flipRetentionService;
     }
 
     @Scheduled(fixedDelayString = "30000")
@@ -55,6 +63,57 @@ public class SourceJobs {
         }
     }
 
+    @Scheduled(fixedDelayString = "PT10M", initialDelayString = "PT2M")
+    public void purgeFlips() {
+        try {
+            var result = flipRetentionService.purgeNonKeeperSnapshots();
+            if (result.deletedRows() > 0) {
+                log.info(
+                        "Purged flips of compacted snapshots: snapshots={}, memberships={}, templates={}, steps={}, constraints={}, estimatedBytes={}",
+                        result.purgedSnapshots(),
+                        result.deletedMemberships(),
+                        result.deletedTemplates(),
+                        result.deletedSteps(),
+                        result.deletedConstraints(),
+                        result.estimatedBytesReclaimed()
+                );
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge flips: {}", ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT5M")
+    public void purgeBazaarQuotes() {
+        try {
+            int deleted = marketDataProcessingService.purgeExpiredBazaarQuotes();
+            if (deleted > 0) {
+                log.info("Purged expired bazaar quotes: deleted={}", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to purge bazaar quotes: {}", ExceptionUtils.getStackTrace(e));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1M")
+    public void maintainPartitions() {
+        try {
+            int created = timePartitionMaintenanceService.ensureUpcomingPartitions();
+            var result = timePartitionMaintenanceService.dropExpiredDays();
+            if (created > 0 || result.droppedPartitions() > 0 || result.deletedRows() > 0) {
+                log.info(
+                        "Maintained day partitions: created={}, dropped={}, deletedRows={}, cutoffEpochMillis={}",
+                        created,
+                        result.droppedPartitions(),
+                        result.deletedRows(),
+                        result.cutoffEpochMillis()
+                );
+            }
+        } catch (Exception e) {
+            log.warn("Failed to maintain day partitions: {}", ExceptionUtils.getStackTrace(e));
+        }
+    }
+
     @Scheduled(cron = "0 0 23 * * *", zone = "UTC")
     public void copyRepoDaily() {
         try {
@@ -1,5 +1,6 @@
 package com.skyblockflipper.backend.config.properties;
 
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
 import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
@@ -23,6 +24,15 @@ public class AdaptivePollingProperties {
     @DecimalMin("0.1")
     private double globalMaxRequestsPerSecond = 3.0d;
 
+    @Min(1)
+    private int globalBurstCapacity = 4;
+
+    @Min(0)
+    private int globalPriorityReserve = 1;
+
+    @Min(1)
+    private int auctionPageConcurrency = 8;
+
     @Valid
     @NotNull
     private Endpoint auctions = Endpoint.defaults("auctions", "/skyblock/auctions", Duration.ofSeconds(20));
@@ -66,6 +76,10 @@ public class AdaptivePollingProperties {
         @Min(1)
         private int queueCapacity = 1;
         private boolean coalesceEnabled = true;
+        @Min(1)
+        private int stageQueueCapacity = 2;
+        @NotNull
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
     }
 
     @Getter
@@ -109,6 +123,8 @@ public class AdaptivePollingProperties {
         private double maxPeriodMultiplier = 1.8d;
         @Min(0)
         private int transientRetries = 2;
+        @NotNull
+        private GlobalRequestLimiter.Priority priority = GlobalRequestLimiter.Priority.HIGH;
 
         public static Endpoint defaults(String name, String path, Duration periodHint) {
             Endpoint endpoint = new Endpoint();
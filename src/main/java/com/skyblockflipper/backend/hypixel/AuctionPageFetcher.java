@@ -0,0 +1,234 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.hypixel.model.Auction;
+import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
+import com.skyblockflipper.backend.instrumentation.CycleContextHolder;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Fetches the remaining auction pages after page 0 on virtual threads with bounded concurrency.
+ * Every request takes a low-priority token from the shared {@link GlobalRequestLimiter}, and pages
+ * are merged in page order regardless of completion order.
+ */
+@Slf4j
+public class AuctionPageFetcher {
+
+    private final String endpoint;
+    private final int maxConcurrency;
+    private final GlobalRequestLimiter requestLimiter;
+    private final MeterRegistry meterRegistry;
+
+    public AuctionPageFetcher(String endpoint,
+                              int maxConcurrency,
+                              GlobalRequestLimiter requestLimiter,
+                              MeterRegistry meterRegistry) {
+        this.endpoint = endpoint == null ? "auctions" : endpoint;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.requestLimiter = requestLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static AuctionPageFetcher sequential(String endpoint) {
+        return new AuctionPageFetcher(endpoint, 1, null, null);
+    }
+
+    public HypixelHttpResult<AuctionResponse> fetchAll(AuctionResponse firstPage,
+                                                       IntFunction<HypixelHttpResult<AuctionResponse>> pageLoader) {
+        if (firstPage == null || !firstPage.isSuccess()) {
+            return HypixelHttpResult.error(500, HttpHeaders.EMPTY, "Invalid first auctions page");
+        }
+        List<Auction> allAuctions = new ArrayList<>(Math.max(16, firstPage.getTotalAuctions()));
+        if (firstPage.getAuctions() != null) {
+            allAuctions.addAll(firstPage.getAuctions());
+        }
+        HypixelHttpResult<Void> pages = fetchRemaining(
+                firstPage.getTotalPages(),
+                pageLoader,
+                AuctionResponse::isSuccess,
+                page -> {
+                    if (page.getAuctions() != null) {
+                        allAuctions.addAll(page.getAuctions());
+                    }
+                }
+        );
+        if (!pages.isSuccessful()) {
+            return HypixelHttpResult.error(pages.statusCode(), pages.headers(), pages.errorMessage());
+        }
+        AuctionResponse merged = new AuctionResponse(
+                true,
+                0,
+                firstPage.getTotalPages(),
+                firstPage.getTotalAuctions(),
+                firstPage.getLastUpdated(),
+                allAuctions
+        );
+        return HypixelHttpResult.success(200, HttpHeaders.EMPTY, merged);
+    }
+
+    public HypixelHttpResult<AuctionRecordPage> fetchAllRecords(AuctionRecordPage firstPage,
+                                                                IntFunction<HypixelHttpResult<AuctionRecordPage>> pageLoader) {
+        if (firstPage == null || !firstPage.success()) {
+            return HypixelHttpResult.error(500, HttpHeaders.EMPTY, "Invalid first auctions page");
+        }
+        List<AuctionMarketRecord> allAuctions = new ArrayList<>(Math.max(16, firstPage.totalAuctions()));
+        allAuctions.addAll(firstPage.auctions());
+        HypixelHttpResult<Void> pages = fetchRemaining(
+                firstPage.totalPages(),
+                pageLoader,
+                AuctionRecordPage::success,
+                page -> allAuctions.addAll(page.auctions())
+        );
+        if (!pages.isSuccessful()) {
+            return HypixelHttpResult.error(pages.statusCode(), pages.headers(), pages.errorMessage());
+        }
+        AuctionRecordPage merged = new AuctionRecordPage(
+                true,
+                0,
+                firstPage.totalPages(),
+                firstPage.totalAuctions(),
+                firstPage.lastUpdated(),
+                allAuctions
+        );
+        return HypixelHttpResult.success(200, HttpHeaders.EMPTY, merged);
+    }
+
+    private <P> HypixelHttpResult<Void> fetchRemaining(int totalPages,
+                                                       IntFunction<HypixelHttpResult<P>> pageLoader,
+                                                       Predicate<P> pageSuccess,
+                                                       Consumer<P> pageConsumer) {
+        long start = System.nanoTime();
+        int pageCount = Math.max(1, totalPages);
+        AtomicReferenceArray<HypixelHttpResult<P>> results = new AtomicReferenceArray<>(pageCount);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Semaphore permits = new Semaphore(maxConcurrency);
+
+        if (pageCount > 1) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int page = 1; page < pageCount; page++) {
+                    int pageIndex = page;
+                    executor.submit(CycleContextHolder.propagate(
+                            () -> fetchPage(pageIndex, pageLoader, pageSuccess, permits, failed, results)));
+                }
+            }
+        }
+
+        for (int page = 1; page < pageCount; page++) {
+            HypixelHttpResult<P> pageResult = results.get(page);
+            if (pageResult == null) {
+                continue;
+            }
+            if (!isUsable(pageResult, pageSuccess)) {
+                recordFetch(start, false);
+                return HypixelHttpResult.error(
+                        pageResult.statusCode() == 0 ? 500 : pageResult.statusCode(),
+                        pageResult.headers(),
+                        "Failed to fetch auctions page " + page
+                );
+            }
+            pageConsumer.accept(pageResult.body());
+        }
+        recordFetch(start, true);
+        return HypixelHttpResult.success(200, HttpHeaders.EMPTY, null);
+    }
+
+    private <P> void fetchPage(int page,
+                               IntFunction<HypixelHttpResult<P>> pageLoader,
+                               Predicate<P> pageSuccess,
+                               Semaphore permits,
+                               AtomicBoolean failed,
+                               AtomicReferenceArray<HypixelHttpResult<P>> results) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.set(true);
+            results.set(page, HypixelHttpResult.transportError("Interrupted before fetching auctions page " + page));
+            return;
+        }
+        try {
+            if (failed.get()) {
+                return;
+            }
+            awaitRequestSlot();
+            long pageStart = System.nanoTime();
+            HypixelHttpResult<P> result;
+            try {
+                result = pageLoader.apply(page);
+            } catch (RuntimeException e) {
+                log.debug("Auctions page {} failed for {}: {}", page, endpoint, e.getMessage());
+                result = HypixelHttpResult.transportError(e.getMessage());
+            }
+            if (result == null) {
+                result = HypixelHttpResult.error(500, HttpHeaders.EMPTY, "Empty auctions page " + page);
+            }
+            if (requestLimiter != null) {
+                requestLimiter.observe(result.headers());
+            }
+            boolean usable = isUsable(result, pageSuccess);
+            recordPage(pageStart, usable);
+            if (!usable) {
+                failed.set(true);
+            }
+            results.set(page, result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.set(true);
+            results.set(page, HypixelHttpResult.transportError("Interrupted while fetching auctions page " + page));
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Waits for a low-priority token. Page loaders call it for every request beyond the one this fetcher
+     * already took a token for.
+     */
+    void awaitRequestSlot() throws InterruptedException {
+        if (requestLimiter == null) {
+            return;
+        }
+        long delayMillis;
+        while ((delayMillis = requestLimiter.tryAcquire(GlobalRequestLimiter.Priority.LOW)) > 0L) {
+            Thread.sleep(delayMillis);
+        }
+    }
+
+    private <P> boolean isUsable(HypixelHttpResult<P> result, Predicate<P> pageSuccess) {
+        return result.isSuccessful() && result.body() != null && pageSuccess.test(result.body());
+    }
+
+    private void recordPage(long startNanos, boolean success) {
+        if (meterRegistry == null) {
+            return;
+        }
+        meterRegistry.summary("skyblock.hypixel.auction_page_latency_ms",
+                        "endpoint", endpoint,
+                        "success", Boolean.toString(success))
+                .record((System.nanoTime() - startNanos) / 1_000_000d);
+    }
+
+    private void recordFetch(long startNanos, boolean success) {
+        if (meterRegistry == null) {
+            return;
+        }
+        meterRegistry.summary("skyblock.hypixel.auction_pages_fetch_ms",
+                        "endpoint", endpoint,
+                        "success", Boolean.toString(success))
+                .record((System.nanoTime() - startNanos) / 1_000_000d);
+    }
+}
@@ -0,0 +1,127 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token-streaming decoder for /skyblock/auctions pages. Only the fields kept in
+ * {@link AuctionMarketRecord} are materialized; bids, coop members and profile ids are skipped.
+ */
+public class AuctionPageStreamDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    public AuctionPageStreamDecoder() {
+        this(new ObjectMapper());
+    }
+
+    public AuctionPageStreamDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public AuctionRecordPage decode(byte[] body) {
+        return decode(body, true);
+    }
+
+    /**
+     * Reads only the page header fields. The auctions array is skipped without decoding its records, and
+     * parsing continues, so header fields after the array are still read.
+     */
+    public AuctionRecordPage decodeMetadata(byte[] body) {
+        return decode(body, false);
+    }
+
+    private AuctionRecordPage decode(byte[] body, boolean includeAuctions) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            boolean success = false;
+            int page = 0;
+            int totalPages = 0;
+            int totalAuctions = 0;
+            long lastUpdated = 0L;
+            List<AuctionMarketRecord> auctions = List.of();
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!includeAuctions && "auctions".equals(name)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (name) {
+                    case "success" -> success = parser.getValueAsBoolean(false);
+                    case "page" -> page = parser.getValueAsInt(0);
+                    case "totalPages" -> totalPages = parser.getValueAsInt(0);
+                    case "totalAuctions" -> totalAuctions = parser.getValueAsInt(0);
+                    case "lastUpdated" -> lastUpdated = parser.getValueAsLong(0L);
+                    case "auctions" -> auctions = value == JsonToken.START_ARRAY
+                            ? readAuctions(parser, totalAuctions, totalPages)
+                            : skip(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new AuctionRecordPage(success, page, totalPages, totalAuctions, lastUpdated, auctions);
+        }
+    }
+
+    private List<AuctionMarketRecord> readAuctions(JsonParser parser, int totalAuctions, int totalPages) {
+        int expected = totalAuctions > 0 && totalPages > 0 ? Math.min(1_000, totalAuctions / totalPages + 1) : 1_000;
+        List<AuctionMarketRecord> auctions = new ArrayList<>(expected);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token == JsonToken.START_OBJECT) {
+                auctions.add(readAuction(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return auctions;
+    }
+
+    private AuctionMarketRecord readAuction(JsonParser parser) {
+        String uuid = null;
+        String itemName = null;
+        String category = null;
+        String tier = null;
+        long startingBid = 0L;
+        long highestBidAmount = 0L;
+        long start = 0L;
+        long end = 0L;
+        boolean claimed = false;
+        String itemLore = null;
+        String extra = null;
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "uuid" -> uuid = parser.getValueAsString();
+                case "item_name" -> itemName = parser.getValueAsString();
+                case "category" -> category = parser.getValueAsString();
+                case "tier" -> tier = parser.getValueAsString();
+                case "starting_bid" -> startingBid = parser.getValueAsLong(0L);
+                case "highest_bid_amount" -> highestBidAmount = parser.getValueAsLong(0L);
+                case "start" -> start = parser.getValueAsLong(0L);
+                case "end" -> end = parser.getValueAsLong(0L);
+                case "claimed" -> claimed = parser.getValueAsBoolean(false);
+                case "item_lore" -> itemLore = parser.getValueAsString();
+                case "extra" -> extra = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new AuctionMarketRecord(uuid, itemName, category, tier, startingBid, highestBidAmount, start, end, claimed, itemLore, extra);
+    }
+
+    private List<AuctionMarketRecord> skip(JsonParser parser) {
+        parser.skipChildren();
+        return List.of();
+    }
+}
@@ -0,0 +1,18 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+
+import java.util.List;
+
+public record AuctionRecordPage(
+        boolean success,
+        int page,
+        int totalPages,
+        int totalAuctions,
+        long lastUpdated,
+        List<AuctionMarketRecord> auctions
+) {
+    public AuctionRecordPage {
+        auctions = auctions == null ? List.of() : auctions;
+    }
+}
@@ -4,9 +4,12 @@ import com.skyblockflipper.backend.hypixel.model.Auction;
 import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
 import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
 import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
@@ -15,7 +18,6 @@ import org.springframework.web.client.RestClient;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.JsonNode;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
@@ -27,21 +29,35 @@ public class HypixelClient {
     private final RestClient restClient;
     private final String apiKey;
     private final BlockingTimeTracker blockingTimeTracker;
+    private final AuctionPageFetcher auctionPageFetcher;
 
 
     public HypixelClient(String apiUrl, String apiKey) {
-        this(apiUrl, apiKey, new BlockingTimeTracker(new com.skyblockflipper.backend.instrumentation.InstrumentationProperties()));
+        this(apiUrl, apiKey, new BlockingTimeTracker(new com.skyblockflipper.backend.instrumentation.InstrumentationProperties()),
+                AuctionPageFetcher.sequential("auctions"));
     }
 
     @Autowired
     public HypixelClient(
             @Value("${config.hypixel.api-url}") String apiUrl,
             @Value("${config.hypixel.api-key:}") String apiKey,
-            BlockingTimeTracker blockingTimeTracker
+            BlockingTimeTracker blockingTimeTracker,
+            GlobalRequestLimiter globalRequestLimiter,
+            MeterRegistry meterRegistry,
+            @Value("${config.hypixel.adaptive.auction-page-concurrency:8}") int auctionPageConcurrency
     ) {
+        this(apiUrl, apiKey, blockingTimeTracker,
+                new AuctionPageFetcher("auctions", auctionPageConcurrency, globalRequestLimiter, meterRegistry));
+    }
+
+    private HypixelClient(String apiUrl,
+                          String apiKey,
+                          BlockingTimeTracker blockingTimeTracker,
+                          AuctionPageFetcher auctionPageFetcher) {
         this.restClient = RestClient.builder().baseUrl(apiUrl).build();
         this.apiKey = apiKey;
         this.blockingTimeTracker = blockingTimeTracker;
+        this.auctionPageFetcher = auctionPageFetcher;
     }
 
     public AuctionResponse fetchAuctionPage(int page) {
@@ -65,27 +81,16 @@ public class HypixelClient {
             throw new IllegalStateException("Failed to fetch auctions page 0 from Hypixel API.");
         }
 
-        List<Auction> allAuctions = new ArrayList<>();
-        if (firstPage.getAuctions() != null) {
-            allAuctions.addAll(firstPage.getAuctions());
-        }
-        for (int page = 1; page < firstPage.getTotalPages(); page++) {
+        HypixelHttpResult<AuctionResponse> merged = auctionPageFetcher.fetchAll(firstPage, page -> {
             AuctionResponse nextPage = fetchAuctionPage(page);
-            if (nextPage == null) {
-                throw new IllegalStateException("Failed to fetch auctions page " + page + " from Hypixel API.");
-            }
-            if (nextPage.getAuctions() != null) {
-                allAuctions.addAll(nextPage.getAuctions());
-            }
+            return nextPage == null
+                    ? HypixelHttpResult.error(500, HttpHeaders.EMPTY, "Empty auctions page " + page)
+                    : HypixelHttpResult.success(200, HttpHeaders.EMPTY, nextPage);
+        });
+        if (!merged.isSuccessful() || merged.body() == null) {
+            throw new IllegalStateException(merged.errorMessage() + " from Hypixel API.");
         }
-        return new AuctionResponse(
-                true,
-                0,
-                firstPage.getTotalPages(),
-                firstPage.getTotalAuctions(),
-                firstPage.getLastUpdated(),
-                allAuctions
-        );
+        return merged.body();
     }
 
     public BazaarResponse fetchBazaar() {
@@ -1,7 +1,5 @@
 package com.skyblockflipper.backend.hypixel;
 
-import com.skyblockflipper.backend.hypixel.model.Auction;
-import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
 import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
@@ -12,19 +10,37 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestClientResponseException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
 
 import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class HypixelConditionalClient {
 
+    private static final byte[] AUCTIONS_KEY = "auctions".getBytes(StandardCharsets.UTF_8);
+
     private final RestClient restClient;
     private final String apiKey;
+    private final AuctionPageFetcher auctionPageFetcher;
+    private final AuctionPageStreamDecoder auctionPageDecoder = new AuctionPageStreamDecoder();
+    private final Map<Integer, CachedAuctionPage> auctionPageCache = new ConcurrentHashMap<>();
 
     public HypixelConditionalClient(String apiUrl, String apiKey, Duration connectTimeout, Duration requestTimeout) {
+        this(apiUrl, apiKey, connectTimeout, requestTimeout, AuctionPageFetcher.sequential("auctions"));
+    }
+
+    public HypixelConditionalClient(String apiUrl,
+                                    String apiKey,
+                                    Duration connectTimeout,
+                                    Duration requestTimeout,
+                                    AuctionPageFetcher auctionPageFetcher) {
         HttpClient httpClient = HttpClient.newBuilder()
                 .connectTimeout(sanitize(connectTimeout, Duration.ofSeconds(2)))
                 .build();
@@ -35,48 +51,177 @@ public class HypixelConditionalClient {
                 .requestFactory(requestFactory)
                 .build();
         this.apiKey = apiKey == null ? "" : apiKey;
+        this.auctionPageFetcher = auctionPageFetcher == null ? AuctionPageFetcher.sequential("auctions") : auctionPageFetcher;
     }
 
-    public HypixelHttpResult<AuctionResponse> fetchAuctionPage(String path, int page, String ifNoneMatch, String ifModifiedSince) {
-        return request(path + "?page=" + page, ifNoneMatch, ifModifiedSince, new ParameterizedTypeReference<>() {});
+    public HypixelHttpResult<AuctionRecordPage> fetchAuctionPage(String path, int page, String ifNoneMatch, String ifModifiedSince) {
+        String uri = path + "?page=" + page;
+        HypixelHttpResult<byte[]> raw = request(uri, ifNoneMatch, ifModifiedSince, new ParameterizedTypeReference<>() {});
+        if (!raw.isSuccessful() || raw.body() == null) {
+            return new HypixelHttpResult<>(raw.statusCode(), raw.headers(), null, raw.transportError(), raw.errorMessage());
+        }
+        try {
+            return HypixelHttpResult.success(raw.statusCode(), raw.headers(), auctionPageDecoder.decode(raw.body()));
+        } catch (JacksonException e) {
+            log.debug("Hypixel auctions page {} could not be decoded: {}", uri, e.getMessage());
+            return HypixelHttpResult.transportError(e.getMessage());
+        }
     }
 
     public HypixelHttpResult<BazaarResponse> fetchBazaar(String path, String ifNoneMatch, String ifModifiedSince) {
         return request(path, ifNoneMatch, ifModifiedSince, new ParameterizedTypeReference<>() {});
     }
 
-    public HypixelHttpResult<AuctionResponse> fetchAllAuctionPages(String auctionsPath, AuctionResponse firstPage) {
-        if (firstPage == null || !firstPage.isSuccess()) {
-            return HypixelHttpResult.error(500, HttpHeaders.EMPTY, "Invalid first auctions page");
-        }
-        List<Auction> allAuctions = new ArrayList<>();
-        if (firstPage.getAuctions() != null) {
-            allAuctions.addAll(firstPage.getAuctions());
+    public HypixelHttpResult<JsonNode> fetchElection(String path, String ifNoneMatch, String ifModifiedSince) {
+        return request(path, ifNoneMatch, ifModifiedSince, new ParameterizedTypeReference<>() {});
+    }
+
+    public HypixelHttpResult<AuctionRecordPage> fetchAllAuctionPages(String auctionsPath, AuctionRecordPage firstPage) {
+        HypixelHttpResult<AuctionRecordPage> result = auctionPageFetcher.fetchAllRecords(
+                firstPage,
+                page -> fetchCachedAuctionPage(auctionsPath, page)
+        );
+        if (result.isSuccessful() && firstPage != null) {
+            auctionPageCache.keySet().removeIf(page -> page >= firstPage.totalPages());
         }
+        return result;
+    }
 
-        for (int page = 1; page < firstPage.getTotalPages(); page++) {
-            HypixelHttpResult<AuctionResponse> nextPageResult = fetchAuctionPage(auctionsPath, page, null, null);
-            if (!nextPageResult.isSuccessful() || nextPageResult.body() == null || !nextPageResult.body().isSuccess()) {
-                return HypixelHttpResult.error(
-                        nextPageResult.statusCode() == 0 ? 500 : nextPageResult.statusCode(),
-                        nextPageResult.headers(),
-                        "Failed to fetch auctions page " + page
+    private HypixelHttpResult<AuctionRecordPage> fetchCachedAuctionPage(String path, int page) {
+        String uri = path + "?page=" + page;
+        CachedAuctionPage cached = auctionPageCache.get(page);
+        HypixelHttpResult<byte[]> raw = request(
+                uri,
+                cached == null ? null : cached.etag(),
+                cached == null ? null : cached.lastModified(),
+                new ParameterizedTypeReference<>() {}
+        );
+        if (raw.statusCode() == 304) {
+            if (cached != null) {
+                return HypixelHttpResult.success(200, raw.headers(), cached.page());
+            }
+            // Nothing to reuse (restart or eviction): drop the validators and ask for the full page, which
+            // is a second request and needs its own limiter token.
+            auctionPageCache.remove(page);
+            try {
+                auctionPageFetcher.awaitRequestSlot();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return HypixelHttpResult.transportError("Interrupted before refetching auctions page " + page);
+            }
+            raw = request(uri, null, null, new ParameterizedTypeReference<>() {});
+        }
+        if (!raw.isSuccessful() || raw.body() == null) {
+            return new HypixelHttpResult<>(raw.statusCode(), raw.headers(), null, raw.transportError(), raw.errorMessage());
+        }
+        try {
+            byte[] fingerprint = fingerprint(raw.body());
+            AuctionRecordPage decoded;
+            if (cached != null && fingerprint != null && cached.fingerprint() != null
+                    && MessageDigest.isEqual(cached.fingerprint(), fingerprint)) {
+                AuctionRecordPage header = auctionPageDecoder.decodeMetadata(raw.body());
+                decoded = header == null ? null : new AuctionRecordPage(
+                        header.success(),
+                        header.page(),
+                        header.totalPages(),
+                        header.totalAuctions(),
+                        header.lastUpdated(),
+                        cached.page().auctions()
                 );
+            } else {
+                decoded = auctionPageDecoder.decode(raw.body());
             }
-            if (nextPageResult.body().getAuctions() != null) {
-                allAuctions.addAll(nextPageResult.body().getAuctions());
+            if (decoded != null && decoded.success()) {
+                auctionPageCache.put(page, new CachedAuctionPage(
+                        raw.headers().getETag(),
+                        raw.headers().getFirst(HttpHeaders.LAST_MODIFIED),
+                        fingerprint,
+                        decoded
+                ));
             }
+            return HypixelHttpResult.success(raw.statusCode(), raw.headers(), decoded);
+        } catch (JacksonException e) {
+            log.debug("Hypixel auctions page {} could not be decoded: {}", uri, e.getMessage());
+            return HypixelHttpResult.transportError(e.getMessage());
         }
+    }
 
-        AuctionResponse merged = new AuctionResponse(
-                true,
-                0,
-                firstPage.getTotalPages(),
-                firstPage.getTotalAuctions(),
-                firstPage.getLastUpdated(),
-                allAuctions
-        );
-        return HypixelHttpResult.success(200, HttpHeaders.EMPTY, merged);
+    /**
+     * Digest of the top-level auctions array only, since the page header carries lastUpdated.
+     *
+     * @return {@code null} when the body has no top-level auctions array, so the page is always decoded
+     */
+    private byte[] fingerprint(byte[] body) {
+        long range = auctionsArrayRange(body);
+        if (range < 0) {
+            return null;
+        }
+        int start = (int) (range >>> 32);
+        int end = (int) range;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(body, start, end - start);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Scans the JSON structure (strings and nesting, not values) for the array under the top-level
+     * {@code "auctions"} key, wherever it sits in the object.
+     *
+     * @return start (inclusive) in the high and end (exclusive) in the low 32 bits, or -1 if absent
+     */
+    static long auctionsArrayRange(byte[] body) {
+        int depth = 0;
+        int stringStart = -1;
+        boolean auctionsKey = false;
+        int arrayStart = -1;
+        for (int i = 0; i < body.length; i++) {
+            byte b = body[i];
+            if (stringStart >= 0) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    auctionsKey = depth == 1 && arrayStart < 0 && regionEquals(body, stringStart + 1, i, AUCTIONS_KEY);
+                    stringStart = -1;
+                }
+                continue;
+            }
+            switch (b) {
+                case '"' -> stringStart = i;
+                case '{', '[' -> {
+                    if (b == '[' && depth == 1 && auctionsKey) {
+                        arrayStart = i;
+                    }
+                    auctionsKey = false;
+                    depth++;
+                }
+                case '}', ']' -> {
+                    depth--;
+                    if (arrayStart >= 0 && depth == 1) {
+                        return ((long) arrayStart << 32) | (i + 1);
+                    }
+                }
+                case ',' -> auctionsKey = false;
+                default -> {
+                }
+            }
+        }
+        return -1L;
+    }
+
+    private static boolean regionEquals(byte[] body, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int j = 0; j < expected.length; j++) {
+            if (body[from + j] != expected[j]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private <T> HypixelHttpResult<T> request(String uri,
@@ -106,6 +251,9 @@ public class HypixelConditionalClient {
         }
     }
 
+    private record CachedAuctionPage(String etag, String lastModified, byte[] fingerprint, AuctionRecordPage page) {
+    }
+
     private Duration sanitize(Duration configured, Duration fallback) {
         if (configured == null || configured.isNegative() || configured.isZero()) {
             return fallback;
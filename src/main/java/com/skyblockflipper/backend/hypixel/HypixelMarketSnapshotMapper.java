@@ -11,36 +11,70 @@ import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Component
 public class HypixelMarketSnapshotMapper {
 
     public MarketSnapshot map(AuctionResponse auctionResponse, BazaarResponse bazaarResponse) {
-        Instant snapshotTimestamp = resolveSnapshotTimestamp(auctionResponse, bazaarResponse);
-        List<AuctionMarketRecord> auctions = mapAuctions(auctionResponse);
-        Map<String, BazaarMarketRecord> bazaarProducts = mapBazaarProducts(bazaarResponse);
+        return map(toRecordPage(auctionResponse), bazaarResponse);
+    }
+
+    public MarketSnapshot map(AuctionRecordPage auctionPage, BazaarResponse bazaarResponse) {
+        return merge(auctionPage, mapAuctions(auctionPage), bazaarResponse, mapBazaarProducts(bazaarResponse));
+    }
+
+    /**
+     * Combines sides that were normalized earlier; the lists and maps are used as-is, so callers can
+     * reuse an unchanged side across snapshots.
+     */
+    public MarketSnapshot merge(AuctionRecordPage auctionPage,
+                                List<AuctionMarketRecord> auctions,
+                                BazaarResponse bazaarResponse,
+                                Map<String, BazaarMarketRecord> bazaarProducts) {
+        Instant snapshotTimestamp = resolveSnapshotTimestamp(auctionPage, bazaarResponse);
         return new MarketSnapshot(snapshotTimestamp, auctions, bazaarProducts);
     }
 
-    private Instant resolveSnapshotTimestamp(AuctionResponse auctionResponse, BazaarResponse bazaarResponse) {
-        long auctionsUpdated = auctionResponse != null && auctionResponse.isSuccess() ? auctionResponse.getLastUpdated() : 0L;
+    public AuctionRecordPage toRecordPage(AuctionResponse auctionResponse) {
+        if (auctionResponse == null) {
+            return null;
+        }
+        List<AuctionMarketRecord> auctions = auctionResponse.getAuctions() == null
+                ? List.of()
+                : auctionResponse.getAuctions().stream()
+                .map(this::toAuctionRecord)
+                .filter(Objects::nonNull)
+                .toList();
+        return new AuctionRecordPage(
+                auctionResponse.isSuccess(),
+                auctionResponse.getPage(),
+                auctionResponse.getTotalPages(),
+                auctionResponse.getTotalAuctions(),
+                auctionResponse.getLastUpdated(),
+                auctions
+        );
+    }
+
+    private Instant resolveSnapshotTimestamp(AuctionRecordPage auctionPage, BazaarResponse bazaarResponse) {
+        long auctionsUpdated = auctionPage != null && auctionPage.success() ? auctionPage.lastUpdated() : 0L;
         long bazaarUpdated = bazaarResponse != null && bazaarResponse.isSuccess() ? bazaarResponse.getLastUpdated() : 0L;
         long latest = Math.max(auctionsUpdated, bazaarUpdated);
         return latest > 0 ? Instant.ofEpochMilli(latest) : Instant.now();
     }
 
-    private List<AuctionMarketRecord> mapAuctions(AuctionResponse auctionResponse) {
-        if (auctionResponse == null || !auctionResponse.isSuccess() || auctionResponse.getAuctions() == null) {
+    public List<AuctionMarketRecord> mapAuctions(AuctionRecordPage auctionPage) {
+        if (auctionPage == null || !auctionPage.success()) {
             return List.of();
         }
-        return auctionResponse.getAuctions().stream()
-                .map(this::toAuctionRecord)
+        return auctionPage.auctions().stream()
                 .filter(Objects::nonNull)
-                .toList();
+                .collect(Collectors.toUnmodifiableList());
     }
 
     private AuctionMarketRecord toAuctionRecord(Auction auction) {
@@ -62,7 +96,7 @@ public class HypixelMarketSnapshotMapper {
         );
     }
 
-    private Map<String, BazaarMarketRecord> mapBazaarProducts(BazaarResponse bazaarResponse) {
+    public Map<String, BazaarMarketRecord> mapBazaarProducts(BazaarResponse bazaarResponse) {
         if (bazaarResponse == null || !bazaarResponse.isSuccess() || bazaarResponse.getProducts() == null) {
             return Map.of();
         }
@@ -89,7 +123,7 @@ public class HypixelMarketSnapshotMapper {
                     quickStatus.getSellOrders()
             ));
         }
-        return records;
+        return Collections.unmodifiableMap(records);
     }
 
     private String firstNonBlank(String first, String second) {
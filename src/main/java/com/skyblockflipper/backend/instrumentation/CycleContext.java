@@ -4,17 +4,18 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Getter
 public class CycleContext {
     private final String cycleId;
     private final Instant startedAt;
     private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
-    private final List<BlockingTimeTracker.BlockingPoint> blockingPoints = new ArrayList<>();
+    // Appended from forked tasks too (see CycleContextHolder#propagate).
+    private final List<BlockingTimeTracker.BlockingPoint> blockingPoints = new CopyOnWriteArrayList<>();
     @Setter
     private long payloadBytes;
 
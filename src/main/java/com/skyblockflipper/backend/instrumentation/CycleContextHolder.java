@@ -25,4 +25,28 @@ public final class CycleContextHolder {
         CONTEXT.remove();
         MDC.remove(MDC_KEY);
     }
+
+    /**
+     * Binds the caller's cycle to {@code task} so blocking points it records on another thread land in
+     * the same cycle. Without a current cycle the task is returned unchanged.
+     */
+    public static Runnable propagate(Runnable task) {
+        CycleContext context = CONTEXT.get();
+        if (context == null) {
+            return task;
+        }
+        return () -> {
+            CycleContext previous = CONTEXT.get();
+            set(context);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    clear();
+                } else {
+                    set(previous);
+                }
+            }
+        };
+    }
 }
@@ -1,5 +1,6 @@
 package com.skyblockflipper.backend.instrumentation;
 
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +17,8 @@ import java.util.concurrent.atomic.AtomicLong;
 public class CycleInstrumentationService {
 
     private static final String METRIC_NAME = "skyblock.polling.phase";
+    private static final String STAGE_METRIC_NAME = "skyblock.pipeline.stage";
+    private static final String STAGE_LAG_METRIC_NAME = "skyblock.pipeline.stage_lag_ms";
 
     private final AtomicLong cycleCounter = new AtomicLong();
     private final MeterRegistry meterRegistry;
@@ -34,6 +37,18 @@ public class CycleInstrumentationService {
         return context;
     }
 
+    /**
+     * Binds a cycle started on another thread to the current one, so the stages of a pipeline can
+     * keep recording phases into the same cycle as it is handed from executor to executor.
+     */
+    public void attach(CycleContext context) {
+        CycleContextHolder.set(context);
+    }
+
+    public void detach() {
+        CycleContextHolder.clear();
+    }
+
     public long startPhase() {
         return System.nanoTime();
     }
@@ -55,6 +70,20 @@ public class CycleInstrumentationService {
                 .record(phaseMillis, TimeUnit.MILLISECONDS);
     }
 
+    public void recordStage(String endpoint, String stage, long lagMillis, long durationMillis, boolean success) {
+        Timer.builder(STAGE_METRIC_NAME)
+                .tag("endpoint", endpoint)
+                .tag("stage", stage)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .record(durationMillis, TimeUnit.MILLISECONDS);
+        DistributionSummary.builder(STAGE_LAG_METRIC_NAME)
+                .tag("endpoint", endpoint)
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(lagMillis);
+    }
+
     public void finishCycle(boolean success) {
         CycleContext context = CycleContextHolder.get();
         if (context == null) {
@@ -3,11 +3,13 @@ package com.skyblockflipper.backend.model.Flipping;
 import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
 import com.skyblockflipper.backend.model.Flipping.Enums.StepType;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -15,24 +17,41 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderColumn;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * A flip definition. Identical definitions are stored once as a template keyed by
+ * {@link #computeContentHash()}; snapshots reference templates through flip_snapshot_membership and
+ * readers receive per-snapshot copies from {@link #forSnapshot(long)}.
+ */
 @Getter
 @Entity
 @Table(
-        name = "flip",
-        indexes = @Index(name = "idx_flip_snapshot_ts_epoch_millis", columnList = "snapshot_timestamp_epoch_millis")
+        name = "flip_template",
+        indexes = @Index(name = "idx_flip_template_content_hash", columnList = "content_hash", unique = true)
 )
 public class Flip {
 
+    private static final char FIELD_SEPARATOR = '\u001f';
+    private static final char ENTRY_SEPARATOR = '\u001d';
+    private static final char PART_SEPARATOR = '\u001e';
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -51,12 +70,19 @@ public class Flip {
     private String resultItemId;
 
     @Setter
-    @Column(name = "snapshot_timestamp_epoch_millis")
+    @Transient
     private Long snapshotTimestampEpochMillis;
 
-    @ElementCollection
+    // Unordered bag: joining it together with the steps would repeat every constraint once per step, so
+    // it is read in one extra query for all templates of the result instead.
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(name = "flip_template_constraints", joinColumns = @JoinColumn(name = "flip_id"))
     private List<Constraint> constraints = new ArrayList<>();
 
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
     protected Flip() {
     }
 
@@ -74,10 +100,104 @@ public class Flip {
 
     public void setSteps(List<Step> steps) {
         this.steps = steps == null ? new ArrayList<>() : new ArrayList<>(steps);
+        contentHash = null;
     }
 
     public void setConstraints(List<Constraint> constraints) {
         this.constraints = constraints == null ? new ArrayList<>() : new ArrayList<>(constraints);
+        contentHash = null;
+    }
+
+    /**
+     * Returns a copy of this template bound to the given snapshot. Steps and constraints are shared
+     * with the template and must not be modified.
+     */
+    public Flip forSnapshot(long snapshotTimestampEpochMillis) {
+        Flip copy = new Flip();
+        copy.id = id;
+        copy.flipType = flipType;
+        copy.steps = steps;
+        copy.resultItemId = resultItemId;
+        copy.constraints = constraints;
+        copy.contentHash = contentHash;
+        copy.snapshotTimestampEpochMillis = snapshotTimestampEpochMillis;
+        return copy;
+    }
+
+    /**
+     * SHA-256 over the flip type, result item, ordered steps and constraints. Two flips with the same
+     * hash describe the same trade and share one template.
+     */
+    public String computeContentHash() {
+        StringBuilder canonical = new StringBuilder(256)
+                .append(flipType == null ? "" : flipType.name())
+                .append(PART_SEPARATOR)
+                .append(resultItemId == null ? "" : resultItemId)
+                .append(PART_SEPARATOR);
+        for (int i = 0; i < steps.size(); i++) {
+            if (i > 0) {
+                canonical.append(ENTRY_SEPARATOR);
+            }
+            Step step = steps.get(i);
+            appendFields(canonical, step.getType(), step.getDurationType(), step.getBaseDurationSeconds(),
+                    step.getDurationFactor(), step.getResource(), step.getResourceUnits(),
+                    step.getSchedulingPolicy(), step.getParamsJson());
+        }
+        canonical.append(PART_SEPARATOR);
+        List<String> renderedConstraints = new ArrayList<>(constraints.size());
+        for (Constraint constraint : constraints) {
+            StringBuilder rendered = new StringBuilder();
+            appendFields(rendered, constraint.getType(), constraint.getStringValue(), constraint.getIntValue(),
+                    constraint.getLongValue());
+            renderedConstraints.add(rendered.toString());
+        }
+        renderedConstraints.sort(null);
+        canonical.append(String.join(String.valueOf(ENTRY_SEPARATOR), renderedConstraints));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void appendFields(StringBuilder target, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                target.append(FIELD_SEPARATOR);
+            }
+            Object value = values[i];
+            if (value instanceof Enum<?> enumValue) {
+                target.append(enumValue.name());
+            } else if (value != null) {
+                target.append(value);
+            }
+        }
+    }
+
+    /**
+     * Assigns missing ids, applies the step checks JPA would run on persist and fixes the content hash,
+     * for writers that insert templates without going through the entity manager.
+     */
+    public void prepareForInsert() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+        for (Step step : steps) {
+            step.assignIdIfAbsent();
+            step.validate();
+        }
+        if (contentHash == null) {
+            contentHash = computeContentHash();
+        }
+    }
+
+    @PrePersist
+    private void assignContentHash() {
+        if (contentHash == null) {
+            contentHash = computeContentHash();
+        }
     }
 
     public Duration getTotalDuration() {
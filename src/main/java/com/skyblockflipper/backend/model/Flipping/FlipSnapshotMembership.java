@@ -0,0 +1,119 @@
+package com.skyblockflipper.backend.model.Flipping;
+
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Marks a flip template as part of a snapshot. One row per (snapshot, template); the table is
+ * range-partitioned by day on the snapshot timestamp. The metric columns hold the figures computed
+ * for the template at generation time so filters and sorts can run in SQL.
+ */
+@Getter
+@Entity
+@IdClass(FlipSnapshotMembership.Key.class)
+@Table(
+        name = "flip_snapshot_membership",
+        indexes = {
+                @Index(name = "idx_flip_snapshot_membership_template", columnList = "template_id, snapshot_timestamp_epoch_millis"),
+                @Index(name = "idx_flip_snapshot_membership_profit", columnList = "snapshot_timestamp_epoch_millis, expected_profit"),
+                @Index(name = "idx_flip_snapshot_membership_liquidity", columnList = "snapshot_timestamp_epoch_millis, liquidity_score"),
+                @Index(name = "idx_flip_snapshot_membership_risk", columnList = "snapshot_timestamp_epoch_millis, risk_score")
+        }
+)
+public class FlipSnapshotMembership {
+
+    @Id
+    @Column(name = "snapshot_timestamp_epoch_millis", nullable = false)
+    private long snapshotTimestampEpochMillis;
+
+    @Id
+    @Column(name = "template_id", nullable = false)
+    private UUID templateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "flip_type")
+    private FlipType flipType;
+
+    @Column(name = "metrics_computed", nullable = false)
+    private boolean metricsComputed;
+
+    @Column(name = "expected_profit")
+    private Long expectedProfit;
+
+    @Column(name = "roi")
+    private Double roi;
+
+    @Column(name = "roi_per_hour")
+    private Double roiPerHour;
+
+    @Column(name = "liquidity_score")
+    private Double liquidityScore;
+
+    @Column(name = "risk_score")
+    private Double riskScore;
+
+    @Column(name = "required_capital")
+    private Long requiredCapital;
+
+    @Column(name = "fees")
+    private Long fees;
+
+    @Column(name = "duration_seconds")
+    private Long durationSeconds;
+
+    @Column(name = "partial")
+    private Boolean partial;
+
+    protected FlipSnapshotMembership() {
+    }
+
+    public FlipSnapshotMembership(long snapshotTimestampEpochMillis, UUID templateId, FlipType flipType) {
+        this.snapshotTimestampEpochMillis = snapshotTimestampEpochMillis;
+        this.templateId = templateId;
+        this.flipType = flipType;
+    }
+
+    public static class Key implements Serializable {
+
+        private long snapshotTimestampEpochMillis;
+        private UUID templateId;
+
+        public Key() {
+        }
+
+        public Key(long snapshotTimestampEpochMillis, UUID templateId) {
+            this.snapshotTimestampEpochMillis = snapshotTimestampEpochMillis;
+            this.templateId = templateId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return snapshotTimestampEpochMillis == key.snapshotTimestampEpochMillis
+                    && Objects.equals(templateId, key.templateId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(snapshotTimestampEpochMillis, templateId);
+        }
+    }
+}
@@ -22,7 +22,7 @@ import java.util.UUID;
 
 @Getter
 @Entity
-@Table(name = "flip_step")
+@Table(name = "flip_template_step")
 public class Step {
 
     private static final long DEFAULT_MARKET_BASED_SECONDS = 30L;
@@ -112,9 +112,15 @@ public class Step {
                 StepResource.NONE, 0, SchedulingPolicy.NONE, null);
     }
 
+    void assignIdIfAbsent() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+    }
+
     @PrePersist
     @PreUpdate
-    private void validate() {
+    void validate() {
         if (type == null) {
             throw new IllegalStateException("Step type must be provided.");
         }
@@ -0,0 +1,79 @@
+package com.skyblockflipper.backend.model.market;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Entity
+@Table(
+        name = "bazaar_quote",
+        indexes = {
+                @Index(name = "idx_bazaar_quote_item_snapshot_ts", columnList = "item_id, snapshot_timestamp_epoch_millis"),
+                @Index(name = "idx_bazaar_quote_snapshot_ts", columnList = "snapshot_timestamp_epoch_millis")
+        }
+)
+public class BazaarQuoteEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "snapshot_timestamp_epoch_millis", nullable = false)
+    private long snapshotTimestampEpochMillis;
+
+    @Column(name = "item_id", nullable = false)
+    private String itemId;
+
+    @Column(name = "buy_price", nullable = false)
+    private double buyPrice;
+
+    @Column(name = "sell_price", nullable = false)
+    private double sellPrice;
+
+    @Column(name = "buy_volume", nullable = false)
+    private long buyVolume;
+
+    @Column(name = "sell_volume", nullable = false)
+    private long sellVolume;
+
+    @Column(name = "buy_moving_week", nullable = false)
+    private long buyMovingWeek;
+
+    @Column(name = "sell_moving_week", nullable = false)
+    private long sellMovingWeek;
+
+    @Column(name = "buy_orders", nullable = false)
+    private int buyOrders;
+
+    @Column(name = "sell_orders", nullable = false)
+    private int sellOrders;
+
+    protected BazaarQuoteEntity() {
+    }
+
+    public BazaarQuoteEntity(long snapshotTimestampEpochMillis, String itemId, BazaarMarketRecord record) {
+        this.snapshotTimestampEpochMillis = snapshotTimestampEpochMillis;
+        this.itemId = itemId;
+        this.buyPrice = record.buyPrice();
+        this.sellPrice = record.sellPrice();
+        this.buyVolume = record.buyVolume();
+        this.sellVolume = record.sellVolume();
+        this.buyMovingWeek = record.buyMovingWeek();
+        this.sellMovingWeek = record.sellMovingWeek();
+        this.buyOrders = record.buyOrders();
+        this.sellOrders = record.sellOrders();
+    }
+
+    public BazaarMarketRecord toRecord() {
+        return new BazaarMarketRecord(itemId, buyPrice, sellPrice, buyVolume, sellVolume,
+                buyMovingWeek, sellMovingWeek, buyOrders, sellOrders);
+    }
+}
@@ -17,8 +17,8 @@ import java.util.UUID;
 @Table(
         name = "market_snapshot",
         indexes = @Index(
-                name = "idx_market_snapshot_snapshot_ts_epoch_millis",
-                columnList = "snapshot_timestamp_epoch_millis"
+                name = "idx_market_snapshot_snapshot_ts_id",
+                columnList = "snapshot_timestamp_epoch_millis, id"
         )
 )
 public class MarketSnapshotEntity {
@@ -40,13 +40,25 @@ public class MarketSnapshotEntity {
     private int bazaarProductCount;
 
     @Setter
-    @Column(name = "auctions_json", nullable = false, columnDefinition = "text")
+    @Column(name = "codec_version", nullable = false)
+    private short codecVersion;
+
+    @Setter
+    @Column(name = "auctions_json", columnDefinition = "text")
     private String auctionsJson;
 
     @Setter
-    @Column(name = "bazaar_products_json", nullable = false, columnDefinition = "text")
+    @Column(name = "bazaar_products_json", columnDefinition = "text")
     private String bazaarProductsJson;
 
+    @Setter
+    @Column(name = "auctions_blob", columnDefinition = "bytea")
+    private byte[] auctionsBlob;
+
+    @Setter
+    @Column(name = "bazaar_products_blob", columnDefinition = "bytea")
+    private byte[] bazaarProductsBlob;
+
     @Setter
     @Column(name = "created_at_epoch_millis", nullable = false)
     private long createdAtEpochMillis;
@@ -66,4 +78,19 @@ public class MarketSnapshotEntity {
         this.bazaarProductsJson = bazaarProductsJson;
         this.createdAtEpochMillis = System.currentTimeMillis();
     }
+
+    public MarketSnapshotEntity(long snapshotTimestampEpochMillis,
+                                int auctionCount,
+                                int bazaarProductCount,
+                                short codecVersion,
+                                byte[] auctionsBlob,
+                                byte[] bazaarProductsBlob) {
+        this.snapshotTimestampEpochMillis = snapshotTimestampEpochMillis;
+        this.auctionCount = auctionCount;
+        this.bazaarProductCount = bazaarProductCount;
+        this.codecVersion = codecVersion;
+        this.auctionsBlob = auctionsBlob;
+        this.bazaarProductsBlob = bazaarProductsBlob;
+        this.createdAtEpochMillis = System.currentTimeMillis();
+    }
 }
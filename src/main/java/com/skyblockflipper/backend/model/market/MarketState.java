@@ -0,0 +1,23 @@
+package com.skyblockflipper.backend.model.market;
+
+import java.time.Instant;
+import java.util.Objects;
+
+public record MarketState(
+        long version,
+        MarketSnapshot snapshot,
+        UnifiedFlipInputSnapshot flipInput,
+        Instant publishedAt
+) {
+    public MarketState {
+        snapshot = Objects.requireNonNull(snapshot, "snapshot must not be null");
+        flipInput = Objects.requireNonNull(flipInput, "flipInput must not be null");
+        if (publishedAt == null) {
+            publishedAt = Instant.now();
+        }
+    }
+
+    public Instant snapshotTimestamp() {
+        return snapshot.snapshotTimestamp();
+    }
+}
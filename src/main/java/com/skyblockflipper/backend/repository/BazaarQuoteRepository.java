@@ -0,0 +1,33 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.market.BazaarQuoteEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BazaarQuoteRepository extends JpaRepository<BazaarQuoteEntity, UUID> {
+
+    List<BazaarQuoteEntity> findByItemIdAndSnapshotTimestampEpochMillisBetweenOrderBySnapshotTimestampEpochMillisAsc(
+            String itemId,
+            long startInclusiveEpochMillis,
+            long endInclusiveEpochMillis
+    );
+
+    @Query("select min(q.snapshotTimestampEpochMillis) from BazaarQuoteEntity q "
+            + "where q.snapshotTimestampEpochMillis between :startInclusive and :endInclusive")
+    Optional<Long> findFirstSnapshotTimestampBetween(@Param("startInclusive") long startInclusiveEpochMillis,
+                                                     @Param("endInclusive") long endInclusiveEpochMillis);
+
+    List<BazaarQuoteEntity> findBySnapshotTimestampEpochMillis(long snapshotTimestampEpochMillis);
+
+    @Modifying
+    @Transactional
+    @Query("delete from BazaarQuoteEntity q where q.snapshotTimestampEpochMillis < :cutoff")
+    int deleteOlderThan(@Param("cutoff") long cutoffEpochMillis);
+}
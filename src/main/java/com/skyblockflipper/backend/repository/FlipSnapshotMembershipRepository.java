@@ -0,0 +1,65 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.model.Flipping.FlipSnapshotMembership;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface FlipSnapshotMembershipRepository
+        extends JpaRepository<FlipSnapshotMembership, FlipSnapshotMembership.Key>,
+        JpaSpecificationExecutor<FlipSnapshotMembership> {
+
+    @Query("select m.templateId from FlipSnapshotMembership m "
+            + "where m.snapshotTimestampEpochMillis = :snapshotEpochMillis order by m.templateId")
+    List<UUID> findTemplateIds(@Param("snapshotEpochMillis") long snapshotEpochMillis);
+
+    @Query(value = "select m.templateId from FlipSnapshotMembership m "
+            + "where m.snapshotTimestampEpochMillis = :snapshotEpochMillis order by m.templateId",
+            countQuery = "select count(m) from FlipSnapshotMembership m "
+                    + "where m.snapshotTimestampEpochMillis = :snapshotEpochMillis")
+    Page<UUID> findTemplateIds(@Param("snapshotEpochMillis") long snapshotEpochMillis, Pageable pageable);
+
+    @Query("select m.templateId from FlipSnapshotMembership m "
+            + "where m.snapshotTimestampEpochMillis = :snapshotEpochMillis and m.flipType = :flipType "
+            + "order by m.templateId")
+    List<UUID> findTemplateIds(@Param("snapshotEpochMillis") long snapshotEpochMillis,
+                               @Param("flipType") FlipType flipType);
+
+    @Query(value = "select m.templateId from FlipSnapshotMembership m "
+            + "where m.snapshotTimestampEpochMillis = :snapshotEpochMillis and m.flipType = :flipType "
+            + "order by m.templateId",
+            countQuery = "select count(m) from FlipSnapshotMembership m "
+                    + "where m.snapshotTimestampEpochMillis = :snapshotEpochMillis and m.flipType = :flipType")
+    Page<UUID> findTemplateIds(@Param("snapshotEpochMillis") long snapshotEpochMillis,
+                               @Param("flipType") FlipType flipType,
+                               Pageable pageable);
+
+    boolean existsBySnapshotTimestampEpochMillis(long snapshotTimestampEpochMillis);
+
+    boolean existsBySnapshotTimestampEpochMillisAndMetricsComputedTrue(long snapshotTimestampEpochMillis);
+
+    @Query("select max(m.snapshotTimestampEpochMillis) from FlipSnapshotMembership m")
+    Optional<Long> findMaxSnapshotTimestampEpochMillis();
+
+    @Query("select max(m.snapshotTimestampEpochMillis) from FlipSnapshotMembership m where m.templateId = :templateId")
+    Optional<Long> findLatestSnapshotTimestampEpochMillis(@Param("templateId") UUID templateId);
+
+    @Query("select m.flipType, count(m) from FlipSnapshotMembership m "
+            + "where m.snapshotTimestampEpochMillis = :snapshotEpochMillis group by m.flipType")
+    List<Object[]> countByFlipTypeForSnapshot(@Param("snapshotEpochMillis") long snapshotEpochMillis);
+
+    @Modifying
+    @Transactional
+    @Query("delete from FlipSnapshotMembership m where m.snapshotTimestampEpochMillis = :snapshotEpochMillis")
+    int deleteBySnapshot(@Param("snapshotEpochMillis") long snapshotEpochMillis);
+}
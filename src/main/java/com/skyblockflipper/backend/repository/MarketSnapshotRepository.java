@@ -1,8 +1,14 @@
 package com.skyblockflipper.backend.repository;
 
 import com.skyblockflipper.backend.model.market.MarketSnapshotEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,7 +24,31 @@ public interface MarketSnapshotRepository extends JpaRepository<MarketSnapshotEn
             long endInclusiveEpochMillis
     );
 
-    List<MarketSnapshotEntity> findBySnapshotTimestampEpochMillisLessThanEqualOrderBySnapshotTimestampEpochMillisAsc(
-            long snapshotTimestampEpochMillis
-    );
+    @Query("select s.id as id, s.snapshotTimestampEpochMillis as snapshotTimestampEpochMillis "
+            + "from MarketSnapshotEntity s "
+            + "where s.snapshotTimestampEpochMillis between :startInclusive and :endInclusive "
+            + "order by s.snapshotTimestampEpochMillis asc")
+    List<SnapshotKey> findSnapshotKeysBetween(@Param("startInclusive") long startInclusiveEpochMillis,
+                                              @Param("endInclusive") long endInclusiveEpochMillis);
+
+    List<MarketSnapshotEntity> findAllByOrderBySnapshotTimestampEpochMillisDescIdDesc(Pageable pageable);
+
+    @Query("select s from MarketSnapshotEntity s "
+            + "where s.snapshotTimestampEpochMillis < :snapshotTimestamp "
+            + "or (s.snapshotTimestampEpochMillis = :snapshotTimestamp and s.id < :id) "
+            + "order by s.snapshotTimestampEpochMillis desc, s.id desc")
+    List<MarketSnapshotEntity> findPageBefore(@Param("snapshotTimestamp") long snapshotTimestampEpochMillis,
+                                              @Param("id") UUID id,
+                                              Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("delete from MarketSnapshotEntity s where s.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
+    interface SnapshotKey {
+        UUID getId();
+
+        long getSnapshotTimestampEpochMillis();
+    }
 }
@@ -0,0 +1,34 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import java.time.Instant;
+
+public record ElectionState(
+        double auctionTaxMultiplier,
+        boolean derpyActive,
+        boolean partial,
+        Instant refreshedAt
+) {
+    public static final double STANDARD_AUCTION_TAX_MULTIPLIER = 1.0D;
+    public static final double DERPY_AUCTION_TAX_MULTIPLIER = 4.0D;
+
+    public static ElectionState unknown() {
+        return new ElectionState(STANDARD_AUCTION_TAX_MULTIPLIER, false, true, null);
+    }
+
+    public static ElectionState of(boolean derpyActive, Instant refreshedAt) {
+        return new ElectionState(
+                derpyActive ? DERPY_AUCTION_TAX_MULTIPLIER : STANDARD_AUCTION_TAX_MULTIPLIER,
+                derpyActive,
+                false,
+                refreshedAt
+        );
+    }
+
+    public ElectionState revalidated(Instant at) {
+        return new ElectionState(auctionTaxMultiplier, derpyActive, partial, at);
+    }
+
+    public ElectionState asPartial() {
+        return partial ? this : new ElectionState(auctionTaxMultiplier, derpyActive, true, refreshedAt);
+    }
+}
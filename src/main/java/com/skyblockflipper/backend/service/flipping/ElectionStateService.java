@@ -0,0 +1,197 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.hypixel.HypixelConditionalClient;
+import com.skyblockflipper.backend.hypixel.HypixelHttpResult;
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Keeps the current election outcome refreshed in the background so flip context building never
+ * waits on Hypixel. The last good state keeps being served while refreshes fail; once it is older
+ * than the configured staleness limit it is reported as partial. A failed cold load is retried after a
+ * short backoff instead of waiting for the next scheduled refresh. Requests take a token from the
+ * shared limiter and feed the quota headers back into it.
+ */
+@Service
+@Slf4j
+public class ElectionStateService {
+
+    // Base URL already contains /v2 (see config.hypixel.api-url), so this stays resource-relative.
+    private static final String ELECTION_RESOURCE_PATH = "/resources/skyblock/election";
+    private static final Duration DEFAULT_MAX_STALENESS = Duration.ofMinutes(30);
+    private static final Duration DEFAULT_COLD_LOAD_RETRY_BACKOFF = Duration.ofSeconds(15);
+
+    private final HypixelConditionalClient client;
+    private final GlobalRequestLimiter requestLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxStaleness;
+    private final Duration coldLoadRetryBackoff;
+    private final Object refreshLock = new Object();
+
+    private volatile ElectionState state;
+    private volatile Instant nextColdLoadAt = Instant.MIN;
+    private String etag;
+    private String lastModified;
+
+    @Autowired
+    public ElectionStateService(HypixelConditionalClient client,
+                                GlobalRequestLimiter requestLimiter,
+                                MeterRegistry meterRegistry,
+                                @Value("${config.hypixel.election.max-staleness:PT30M}") Duration maxStaleness,
+                                @Value("${config.hypixel.election.cold-load-retry-backoff:PT15S}") Duration coldLoadRetryBackoff) {
+        this.client = client;
+        this.requestLimiter = requestLimiter;
+        this.meterRegistry = meterRegistry;
+        this.maxStaleness = positiveOrDefault(maxStaleness, DEFAULT_MAX_STALENESS);
+        this.coldLoadRetryBackoff = positiveOrDefault(coldLoadRetryBackoff, DEFAULT_COLD_LOAD_RETRY_BACKOFF);
+        Gauge.builder("skyblock.election.staleness_seconds", this, ElectionStateService::stalenessSeconds)
+                .register(meterRegistry);
+    }
+
+    public ElectionState current() {
+        ElectionState snapshot = state;
+        if (snapshot == null && !Instant.now().isBefore(nextColdLoadAt)) {
+            synchronized (refreshLock) {
+                if (state == null && !Instant.now().isBefore(nextColdLoadAt)) {
+                    nextColdLoadAt = Instant.now().plus(coldLoadRetryBackoff);
+                    refresh();
+                }
+            }
+            snapshot = state;
+        }
+        if (snapshot == null) {
+            return ElectionState.unknown();
+        }
+        if (snapshot.refreshedAt() == null || snapshot.refreshedAt().plus(maxStaleness).isBefore(Instant.now())) {
+            return snapshot.asPartial();
+        }
+        return snapshot;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${config.hypixel.election.refresh-interval:PT5M}",
+            initialDelayString = "${config.hypixel.election.refresh-interval:PT5M}"
+    )
+    public void refresh() {
+        synchronized (refreshLock) {
+            Instant now = Instant.now();
+            HypixelHttpResult<JsonNode> result;
+            try {
+                awaitRequestSlot();
+                result = client.fetchElection(ELECTION_RESOURCE_PATH, etag, lastModified);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result = HypixelHttpResult.transportError("Interrupted while waiting for a request slot");
+            } catch (RuntimeException e) {
+                result = HypixelHttpResult.transportError(e.getMessage());
+            }
+            if (requestLimiter != null) {
+                requestLimiter.observe(result.headers());
+            }
+            if (result.statusCode() == 304 && state != null) {
+                state = state.revalidated(now);
+                recordRefresh("not_modified");
+                return;
+            }
+            JsonNode election = result.body();
+            if (!result.isSuccessful() || election == null || !election.path("success").asBoolean(false)) {
+                log.debug("Election refresh failed (status {}): {}", result.statusCode(), result.errorMessage());
+                recordRefresh("failed");
+                return;
+            }
+            state = ElectionState.of(hasDerpyQuadTaxes(election), now);
+            etag = result.headers().getETag();
+            lastModified = result.headers().getFirst(HttpHeaders.LAST_MODIFIED);
+            recordRefresh("updated");
+        }
+    }
+
+    private void awaitRequestSlot() throws InterruptedException {
+        if (requestLimiter == null) {
+            return;
+        }
+        long delayMillis;
+        while ((delayMillis = requestLimiter.tryAcquire(GlobalRequestLimiter.Priority.NORMAL)) > 0L) {
+            Thread.sleep(delayMillis);
+        }
+    }
+
+    private void recordRefresh(String outcome) {
+        meterRegistry.counter("skyblock.election.refresh", "result", outcome).increment();
+    }
+
+    private double stalenessSeconds() {
+        ElectionState snapshot = state;
+        if (snapshot == null || snapshot.refreshedAt() == null) {
+            return Double.NaN;
+        }
+        return Duration.between(snapshot.refreshedAt(), Instant.now()).toMillis() / 1_000D;
+    }
+
+    private static Duration positiveOrDefault(Duration configured, Duration fallback) {
+        return configured == null || configured.isNegative() || configured.isZero() ? fallback : configured;
+    }
+
+    static boolean hasDerpyQuadTaxes(JsonNode election) {
+        JsonNode mayor = resolveActiveMayor(election);
+        if (mayor == null || mayor.isMissingNode()) {
+            return false;
+        }
+
+        String mayorName = mayor.path("name").asString("");
+        if (!"Derpy".equalsIgnoreCase(mayorName)) {
+            return false;
+        }
+
+        JsonNode perks = mayor.path("perks");
+        if (!perks.isArray()) {
+            return false;
+        }
+        for (JsonNode perk : perks) {
+            String lowerName = perk.path("name").asString("").toLowerCase(Locale.ROOT);
+            String lowerDescription = perk.path("description").asString("").toLowerCase(Locale.ROOT);
+            if (lowerName.contains("quad") && lowerName.contains("tax")) {
+                return true;
+            }
+            if (lowerDescription.contains("quad") && lowerDescription.contains("tax")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JsonNode resolveActiveMayor(JsonNode election) {
+        JsonNode mayor = election.path("mayor");
+        if (mayor.isObject()) {
+            return mayor;
+        }
+
+        JsonNode currentMayor = election.path("current").path("mayor");
+        if (currentMayor.isObject()) {
+            return currentMayor;
+        }
+
+        JsonNode candidates = election.path("current").path("candidates");
+        if (!candidates.isArray()) {
+            return null;
+        }
+        for (JsonNode candidate : candidates) {
+            if (candidate.path("elected").asBoolean(false)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,284 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.model.Flipping.Constraint;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.Step;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Writes flip templates and snapshot memberships with multi-row inserts, bypassing the per-entity
+ * inserts and join-column updates JPA issues for the step and constraint collections. Template
+ * deletes go the same way, one set-based statement per table.
+ */
+@Component
+public class FlipBulkWriter {
+
+    static final int ROWS_PER_STATEMENT = 1_000;
+
+    private static final String TEMPLATE_INSERT_PREFIX =
+            "insert into flip_template (id, flip_type, result_item_id, content_hash) values ";
+    private static final String TEMPLATE_ROW = "(?, ?, ?, ?)";
+    private static final String STEP_INSERT_PREFIX =
+            "insert into flip_template_step (id, flip_id, step_order, type, duration_type, base_duration_seconds, "
+                    + "duration_factor, resource, resource_units, scheduling_policy, params_json) values ";
+    private static final String STEP_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String CONSTRAINT_INSERT_PREFIX =
+            "insert into flip_template_constraints (flip_id, constraint_type, string_value, int_value, long_value) "
+                    + "values ";
+    private static final String CONSTRAINT_ROW = "(?, ?, ?, ?, ?)";
+    private static final String MEMBERSHIP_INSERT_PREFIX =
+            "insert into flip_snapshot_membership (snapshot_timestamp_epoch_millis, template_id, flip_type, "
+                    + "metrics_computed, expected_profit, roi, roi_per_hour, liquidity_score, risk_score, "
+                    + "required_capital, fees, duration_seconds, partial) values ";
+    private static final String MEMBERSHIP_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingTimeTracker blockingTimeTracker;
+
+    public FlipBulkWriter(JdbcTemplate jdbcTemplate, BlockingTimeTracker blockingTimeTracker) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockingTimeTracker = blockingTimeTracker;
+    }
+
+    /**
+     * Inserts new templates together with their steps and constraints. Missing ids and content hashes
+     * are assigned on the given instances. A template whose content hash is already stored, possibly by
+     * a concurrent transaction, is skipped together with its steps and constraints;
+     * {@link #findTemplateIdsByContentHash(Collection)} resolves the id that was kept. Returns the
+     * number of inserted templates.
+     */
+    public int insertTemplates(List<Flip> templates) {
+        if (templates == null || templates.isEmpty()) {
+            return 0;
+        }
+        Map<String, Flip> pending = new LinkedHashMap<>();
+        for (Flip template : templates) {
+            template.prepareForInsert();
+            pending.putIfAbsent(template.getContentHash(), template);
+        }
+        pending.keySet().removeAll(findTemplateIdsByContentHash(pending.keySet()).keySet());
+        List<Flip> candidates = List.copyOf(pending.values());
+        int inserted = 0;
+        for (int start = 0; start < candidates.size(); start += ROWS_PER_STATEMENT) {
+            List<Flip> chunk = candidates.subList(start, Math.min(candidates.size(), start + ROWS_PER_STATEMENT));
+            inserted += insertTemplateChunk(chunk);
+        }
+        return inserted;
+    }
+
+    /**
+     * Maps each given content hash that is stored to the id of its template.
+     */
+    public Map<String, UUID> findTemplateIdsByContentHash(Collection<String> contentHashes) {
+        if (contentHashes == null || contentHashes.isEmpty()) {
+            return Map.of();
+        }
+        List<String> hashes = List.copyOf(contentHashes);
+        return blockingTimeTracker.record("db.flipTemplate.findIdsByContentHash", "db", () -> {
+            Map<String, UUID> ids = new HashMap<>();
+            for (int start = 0; start < hashes.size(); start += ROWS_PER_STATEMENT) {
+                Object[] chunk = hashes.subList(start, Math.min(hashes.size(), start + ROWS_PER_STATEMENT)).toArray();
+                String placeholders = String.join(", ", Collections.nCopies(chunk.length, "?"));
+                jdbcTemplate.query("select content_hash, id from flip_template where content_hash in (" + placeholders + ")",
+                        rs -> {
+                            ids.put(rs.getString(1), rs.getObject(2, UUID.class));
+                        },
+                        chunk);
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Inserts one chunk of templates the lookup did not find. A concurrent transaction may store the same
+     * content in between; its unique violation only rolls back to a savepoint, after which the hashes are
+     * looked up again and the remaining templates are retried.
+     */
+    private int insertTemplateChunk(List<Flip> chunk) {
+        List<Flip> remaining = chunk;
+        while (!remaining.isEmpty()) {
+            List<Flip> attempt = remaining;
+            try {
+                blockingTimeTracker.recordRunnable("db.flipTemplate.bulkInsert", "db",
+                        () -> withinSavepoint(() -> insertTemplateRows(attempt)));
+                return attempt.size();
+            } catch (DuplicateKeyException e) {
+                Set<String> stored = findTemplateIdsByContentHash(
+                        attempt.stream().map(Flip::getContentHash).toList()).keySet();
+                if (stored.isEmpty()) {
+                    throw e;
+                }
+                remaining = attempt.stream()
+                        .filter(template -> !stored.contains(template.getContentHash()))
+                        .toList();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Runs {@code work} so that its failure leaves the surrounding transaction usable, which Postgres
+     * otherwise aborts on the first failed statement. Outside a transaction every statement commits on
+     * its own and no savepoint is needed.
+     */
+    private void withinSavepoint(Runnable work) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            work.run();
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    private void insertTemplateRows(List<Flip> templates) {
+        List<Object[]> templateRows = new ArrayList<>(templates.size());
+        List<Object[]> stepRows = new ArrayList<>(templates.size() * 3);
+        List<Object[]> constraintRows = new ArrayList<>();
+        for (Flip template : templates) {
+            templateRows.add(new Object[]{
+                    template.getId(),
+                    template.getFlipType() == null ? null : template.getFlipType().name(),
+                    template.getResultItemId(),
+                    template.getContentHash()
+            });
+            addChildRows(template, stepRows, constraintRows);
+        }
+        insertRows(TEMPLATE_INSERT_PREFIX, TEMPLATE_ROW, templateRows);
+        insertRows(STEP_INSERT_PREFIX, STEP_ROW, stepRows);
+        insertRows(CONSTRAINT_INSERT_PREFIX, CONSTRAINT_ROW, constraintRows);
+    }
+
+    private static void addChildRows(Flip template, List<Object[]> stepRows, List<Object[]> constraintRows) {
+        List<Step> steps = template.getSteps();
+        for (int order = 0; order < steps.size(); order++) {
+            Step step = steps.get(order);
+            stepRows.add(new Object[]{
+                    step.getId(),
+                    template.getId(),
+                    order,
+                    step.getType().name(),
+                    step.getDurationType().name(),
+                    step.getBaseDurationSeconds(),
+                    step.getDurationFactor(),
+                    step.getResource().name(),
+                    step.getResourceUnits(),
+                    step.getSchedulingPolicy().name(),
+                    step.getParamsJson()
+            });
+        }
+        for (Constraint constraint : template.getConstraints()) {
+            constraintRows.add(new Object[]{
+                    template.getId(),
+                    constraint.getType().name(),
+                    constraint.getStringValue(),
+                    constraint.getIntValue(),
+                    constraint.getLongValue()
+            });
+        }
+    }
+
+    /**
+     * Records the given persisted templates as the flips of a snapshot.
+     */
+    public int insertMemberships(long snapshotTimestampEpochMillis, Collection<Flip> templates) {
+        return insertMemberships(snapshotTimestampEpochMillis, templates, null);
+    }
+
+    /**
+     * Records the given persisted templates as the flips of a snapshot together with their metrics.
+     * Templates without metrics are written with {@code metrics_computed = false}.
+     */
+    public int insertMemberships(long snapshotTimestampEpochMillis,
+                                 Collection<Flip> templates,
+                                 Map<UUID, FlipMetrics> metricsByTemplateId) {
+        if (templates == null || templates.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>(templates.size());
+        for (Flip template : templates) {
+            FlipMetrics metrics = metricsByTemplateId == null ? null : metricsByTemplateId.get(template.getId());
+            rows.add(new Object[]{
+                    snapshotTimestampEpochMillis,
+                    template.getId(),
+                    template.getFlipType() == null ? null : template.getFlipType().name(),
+                    metrics != null,
+                    metrics == null ? null : metrics.expectedProfit(),
+                    metrics == null ? null : metrics.roi(),
+                    metrics == null ? null : metrics.roiPerHour(),
+                    metrics == null ? null : metrics.liquidityScore(),
+                    metrics == null ? null : metrics.riskScore(),
+                    metrics == null ? null : metrics.requiredCapital(),
+                    metrics == null ? null : metrics.fees(),
+                    metrics == null ? null : metrics.durationSeconds(),
+                    metrics == null ? null : metrics.partial()
+            });
+        }
+        blockingTimeTracker.recordRunnable("db.flipMembership.bulkInsert", "db",
+                () -> insertRows(MEMBERSHIP_INSERT_PREFIX, MEMBERSHIP_ROW, rows));
+        return rows.size();
+    }
+
+    /**
+     * Deletes templates together with their steps and constraints. Returns the number of deleted rows
+     * across all three tables.
+     */
+    public int deleteTemplates(Collection<UUID> templateIds) {
+        if (templateIds == null || templateIds.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = List.copyOf(templateIds);
+        return blockingTimeTracker.record("db.flipTemplate.bulkDelete", "db", () -> {
+            int deleted = 0;
+            for (int start = 0; start < ids.size(); start += ROWS_PER_STATEMENT) {
+                Object[] chunk = ids.subList(start, Math.min(ids.size(), start + ROWS_PER_STATEMENT)).toArray();
+                String placeholders = String.join(", ", Collections.nCopies(chunk.length, "?"));
+                deleted += jdbcTemplate.update("delete from flip_template_constraints where flip_id in (" + placeholders + ")", chunk);
+                deleted += jdbcTemplate.update("delete from flip_template_step where flip_id in (" + placeholders + ")", chunk);
+                deleted += jdbcTemplate.update("delete from flip_template where id in (" + placeholders + ")", chunk);
+            }
+            return deleted;
+        });
+    }
+
+    private void insertRows(String prefix, String rowPlaceholder, List<Object[]> rows) {
+        for (int start = 0; start < rows.size(); start += ROWS_PER_STATEMENT) {
+            List<Object[]> chunk = rows.subList(start, Math.min(rows.size(), start + ROWS_PER_STATEMENT));
+            String sql = prefix + String.join(", ", Collections.nCopies(chunk.size(), rowPlaceholder));
+            jdbcTemplate.update(sql, flatten(chunk));
+        }
+    }
+
+    private static Object[] flatten(List<Object[]> rows) {
+        int width = rows.getFirst().length;
+        Object[] args = new Object[rows.size() * width];
+        for (int i = 0; i < rows.size(); i++) {
+            System.arraycopy(rows.get(i), 0, args, i * width, width);
+        }
+        return args;
+    }
+}
@@ -0,0 +1,143 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Calculation contexts keyed by snapshot timestamp and tax regime. Loading is single-flight: concurrent
+ * callers for the same key wait on the first caller's build instead of building their own copy. Entries
+ * are bounded by count and age; live-election entries are dropped once a newer snapshot is published.
+ */
+final class FlipCalculationContextCache {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxAgeNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loadTimer;
+
+    FlipCalculationContextCache(MeterRegistry meterRegistry, int maxEntries, Duration maxAge) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxAgeNanos = maxAge == null || maxAge.isNegative() || maxAge.isZero()
+                ? Duration.ofMinutes(10).toNanos()
+                : maxAge.toNanos();
+        this.hits = meterRegistry.counter("skyblock.flip_context.cache", "result", "hit");
+        this.misses = meterRegistry.counter("skyblock.flip_context.cache", "result", "miss");
+        this.loadTimer = Timer.builder("skyblock.flip_context.load").register(meterRegistry);
+        Gauge.builder("skyblock.flip_context.cache_size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @param loader builds the context; a {@code null} result is handed to the waiting callers but not kept
+     */
+    FlipCalculationContext get(Key key, Supplier<FlipCalculationContext> loader) {
+        return get(key, loader, context -> true);
+    }
+
+    /**
+     * @param cacheable decides whether a loaded context is kept; rejected ones are still handed to the
+     *                  waiting callers, like {@code null} results
+     */
+    FlipCalculationContext get(Key key,
+                               Supplier<FlipCalculationContext> loader,
+                               Predicate<FlipCalculationContext> cacheable) {
+        long now = System.nanoTime();
+        Entry cached = entries.get(key);
+        if (cached != null && now - cached.createdAtNanos() > maxAgeNanos) {
+            entries.remove(key, cached);
+        }
+
+        Entry candidate = new Entry(new CompletableFuture<>(), now);
+        Entry existing = entries.putIfAbsent(key, candidate);
+        if (existing != null) {
+            hits.increment();
+            return await(existing.future());
+        }
+
+        misses.increment();
+        FlipCalculationContext context;
+        try {
+            context = loadTimer.record(loader);
+        } catch (RuntimeException e) {
+            entries.remove(key, candidate);
+            candidate.future().completeExceptionally(e);
+            throw e;
+        }
+        candidate.future().complete(context);
+        if (context == null || !cacheable.test(context)) {
+            entries.remove(key, candidate);
+        } else if (entries.size() > maxEntries) {
+            evictOldest();
+        }
+        return context;
+    }
+
+    /**
+     * Drops live-election contexts of snapshots older than the newly published one; standard-regime
+     * contexts stay, since as-of readers keep asking for the snapshot their flips were generated on.
+     */
+    void retainLiveFrom(long snapshotEpochMillis) {
+        entries.keySet().removeIf(key -> key.liveElection() && key.snapshotEpochMillis() < snapshotEpochMillis);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictOldest() {
+        while (entries.size() > maxEntries) {
+            Map.Entry<Key, Entry> oldest = entries.entrySet().stream()
+                    .filter(entry -> entry.getValue().future().isDone())
+                    .min(Comparator.comparingLong(entry -> entry.getValue().createdAtNanos()))
+                    .orElse(null);
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    private FlipCalculationContext await(CompletableFuture<FlipCalculationContext> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    record Key(
+            long snapshotEpochMillis,
+            double auctionTaxMultiplier,
+            boolean electionPartial,
+            boolean liveElection
+    ) {
+        static Key live(long snapshotEpochMillis, ElectionState election) {
+            return new Key(snapshotEpochMillis, election.auctionTaxMultiplier(), election.partial(), true);
+        }
+
+        static Key standard(long snapshotEpochMillis) {
+            return new Key(snapshotEpochMillis, ElectionState.STANDARD_AUCTION_TAX_MULTIPLIER, true, false);
+        }
+    }
+
+    private record Entry(
+            CompletableFuture<FlipCalculationContext> future,
+            long createdAtNanos
+    ) {
+    }
+}
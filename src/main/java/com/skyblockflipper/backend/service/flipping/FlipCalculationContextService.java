@@ -1,143 +1,160 @@
 package com.skyblockflipper.backend.service.flipping;
 
-import com.skyblockflipper.backend.hypixel.HypixelClient;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.model.market.MarketState;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
 import com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketStateHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import tools.jackson.databind.JsonNode;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class FlipCalculationContextService {
 
     private static final double STANDARD_BAZAAR_TAX = 0.0125D;
-    private static final double STANDARD_AUCTION_TAX_MULTIPLIER = 1.0D;
-    private static final double DERPY_AUCTION_TAX_MULTIPLIER = 4.0D;
+    private static final int DEFAULT_CACHE_MAX_ENTRIES = 64;
+    private static final Duration DEFAULT_CACHE_MAX_AGE = Duration.ofMinutes(10);
 
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
+    private final MarketStateHolder marketStateHolder;
     private final UnifiedFlipInputMapper unifiedFlipInputMapper;
     private final MarketTimescaleFeatureService marketTimescaleFeatureService;
-    private final HypixelClient hypixelClient;
+    private final ElectionStateService electionStateService;
+    private final FlipCalculationContextCache contextCache;
+    private final AtomicLong observedStateVersion = new AtomicLong(Long.MIN_VALUE);
 
     public FlipCalculationContextService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
+                                         MarketStateHolder marketStateHolder,
                                          UnifiedFlipInputMapper unifiedFlipInputMapper,
                                          MarketTimescaleFeatureService marketTimescaleFeatureService,
-                                         HypixelClient hypixelClient) {
+                                         ElectionStateService electionStateService) {
+        this(marketSnapshotPersistenceService,
+                marketStateHolder,
+                unifiedFlipInputMapper,
+                marketTimescaleFeatureService,
+                electionStateService,
+                new SimpleMeterRegistry(),
+                DEFAULT_CACHE_MAX_ENTRIES,
+                DEFAULT_CACHE_MAX_AGE);
+    }
+
+    @Autowired
+    public FlipCalculationContextService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
+                                         MarketStateHolder marketStateHolder,
+                                         UnifiedFlipInputMapper unifiedFlipInputMapper,
+                                         MarketTimescaleFeatureService marketTimescaleFeatureService,
+                                         ElectionStateService electionStateService,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${config.flip.context-cache.max-entries:64}") int cacheMaxEntries,
+                                         @Value("${config.flip.context-cache.max-age:PT10M}") Duration cacheMaxAge) {
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
+        this.marketStateHolder = marketStateHolder;
         this.unifiedFlipInputMapper = unifiedFlipInputMapper;
         this.marketTimescaleFeatureService = marketTimescaleFeatureService;
-        this.hypixelClient = hypixelClient;
+        this.electionStateService = electionStateService;
+        this.contextCache = new FlipCalculationContextCache(meterRegistry, cacheMaxEntries, cacheMaxAge);
     }
 
     public FlipCalculationContext loadCurrentContext() {
-        MarketSnapshot latestMarketSnapshot = marketSnapshotPersistenceService.latest().orElse(null);
-        return buildContext(latestMarketSnapshot, Instant.now(), true);
+        MarketState state = marketStateHolder.current().orElse(null);
+        ElectionState election = electionStateService.current();
+        if (state == null) {
+            return buildContext(null, null, Instant.now(), election);
+        }
+        observe(state);
+        return contextCache.get(
+                FlipCalculationContextCache.Key.live(state.snapshotTimestamp().toEpochMilli(), election),
+                () -> buildContext(state.snapshot(), state.flipInput(), state.snapshotTimestamp(), election)
+        );
     }
 
     public FlipCalculationContext loadContextAsOf(Instant asOfTimestamp) {
         Instant requiredAsOfTimestamp = Objects.requireNonNull(asOfTimestamp, "asOfTimestamp must not be null");
-        MarketSnapshot marketSnapshotAsOf = marketSnapshotPersistenceService.asOf(requiredAsOfTimestamp).orElse(null);
-        return buildContext(marketSnapshotAsOf, requiredAsOfTimestamp, false);
+        MarketState state = marketStateHolder.current().orElse(null);
+        if (state != null) {
+            observe(state);
+        }
+        if (state != null && !requiredAsOfTimestamp.isBefore(state.snapshotTimestamp())) {
+            return contextCache.get(
+                    FlipCalculationContextCache.Key.standard(state.snapshotTimestamp().toEpochMilli()),
+                    () -> buildContext(state.snapshot(), state.flipInput(), requiredAsOfTimestamp, null)
+            );
+        }
+        // Keyed by the requested timestamp, so only a context of exactly that snapshot is kept. Persistence
+        // resolves an older one while the requested snapshot is pending write-behind or was coalesced away.
+        FlipCalculationContext cached = contextCache.get(
+                FlipCalculationContextCache.Key.standard(requiredAsOfTimestamp.toEpochMilli()),
+                () -> marketSnapshotPersistenceService.asOf(requiredAsOfTimestamp)
+                        .map(snapshot -> buildContext(snapshot, null, requiredAsOfTimestamp, null))
+                        .orElse(null),
+                context -> requiredAsOfTimestamp.equals(context.marketSnapshot().snapshotTimestamp())
+        );
+        return cached != null ? cached : buildContext(null, null, requiredAsOfTimestamp, null);
     }
 
+    /**
+     * Standard-regime context of a snapshot the caller holds in memory. Unlike {@link #loadContextAsOf},
+     * it never resolves another snapshot, so it also serves snapshots whose persist is still pending.
+     */
+    public FlipCalculationContext loadContextFor(MarketSnapshot marketSnapshot, UnifiedFlipInputSnapshot flipInput) {
+        Instant snapshotTimestamp = Objects.requireNonNull(flipInput, "flipInput must not be null").snapshotTimestamp();
+        return contextCache.get(
+                FlipCalculationContextCache.Key.standard(snapshotTimestamp.toEpochMilli()),
+                () -> buildContext(marketSnapshot, flipInput, snapshotTimestamp, null)
+        );
+    }
+
+    private void observe(MarketState state) {
+        long previous = observedStateVersion.getAndAccumulate(state.version(), Math::max);
+        if (state.version() > previous) {
+            contextCache.retainLiveFrom(state.snapshotTimestamp().toEpochMilli());
+        }
+    }
+
+    /**
+     * @param liveElection election to apply, or {@code null} for the standard tax regime used by as-of reads
+     */
     private FlipCalculationContext buildContext(MarketSnapshot marketSnapshotDomain,
+                                                UnifiedFlipInputSnapshot precomputedFlipInput,
                                                 Instant snapshotTimestamp,
-                                                boolean includeLiveElection) {
-        UnifiedFlipInputSnapshot marketSnapshot = marketSnapshotDomain == null
-                ? new UnifiedFlipInputSnapshot(snapshotTimestamp, null, null)
-                : unifiedFlipInputMapper.map(marketSnapshotDomain);
+                                                ElectionState liveElection) {
+        UnifiedFlipInputSnapshot marketSnapshot;
+        if (precomputedFlipInput != null) {
+            marketSnapshot = precomputedFlipInput;
+        } else if (marketSnapshotDomain == null) {
+            marketSnapshot = new UnifiedFlipInputSnapshot(snapshotTimestamp, null, null);
+        } else {
+            marketSnapshot = unifiedFlipInputMapper.map(marketSnapshotDomain);
+        }
         FlipScoreFeatureSet scoreFeatures = marketSnapshotDomain == null
                 ? FlipScoreFeatureSet.empty()
                 : marketTimescaleFeatureService.computeFor(marketSnapshotDomain);
 
-        if (!includeLiveElection) {
+        if (liveElection == null) {
             return new FlipCalculationContext(
                     marketSnapshot,
                     STANDARD_BAZAAR_TAX,
-                    STANDARD_AUCTION_TAX_MULTIPLIER,
+                    ElectionState.STANDARD_AUCTION_TAX_MULTIPLIER,
                     true,
                     scoreFeatures
             );
         }
 
-        JsonNode election = hypixelClient.fetchElection();
-        if (election == null) {
-            return new FlipCalculationContext(
-                    marketSnapshot,
-                    STANDARD_BAZAAR_TAX,
-                    STANDARD_AUCTION_TAX_MULTIPLIER,
-                    true,
-                    scoreFeatures
-            );
-        }
-
-        double auctionTaxMultiplier = hasDerpyQuadTaxes(election)
-                ? DERPY_AUCTION_TAX_MULTIPLIER
-                : STANDARD_AUCTION_TAX_MULTIPLIER;
-
         return new FlipCalculationContext(
                 marketSnapshot,
                 STANDARD_BAZAAR_TAX,
-                auctionTaxMultiplier,
-                false,
+                liveElection.auctionTaxMultiplier(),
+                liveElection.partial(),
                 scoreFeatures
         );
     }
-
-    private boolean hasDerpyQuadTaxes(JsonNode election) {
-        JsonNode mayor = resolveActiveMayor(election);
-        if (mayor == null || mayor.isMissingNode()) {
-            return false;
-        }
-
-        String mayorName = mayor.path("name").asString("");
-        if (!"Derpy".equalsIgnoreCase(mayorName)) {
-            return false;
-        }
-
-        JsonNode perks = mayor.path("perks");
-        if (!perks.isArray()) {
-            return false;
-        }
-        for (JsonNode perk : perks) {
-            String perkName = perk.path("name").asString("");
-            String description = perk.path("description").asString("");
-            String lowerName = perkName.toLowerCase();
-            String lowerDescription = description.toLowerCase();
-            if (lowerName.contains("quad") && lowerName.contains("tax")) {
-                return true;
-            }
-            if (lowerDescription.contains("quad") && lowerDescription.contains("tax")) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private JsonNode resolveActiveMayor(JsonNode election) {
-        JsonNode mayor = election.path("mayor");
-        if (mayor.isObject()) {
-            return mayor;
-        }
-
-        JsonNode currentMayor = election.path("current").path("mayor");
-        if (currentMayor.isObject()) {
-            return currentMayor;
-        }
-
-        JsonNode candidates = election.path("current").path("candidates");
-        if (!candidates.isArray()) {
-            return null;
-        }
-        for (JsonNode candidate : candidates) {
-            if (candidate.path("elected").asBoolean(false)) {
-                return candidate;
-            }
-        }
-        return null;
-    }
 }
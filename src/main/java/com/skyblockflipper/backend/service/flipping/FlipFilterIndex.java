@@ -0,0 +1,293 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar filter over the flips of one snapshot. Every range metric is kept sorted with its row ids, so a
+ * threshold resolves to a bitmap through one binary search; flip type and partial are precomputed bitmaps.
+ * Predicates combine by AND-ing 64-bit words. Missing metric values never match a threshold.
+ */
+final class FlipFilterIndex {
+
+    private final int size;
+    private final Map<FlipType, long[]> typeBitmaps = new EnumMap<>(FlipType.class);
+    private final long[] partialBitmap;
+    private final long[] completeBitmap;
+    private final SortedDoubleColumn liquidityScores;
+    private final SortedDoubleColumn riskScores;
+    private final SortedDoubleColumn rois;
+    private final SortedDoubleColumn roisPerHour;
+    private final SortedLongColumn expectedProfits;
+    private final SortedLongColumn requiredCapitals;
+
+    /**
+     * Each {@code *Order} lists the row ids by ascending value with missing values last, as produced by
+     * {@link #ascendingOrder(double[])} or any order with the same shape.
+     */
+    FlipFilterIndex(FlipType[] flipTypes,
+                    boolean[] partials,
+                    double[] liquidityScores, int[] liquidityOrder,
+                    double[] riskScores, int[] riskOrder,
+                    double[] rois, int[] roiOrder,
+                    double[] roisPerHour, int[] roiPerHourOrder,
+                    long[] expectedProfits, int[] expectedProfitOrder,
+                    long[] requiredCapitals, int[] requiredCapitalOrder) {
+        this.size = flipTypes.length;
+        int words = wordCount(size);
+        this.partialBitmap = new long[words];
+        this.completeBitmap = new long[words];
+        for (int row = 0; row < size; row++) {
+            if (flipTypes[row] != null) {
+                set(typeBitmaps.computeIfAbsent(flipTypes[row], ignored -> new long[words]), row);
+            }
+            set(partials[row] ? partialBitmap : completeBitmap, row);
+        }
+        this.liquidityScores = new SortedDoubleColumn(liquidityScores, liquidityOrder, size);
+        this.riskScores = new SortedDoubleColumn(riskScores, riskOrder, size);
+        this.rois = new SortedDoubleColumn(rois, roiOrder, size);
+        this.roisPerHour = new SortedDoubleColumn(roisPerHour, roiPerHourOrder, size);
+        this.expectedProfits = new SortedLongColumn(expectedProfits, expectedProfitOrder, size);
+        this.requiredCapitals = new SortedLongColumn(requiredCapitals, requiredCapitalOrder, size);
+    }
+
+    static FlipFilterIndex of(FlipType[] flipTypes,
+                              boolean[] partials,
+                              double[] liquidityScores,
+                              double[] riskScores,
+                              double[] rois,
+                              double[] roisPerHour,
+                              long[] expectedProfits,
+                              long[] requiredCapitals) {
+        return new FlipFilterIndex(flipTypes, partials,
+                liquidityScores, ascendingOrder(liquidityScores),
+                riskScores, ascendingOrder(riskScores),
+                rois, ascendingOrder(rois),
+                roisPerHour, ascendingOrder(roisPerHour),
+                expectedProfits, ascendingOrder(expectedProfits),
+                requiredCapitals, ascendingOrder(requiredCapitals));
+    }
+
+    /**
+     * @return the matching rows as bitmap words, or {@code null} when nothing is filtered
+     */
+    long[] matching(FlipType flipType, FlipMetricsCriteria criteria) {
+        FlipMetricsCriteria safeCriteria = criteria == null ? FlipMetricsCriteria.none() : criteria;
+        List<long[]> bitmaps = new ArrayList<>(8);
+        if (flipType != null) {
+            bitmaps.add(typeBitmaps.getOrDefault(flipType, new long[wordCount(size)]));
+        }
+        if (safeCriteria.partial() != null) {
+            bitmaps.add(safeCriteria.partial() ? partialBitmap : completeBitmap);
+        }
+        if (safeCriteria.minLiquidityScore() != null) {
+            bitmaps.add(liquidityScores.atLeast(safeCriteria.minLiquidityScore()));
+        }
+        if (safeCriteria.maxRiskScore() != null) {
+            bitmaps.add(riskScores.atMost(safeCriteria.maxRiskScore()));
+        }
+        if (safeCriteria.minExpectedProfit() != null) {
+            bitmaps.add(expectedProfits.atLeast(safeCriteria.minExpectedProfit()));
+        }
+        if (safeCriteria.minRoi() != null) {
+            bitmaps.add(rois.atLeast(safeCriteria.minRoi()));
+        }
+        if (safeCriteria.minRoiPerHour() != null) {
+            bitmaps.add(roisPerHour.atLeast(safeCriteria.minRoiPerHour()));
+        }
+        if (safeCriteria.maxRequiredCapital() != null) {
+            bitmaps.add(requiredCapitals.atMost(safeCriteria.maxRequiredCapital()));
+        }
+        if (bitmaps.isEmpty()) {
+            return null;
+        }
+
+        long[] result = bitmaps.getFirst().clone();
+        for (int i = 1; i < bitmaps.size(); i++) {
+            long[] other = bitmaps.get(i);
+            long any = 0L;
+            for (int word = 0; word < result.length; word++) {
+                result[word] &= other[word];
+                any |= result[word];
+            }
+            if (any == 0L) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    static boolean contains(long[] bitmap, int row) {
+        return (bitmap[row >>> 6] & (1L << row)) != 0L;
+    }
+
+    static int cardinality(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    static int[] ascendingOrder(double[] column) {
+        return IntStream.range(0, column.length).boxed()
+                .sorted(Comparator.comparing((Integer row) -> Double.isNaN(column[row]))
+                        .thenComparingDouble(row -> column[row]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    static int[] ascendingOrder(long[] column) {
+        return IntStream.range(0, column.length).boxed()
+                .sorted(Comparator.comparing((Integer row) -> column[row] == FlipView.NULL_LONG)
+                        .thenComparingLong(row -> column[row]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int wordCount(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    private static void set(long[] bitmap, int row) {
+        bitmap[row >>> 6] |= 1L << row;
+    }
+
+    private static void clear(long[] bitmap, int row) {
+        bitmap[row >>> 6] &= ~(1L << row);
+    }
+
+    /**
+     * Rows {@code rows[from..to)} as a bitmap. When they are the larger part of the present rows, the
+     * present bitmap is copied and the complement cleared instead, so at most half the rows are touched.
+     */
+    private static long[] rangeBitmap(int[] rows, long[] presentBitmap, int presentCount, int from, int to, int size) {
+        int matched = to - from;
+        if (matched <= presentCount - matched) {
+            long[] bitmap = new long[wordCount(size)];
+            for (int position = from; position < to; position++) {
+                set(bitmap, rows[position]);
+            }
+            return bitmap;
+        }
+        long[] bitmap = presentBitmap.clone();
+        for (int position = 0; position < from; position++) {
+            clear(bitmap, rows[position]);
+        }
+        for (int position = to; position < presentCount; position++) {
+            clear(bitmap, rows[position]);
+        }
+        return bitmap;
+    }
+
+    private static final class SortedDoubleColumn {
+        private final double[] sortedValues;
+        private final int[] rows;
+        private final long[] presentBitmap;
+        private final int size;
+
+        private SortedDoubleColumn(double[] column, int[] ascendingOrder, int size) {
+            int present = 0;
+            while (present < ascendingOrder.length && !Double.isNaN(column[ascendingOrder[present]])) {
+                present++;
+            }
+            this.rows = Arrays.copyOf(ascendingOrder, present);
+            this.sortedValues = new double[present];
+            this.presentBitmap = new long[wordCount(size)];
+            for (int position = 0; position < present; position++) {
+                sortedValues[position] = column[rows[position]];
+                set(presentBitmap, rows[position]);
+            }
+            this.size = size;
+        }
+
+        long[] atLeast(double min) {
+            int from = 0;
+            int to = sortedValues.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (sortedValues[mid] >= min) {
+                    to = mid;
+                } else {
+                    from = mid + 1;
+                }
+            }
+            return rangeBitmap(rows, presentBitmap, rows.length, from, rows.length, size);
+        }
+
+        long[] atMost(double max) {
+            int from = 0;
+            int to = sortedValues.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (sortedValues[mid] <= max) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return rangeBitmap(rows, presentBitmap, rows.length, 0, from, size);
+        }
+    }
+
+    private static final class SortedLongColumn {
+        private final long[] sortedValues;
+        private final int[] rows;
+        private final long[] presentBitmap;
+        private final int size;
+
+        private SortedLongColumn(long[] column, int[] ascendingOrder, int size) {
+            int present = 0;
+            while (present < ascendingOrder.length && column[ascendingOrder[present]] != FlipView.NULL_LONG) {
+                present++;
+            }
+            this.rows = Arrays.copyOf(ascendingOrder, present);
+            this.sortedValues = new long[present];
+            this.presentBitmap = new long[wordCount(size)];
+            for (int position = 0; position < present; position++) {
+                sortedValues[position] = column[rows[position]];
+                set(presentBitmap, rows[position]);
+            }
+            this.size = size;
+        }
+
+        long[] atLeast(long min) {
+            int from = 0;
+            int to = sortedValues.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (sortedValues[mid] >= min) {
+                    to = mid;
+                } else {
+                    from = mid + 1;
+                }
+            }
+            return rangeBitmap(rows, presentBitmap, rows.length, from, rows.length, size);
+        }
+
+        long[] atMost(long max) {
+            int from = 0;
+            int to = sortedValues.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (sortedValues[mid] <= max) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return rangeBitmap(rows, presentBitmap, rows.length, 0, from, size);
+        }
+    }
+}
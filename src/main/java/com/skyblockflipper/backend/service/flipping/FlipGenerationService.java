@@ -3,8 +3,8 @@ package com.skyblockflipper.backend.service.flipping;
 import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.Flipping.Recipe.Recipe;
 import com.skyblockflipper.backend.model.Flipping.Recipe.RecipeToFlipMapper;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.repository.RecipeRepository;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,36 +16,51 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class FlipGenerationService {
 
-    private final FlipRepository flipRepository;
+    private final FlipTemplateStore flipTemplateStore;
     private final RecipeRepository recipeRepository;
     private final RecipeToFlipMapper recipeToFlipMapper;
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
     private final UnifiedFlipInputMapper unifiedFlipInputMapper;
     private final MarketFlipMapper marketFlipMapper;
+    private final FlipMetricsCalculator flipMetricsCalculator;
 
-    public FlipGenerationService(FlipRepository flipRepository,
+    public FlipGenerationService(FlipTemplateStore flipTemplateStore,
                                  RecipeRepository recipeRepository,
                                  RecipeToFlipMapper recipeToFlipMapper) {
-        this(flipRepository, recipeRepository, recipeToFlipMapper, null, null, null);
+        this(flipTemplateStore, recipeRepository, recipeToFlipMapper, null, null, null);
     }
 
-    @Autowired
-    public FlipGenerationService(FlipRepository flipRepository,
+    public FlipGenerationService(FlipTemplateStore flipTemplateStore,
                                  RecipeRepository recipeRepository,
                                  RecipeToFlipMapper recipeToFlipMapper,
                                  MarketSnapshotPersistenceService marketSnapshotPersistenceService,
                                  UnifiedFlipInputMapper unifiedFlipInputMapper,
                                  MarketFlipMapper marketFlipMapper) {
-        this.flipRepository = flipRepository;
+        this(flipTemplateStore, recipeRepository, recipeToFlipMapper, marketSnapshotPersistenceService,
+                unifiedFlipInputMapper, marketFlipMapper, null);
+    }
+
+    @Autowired
+    public FlipGenerationService(FlipTemplateStore flipTemplateStore,
+                                 RecipeRepository recipeRepository,
+                                 RecipeToFlipMapper recipeToFlipMapper,
+                                 MarketSnapshotPersistenceService marketSnapshotPersistenceService,
+                                 UnifiedFlipInputMapper unifiedFlipInputMapper,
+                                 MarketFlipMapper marketFlipMapper,
+                                 FlipMetricsCalculator flipMetricsCalculator) {
+        this.flipTemplateStore = flipTemplateStore;
         this.recipeRepository = recipeRepository;
         this.recipeToFlipMapper = recipeToFlipMapper;
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
         this.unifiedFlipInputMapper = unifiedFlipInputMapper;
         this.marketFlipMapper = marketFlipMapper;
+        this.flipMetricsCalculator = flipMetricsCalculator;
     }
 
     @Transactional
@@ -54,25 +69,51 @@ public class FlipGenerationService {
             return new GenerationResult(0, 0, true);
         }
         long snapshotEpochMillis = snapshotTimestamp.toEpochMilli();
-        if (flipRepository.existsBySnapshotTimestampEpochMillis(snapshotEpochMillis)) {
+        if (flipTemplateStore.existsBySnapshotTimestampEpochMillis(snapshotEpochMillis)) {
             return new GenerationResult(0, 0, true);
         }
         return regenerateForSnapshot(snapshotTimestamp);
     }
 
+    /**
+     * Generates flips from a snapshot that is already in memory, so callers that persist snapshots
+     * asynchronously do not depend on the row having been written yet. Metrics are computed from the
+     * same snapshot rather than from an as-of lookup, which could resolve an older persisted one.
+     */
+    @Transactional
+    public GenerationResult generateIfMissingForSnapshot(MarketSnapshot marketSnapshot,
+                                                         UnifiedFlipInputSnapshot inputSnapshot) {
+        if (inputSnapshot == null || inputSnapshot.snapshotTimestamp() == null) {
+            return new GenerationResult(0, 0, true);
+        }
+        Instant snapshotTimestamp = inputSnapshot.snapshotTimestamp();
+        if (flipTemplateStore.existsBySnapshotTimestampEpochMillis(snapshotTimestamp.toEpochMilli())) {
+            return new GenerationResult(0, 0, true);
+        }
+        Optional<UnifiedFlipInputSnapshot> marketInputSnapshot = marketFlipMapper == null
+                ? Optional.empty()
+                : Optional.of(inputSnapshot);
+        return regenerate(snapshotTimestamp, marketInputSnapshot,
+                () -> flipMetricsCalculator.forSnapshot(marketSnapshot, inputSnapshot));
+    }
+
     @Transactional
     public GenerationResult regenerateForSnapshot(Instant snapshotTimestamp) {
         if (snapshotTimestamp == null) {
             return new GenerationResult(0, 0, true);
         }
+        return regenerate(snapshotTimestamp, loadMarketInputSnapshot(snapshotTimestamp),
+                () -> flipMetricsCalculator.forSnapshot(snapshotTimestamp));
+    }
 
+    private GenerationResult regenerate(Instant snapshotTimestamp,
+                                        Optional<UnifiedFlipInputSnapshot> marketInputSnapshot,
+                                        Supplier<Function<Flip, FlipMetrics>> metricsCalculator) {
         long snapshotEpochMillis = snapshotTimestamp.toEpochMilli();
         List<Recipe> recipes = recipeRepository.findAll(Sort.by("recipeId").ascending());
-        Optional<UnifiedFlipInputSnapshot> marketInputSnapshot = loadMarketInputSnapshot(snapshotTimestamp);
         if (recipes.isEmpty() && marketInputSnapshot.isEmpty()) {
             return new GenerationResult(0, 0, true);
         }
-        flipRepository.deleteBySnapshotTimestampEpochMillis(snapshotEpochMillis);
 
         List<Flip> generatedFlips = new ArrayList<>(recipes.size() + (marketInputSnapshot.isPresent() ? 128 : 0));
         int skipped = 0;
@@ -85,12 +126,11 @@ public class FlipGenerationService {
             generatedFlips.add(mapped);
         }
         marketInputSnapshot.ifPresent(snapshot -> generatedFlips.addAll(marketFlipMapper.fromMarketSnapshot(snapshot)));
-        for (Flip flip : generatedFlips) {
-            flip.setSnapshotTimestampEpochMillis(snapshotEpochMillis);
-        }
 
-        if (!generatedFlips.isEmpty()) {
-            flipRepository.saveAll(generatedFlips);
+        if (flipMetricsCalculator == null) {
+            flipTemplateStore.replaceSnapshot(snapshotEpochMillis, generatedFlips);
+        } else {
+            flipTemplateStore.replaceSnapshot(snapshotEpochMillis, generatedFlips, metricsCalculator.get());
         }
         return new GenerationResult(generatedFlips.size(), skipped, false);
     }
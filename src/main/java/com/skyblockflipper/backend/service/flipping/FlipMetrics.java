@@ -0,0 +1,37 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.api.UnifiedFlipDto;
+
+/**
+ * The filterable and sortable figures of a flip for one snapshot, materialized next to its
+ * snapshot membership.
+ */
+public record FlipMetrics(
+        Long expectedProfit,
+        Double roi,
+        Double roiPerHour,
+        Double liquidityScore,
+        Double riskScore,
+        Long requiredCapital,
+        Long fees,
+        Long durationSeconds,
+        boolean partial
+) {
+    public static FlipMetrics of(UnifiedFlipDto dto) {
+        return new FlipMetrics(
+                dto.expectedProfit(),
+                finiteOrNull(dto.roi()),
+                finiteOrNull(dto.roiPerHour()),
+                finiteOrNull(dto.liquidityScore()),
+                finiteOrNull(dto.riskScore()),
+                dto.requiredCapital(),
+                dto.fees(),
+                dto.durationSeconds(),
+                dto.partial()
+        );
+    }
+
+    private static Double finiteOrNull(Double value) {
+        return value == null || value.isNaN() || value.isInfinite() ? null : value;
+    }
+}
@@ -0,0 +1,45 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.api.UnifiedFlipDto;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Computes flip metrics with the same as-of context the read side uses for a snapshot, so stored
+ * values match what the API would calculate on the fly.
+ */
+@Component
+public class FlipMetricsCalculator {
+
+    private final FlipCalculationContextService flipCalculationContextService;
+    private final UnifiedFlipDtoMapper unifiedFlipDtoMapper;
+
+    public FlipMetricsCalculator(FlipCalculationContextService flipCalculationContextService,
+                                 UnifiedFlipDtoMapper unifiedFlipDtoMapper) {
+        this.flipCalculationContextService = flipCalculationContextService;
+        this.unifiedFlipDtoMapper = unifiedFlipDtoMapper;
+    }
+
+    public Function<Flip, FlipMetrics> forSnapshot(Instant snapshotTimestamp) {
+        return withContext(flipCalculationContextService.loadContextAsOf(snapshotTimestamp));
+    }
+
+    /**
+     * Computes metrics against a snapshot held in memory, which may not be persisted yet.
+     */
+    public Function<Flip, FlipMetrics> forSnapshot(MarketSnapshot marketSnapshot, UnifiedFlipInputSnapshot inputSnapshot) {
+        return withContext(flipCalculationContextService.loadContextFor(marketSnapshot, inputSnapshot));
+    }
+
+    private Function<Flip, FlipMetrics> withContext(FlipCalculationContext context) {
+        return flip -> {
+            UnifiedFlipDto dto = unifiedFlipDtoMapper.toDto(flip, context);
+            return dto == null ? null : FlipMetrics.of(dto);
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package com.skyblockflipper.backend.service.flipping;
+
+public record FlipMetricsCriteria(
+        Double minLiquidityScore,
+        Double maxRiskScore,
+        Long minExpectedProfit,
+        Double minRoi,
+        Double minRoiPerHour,
+        Long maxRequiredCapital,
+        Boolean partial
+) {
+    public static FlipMetricsCriteria none() {
+        return new FlipMetricsCriteria(null, null, null, null, null, null, null);
+    }
+}
@@ -1,15 +1,17 @@
 package com.skyblockflipper.backend.service.flipping;
 
+import com.skyblockflipper.backend.api.CursorPageDto;
 import com.skyblockflipper.backend.api.FlipCoverageDto;
 import com.skyblockflipper.backend.api.FlipGoodnessDto;
 import com.skyblockflipper.backend.api.FlipSnapshotStatsDto;
 import com.skyblockflipper.backend.api.FlipSortBy;
+import com.skyblockflipper.backend.api.InvalidCursorException;
+import com.skyblockflipper.backend.api.PageCursor;
 import com.skyblockflipper.backend.api.FlipTypesDto;
 import com.skyblockflipper.backend.api.FlipSummaryStatsDto;
 import com.skyblockflipper.backend.api.UnifiedFlipDto;
 import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
 import com.skyblockflipper.backend.model.Flipping.Flip;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -19,6 +21,9 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
@@ -32,15 +37,18 @@ public class FlipReadService {
             FlipType.FORGE
     );
     private static final List<String> EXCLUDED_FLIP_TYPES = List.of("SHARD", "FUSION");
+    private static final int MAX_CACHED_VIEWS = 4;
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
 
-    private final FlipRepository flipRepository;
+    private final FlipTemplateStore flipTemplateStore;
     private final UnifiedFlipDtoMapper unifiedFlipDtoMapper;
     private final FlipCalculationContextService flipCalculationContextService;
+    private final Map<Long, CompletableFuture<FlipView>> viewsBySnapshot = new ConcurrentHashMap<>();
 
-    public FlipReadService(FlipRepository flipRepository,
+    public FlipReadService(FlipTemplateStore flipTemplateStore,
                            UnifiedFlipDtoMapper unifiedFlipDtoMapper,
                            FlipCalculationContextService flipCalculationContextService) {
-        this.flipRepository = flipRepository;
+        this.flipTemplateStore = flipTemplateStore;
         this.unifiedFlipDtoMapper = unifiedFlipDtoMapper;
         this.flipCalculationContextService = flipCalculationContextService;
     }
@@ -59,8 +67,37 @@ public class FlipReadService {
         return flips.map(flip -> unifiedFlipDtoMapper.toDto(flip, context));
     }
 
+    /**
+     * Keyset variant of {@link #listFlips(FlipType, Instant, Pageable)} in id order. The cursor pins the
+     * snapshot it was issued for, so following it never skips or repeats flips when newer snapshots land.
+     */
+    public CursorPageDto<UnifiedFlipDto> listFlipsAfter(FlipType flipType,
+                                                        Instant snapshotTimestamp,
+                                                        PageCursor cursor,
+                                                        int limit) {
+        return pageAfter(flipType, snapshotTimestamp, FlipMetricsCriteria.none(), null, Sort.Direction.ASC, cursor, limit);
+    }
+
+    public CursorPageDto<UnifiedFlipDto> filterFlipsAfter(FlipType flipType,
+                                                          Instant snapshotTimestamp,
+                                                          FlipMetricsCriteria criteria,
+                                                          FlipSortBy sortBy,
+                                                          Sort.Direction sortDirection,
+                                                          PageCursor cursor,
+                                                          int limit) {
+        return pageAfter(
+                flipType,
+                snapshotTimestamp,
+                criteria,
+                sortBy == null ? FlipSortBy.EXPECTED_PROFIT : sortBy,
+                sortDirection == null ? Sort.Direction.DESC : sortDirection,
+                cursor,
+                limit
+        );
+    }
+
     public Optional<UnifiedFlipDto> findFlipById(UUID id) {
-        Optional<Flip> flip = flipRepository.findById(id);
+        Optional<Flip> flip = flipTemplateStore.findById(id);
         if (flip.isEmpty()) {
             return Optional.empty();
         }
@@ -83,6 +120,23 @@ public class FlipReadService {
                                             FlipSortBy sortBy,
                                             Sort.Direction sortDirection,
                                             Pageable pageable) {
+        Long snapshotEpochMillis = resolveSnapshotEpochMillis(snapshotTimestamp);
+        if (snapshotEpochMillis != null) {
+            FlipMetricsCriteria criteria = new FlipMetricsCriteria(
+                    minLiquidityScore,
+                    maxRiskScore,
+                    minExpectedProfit,
+                    minRoi,
+                    minRoiPerHour,
+                    maxRequiredCapital,
+                    partial
+            );
+            FlipView view = viewFor(snapshotTimestamp, snapshotEpochMillis);
+            if (view != null) {
+                return view.page(flipType, criteria, sortBy, sortDirection, pageable);
+            }
+            return queryMaterialized(flipType, snapshotEpochMillis, criteria, sortBy, sortDirection, pageable);
+        }
         List<UnifiedFlipDto> mapped = filterFlipsAsList(
                 flipType,
                 snapshotTimestamp,
@@ -110,6 +164,25 @@ public class FlipReadService {
                                          Boolean partial,
                                          int limit) {
         int safeLimit = Math.max(1, limit);
+        Long snapshotEpochMillis = resolveSnapshotEpochMillis(snapshotTimestamp);
+        if (snapshotEpochMillis != null) {
+            FlipMetricsCriteria criteria = new FlipMetricsCriteria(
+                    minLiquidityScore,
+                    maxRiskScore,
+                    minExpectedProfit,
+                    minRoi,
+                    minRoiPerHour,
+                    maxRequiredCapital,
+                    partial
+            );
+            FlipView view = viewFor(snapshotTimestamp, snapshotEpochMillis);
+            Pageable topN = PageRequest.of(0, safeLimit);
+            Page<UnifiedFlipDto> top = view != null
+                    ? view.page(flipType, criteria, FlipSortBy.EXPECTED_PROFIT, Sort.Direction.DESC, topN)
+                    : queryMaterialized(flipType, snapshotEpochMillis, criteria, FlipSortBy.EXPECTED_PROFIT,
+                    Sort.Direction.DESC, topN);
+            return top.getContent();
+        }
         return filterFlipsAsList(
                 flipType,
                 snapshotTimestamp,
@@ -201,6 +274,11 @@ public class FlipReadService {
 
     public Page<FlipGoodnessDto> topGoodnessFlips(FlipType flipType, Instant snapshotTimestamp, int page) {
         Long snapshotEpochMillis = resolveSnapshotEpochMillis(snapshotTimestamp);
+        int safePage = Math.max(0, page);
+        if (snapshotEpochMillis != null) {
+            return buildOrCachedView(snapshotEpochMillis)
+                    .goodnessPage(flipType, PageRequest.of(safePage, GOODNESS_PAGE_SIZE));
+        }
         FlipCalculationContext context = snapshotEpochMillis == null
                 ? flipCalculationContextService.loadCurrentContext()
                 : flipCalculationContextService.loadContextAsOf(Instant.ofEpochMilli(snapshotEpochMillis));
@@ -218,7 +296,6 @@ public class FlipReadService {
                         .thenComparing(entry -> entry.flip().id() == null ? "" : entry.flip().id().toString()))
                 .toList();
 
-        int safePage = Math.max(0, page);
         return paginateGoodness(ranked, PageRequest.of(safePage, GOODNESS_PAGE_SIZE));
     }
 
@@ -240,7 +317,7 @@ public class FlipReadService {
             countsByType.put(flipType, 0L);
         }
 
-        List<Object[]> rows = flipRepository.countByFlipTypeForSnapshot(snapshotEpochMillis);
+        List<Object[]> rows = flipTemplateStore.countByFlipTypeForSnapshot(snapshotEpochMillis);
         long total = 0L;
         for (Object[] row : rows) {
             if (row == null || row.length < 2) {
@@ -269,7 +346,7 @@ public class FlipReadService {
         }
 
         if (snapshotEpochMillis != null) {
-            List<Object[]> rows = flipRepository.countByFlipTypeForSnapshot(snapshotEpochMillis);
+            List<Object[]> rows = flipTemplateStore.countByFlipTypeForSnapshot(snapshotEpochMillis);
             for (Object[] row : rows) {
                 if (row == null || row.length < 2) {
                     continue;
@@ -289,16 +366,51 @@ public class FlipReadService {
         return new FlipCoverageDto(snapshotTimestamp, EXCLUDED_FLIP_TYPES, coverage);
     }
 
+    private CursorPageDto<UnifiedFlipDto> pageAfter(FlipType flipType,
+                                                    Instant snapshotTimestamp,
+                                                    FlipMetricsCriteria criteria,
+                                                    FlipSortBy sortBy,
+                                                    Sort.Direction sortDirection,
+                                                    PageCursor cursor,
+                                                    int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+        Long snapshotEpochMillis = cursor != null
+                ? requireCursorSnapshot(cursor, snapshotTimestamp)
+                : resolveSnapshotEpochMillis(snapshotTimestamp);
+        if (snapshotEpochMillis == null) {
+            return CursorPageDto.empty(safeLimit);
+        }
+        return buildOrCachedView(snapshotEpochMillis)
+                .pageAfter(flipType, criteria, sortBy, sortDirection, cursor, safeLimit);
+    }
+
+    /**
+     * A cursor keeps paging the snapshot it was issued for, so only versions of stored snapshots are
+     * accepted; a forged version would otherwise build and cache a view for a snapshot that never existed.
+     *
+     * @throws InvalidCursorException if the cursor names an unknown snapshot or not the requested one
+     */
+    private long requireCursorSnapshot(PageCursor cursor, Instant snapshotTimestamp) {
+        long version = cursor.version();
+        if (snapshotTimestamp != null && snapshotTimestamp.toEpochMilli() != version) {
+            throw new InvalidCursorException("Cursor was issued for a different snapshot");
+        }
+        if (cachedView(version) == null && !flipTemplateStore.existsBySnapshotTimestampEpochMillis(version)) {
+            throw new InvalidCursorException("Cursor refers to an unknown snapshot");
+        }
+        return version;
+    }
+
     private Long resolveSnapshotEpochMillis(Instant snapshotTimestamp) {
         if (snapshotTimestamp != null) {
             return snapshotTimestamp.toEpochMilli();
         }
-        Optional<Long> latestSnapshot = flipRepository.findMaxSnapshotTimestampEpochMillis();
+        Optional<Long> latestSnapshot = flipTemplateStore.findMaxSnapshotTimestampEpochMillis();
         return latestSnapshot.orElse(null);
     }
 
     public Optional<Long> latestSnapshotEpochMillis() {
-        return flipRepository.findMaxSnapshotTimestampEpochMillis();
+        return flipTemplateStore.findMaxSnapshotTimestampEpochMillis();
     }
 
     private FlipCoverageDto.FlipTypeCoverageDto coverageEntry(FlipType flipType, long latestSnapshotCount) {
@@ -338,12 +450,138 @@ public class FlipReadService {
     private Page<Flip> queryFlips(FlipType flipType, Long snapshotEpochMillis, Pageable pageable) {
         if (snapshotEpochMillis == null) {
             return flipType == null
-                    ? flipRepository.findAll(pageable)
-                    : flipRepository.findAllByFlipType(flipType, pageable);
+                    ? flipTemplateStore.findAll(pageable)
+                    : flipTemplateStore.findAllByFlipType(flipType, pageable);
         }
         return flipType == null
-                ? flipRepository.findAllBySnapshotTimestampEpochMillis(snapshotEpochMillis, pageable)
-                : flipRepository.findAllByFlipTypeAndSnapshotTimestampEpochMillis(flipType, snapshotEpochMillis, pageable);
+                ? flipTemplateStore.findAllBySnapshotTimestampEpochMillis(snapshotEpochMillis, pageable)
+                : flipTemplateStore.findAllByFlipTypeAndSnapshotTimestampEpochMillis(flipType, snapshotEpochMillis, pageable);
+    }
+
+    /**
+     * Returns the ranked view of a snapshot, or {@code null} when the caller pinned a snapshot that has no
+     * cached view but materialized metrics, where one SQL page is cheaper than mapping the whole snapshot.
+     */
+    private FlipView viewFor(Instant requestedSnapshotTimestamp, long snapshotEpochMillis) {
+        FlipView cached = cachedView(snapshotEpochMillis);
+        if (cached != null) {
+            return cached;
+        }
+        if (requestedSnapshotTimestamp != null && flipTemplateStore.hasMaterializedMetrics(snapshotEpochMillis)) {
+            return null;
+        }
+        return buildOrCachedView(snapshotEpochMillis);
+    }
+
+    private FlipView cachedView(long snapshotEpochMillis) {
+        CompletableFuture<FlipView> future = viewsBySnapshot.get(snapshotEpochMillis);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        FlipView view = future.join();
+        return isCurrent(view) ? view : null;
+    }
+
+    /**
+     * Maps and scores every flip of the snapshot once; concurrent readers of the same snapshot wait for
+     * the first build while other snapshots build in parallel. The version is read before the flips, so
+     * a concurrent regeneration of the snapshot leaves the view stale and the next reader rebuilds it.
+     */
+    private FlipView buildOrCachedView(long snapshotEpochMillis) {
+        while (true) {
+            CompletableFuture<FlipView> existing = viewsBySnapshot.get(snapshotEpochMillis);
+            if (existing != null) {
+                FlipView view = awaitView(existing);
+                if (isCurrent(view)) {
+                    return view;
+                }
+                viewsBySnapshot.remove(snapshotEpochMillis, existing);
+                continue;
+            }
+            CompletableFuture<FlipView> candidate = new CompletableFuture<>();
+            if (viewsBySnapshot.putIfAbsent(snapshotEpochMillis, candidate) != null) {
+                continue;
+            }
+            FlipView view;
+            try {
+                view = buildView(snapshotEpochMillis);
+            } catch (RuntimeException e) {
+                viewsBySnapshot.remove(snapshotEpochMillis, candidate);
+                candidate.completeExceptionally(e);
+                throw e;
+            }
+            candidate.complete(view);
+            evictOldestViews();
+            return view;
+        }
+    }
+
+    private FlipView buildView(long snapshotEpochMillis) {
+        long membershipVersion = flipTemplateStore.membershipVersion(snapshotEpochMillis);
+        FlipCalculationContext context = flipCalculationContextService.loadContextAsOf(
+                Instant.ofEpochMilli(snapshotEpochMillis));
+        List<UnifiedFlipDto> mapped = queryFlips(null, snapshotEpochMillis, Pageable.unpaged())
+                .stream()
+                .map(flip -> unifiedFlipDtoMapper.toDto(flip, context))
+                .filter(Objects::nonNull)
+                .toList();
+        return FlipView.build(snapshotEpochMillis, membershipVersion, mapped, this::toGoodnessDto);
+    }
+
+    private boolean isCurrent(FlipView view) {
+        return view.membershipVersion() == flipTemplateStore.membershipVersion(view.snapshotEpochMillis());
+    }
+
+    // Oldest snapshots go first; builds still running are never evicted under their waiters.
+    private void evictOldestViews() {
+        while (viewsBySnapshot.size() > MAX_CACHED_VIEWS) {
+            Map.Entry<Long, CompletableFuture<FlipView>> oldest = viewsBySnapshot.entrySet().stream()
+                    .filter(entry -> entry.getValue().isDone())
+                    .min(Map.Entry.comparingByKey())
+                    .orElse(null);
+            if (oldest == null) {
+                return;
+            }
+            viewsBySnapshot.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    private static FlipView awaitView(CompletableFuture<FlipView> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Filters, sorts and pages in SQL on the metrics materialized at generation time; only the flips
+     * of the requested page are mapped.
+     */
+    private Page<UnifiedFlipDto> queryMaterialized(FlipType flipType,
+                                                   long snapshotEpochMillis,
+                                                   FlipMetricsCriteria criteria,
+                                                   FlipSortBy sortBy,
+                                                   Sort.Direction sortDirection,
+                                                   Pageable pageable) {
+        Page<Flip> flips = flipTemplateStore.findBySnapshotMetrics(
+                snapshotEpochMillis,
+                flipType,
+                criteria,
+                sortBy == null ? FlipSortBy.EXPECTED_PROFIT : sortBy,
+                sortDirection == null ? Sort.Direction.DESC : sortDirection,
+                pageable
+        );
+        FlipCalculationContext context = flipCalculationContextService.loadContextAsOf(
+                Instant.ofEpochMilli(snapshotEpochMillis));
+        List<UnifiedFlipDto> mapped = flips.getContent().stream()
+                .map(flip -> unifiedFlipDtoMapper.toDto(flip, context))
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(mapped, flips.getPageable(), flips.getTotalElements());
     }
 
     private Comparator<UnifiedFlipDto> comparatorFor(FlipSortBy sortBy, Sort.Direction direction) {
@@ -0,0 +1,156 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.model.Flipping.Constraint;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.Step;
+import com.skyblockflipper.backend.service.market.SnapshotRetentionProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Applies the snapshot compaction tiers to flips: memberships of snapshots that compaction did not
+ * keep are deleted, then templates no snapshot refers to any more are collected together with their
+ * steps and constraints. Both run in bounded batches of set-based statements.
+ */
+@Service
+public class FlipRetentionService {
+
+    static final int SNAPSHOTS_PER_BATCH = 50;
+    static final int TEMPLATES_PER_BATCH = 500;
+    private static final long ORPHAN_GRACE_MILLIS = 10L * 60L * 1_000L;
+
+    // Estimated heap tuple sizes: 24 byte header plus 4 byte line pointer, then the column data.
+    private static final long TUPLE_OVERHEAD_BYTES = 28L;
+    private static final long MEMBERSHIP_ROW_BYTES = TUPLE_OVERHEAD_BYTES + 8L + 16L + 8L + 1L + (8L * 8L) + 1L;
+
+    private static final String NON_KEEPER_SNAPSHOTS_SQL =
+            "select distinct m.snapshot_timestamp_epoch_millis from flip_snapshot_membership m "
+                    + "where m.snapshot_timestamp_epoch_millis < ? and not exists ("
+                    + "select 1 from market_snapshot s "
+                    + "where s.snapshot_timestamp_epoch_millis = m.snapshot_timestamp_epoch_millis) "
+                    + "order by m.snapshot_timestamp_epoch_millis limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingTimeTracker blockingTimeTracker;
+    private final FlipTemplateStore flipTemplateStore;
+    private final long rawWindowMillis;
+
+    public FlipRetentionService(JdbcTemplate jdbcTemplate,
+                                BlockingTimeTracker blockingTimeTracker,
+                                FlipTemplateStore flipTemplateStore,
+                                SnapshotRetentionProperties retentionProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockingTimeTracker = blockingTimeTracker;
+        this.flipTemplateStore = flipTemplateStore;
+        SnapshotRetentionProperties configuredRetention = retentionProperties == null
+                ? new SnapshotRetentionProperties()
+                : retentionProperties;
+        this.rawWindowMillis = Math.max(0L, configuredRetention.getRawWindowSeconds()) * 1_000L;
+    }
+
+    public FlipRetentionResult purgeNonKeeperSnapshots() {
+        return purgeNonKeeperSnapshots(Instant.now());
+    }
+
+    /**
+     * A snapshot's flips are kept exactly as long as compaction keeps its market snapshot. Snapshots
+     * inside the raw window or newer than the latest persisted market snapshot are left alone, so
+     * flips of a snapshot still queued for write-behind persistence survive.
+     */
+    public FlipRetentionResult purgeNonKeeperSnapshots(Instant now) {
+        long nowMillis = (now == null ? Instant.now() : now).toEpochMilli();
+        Long latestMarketSnapshot = blockingTimeTracker.record("db.flipRetention.latestSnapshot", "db",
+                () -> jdbcTemplate.queryForObject(
+                        "select max(snapshot_timestamp_epoch_millis) from market_snapshot", Long.class));
+        int purgedSnapshots = 0;
+        long membershipRows = 0L;
+        if (latestMarketSnapshot != null) {
+            long upperBound = Math.min(nowMillis - rawWindowMillis, latestMarketSnapshot);
+            List<Long> batch;
+            do {
+                batch = blockingTimeTracker.record("db.flipRetention.nonKeepers", "db", () -> jdbcTemplate.queryForList(
+                        NON_KEEPER_SNAPSHOTS_SQL, Long.class, upperBound, SNAPSHOTS_PER_BATCH));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                membershipRows += deleteMemberships(batch);
+                flipTemplateStore.membershipsDeleted(batch);
+                purgedSnapshots += batch.size();
+            } while (batch.size() == SNAPSHOTS_PER_BATCH);
+        }
+
+        int templates = 0;
+        long steps = 0L;
+        long constraints = 0L;
+        long bytes = membershipRows * MEMBERSHIP_ROW_BYTES;
+        List<Flip> orphans;
+        do {
+            orphans = flipTemplateStore.deleteOrphanTemplates(TEMPLATES_PER_BATCH, nowMillis - ORPHAN_GRACE_MILLIS);
+            for (Flip orphan : orphans) {
+                templates++;
+                steps += orphan.getSteps().size();
+                constraints += orphan.getConstraints().size();
+                bytes += estimateTemplateBytes(orphan);
+            }
+        } while (orphans.size() == TEMPLATES_PER_BATCH);
+
+        return new FlipRetentionResult(purgedSnapshots, membershipRows, templates, steps, constraints, bytes);
+    }
+
+    private int deleteMemberships(List<Long> snapshotTimestamps) {
+        String placeholders = String.join(", ", Collections.nCopies(snapshotTimestamps.size(), "?"));
+        Object[] args = snapshotTimestamps.toArray();
+        return blockingTimeTracker.record("db.flipRetention.deleteMemberships", "db", () -> jdbcTemplate.update(
+                "delete from flip_snapshot_membership where snapshot_timestamp_epoch_millis in (" + placeholders + ")",
+                args));
+    }
+
+    private long estimateTemplateBytes(Flip template) {
+        long bytes = TUPLE_OVERHEAD_BYTES + 16L
+                + textBytes(template.getFlipType() == null ? null : template.getFlipType().name())
+                + textBytes(template.getResultItemId())
+                + textBytes(template.getContentHash());
+        for (Step step : template.getSteps()) {
+            bytes += TUPLE_OVERHEAD_BYTES + 16L + 16L + 8L + 4L + 4L + 8L
+                    + textBytes(step.getType().name())
+                    + textBytes(step.getDurationType().name())
+                    + textBytes(step.getResource().name())
+                    + textBytes(step.getSchedulingPolicy().name())
+                    + textBytes(step.getParamsJson());
+        }
+        for (Constraint constraint : template.getConstraints()) {
+            bytes += TUPLE_OVERHEAD_BYTES + 16L + 4L + 8L
+                    + textBytes(constraint.getType().name())
+                    + textBytes(constraint.getStringValue());
+        }
+        return bytes;
+    }
+
+    // Short varlena: one header byte plus the UTF-8 payload.
+    private long textBytes(String value) {
+        return value == null ? 0L : 1L + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Rows deleted per table and an estimate of the heap bytes they occupied. PostgreSQL reuses the
+     * space after the next vacuum; the files do not shrink.
+     */
+    public record FlipRetentionResult(
+            int purgedSnapshots,
+            long deletedMemberships,
+            int deletedTemplates,
+            long deletedSteps,
+            long deletedConstraints,
+            long estimatedBytesReclaimed
+    ) {
+        public long deletedRows() {
+            return deletedMemberships + deletedTemplates + deletedSteps + deletedConstraints;
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.api.FlipSortBy;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.FlipSnapshotMembership;
+import com.skyblockflipper.backend.repository.FlipRepository;
+import com.skyblockflipper.backend.repository.FlipSnapshotMembershipRepository;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Stores generated flips as deduplicated templates plus one membership row per snapshot and template.
+ * Templates never change once written, so readers resolve them from an in-memory cache and only the
+ * narrow membership rows are read per snapshot.
+ */
+@Service
+public class FlipTemplateStore {
+
+    private static final int MAX_TRACKED_SNAPSHOT_VERSIONS = 1_024;
+
+    private final FlipRepository flipRepository;
+    private final FlipSnapshotMembershipRepository membershipRepository;
+    private final FlipBulkWriter flipBulkWriter;
+    private final Map<UUID, Flip> templatesById = new ConcurrentHashMap<>();
+    private final Map<String, Flip> templatesByHash = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> lastLinkedEpochMillis = new ConcurrentHashMap<>();
+    private final AtomicLong membershipVersion = new AtomicLong();
+    private final Map<Long, Long> snapshotMembershipVersions = new ConcurrentHashMap<>();
+    // Version reported for snapshots whose entry was pruned: the newest version pruned so far, which is
+    // never older than the snapshot's own last change.
+    private volatile long untrackedMembershipVersion;
+    // Held while snapshots pick cached templates (shared) and while orphans are deleted (exclusive), so a
+    // template cannot be deleted between being picked for a snapshot and being marked as linked.
+    private final ReadWriteLock linkLock = new ReentrantReadWriteLock();
+    private volatile boolean warmed;
+
+    public FlipTemplateStore(FlipRepository flipRepository,
+                             FlipSnapshotMembershipRepository membershipRepository,
+                             FlipBulkWriter flipBulkWriter) {
+        this.flipRepository = flipRepository;
+        this.membershipRepository = membershipRepository;
+        this.flipBulkWriter = flipBulkWriter;
+    }
+
+    /**
+     * Replaces the flips of a snapshot. Flips whose content matches a known template only add a
+     * membership row; new content is written once as a template. Returns the number of memberships.
+     */
+    @Transactional
+    public int replaceSnapshot(long snapshotTimestampEpochMillis, List<Flip> flips) {
+        return replaceSnapshot(snapshotTimestampEpochMillis, flips, null);
+    }
+
+    /**
+     * Like {@link #replaceSnapshot(long, List)}, additionally materializing the metrics of every
+     * snapshot flip on its membership row. A {@code null} calculator or result leaves the row without
+     * metrics.
+     */
+    @Transactional
+    public int replaceSnapshot(long snapshotTimestampEpochMillis,
+                               List<Flip> flips,
+                               Function<Flip, FlipMetrics> metricsCalculator) {
+        membershipRepository.deleteBySnapshot(snapshotTimestampEpochMillis);
+        advanceMembershipVersionAfterCommit(List.of(snapshotTimestampEpochMillis));
+        if (flips == null || flips.isEmpty()) {
+            return 0;
+        }
+        warmUp();
+        Map<String, Flip> snapshotTemplates = new LinkedHashMap<>();
+        List<Flip> newTemplates = new ArrayList<>();
+        long linkedAt = System.currentTimeMillis();
+        linkLock.readLock().lock();
+        try {
+            for (Flip flip : flips) {
+                String contentHash = flip.computeContentHash();
+                if (snapshotTemplates.containsKey(contentHash)) {
+                    continue;
+                }
+                Flip template = templatesByHash.get(contentHash);
+                if (template == null) {
+                    template = flip;
+                    newTemplates.add(template);
+                } else {
+                    lastLinkedEpochMillis.put(template.getId(), linkedAt);
+                }
+                snapshotTemplates.put(contentHash, template);
+            }
+        } finally {
+            linkLock.readLock().unlock();
+        }
+        insertNewTemplates(newTemplates, snapshotTemplates, linkedAt);
+        Map<UUID, FlipMetrics> metricsByTemplateId = null;
+        if (metricsCalculator != null) {
+            metricsByTemplateId = new HashMap<>();
+            for (Flip template : snapshotTemplates.values()) {
+                FlipMetrics metrics = metricsCalculator.apply(template.forSnapshot(snapshotTimestampEpochMillis));
+                if (metrics != null) {
+                    metricsByTemplateId.put(template.getId(), metrics);
+                }
+            }
+        }
+        return flipBulkWriter.insertMemberships(snapshotTimestampEpochMillis, snapshotTemplates.values(),
+                metricsByTemplateId);
+    }
+
+    @Transactional
+    public int deleteSnapshot(long snapshotTimestampEpochMillis) {
+        advanceMembershipVersionAfterCommit(List.of(snapshotTimestampEpochMillis));
+        return membershipRepository.deleteBySnapshot(snapshotTimestampEpochMillis);
+    }
+
+    /**
+     * Version of a snapshot's memberships. It advances once the transaction that changed them has
+     * committed, so readers caching per-snapshot views never tag data they read before the commit with
+     * the new version. Changes to other snapshots leave it alone.
+     */
+    public long membershipVersion(long snapshotTimestampEpochMillis) {
+        return snapshotMembershipVersions.getOrDefault(snapshotTimestampEpochMillis, untrackedMembershipVersion);
+    }
+
+    /**
+     * Records memberships removed outside this store, such as by retention.
+     */
+    public void membershipsDeleted(Collection<Long> snapshotTimestampsEpochMillis) {
+        advanceMembershipVersionAfterCommit(List.copyOf(snapshotTimestampsEpochMillis));
+    }
+
+    /**
+     * Deletes up to {@code limit} templates that no snapshot refers to any more, with their steps and
+     * constraints, and returns them. Templates this instance linked at or after
+     * {@code linkedBeforeEpochMillis} are kept, since the transaction adding their membership may not
+     * have committed yet.
+     */
+    @Transactional
+    public List<Flip> deleteOrphanTemplates(int limit, long linkedBeforeEpochMillis) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        linkLock.writeLock().lock();
+        try {
+            List<UUID> candidates = flipRepository.findOrphanTemplateIds(PageRequest.of(0, limit)).stream()
+                    .filter(id -> lastLinkedEpochMillis.getOrDefault(id, Long.MIN_VALUE) < linkedBeforeEpochMillis)
+                    .toList();
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+            List<Flip> orphans = new ArrayList<>(resolveTemplates(candidates).values());
+            flipBulkWriter.deleteTemplates(candidates);
+            evictUntilRollback(orphans);
+            return orphans;
+        } finally {
+            linkLock.writeLock().unlock();
+        }
+    }
+
+    public boolean existsBySnapshotTimestampEpochMillis(long snapshotTimestampEpochMillis) {
+        return membershipRepository.existsBySnapshotTimestampEpochMillis(snapshotTimestampEpochMillis);
+    }
+
+    public boolean hasMaterializedMetrics(long snapshotTimestampEpochMillis) {
+        return membershipRepository.existsBySnapshotTimestampEpochMillisAndMetricsComputedTrue(snapshotTimestampEpochMillis);
+    }
+
+    /**
+     * Filters, sorts and pages the flips of a snapshot on their materialized metrics in SQL. Flips
+     * without metrics are excluded; missing sort values order last in either direction, ties break on
+     * the template id.
+     */
+    public Page<Flip> findBySnapshotMetrics(long snapshotTimestampEpochMillis,
+                                            FlipType flipType,
+                                            FlipMetricsCriteria criteria,
+                                            FlipSortBy sortBy,
+                                            Sort.Direction direction,
+                                            Pageable pageable) {
+        Specification<FlipSnapshotMembership> specification = metricsSpecification(
+                snapshotTimestampEpochMillis,
+                flipType,
+                criteria == null ? FlipMetricsCriteria.none() : criteria,
+                sortProperty(sortBy == null ? FlipSortBy.EXPECTED_PROFIT : sortBy),
+                direction == null ? Sort.Direction.DESC : direction
+        );
+        Pageable page = unsorted(pageable);
+        List<FlipSnapshotMembership> rows;
+        long total;
+        if (page.isUnpaged()) {
+            rows = membershipRepository.findAll(specification);
+            total = rows.size();
+        } else {
+            Page<FlipSnapshotMembership> result = membershipRepository.findAll(specification, page);
+            rows = result.getContent();
+            total = result.getTotalElements();
+        }
+        List<UUID> templateIds = rows.stream().map(FlipSnapshotMembership::getTemplateId).toList();
+        return new PageImpl<>(resolve(templateIds, snapshotTimestampEpochMillis), page, total);
+    }
+
+    public Optional<Long> findMaxSnapshotTimestampEpochMillis() {
+        return membershipRepository.findMaxSnapshotTimestampEpochMillis();
+    }
+
+    public List<Object[]> countByFlipTypeForSnapshot(long snapshotTimestampEpochMillis) {
+        return membershipRepository.countByFlipTypeForSnapshot(snapshotTimestampEpochMillis);
+    }
+
+    public List<Flip> findAllBySnapshotTimestampEpochMillis(long snapshotTimestampEpochMillis) {
+        return resolve(membershipRepository.findTemplateIds(snapshotTimestampEpochMillis), snapshotTimestampEpochMillis);
+    }
+
+    public Page<Flip> findAllBySnapshotTimestampEpochMillis(long snapshotTimestampEpochMillis, Pageable pageable) {
+        Page<UUID> ids = membershipRepository.findTemplateIds(snapshotTimestampEpochMillis, unsorted(pageable));
+        return new PageImpl<>(resolve(ids.getContent(), snapshotTimestampEpochMillis), ids.getPageable(),
+                ids.getTotalElements());
+    }
+
+    public List<Flip> findByFlipTypeAndSnapshotTimestampEpochMillis(FlipType flipType, long snapshotTimestampEpochMillis) {
+        return resolve(membershipRepository.findTemplateIds(snapshotTimestampEpochMillis, flipType),
+                snapshotTimestampEpochMillis);
+    }
+
+    public Page<Flip> findAllByFlipTypeAndSnapshotTimestampEpochMillis(FlipType flipType,
+                                                                       long snapshotTimestampEpochMillis,
+                                                                       Pageable pageable) {
+        Page<UUID> ids = membershipRepository.findTemplateIds(snapshotTimestampEpochMillis, flipType, unsorted(pageable));
+        return new PageImpl<>(resolve(ids.getContent(), snapshotTimestampEpochMillis), ids.getPageable(),
+                ids.getTotalElements());
+    }
+
+    /**
+     * Looks up a template and binds it to the latest snapshot that contains it.
+     */
+    public Optional<Flip> findById(UUID id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Flip template = resolveTemplates(List.of(id)).get(id);
+        if (template == null) {
+            return Optional.empty();
+        }
+        return Optional.of(membershipRepository.findLatestSnapshotTimestampEpochMillis(id)
+                .map(template::forSnapshot)
+                .orElse(template));
+    }
+
+    /**
+     * Pages over every known template, independent of snapshots.
+     */
+    public Page<Flip> findAll(Pageable pageable) {
+        return pageTemplates(null, pageable);
+    }
+
+    public Page<Flip> findAllByFlipType(FlipType flipType, Pageable pageable) {
+        return pageTemplates(flipType, pageable);
+    }
+
+    public int cachedTemplateCount() {
+        return templatesById.size();
+    }
+
+    private Page<Flip> pageTemplates(FlipType flipType, Pageable pageable) {
+        warmUp();
+        List<Flip> templates = templatesById.values().stream()
+                .filter(template -> flipType == null || template.getFlipType() == flipType)
+                .sorted(Comparator.comparing(Flip::getId))
+                .toList();
+        if (pageable == null || pageable.isUnpaged()) {
+            return new PageImpl<>(templates);
+        }
+        int fromIndex = (int) Math.min(pageable.getOffset(), templates.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), templates.size());
+        return new PageImpl<>(templates.subList(fromIndex, toIndex), pageable, templates.size());
+    }
+
+    // Flips are always ordered by template id; sort properties of the old flip entity do not apply.
+    private Pageable unsorted(Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return Pageable.unpaged();
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    private static String sortProperty(FlipSortBy sortBy) {
+        return switch (sortBy) {
+            case EXPECTED_PROFIT -> "expectedProfit";
+            case ROI -> "roi";
+            case ROI_PER_HOUR -> "roiPerHour";
+            case LIQUIDITY_SCORE -> "liquidityScore";
+            case RISK_SCORE -> "riskScore";
+            case REQUIRED_CAPITAL -> "requiredCapital";
+            case FEES -> "fees";
+            case DURATION_SECONDS -> "durationSeconds";
+        };
+    }
+
+    // Ordering is set here rather than through the Pageable so that nulls sort last on every database;
+    // the count query drops it again.
+    private static Specification<FlipSnapshotMembership> metricsSpecification(long snapshotTimestampEpochMillis,
+                                                                              FlipType flipType,
+                                                                              FlipMetricsCriteria criteria,
+                                                                              String sortProperty,
+                                                                              Sort.Direction direction) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("snapshotTimestampEpochMillis"), snapshotTimestampEpochMillis));
+            predicates.add(cb.isTrue(root.get("metricsComputed")));
+            if (flipType != null) {
+                predicates.add(cb.equal(root.get("flipType"), flipType));
+            }
+            if (criteria.minLiquidityScore() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("liquidityScore"), criteria.minLiquidityScore()));
+            }
+            if (criteria.maxRiskScore() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("riskScore"), criteria.maxRiskScore()));
+            }
+            if (criteria.minExpectedProfit() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("expectedProfit"), criteria.minExpectedProfit()));
+            }
+            if (criteria.minRoi() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("roi"), criteria.minRoi()));
+            }
+            if (criteria.minRoiPerHour() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("roiPerHour"), criteria.minRoiPerHour()));
+            }
+            if (criteria.maxRequiredCapital() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("requiredCapital"), criteria.maxRequiredCapital()));
+            }
+            if (criteria.partial() != null) {
+                predicates.add(cb.equal(root.get("partial"), criteria.partial()));
+            }
+            Expression<Object> sortValue = root.get(sortProperty);
+            Expression<Integer> nullsLast = cb.<Integer>selectCase()
+                    .when(cb.isNull(sortValue), 1)
+                    .otherwise(0);
+            query.orderBy(
+                    cb.asc(nullsLast),
+                    direction == Sort.Direction.ASC ? cb.asc(sortValue) : cb.desc(sortValue),
+                    cb.asc(root.get("templateId"))
+            );
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private List<Flip> resolve(List<UUID> templateIds, long snapshotTimestampEpochMillis) {
+        if (templateIds.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Flip> templates = resolveTemplates(templateIds);
+        List<Flip> flips = new ArrayList<>(templateIds.size());
+        for (UUID templateId : templateIds) {
+            Flip template = templates.get(templateId);
+            if (template != null) {
+                flips.add(template.forSnapshot(snapshotTimestampEpochMillis));
+            }
+        }
+        return flips;
+    }
+
+    private Map<UUID, Flip> resolveTemplates(Collection<UUID> templateIds) {
+        warmUp();
+        Map<UUID, Flip> resolved = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID templateId : templateIds) {
+            Flip template = templatesById.get(templateId);
+            if (template == null) {
+                missing.add(templateId);
+            } else {
+                resolved.put(templateId, template);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // Written by another instance after the cache was warmed, or by the current transaction.
+            List<Flip> loaded = flipRepository.findAllByIdIn(missing);
+            for (Flip template : loaded) {
+                resolved.put(template.getId(), template);
+            }
+            cacheOnceCommitted(loaded);
+        }
+        return resolved;
+    }
+
+    /**
+     * Writes the templates a snapshot needs that were not cached. Content that another transaction
+     * stored in the meantime is skipped by the insert; the snapshot links the stored template instead,
+     * and content whose template vanished again is left out of the snapshot.
+     */
+    private void insertNewTemplates(List<Flip> newTemplates, Map<String, Flip> snapshotTemplates, long linkedAt) {
+        if (newTemplates.isEmpty()) {
+            return;
+        }
+        int inserted = flipBulkWriter.insertTemplates(newTemplates);
+        List<Flip> written = newTemplates;
+        if (inserted < newTemplates.size()) {
+            Map<String, UUID> storedIds = flipBulkWriter.findTemplateIdsByContentHash(
+                    newTemplates.stream().map(Flip::getContentHash).toList());
+            written = new ArrayList<>(inserted);
+            List<UUID> concurrentIds = new ArrayList<>();
+            for (Flip template : newTemplates) {
+                UUID storedId = storedIds.get(template.getContentHash());
+                if (template.getId().equals(storedId)) {
+                    written.add(template);
+                } else {
+                    snapshotTemplates.remove(template.getContentHash());
+                    if (storedId != null) {
+                        concurrentIds.add(storedId);
+                    }
+                }
+            }
+            for (Flip stored : resolveTemplates(concurrentIds).values()) {
+                snapshotTemplates.put(stored.getContentHash(), stored);
+                lastLinkedEpochMillis.put(stored.getId(), linkedAt);
+            }
+        }
+        written.forEach(template -> lastLinkedEpochMillis.put(template.getId(), linkedAt));
+        cacheOnceCommitted(written);
+    }
+
+    private void warmUp() {
+        if (warmed) {
+            return;
+        }
+        synchronized (templatesById) {
+            if (warmed) {
+                return;
+            }
+            for (Flip template : flipRepository.findAllTemplates()) {
+                cache(template);
+            }
+            warmed = true;
+        }
+    }
+
+    // Templates read or written inside a writing transaction may not be committed yet, so they are only
+    // published to other threads once it commits; a rollback forgets them instead.
+    private void cacheOnceCommitted(List<Flip> templates) {
+        if (templates.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            templates.forEach(this::cache);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    templates.forEach(FlipTemplateStore.this::cache);
+                } else {
+                    templates.forEach(template -> lastLinkedEpochMillis.remove(template.getId()));
+                }
+            }
+        });
+    }
+
+    private void evictUntilRollback(List<Flip> templates) {
+        templates.forEach(this::evict);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    templates.forEach(FlipTemplateStore.this::cache);
+                }
+            }
+        });
+    }
+
+    private void advanceMembershipVersionAfterCommit(List<Long> snapshotTimestampsEpochMillis) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advanceMembershipVersion(snapshotTimestampsEpochMillis);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                advanceMembershipVersion(snapshotTimestampsEpochMillis);
+            }
+        });
+    }
+
+    private void advanceMembershipVersion(List<Long> snapshotTimestampsEpochMillis) {
+        for (Long snapshotTimestampEpochMillis : snapshotTimestampsEpochMillis) {
+            snapshotMembershipVersions.put(snapshotTimestampEpochMillis, membershipVersion.incrementAndGet());
+        }
+        if (snapshotMembershipVersions.size() > MAX_TRACKED_SNAPSHOT_VERSIONS) {
+            pruneMembershipVersions();
+        }
+    }
+
+    // Keeps the most recently changed half. The floor is raised before entries go, so a pruned snapshot
+    // never reports a version older than its last change.
+    private synchronized void pruneMembershipVersions() {
+        List<Map.Entry<Long, Long>> oldest = snapshotMembershipVersions.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .limit(snapshotMembershipVersions.size() - (MAX_TRACKED_SNAPSHOT_VERSIONS / 2))
+                .toList();
+        if (oldest.isEmpty()) {
+            return;
+        }
+        untrackedMembershipVersion = Math.max(untrackedMembershipVersion, oldest.getLast().getValue());
+        oldest.forEach(entry -> snapshotMembershipVersions.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private void cache(Flip template) {
+        templatesById.put(template.getId(), template);
+        if (template.getContentHash() != null) {
+            templatesByHash.put(template.getContentHash(), template);
+        }
+    }
+
+    private void evict(Flip template) {
+        templatesById.remove(template.getId(), template);
+        lastLinkedEpochMillis.remove(template.getId());
+        if (template.getContentHash() != null) {
+            templatesByHash.remove(template.getContentHash(), template);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.api.CursorPageDto;
+import com.skyblockflipper.backend.api.FlipGoodnessDto;
+import com.skyblockflipper.backend.api.FlipSortBy;
+import com.skyblockflipper.backend.api.PageCursor;
+import com.skyblockflipper.backend.api.UnifiedFlipDto;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Scored flips of one snapshot, built once and then only read. Metrics are held as primitive columns
+ * (NaN / {@link #NULL_LONG} for missing values) behind a {@link FlipFilterIndex}, and every sort order the
+ * API offers is a precomputed index array, so pages and top-N reads are slices.
+ */
+final class FlipView {
+
+    static final long NULL_LONG = Long.MIN_VALUE;
+    private static final String ID_SORT_FIELD = "id";
+
+    private final long snapshotEpochMillis;
+    private final long membershipVersion;
+    private final UnifiedFlipDto[] flips;
+    private final FlipGoodnessDto[] goodness;
+    private final FlipType[] flipTypes;
+    private final double[] liquidityScores;
+    private final double[] riskScores;
+    private final double[] rois;
+    private final double[] roisPerHour;
+    private final long[] expectedProfits;
+    private final long[] requiredCapitals;
+    private final long[] fees;
+    private final long[] durationsSeconds;
+    private final boolean[] partials;
+    private final String[] idKeys;
+    private final FlipFilterIndex filterIndex;
+    private final Map<FlipSortBy, int[]> ascending = new EnumMap<>(FlipSortBy.class);
+    private final Map<FlipSortBy, int[]> descending = new EnumMap<>(FlipSortBy.class);
+    private final int[] goodnessOrder;
+    private final int[] idOrder;
+
+    private FlipView(long snapshotEpochMillis,
+                     long membershipVersion,
+                     List<UnifiedFlipDto> dtos,
+                     Function<UnifiedFlipDto, FlipGoodnessDto> goodnessScorer) {
+        this.snapshotEpochMillis = snapshotEpochMillis;
+        this.membershipVersion = membershipVersion;
+        int size = dtos.size();
+        this.flips = dtos.toArray(UnifiedFlipDto[]::new);
+        this.goodness = new FlipGoodnessDto[size];
+        this.flipTypes = new FlipType[size];
+        this.liquidityScores = new double[size];
+        this.riskScores = new double[size];
+        this.rois = new double[size];
+        this.roisPerHour = new double[size];
+        this.expectedProfits = new long[size];
+        this.requiredCapitals = new long[size];
+        this.fees = new long[size];
+        this.durationsSeconds = new long[size];
+        this.partials = new boolean[size];
+        this.idKeys = new String[size];
+        for (int i = 0; i < size; i++) {
+            UnifiedFlipDto dto = flips[i];
+            goodness[i] = goodnessScorer.apply(dto);
+            flipTypes[i] = dto.flipType();
+            liquidityScores[i] = column(dto.liquidityScore());
+            riskScores[i] = column(dto.riskScore());
+            rois[i] = column(dto.roi());
+            roisPerHour[i] = column(dto.roiPerHour());
+            expectedProfits[i] = column(dto.expectedProfit());
+            requiredCapitals[i] = column(dto.requiredCapital());
+            fees[i] = column(dto.fees());
+            durationsSeconds[i] = column(dto.durationSeconds());
+            partials[i] = dto.partial();
+            idKeys[i] = dto.id() == null ? "" : dto.id().toString();
+        }
+
+        Comparator<Integer> byId = Comparator.comparing(index -> idKeys[index]);
+        for (FlipSortBy sortBy : FlipSortBy.values()) {
+            ascending.put(sortBy, sortedIndexes(size, metricComparator(sortBy, false).thenComparing(byId)));
+            descending.put(sortBy, sortedIndexes(size, metricComparator(sortBy, true).thenComparing(byId)));
+        }
+        Comparator<Integer> byGoodness = Comparator.comparingDouble((Integer index) -> goodness[index].goodnessScore())
+                .reversed()
+                .thenComparing(Comparator.comparingLong((Integer index) -> expectedProfits[index]).reversed())
+                .thenComparing(byId);
+        this.goodnessOrder = sortedIndexes(size, byGoodness);
+        this.idOrder = sortedIndexes(size, byId);
+        this.filterIndex = new FlipFilterIndex(flipTypes, partials,
+                liquidityScores, ascending.get(FlipSortBy.LIQUIDITY_SCORE),
+                riskScores, ascending.get(FlipSortBy.RISK_SCORE),
+                rois, ascending.get(FlipSortBy.ROI),
+                roisPerHour, ascending.get(FlipSortBy.ROI_PER_HOUR),
+                expectedProfits, ascending.get(FlipSortBy.EXPECTED_PROFIT),
+                requiredCapitals, ascending.get(FlipSortBy.REQUIRED_CAPITAL));
+    }
+
+    static FlipView build(long snapshotEpochMillis,
+                          long membershipVersion,
+                          List<UnifiedFlipDto> dtos,
+                          Function<UnifiedFlipDto, FlipGoodnessDto> goodnessScorer) {
+        return new FlipView(snapshotEpochMillis, membershipVersion, dtos, goodnessScorer);
+    }
+
+    long snapshotEpochMillis() {
+        return snapshotEpochMillis;
+    }
+
+    long membershipVersion() {
+        return membershipVersion;
+    }
+
+    int size() {
+        return flips.length;
+    }
+
+    Page<UnifiedFlipDto> page(FlipType flipType,
+                              FlipMetricsCriteria criteria,
+                              FlipSortBy sortBy,
+                              Sort.Direction sortDirection,
+                              Pageable pageable) {
+        FlipSortBy safeSortBy = sortBy == null ? FlipSortBy.EXPECTED_PROFIT : sortBy;
+        int[] order = sortDirection == Sort.Direction.ASC ? ascending.get(safeSortBy) : descending.get(safeSortBy);
+        return slice(order, matching(flipType, criteria), pageable, index -> flips[index]);
+    }
+
+    Page<FlipGoodnessDto> goodnessPage(FlipType flipType, Pageable pageable) {
+        return slice(goodnessOrder, matching(flipType, null), pageable, index -> goodness[index]);
+    }
+
+    /**
+     * Keyset page: binary-searches the sort order for the first row after {@code after} and collects
+     * matches from there, so a deep page costs the same as the first one.
+     *
+     * @param sortBy metric to order by, or {@code null} for id order
+     */
+    CursorPageDto<UnifiedFlipDto> pageAfter(FlipType flipType,
+                                            FlipMetricsCriteria criteria,
+                                            FlipSortBy sortBy,
+                                            Sort.Direction sortDirection,
+                                            PageCursor after,
+                                            int limit) {
+        boolean descendingOrder = sortDirection != Sort.Direction.ASC;
+        String sortField = sortBy == null ? ID_SORT_FIELD : sortBy.name();
+        if (after != null) {
+            after.requireSort(sortField, descendingOrder);
+        }
+        int[] order = sortBy == null ? idOrder : (descendingOrder ? descending.get(sortBy) : ascending.get(sortBy));
+        long[] matches = matching(flipType, criteria);
+
+        int from = 0;
+        int to = order.length;
+        while (after != null && from < to) {
+            int mid = (from + to) >>> 1;
+            if (compareToCursor(order[mid], sortBy, descendingOrder, after) > 0) {
+                to = mid;
+            } else {
+                from = mid + 1;
+            }
+        }
+
+        List<UnifiedFlipDto> content = new ArrayList<>(Math.min(limit, order.length));
+        int last = -1;
+        boolean hasMore = false;
+        for (int position = from; position < order.length; position++) {
+            int index = order[position];
+            if (matches != null && !FlipFilterIndex.contains(matches, index)) {
+                continue;
+            }
+            if (content.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            content.add(flips[index]);
+            last = index;
+        }
+        String nextCursor = hasMore
+                ? new PageCursor(snapshotEpochMillis, sortField, descendingOrder, sortKey(last, sortBy), idKeys[last]).encode()
+                : null;
+        return new CursorPageDto<>(content, limit, nextCursor);
+    }
+
+    /**
+     * @return the matching rows as bitmap words, or {@code null} when nothing is filtered
+     */
+    private long[] matching(FlipType flipType, FlipMetricsCriteria criteria) {
+        return filterIndex.matching(flipType, criteria);
+    }
+
+    private <T> Page<T> slice(int[] order, long[] matches, Pageable pageable, Function<Integer, T> rowMapper) {
+        int total = matches == null ? order.length : FlipFilterIndex.cardinality(matches);
+        boolean unpaged = pageable == null || pageable.isUnpaged();
+        long offset = unpaged ? 0L : (long) pageable.getPageNumber() * pageable.getPageSize();
+        int from = (int) Math.min(offset, total);
+        int to = unpaged ? total : Math.min(from + pageable.getPageSize(), total);
+
+        List<T> content = new ArrayList<>(to - from);
+        if (matches == null) {
+            for (int position = from; position < to; position++) {
+                content.add(rowMapper.apply(order[position]));
+            }
+        } else {
+            int seen = 0;
+            for (int position = 0; position < order.length && seen < to; position++) {
+                int index = order[position];
+                if (FlipFilterIndex.contains(matches, index) && seen++ >= from) {
+                    content.add(rowMapper.apply(index));
+                }
+            }
+        }
+        return unpaged ? new PageImpl<>(content) : new PageImpl<>(content, pageable, total);
+    }
+
+    private int compareToCursor(int index, FlipSortBy sortBy, boolean descendingOrder, PageCursor cursor) {
+        if (sortBy != null) {
+            int compared = switch (sortBy) {
+                case ROI -> compareDouble(rois[index], cursor.doubleSortKey(), descendingOrder);
+                case ROI_PER_HOUR -> compareDouble(roisPerHour[index], cursor.doubleSortKey(), descendingOrder);
+                case LIQUIDITY_SCORE -> compareDouble(liquidityScores[index], cursor.doubleSortKey(), descendingOrder);
+                case RISK_SCORE -> compareDouble(riskScores[index], cursor.doubleSortKey(), descendingOrder);
+                case REQUIRED_CAPITAL -> compareLong(requiredCapitals[index], cursor.longSortKey(), descendingOrder);
+                case FEES -> compareLong(fees[index], cursor.longSortKey(), descendingOrder);
+                case DURATION_SECONDS -> compareLong(durationsSeconds[index], cursor.longSortKey(), descendingOrder);
+                case EXPECTED_PROFIT -> compareLong(expectedProfits[index], cursor.longSortKey(), descendingOrder);
+            };
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return idKeys[index].compareTo(cursor.id() == null ? "" : cursor.id());
+    }
+
+    private String sortKey(int index, FlipSortBy sortBy) {
+        if (sortBy == null) {
+            return null;
+        }
+        return switch (sortBy) {
+            case ROI -> sortKey(rois[index]);
+            case ROI_PER_HOUR -> sortKey(roisPerHour[index]);
+            case LIQUIDITY_SCORE -> sortKey(liquidityScores[index]);
+            case RISK_SCORE -> sortKey(riskScores[index]);
+            case REQUIRED_CAPITAL -> sortKey(requiredCapitals[index]);
+            case FEES -> sortKey(fees[index]);
+            case DURATION_SECONDS -> sortKey(durationsSeconds[index]);
+            case EXPECTED_PROFIT -> sortKey(expectedProfits[index]);
+        };
+    }
+
+    private static String sortKey(double value) {
+        return Double.isNaN(value) ? null : Double.toString(value);
+    }
+
+    private static String sortKey(long value) {
+        return value == NULL_LONG ? null : Long.toString(value);
+    }
+
+    // Same ordering as doubleComparator/longComparator, against a cursor key instead of another row.
+    private static int compareDouble(double value, Double cursorKey, boolean descendingOrder) {
+        boolean valueMissing = Double.isNaN(value);
+        boolean keyMissing = cursorKey == null;
+        if (valueMissing || keyMissing) {
+            return Boolean.compare(valueMissing, keyMissing);
+        }
+        int compared = Double.compare(value, cursorKey);
+        return descendingOrder ? -compared : compared;
+    }
+
+    private static int compareLong(long value, Long cursorKey, boolean descendingOrder) {
+        boolean valueMissing = value == NULL_LONG;
+        boolean keyMissing = cursorKey == null;
+        if (valueMissing || keyMissing) {
+            return Boolean.compare(valueMissing, keyMissing);
+        }
+        int compared = Long.compare(value, cursorKey);
+        return descendingOrder ? -compared : compared;
+    }
+
+    private Comparator<Integer> metricComparator(FlipSortBy sortBy, boolean descendingOrder) {
+        return switch (sortBy) {
+            case ROI -> doubleComparator(rois, descendingOrder);
+            case ROI_PER_HOUR -> doubleComparator(roisPerHour, descendingOrder);
+            case LIQUIDITY_SCORE -> doubleComparator(liquidityScores, descendingOrder);
+            case RISK_SCORE -> doubleComparator(riskScores, descendingOrder);
+            case REQUIRED_CAPITAL -> longComparator(requiredCapitals, descendingOrder);
+            case FEES -> longComparator(fees, descendingOrder);
+            case DURATION_SECONDS -> longComparator(durationsSeconds, descendingOrder);
+            case EXPECTED_PROFIT -> longComparator(expectedProfits, descendingOrder);
+        };
+    }
+
+    // Missing values sort last in both directions.
+    private static Comparator<Integer> doubleComparator(double[] column, boolean descendingOrder) {
+        return (left, right) -> {
+            boolean leftMissing = Double.isNaN(column[left]);
+            boolean rightMissing = Double.isNaN(column[right]);
+            if (leftMissing || rightMissing) {
+                return Boolean.compare(leftMissing, rightMissing);
+            }
+            int compared = Double.compare(column[left], column[right]);
+            return descendingOrder ? -compared : compared;
+        };
+    }
+
+    private static Comparator<Integer> longComparator(long[] column, boolean descendingOrder) {
+        return (left, right) -> {
+            boolean leftMissing = column[left] == NULL_LONG;
+            boolean rightMissing = column[right] == NULL_LONG;
+            if (leftMissing || rightMissing) {
+                return Boolean.compare(leftMissing, rightMissing);
+            }
+            int compared = Long.compare(column[left], column[right]);
+            return descendingOrder ? -compared : compared;
+        };
+    }
+
+    private static int[] sortedIndexes(int size, Comparator<Integer> comparator) {
+        return IntStream.range(0, size).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double column(Double value) {
+        return value == null ? Double.NaN : value;
+    }
+
+    private static long column(Long value) {
+        return value == null ? NULL_LONG : value;
+    }
+}
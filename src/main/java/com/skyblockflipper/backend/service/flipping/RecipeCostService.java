@@ -8,7 +8,7 @@ import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.repository.RecipeRepository;
-import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketStateHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,21 +23,21 @@ import java.util.Set;
 public class RecipeCostService {
 
     private final RecipeRepository recipeRepository;
-    private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
+    private final MarketStateHolder marketStateHolder;
     private final ItemRepository itemRepository;
 
     public RecipeCostService(RecipeRepository recipeRepository,
-                             MarketSnapshotPersistenceService marketSnapshotPersistenceService,
+                             MarketStateHolder marketStateHolder,
                              ItemRepository itemRepository) {
         this.recipeRepository = recipeRepository;
-        this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
+        this.marketStateHolder = marketStateHolder;
         this.itemRepository = itemRepository;
     }
 
     @Transactional(readOnly = true)
     public Optional<RecipeCostBreakdownDto> costBreakdown(String recipeId) {
         Optional<Recipe> recipeOpt = recipeRepository.findById(recipeId);
-        Optional<MarketSnapshot> snapshotOpt = marketSnapshotPersistenceService.latest();
+        Optional<MarketSnapshot> snapshotOpt = marketStateHolder.latestSnapshot();
         if (recipeOpt.isEmpty() || snapshotOpt.isEmpty()) {
             return Optional.empty();
         }
@@ -6,6 +6,7 @@ import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,7 +25,7 @@ public class UnifiedFlipInputMapper {
         );
     }
 
-    private Map<String, UnifiedFlipInputSnapshot.BazaarQuote> mapBazaarQuotes(
+    public Map<String, UnifiedFlipInputSnapshot.BazaarQuote> mapBazaarQuotes(
             Map<String, BazaarMarketRecord> bazaarProducts
     ) {
         if (bazaarProducts == null || bazaarProducts.isEmpty()) {
@@ -47,7 +48,7 @@ public class UnifiedFlipInputMapper {
                     record.sellOrders()
             ));
         }
-        return quotes;
+        return Collections.unmodifiableMap(quotes);
     }
 
     private Map<String, UnifiedFlipInputSnapshot.AuctionQuote> mapAuctionQuotes(List<AuctionMarketRecord> auctions) {
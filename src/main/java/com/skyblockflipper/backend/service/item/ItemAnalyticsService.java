@@ -9,11 +9,12 @@ import com.skyblockflipper.backend.api.UnifiedFlipDto;
 import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
+import com.skyblockflipper.backend.service.flipping.FlipTemplateStore;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketStateHolder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -30,24 +31,28 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Function;
 
 @Service
 public class ItemAnalyticsService {
 
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
-    private final FlipRepository flipRepository;
+    private final MarketStateHolder marketStateHolder;
+    private final FlipTemplateStore flipTemplateStore;
     private final UnifiedFlipDtoMapper unifiedFlipDtoMapper;
     private final FlipCalculationContextService flipCalculationContextService;
     private final ItemRepository itemRepository;
 
     public ItemAnalyticsService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
-                                FlipRepository flipRepository,
+                                MarketStateHolder marketStateHolder,
+                                FlipTemplateStore flipTemplateStore,
                                 UnifiedFlipDtoMapper unifiedFlipDtoMapper,
                                 FlipCalculationContextService flipCalculationContextService,
                                 ItemRepository itemRepository) {
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
-        this.flipRepository = flipRepository;
+        this.marketStateHolder = marketStateHolder;
+        this.flipTemplateStore = flipTemplateStore;
         this.unifiedFlipDtoMapper = unifiedFlipDtoMapper;
         this.flipCalculationContextService = flipCalculationContextService;
         this.itemRepository = itemRepository;
@@ -59,7 +64,7 @@ public class ItemAnalyticsService {
         if (normalizedItemId.isEmpty()) {
             return List.of();
         }
-        Optional<MarketSnapshot> latestSnapshot = marketSnapshotPersistenceService.latest();
+        Optional<MarketSnapshot> latestSnapshot = marketStateHolder.latestSnapshot();
         if (latestSnapshot.isEmpty()) {
             return List.of();
         }
@@ -67,13 +72,20 @@ public class ItemAnalyticsService {
         PriceHistoryRange safeRange = range == null ? PriceHistoryRange.D30 : range;
         Instant end = latestSnapshot.get().snapshotTimestamp();
         Instant start = end.minus(safeRange.lookback());
+        long bucketSizeMillis = safeRange.bucketSize().toMillis();
+        List<MarketSnapshotPersistenceService.BazaarQuotePoint> quotes =
+                marketSnapshotPersistenceService.bazaarQuotes(normalizedItemId, start, end);
+        if (!quotes.isEmpty()) {
+            return bucketBazaarQuotes(quotes, bucketSizeMillis);
+        }
+
+        // Auction items (and ranges written before bazaar_quote existed) still need full snapshots.
         List<MarketSnapshot> snapshots = marketSnapshotPersistenceService.between(start, end);
         if (snapshots.isEmpty()) {
             return List.of();
         }
 
         Set<String> aliases = resolveAliases(normalizedItemId);
-        long bucketSizeMillis = safeRange.bucketSize().toMillis();
         Map<Long, MarketSnapshot> perBucket = new HashMap<>();
         for (MarketSnapshot snapshot : snapshots) {
             long bucket = Math.floorDiv(snapshot.snapshotTimestamp().toEpochMilli(), bucketSizeMillis) * bucketSizeMillis;
@@ -180,7 +192,7 @@ public class ItemAnalyticsService {
         if (normalized.isEmpty()) {
             return new PageImpl<>(List.of(), pageable, 0);
         }
-        Long snapshotEpoch = flipRepository.findMaxSnapshotTimestampEpochMillis().orElse(null);
+        Long snapshotEpoch = flipTemplateStore.findMaxSnapshotTimestampEpochMillis().orElse(null);
         if (snapshotEpoch == null) {
             return new PageImpl<>(List.of(), pageable, 0);
         }
@@ -189,7 +201,7 @@ public class ItemAnalyticsService {
         Instant snapshotTimestamp = Instant.ofEpochMilli(snapshotEpoch);
         FlipCalculationContext context = flipCalculationContextService.loadContextAsOf(snapshotTimestamp);
 
-        List<UnifiedFlipDto> values = flipRepository.findAllBySnapshotTimestampEpochMillis(snapshotEpoch).stream()
+        List<UnifiedFlipDto> values = flipTemplateStore.findAllBySnapshotTimestampEpochMillis(snapshotEpoch).stream()
                 .map(flip -> unifiedFlipDtoMapper.toDto(flip, context))
                 .filter(dto -> dto != null && (matches(dto.inputItems(), aliases) || matches(dto.outputItems(), aliases)))
                 .toList();
@@ -197,6 +209,24 @@ public class ItemAnalyticsService {
         return paginate(values, pageable);
     }
 
+    private List<PricePointDto> bucketBazaarQuotes(List<MarketSnapshotPersistenceService.BazaarQuotePoint> quotes,
+                                                   long bucketSizeMillis) {
+        Map<Long, MarketSnapshotPersistenceService.BazaarQuotePoint> perBucket = new TreeMap<>();
+        for (MarketSnapshotPersistenceService.BazaarQuotePoint quote : quotes) {
+            long bucket = Math.floorDiv(quote.snapshotTimestamp().toEpochMilli(), bucketSizeMillis) * bucketSizeMillis;
+            perBucket.merge(bucket, quote, (existing, candidate) ->
+                    candidate.snapshotTimestamp().isAfter(existing.snapshotTimestamp()) ? candidate : existing);
+        }
+        return perBucket.values().stream()
+                .map(quote -> new PricePointDto(
+                        quote.snapshotTimestamp(),
+                        roundToLong(quote.record().buyPrice()),
+                        roundToLong(quote.record().sellPrice()),
+                        quote.record().buyVolume()
+                ))
+                .toList();
+    }
+
     private PricePointDto toPricePoint(MarketSnapshot snapshot, String itemId, Set<String> aliases) {
         BazaarMarketRecord bazaar = snapshot.bazaarProducts().get(itemId);
         if (bazaar != null) {
@@ -5,8 +5,8 @@ import com.skyblockflipper.backend.api.MarketplaceType;
 import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
 import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
-import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.flipping.FlipTemplateStore;
+import com.skyblockflipper.backend.service.market.MarketStateHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
@@ -21,13 +21,13 @@ import java.util.Set;
 @Service
 public class ItemMarketplaceService {
 
-    private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
-    private final FlipRepository flipRepository;
+    private final MarketStateHolder marketStateHolder;
+    private final FlipTemplateStore flipTemplateStore;
 
-    public ItemMarketplaceService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
-                                  FlipRepository flipRepository) {
-        this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
-        this.flipRepository = flipRepository;
+    public ItemMarketplaceService(MarketStateHolder marketStateHolder,
+                                  FlipTemplateStore flipTemplateStore) {
+        this.marketStateHolder = marketStateHolder;
+        this.flipTemplateStore = flipTemplateStore;
     }
 
     public Map<String, MarketplaceType> resolveMarketplaces(Collection<Item> items) {
@@ -38,7 +38,7 @@ public class ItemMarketplaceService {
         Set<String> bazaarSignals = new HashSet<>();
         Set<String> auctionSignals = new HashSet<>();
 
-        Optional<MarketSnapshot> latestSnapshot = marketSnapshotPersistenceService.latest();
+        Optional<MarketSnapshot> latestSnapshot = marketStateHolder.latestSnapshot();
         latestSnapshot.ifPresent(snapshot -> {
             snapshot.bazaarProducts().keySet().stream()
                     .map(this::normalize)
@@ -48,8 +48,8 @@ public class ItemMarketplaceService {
                     addSignal(auctionSignals, auction.itemName()));
         });
 
-        flipRepository.findMaxSnapshotTimestampEpochMillis().ifPresent(snapshotEpoch ->
-                flipRepository.findByFlipTypeAndSnapshotTimestampEpochMillis(FlipType.AUCTION, snapshotEpoch)
+        flipTemplateStore.findMaxSnapshotTimestampEpochMillis().ifPresent(snapshotEpoch ->
+                flipTemplateStore.findByFlipTypeAndSnapshotTimestampEpochMillis(FlipType.AUCTION, snapshotEpoch)
                         .stream()
                         .map(Flip::getResultItemId)
                         .forEach(resultItemId -> addSignal(auctionSignals, resultItemId))
@@ -2,11 +2,15 @@ package com.skyblockflipper.backend.service.item;
 
 import com.skyblockflipper.backend.NEU.model.Item;
 import com.skyblockflipper.backend.NEU.repository.ItemRepository;
+import com.skyblockflipper.backend.api.CursorPageDto;
+import com.skyblockflipper.backend.api.InvalidCursorException;
 import com.skyblockflipper.backend.api.ItemDto;
 import com.skyblockflipper.backend.api.MarketplaceType;
+import com.skyblockflipper.backend.api.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -21,6 +25,10 @@ import java.util.Optional;
 @Service
 public class ItemReadService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+    private static final int MIN_SEEK_BATCH = 200;
+    private static final String CURSOR_SORT_FIELD = "id";
+
     private final ItemRepository itemRepository;
     private final ItemMarketplaceService itemMarketplaceService;
 
@@ -70,6 +78,69 @@ public class ItemReadService {
         return paginate(filtered, pageable);
     }
 
+    /**
+     * Keyset variant of {@link #listItems(String, String, String, String, MarketplaceType, Pageable)} in id
+     * order. Items are read in id-ordered batches after the cursor until a page of matches is collected, so
+     * later pages never load the catalogue in front of them. The catalogue is not versioned; cursors carry 0.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<ItemDto> listItemsAfter(String itemId,
+                                                 String search,
+                                                 String category,
+                                                 String rarity,
+                                                 MarketplaceType marketplace,
+                                                 PageCursor cursor,
+                                                 int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+        if (cursor != null && cursor.id() == null) {
+            throw new InvalidCursorException("Malformed item cursor");
+        }
+        if (cursor != null) {
+            cursor.requireSort(CURSOR_SORT_FIELD, false);
+        }
+        String normalizedSearch = normalize(search != null && !search.isBlank() ? search : itemId);
+        String normalizedCategory = normalize(category);
+        String normalizedRarity = normalize(rarity);
+        Pageable batch = PageRequest.of(0, Math.max(MIN_SEEK_BATCH, safeLimit * 4));
+
+        List<ItemDto> page = new ArrayList<>(safeLimit + 1);
+        String afterId = cursor == null ? null : cursor.id();
+        while (page.size() <= safeLimit) {
+            List<Item> items = afterId == null
+                    ? itemRepository.findAllByOrderByIdAsc(batch)
+                    : itemRepository.findByIdGreaterThanOrderByIdAsc(afterId, batch);
+            if (items.isEmpty()) {
+                break;
+            }
+            Map<String, MarketplaceType> marketplaces = resolveMarketplaces(items);
+            for (Item item : items) {
+                if (page.size() > safeLimit) {
+                    break;
+                }
+                if (!matchesSearch(item, normalizedSearch)
+                        || (!normalizedCategory.isEmpty() && !normalizedCategory.equalsIgnoreCase(normalize(item.getCategory())))
+                        || (!normalizedRarity.isEmpty() && !normalizedRarity.equalsIgnoreCase(normalize(item.getRarity())))) {
+                    continue;
+                }
+                ItemDto dto = toDto(item, marketplaces.getOrDefault(item.getId(), MarketplaceType.NONE));
+                if (marketplace == null || marketplace == dto.marketplace()) {
+                    page.add(dto);
+                }
+            }
+            if (items.size() < batch.getPageSize()) {
+                break;
+            }
+            afterId = items.getLast().getId();
+        }
+
+        if (page.size() <= safeLimit) {
+            return new CursorPageDto<>(page, safeLimit, null);
+        }
+        List<ItemDto> content = page.subList(0, safeLimit);
+        String nextCursor = new PageCursor(0L, CURSOR_SORT_FIELD, false, null, content.getLast().id()).encode();
+        return new CursorPageDto<>(content, safeLimit, nextCursor);
+    }
+
     @Transactional(readOnly = true)
     public Optional<ItemDto> findItemById(String itemId) {
         String normalized = normalize(itemId);
@@ -5,6 +5,9 @@ import com.skyblockflipper.backend.api.AhListingBreakdownDto;
 import com.skyblockflipper.backend.api.AhListingDto;
 import com.skyblockflipper.backend.api.AhListingSortBy;
 import com.skyblockflipper.backend.api.AhRecentSaleDto;
+import com.skyblockflipper.backend.api.CursorPageDto;
+import com.skyblockflipper.backend.api.InvalidCursorException;
+import com.skyblockflipper.backend.api.PageCursor;
 import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import org.springframework.data.domain.Page;
@@ -24,14 +27,17 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class AuctionHouseReadService {
 
     private static final String DEFAULT_REFORGE = "None";
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
     private static final Pattern STAR_PATTERN = Pattern.compile("(\\d+)\\s*-?\\s*STAR", Pattern.CASE_INSENSITIVE);
     private static final Pattern MINECRAFT_FORMATTING_PATTERN = Pattern.compile("§.");
     private static final Pattern MODIFIER_PATTERN = Pattern.compile("(?i)\\bmodifier\\s*:\\s*([a-z\\- '\\\\]+)");
@@ -51,12 +57,12 @@ public class AuctionHouseReadService {
             "COMBAT", "DEFENSIVE", "MINING", "UNIVERSAL"
     );
 
-    private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
+    private final MarketStateHolder marketStateHolder;
     private final ItemRepository itemRepository;
 
-    public AuctionHouseReadService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
+    public AuctionHouseReadService(MarketStateHolder marketStateHolder,
                                    ItemRepository itemRepository) {
-        this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
+        this.marketStateHolder = marketStateHolder;
         this.itemRepository = itemRepository;
     }
 
@@ -69,26 +75,82 @@ public class AuctionHouseReadService {
                                            Integer maxStars,
                                            String reforge,
                                            Pageable pageable) {
-        Optional<MarketSnapshot> latest = marketSnapshotPersistenceService.latest();
+        Optional<MarketSnapshot> latest = marketStateHolder.latestSnapshot();
         if (latest.isEmpty()) {
             return new PageImpl<>(List.of(), pageable, 0);
         }
 
-        Set<String> aliases = aliasesFor(itemId);
-        List<AhListingDto> listings = latest.get().auctions().stream()
-                .filter(auction -> matchesItem(auction, aliases))
-                .map(this::toListing)
-                .filter(listing -> bin == null || listing.bin() == bin)
-                .filter(listing -> minStars == null || listing.stars() >= Math.max(0, minStars))
-                .filter(listing -> maxStars == null || listing.stars() <= Math.max(0, maxStars))
-                .filter(listing -> reforge == null || reforge.isBlank()
-                        || normalize(reforge).equals(normalize(listing.reforge())))
+        List<AhListingDto> listings = filteredListings(latest.get(), itemId, bin, minStars, maxStars, reforge)
                 .sorted(listingComparator(sortBy, sortDirection))
                 .toList();
 
         return paginate(listings, pageable);
     }
 
+    /**
+     * Keyset variant of {@link #listListings}. The cursor pins the snapshot it was issued for; instead of
+     * sorting every listing, only those after the cursor key compete for a bounded heap of one page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<AhListingDto> listListingsAfter(String itemId,
+                                                         AhListingSortBy sortBy,
+                                                         Sort.Direction sortDirection,
+                                                         Boolean bin,
+                                                         Integer minStars,
+                                                         Integer maxStars,
+                                                         String reforge,
+                                                         PageCursor cursor,
+                                                         int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+        AhListingSortBy safeSortBy = sortBy == null ? AhListingSortBy.PRICE : sortBy;
+        boolean descending = sortDirection == Sort.Direction.DESC;
+        if (cursor != null && (cursor.sortKey() == null || cursor.id() == null)) {
+            throw new InvalidCursorException("Malformed listing cursor");
+        }
+        if (cursor != null) {
+            cursor.requireSort(safeSortBy.name(), descending);
+        }
+        Optional<MarketSnapshot> snapshot = cursor == null
+                ? marketStateHolder.latestSnapshot()
+                : marketStateHolder.snapshotAsOf(Instant.ofEpochMilli(cursor.version()));
+        // snapshotAsOf falls back to the nearest older snapshot; paging one the cursor was not issued for
+        // would skip or repeat listings, so the client has to restart the listing instead.
+        if (cursor != null && snapshot.map(found -> found.snapshotTimestamp().toEpochMilli() != cursor.version()).orElse(true)) {
+            throw new InvalidCursorException("Listing cursor refers to a snapshot that is no longer available");
+        }
+        if (snapshot.isEmpty()) {
+            return CursorPageDto.empty(safeLimit);
+        }
+
+        long afterKey = cursor == null ? 0L : cursor.longSortKey();
+        Comparator<AhListingDto> comparator = listingComparator(safeSortBy, sortDirection);
+        PriorityQueue<AhListingDto> window = new PriorityQueue<>(safeLimit + 2, comparator.reversed());
+        filteredListings(snapshot.get(), itemId, bin, minStars, maxStars, reforge)
+                .filter(listing -> cursor == null || isAfter(listing, safeSortBy, descending, afterKey, cursor.id()))
+                .forEach(listing -> {
+                    window.add(listing);
+                    if (window.size() > safeLimit + 1) {
+                        window.poll();
+                    }
+                });
+
+        List<AhListingDto> page = new ArrayList<>(window);
+        page.sort(comparator);
+        if (page.size() <= safeLimit) {
+            return new CursorPageDto<>(page, safeLimit, null);
+        }
+        page = page.subList(0, safeLimit);
+        AhListingDto last = page.getLast();
+        String nextCursor = new PageCursor(
+                snapshot.get().snapshotTimestamp().toEpochMilli(),
+                safeSortBy.name(),
+                descending,
+                Long.toString(sortValue(last, safeSortBy)),
+                last.auctionId()
+        ).encode();
+        return new CursorPageDto<>(page, safeLimit, nextCursor);
+    }
+
     @Transactional(readOnly = true)
     public AhListingBreakdownDto breakdown(String itemId) {
         List<AhListingDto> listings = listListings(
@@ -126,7 +188,7 @@ public class AuctionHouseReadService {
     @Transactional(readOnly = true)
     public List<AhRecentSaleDto> recentSales(String itemId, int limit) {
         int safeLimit = Math.max(1, limit);
-        Optional<MarketSnapshot> latest = marketSnapshotPersistenceService.latest();
+        Optional<MarketSnapshot> latest = marketStateHolder.latestSnapshot();
         if (latest.isEmpty()) {
             return List.of();
         }
@@ -148,6 +210,23 @@ public class AuctionHouseReadService {
                 .toList();
     }
 
+    private Stream<AhListingDto> filteredListings(MarketSnapshot snapshot,
+                                                  String itemId,
+                                                  Boolean bin,
+                                                  Integer minStars,
+                                                  Integer maxStars,
+                                                  String reforge) {
+        Set<String> aliases = aliasesFor(itemId);
+        return snapshot.auctions().stream()
+                .filter(auction -> matchesItem(auction, aliases))
+                .map(this::toListing)
+                .filter(listing -> bin == null || listing.bin() == bin)
+                .filter(listing -> minStars == null || listing.stars() >= Math.max(0, minStars))
+                .filter(listing -> maxStars == null || listing.stars() <= Math.max(0, maxStars))
+                .filter(listing -> reforge == null || reforge.isBlank()
+                        || normalize(reforge).equals(normalize(listing.reforge())));
+    }
+
     private AhListingDto toListing(AuctionMarketRecord auction) {
         long estimatedValue = auction.highestBidAmount() > 0 ? auction.highestBidAmount() : auction.startingBid();
         String name = auction.itemName() == null ? "" : auction.itemName();
@@ -182,6 +261,23 @@ public class AuctionHouseReadService {
         return comparator.thenComparing(AhListingDto::auctionId);
     }
 
+    private long sortValue(AhListingDto listing, AhListingSortBy sortBy) {
+        return switch (sortBy) {
+            case ENDING_SOON -> listing.endsAt().toEpochMilli();
+            case ESTIMATED_VALUE -> listing.estimatedValue();
+            case PRICE -> listing.price();
+        };
+    }
+
+    // Same ordering as listingComparator, against the cursor key instead of another listing.
+    private boolean isAfter(AhListingDto listing, AhListingSortBy sortBy, boolean descending, long afterKey, String afterId) {
+        int compared = Long.compare(sortValue(listing, sortBy), afterKey);
+        if (descending) {
+            compared = -compared;
+        }
+        return compared > 0 || (compared == 0 && listing.auctionId().compareTo(afterId) > 0);
+    }
+
     private boolean matchesItem(AuctionMarketRecord auction, Set<String> aliases) {
         if (auction == null || auction.itemName() == null) {
             return false;
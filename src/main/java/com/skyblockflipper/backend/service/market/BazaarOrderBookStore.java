@@ -0,0 +1,183 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.hypixel.model.BazaarProduct;
+import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
+import com.skyblockflipper.backend.hypixel.model.BazaarSummaryEntry;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-only order-book depth of the latest ingested bazaar payload, kept as primitive arrays per
+ * product and swapped atomically on every update. Until the first payload arrives after a restart,
+ * the store can be seeded with the top of book of the latest persisted snapshot.
+ */
+@Component
+public class BazaarOrderBookStore {
+
+    private static final Books EMPTY = new Books(0L, Map.of());
+
+    private final AtomicReference<Books> books = new AtomicReference<>(EMPTY);
+
+    public void update(BazaarResponse response) {
+        if (response == null || response.getProducts() == null) {
+            return;
+        }
+        Map<String, OrderBook> byProduct = new HashMap<>(response.getProducts().size() * 2);
+        for (Map.Entry<String, BazaarProduct> entry : response.getProducts().entrySet()) {
+            BazaarProduct product = entry.getValue();
+            if (entry.getKey() == null || product == null) {
+                continue;
+            }
+            byProduct.put(entry.getKey().toUpperCase(Locale.ROOT), new OrderBook(
+                    Side.of(product.getSellSummary()),
+                    Side.of(product.getBuySummary())
+            ));
+        }
+        books.set(new Books(response.getLastUpdated(), Map.copyOf(byProduct)));
+    }
+
+    /**
+     * Fills a store that has not seen any payload yet with one level per side from the snapshot's quick
+     * status: the best price carrying the whole reported volume and order count. The first ingested
+     * payload replaces it with the real depth; a payload that arrived first is never overwritten.
+     *
+     * @return whether the snapshot was used
+     */
+    public boolean seed(MarketSnapshot snapshot) {
+        if (snapshot == null || snapshot.bazaarProducts().isEmpty() || books.get() != EMPTY) {
+            return false;
+        }
+        Map<String, OrderBook> byProduct = new HashMap<>(snapshot.bazaarProducts().size() * 2);
+        for (Map.Entry<String, BazaarMarketRecord> entry : snapshot.bazaarProducts().entrySet()) {
+            BazaarMarketRecord record = entry.getValue();
+            if (entry.getKey() == null || record == null) {
+                continue;
+            }
+            // Hypixel derives the buy* quick status from sell_summary (what an instant buy fills against)
+            // and the sell* figures from buy_summary.
+            byProduct.put(entry.getKey().toUpperCase(Locale.ROOT), new OrderBook(
+                    Side.topOfBook(record.buyPrice(), record.buyVolume(), record.buyOrders()),
+                    Side.topOfBook(record.sellPrice(), record.sellVolume(), record.sellOrders())
+            ));
+        }
+        Books seeded = new Books(snapshot.snapshotTimestamp().toEpochMilli(), Map.copyOf(byProduct));
+        return books.compareAndSet(EMPTY, seeded);
+    }
+
+    public boolean isEmpty() {
+        return books.get() == EMPTY;
+    }
+
+    public Optional<OrderBook> orderBook(String productId) {
+        if (productId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(books.get().byProduct().get(productId));
+    }
+
+    public long lastUpdated() {
+        return books.get().lastUpdated();
+    }
+
+    public int size() {
+        return books.get().byProduct().size();
+    }
+
+    private record Books(long lastUpdated, Map<String, OrderBook> byProduct) {
+    }
+
+    /**
+     * {@code sellSummary} holds the instant-buy side (sell offers), {@code buySummary} the
+     * instant-sell side (buy orders), in the order Hypixel reports them.
+     */
+    public record OrderBook(Side sellSummary, Side buySummary) {
+    }
+
+    public static final class Side {
+
+        private static final Side EMPTY = new Side(new double[0], new long[0], new int[0], new long[0]);
+
+        private final double[] prices;
+        private final long[] amounts;
+        private final int[] orders;
+        private final long[] cumulativeAmounts;
+
+        private Side(double[] prices, long[] amounts, int[] orders, long[] cumulativeAmounts) {
+            this.prices = prices;
+            this.amounts = amounts;
+            this.orders = orders;
+            this.cumulativeAmounts = cumulativeAmounts;
+        }
+
+        static Side of(List<BazaarSummaryEntry> entries) {
+            if (entries == null || entries.isEmpty()) {
+                return EMPTY;
+            }
+            int size = 0;
+            double[] prices = new double[entries.size()];
+            long[] amounts = new long[entries.size()];
+            int[] orders = new int[entries.size()];
+            long[] cumulativeAmounts = new long[entries.size()];
+            long cumulative = 0L;
+            for (BazaarSummaryEntry entry : entries) {
+                if (entry == null) {
+                    continue;
+                }
+                cumulative += Math.max(0L, entry.getAmount());
+                prices[size] = entry.getPricePerUnit();
+                amounts[size] = entry.getAmount();
+                orders[size] = entry.getOrders();
+                cumulativeAmounts[size] = cumulative;
+                size++;
+            }
+            if (size == entries.size()) {
+                return new Side(prices, amounts, orders, cumulativeAmounts);
+            }
+            return new Side(
+                    Arrays.copyOf(prices, size),
+                    Arrays.copyOf(amounts, size),
+                    Arrays.copyOf(orders, size),
+                    Arrays.copyOf(cumulativeAmounts, size)
+            );
+        }
+
+        static Side topOfBook(double price, long amount, int orders) {
+            if (amount <= 0L || Double.isNaN(price) || price <= 0D) {
+                return EMPTY;
+            }
+            return new Side(new double[]{price}, new long[]{amount}, new int[]{orders}, new long[]{amount});
+        }
+
+        public int levels() {
+            return prices.length;
+        }
+
+        public double price(int level) {
+            return prices[level];
+        }
+
+        public long amount(int level) {
+            return amounts[level];
+        }
+
+        public int orders(int level) {
+            return orders[level];
+        }
+
+        /**
+         * Total amount available from the best level up to and including {@code level}.
+         */
+        public long cumulativeAmount(int level) {
+            return cumulativeAmounts[level];
+        }
+    }
+}
@@ -4,15 +4,12 @@ import com.skyblockflipper.backend.NEU.repository.ItemRepository;
 import com.skyblockflipper.backend.api.BazaarOrderBookDto;
 import com.skyblockflipper.backend.api.BazaarProductDto;
 import com.skyblockflipper.backend.api.BazaarQuickFlipDto;
-import com.skyblockflipper.backend.hypixel.HypixelClient;
-import com.skyblockflipper.backend.hypixel.model.BazaarProduct;
-import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
-import com.skyblockflipper.backend.hypixel.model.BazaarSummaryEntry;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
@@ -22,15 +19,15 @@ import java.util.Optional;
 @Service
 public class BazaarReadService {
 
-    private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
-    private final HypixelClient hypixelClient;
+    private final MarketStateHolder marketStateHolder;
+    private final BazaarOrderBookStore orderBookStore;
     private final ItemRepository itemRepository;
 
-    public BazaarReadService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
-                             HypixelClient hypixelClient,
+    public BazaarReadService(MarketStateHolder marketStateHolder,
+                             BazaarOrderBookStore orderBookStore,
                              ItemRepository itemRepository) {
-        this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
-        this.hypixelClient = hypixelClient;
+        this.marketStateHolder = marketStateHolder;
+        this.orderBookStore = orderBookStore;
         this.itemRepository = itemRepository;
     }
 
@@ -40,7 +37,7 @@ public class BazaarReadService {
         if (normalized.isEmpty()) {
             return Optional.empty();
         }
-        return marketSnapshotPersistenceService.latest()
+        return marketStateHolder.latestSnapshot()
                 .map(MarketSnapshot::bazaarProducts)
                 .map(products -> products.get(normalized))
                 .map(this::toProductDto);
@@ -49,25 +46,23 @@ public class BazaarReadService {
     public BazaarOrderBookDto getOrderBook(String itemId, int depth) {
         String normalized = normalize(itemId);
         int safeDepth = Math.max(1, depth);
-        BazaarResponse response = hypixelClient.fetchBazaar();
-        if (response == null || response.getProducts() == null) {
-            return new BazaarOrderBookDto(List.of(), List.of());
+        if (orderBookStore.isEmpty()) {
+            // Cold start: no bazaar payload since the restart, so serve the persisted top of book meanwhile.
+            marketStateHolder.latestSnapshot().ifPresent(orderBookStore::seed);
         }
-        BazaarProduct product = response.getProducts().get(normalized);
-        if (product == null) {
-            return new BazaarOrderBookDto(List.of(), List.of());
-        }
-        return new BazaarOrderBookDto(
-                toLevels(product.getSellSummary(), safeDepth),
-                toLevels(product.getBuySummary(), safeDepth)
-        );
+        return orderBookStore.orderBook(normalized)
+                .map(book -> new BazaarOrderBookDto(
+                        toLevels(book.sellSummary(), safeDepth),
+                        toLevels(book.buySummary(), safeDepth)
+                ))
+                .orElseGet(() -> new BazaarOrderBookDto(List.of(), List.of()));
     }
 
     @Transactional(readOnly = true)
     public List<BazaarQuickFlipDto> quickFlips(Double minSpreadPct, int limit) {
         double safeMinSpreadPct = minSpreadPct == null ? 0D : Math.max(0D, minSpreadPct);
         int safeLimit = Math.max(1, limit);
-        Optional<MarketSnapshot> latest = marketSnapshotPersistenceService.latest();
+        Optional<MarketSnapshot> latest = marketStateHolder.latestSnapshot();
         if (latest.isEmpty()) {
             return List.of();
         }
@@ -119,18 +114,21 @@ public class BazaarReadService {
         );
     }
 
-    private List<BazaarOrderBookDto.OrderLevelDto> toLevels(List<BazaarSummaryEntry> entries, int depth) {
-        if (entries == null || entries.isEmpty()) {
+    private List<BazaarOrderBookDto.OrderLevelDto> toLevels(BazaarOrderBookStore.Side side, int depth) {
+        int levels = Math.min(depth, side.levels());
+        if (levels == 0) {
             return List.of();
         }
-        return entries.stream()
-                .limit(depth)
-                .map(entry -> new BazaarOrderBookDto.OrderLevelDto(
-                        entry.getPricePerUnit(),
-                        entry.getAmount(),
-                        entry.getOrders()
-                ))
-                .toList();
+        List<BazaarOrderBookDto.OrderLevelDto> result = new ArrayList<>(levels);
+        for (int level = 0; level < levels; level++) {
+            result.add(new BazaarOrderBookDto.OrderLevelDto(
+                    side.price(level),
+                    side.amount(level),
+                    side.orders(level),
+                    side.cumulativeAmount(level)
+            ));
+        }
+        return result;
     }
 
     private String normalize(String value) {
@@ -9,9 +9,9 @@ import com.skyblockflipper.backend.api.UnifiedFlipDto;
 import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
+import com.skyblockflipper.backend.service.flipping.FlipTemplateStore;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
 import com.skyblockflipper.backend.service.item.ItemMarketplaceService;
 import org.springframework.stereotype.Service;
@@ -25,21 +25,24 @@ import java.util.*;
 public class DashboardReadService {
 
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
+    private final MarketStateHolder marketStateHolder;
     private final ItemRepository itemRepository;
-    private final FlipRepository flipRepository;
+    private final FlipTemplateStore flipTemplateStore;
     private final UnifiedFlipDtoMapper unifiedFlipDtoMapper;
     private final FlipCalculationContextService flipCalculationContextService;
     private final ItemMarketplaceService itemMarketplaceService;
 
     public DashboardReadService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
+                                MarketStateHolder marketStateHolder,
                                 ItemRepository itemRepository,
-                                FlipRepository flipRepository,
+                                FlipTemplateStore flipTemplateStore,
                                 UnifiedFlipDtoMapper unifiedFlipDtoMapper,
                                 FlipCalculationContextService flipCalculationContextService,
                                 ItemMarketplaceService itemMarketplaceService) {
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
+        this.marketStateHolder = marketStateHolder;
         this.itemRepository = itemRepository;
-        this.flipRepository = flipRepository;
+        this.flipTemplateStore = flipTemplateStore;
         this.unifiedFlipDtoMapper = unifiedFlipDtoMapper;
         this.flipCalculationContextService = flipCalculationContextService;
         this.itemMarketplaceService = itemMarketplaceService;
@@ -48,7 +51,7 @@ public class DashboardReadService {
     @Transactional(readOnly = true)
     public DashboardOverviewDto overview() {
         long totalItems = itemRepository.count();
-        Optional<MarketSnapshot> latestOpt = marketSnapshotPersistenceService.latest();
+        Optional<MarketSnapshot> latestOpt = marketStateHolder.latestSnapshot();
         if (latestOpt.isEmpty()) {
             return new DashboardOverviewDto(totalItems, 0L, 0L, 0L, null, "UNKNOWN", null);
         }
@@ -57,10 +60,10 @@ public class DashboardReadService {
         long ahListings = latest.auctions().size();
         long bazaarProducts = latest.bazaarProducts().size();
 
-        Long latestFlipEpoch = flipRepository.findMaxSnapshotTimestampEpochMillis().orElse(null);
+        Long latestFlipEpoch = flipTemplateStore.findMaxSnapshotTimestampEpochMillis().orElse(null);
         List<Flip> flips = latestFlipEpoch == null
                 ? List.of()
-                : flipRepository.findAllBySnapshotTimestampEpochMillis(latestFlipEpoch);
+                : flipTemplateStore.findAllBySnapshotTimestampEpochMillis(latestFlipEpoch);
 
         DashboardOverviewDto.TopFlipDto topFlip = null;
         if (latestFlipEpoch != null && !flips.isEmpty()) {
@@ -91,18 +94,26 @@ public class DashboardReadService {
     @Transactional(readOnly = true)
     public List<TrendingItemDto> trending(int limit) {
         int safeLimit = Math.max(1, limit);
-        Optional<MarketSnapshot> latestOpt = marketSnapshotPersistenceService.latest();
+        Optional<MarketSnapshot> latestOpt = marketStateHolder.latestSnapshot();
         if (latestOpt.isEmpty()) {
             return List.of();
         }
         Instant end = latestOpt.get().snapshotTimestamp();
         Instant start = end.minus(Duration.ofHours(24));
-        List<MarketSnapshot> snapshots = marketSnapshotPersistenceService.between(start, end);
-        if (snapshots.size() < 2) {
-            return List.of();
+        MarketSnapshot first;
+        MarketSnapshot latest;
+        Optional<MarketSnapshot> firstQuoted = marketSnapshotPersistenceService.firstBazaarSnapshotBetween(start, end);
+        if (firstQuoted.isPresent() && firstQuoted.get().snapshotTimestamp().isBefore(end)) {
+            first = firstQuoted.get();
+            latest = latestOpt.get();
+        } else {
+            List<MarketSnapshot> snapshots = marketSnapshotPersistenceService.between(start, end);
+            if (snapshots.size() < 2) {
+                return List.of();
+            }
+            first = snapshots.getFirst();
+            latest = snapshots.getLast();
         }
-        MarketSnapshot first = snapshots.getFirst();
-        MarketSnapshot latest = snapshots.getLast();
 
         Map<String, Item> itemById = itemRepository.findAll().stream()
                 .collect(java.util.stream.Collectors.toMap(
@@ -0,0 +1,200 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.model.market.MarketSnapshotEntity;
+import com.skyblockflipper.backend.repository.MarketSnapshotRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores snapshots as market_snapshot rows with binary codec blobs.
+ */
+@Component
+@ConditionalOnProperty(name = "config.snapshot.store.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaSnapshotStore implements SnapshotStore {
+
+    private static final int COMPACTION_DELETE_BATCH_SIZE = 500;
+
+    private static final TypeReference<List<AuctionMarketRecord>> AUCTIONS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<Map<String, BazaarMarketRecord>> BAZAAR_TYPE = new TypeReference<>() {};
+
+    private final MarketSnapshotRepository marketSnapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final MarketSnapshotCodec marketSnapshotCodec;
+    private final BlockingTimeTracker blockingTimeTracker;
+    private final SnapshotCompactionPolicy compactionPolicy;
+    private volatile SerializedSide lastAuctionsBlob;
+    private volatile SerializedSide lastBazaarBlob;
+    private final long[] compactionWatermarks = {Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE};
+
+    public JpaSnapshotStore(MarketSnapshotRepository marketSnapshotRepository,
+                            ObjectMapper objectMapper,
+                            MarketSnapshotCodec marketSnapshotCodec,
+                            BlockingTimeTracker blockingTimeTracker,
+                            SnapshotRetentionProperties retentionProperties) {
+        this.marketSnapshotRepository = marketSnapshotRepository;
+        this.objectMapper = objectMapper;
+        this.marketSnapshotCodec = marketSnapshotCodec;
+        this.blockingTimeTracker = blockingTimeTracker;
+        this.compactionPolicy = new SnapshotCompactionPolicy(retentionProperties);
+    }
+
+    @Override
+    public MarketSnapshot save(MarketSnapshot snapshot) {
+        MarketSnapshotEntity entity = new MarketSnapshotEntity(
+                snapshot.snapshotTimestamp().toEpochMilli(),
+                snapshot.auctions().size(),
+                snapshot.bazaarProducts().size(),
+                (short) MarketSnapshotCodec.FORMAT_VERSION,
+                encodeAuctions(snapshot.auctions()),
+                encodeBazaar(snapshot.bazaarProducts())
+        );
+        MarketSnapshotEntity saved = blockingTimeTracker.record("db.marketSnapshot.save", "db", () -> marketSnapshotRepository.save(entity));
+        return new MarketSnapshot(
+                Instant.ofEpochMilli(saved.getSnapshotTimestampEpochMillis()),
+                snapshot.auctions(),
+                snapshot.bazaarProducts()
+        );
+    }
+
+    // Snapshot sides are immutable and reused across snapshots while unchanged, so the blob of the
+    // previous save is reused by identity.
+    private byte[] encodeAuctions(List<AuctionMarketRecord> auctions) {
+        SerializedSide cached = lastAuctionsBlob;
+        if (cached != null && cached.source() == auctions) {
+            return cached.blob();
+        }
+        byte[] blob = marketSnapshotCodec.encodeAuctions(auctions);
+        lastAuctionsBlob = new SerializedSide(auctions, blob);
+        return blob;
+    }
+
+    private byte[] encodeBazaar(Map<String, BazaarMarketRecord> bazaarProducts) {
+        SerializedSide cached = lastBazaarBlob;
+        if (cached != null && cached.source() == bazaarProducts) {
+            return cached.blob();
+        }
+        byte[] blob = marketSnapshotCodec.encodeBazaar(bazaarProducts);
+        lastBazaarBlob = new SerializedSide(bazaarProducts, blob);
+        return blob;
+    }
+
+    @Override
+    public Optional<MarketSnapshot> latest() {
+        return blockingTimeTracker.record("db.marketSnapshot.latest", "db", () -> marketSnapshotRepository.findTopByOrderBySnapshotTimestampEpochMillisDesc().map(this::toDomain));
+    }
+
+    @Override
+    public Optional<MarketSnapshot> asOf(Instant asOfTimestamp) {
+        if (asOfTimestamp == null) {
+            return latest();
+        }
+        return blockingTimeTracker.record("db.marketSnapshot.asOf", "db", () -> marketSnapshotRepository
+                .findTopBySnapshotTimestampEpochMillisLessThanEqualOrderBySnapshotTimestampEpochMillisDesc(asOfTimestamp.toEpochMilli())
+                .map(this::toDomain));
+    }
+
+    @Override
+    public List<MarketSnapshot> between(Instant fromInclusive, Instant toInclusive) {
+        if (fromInclusive == null || toInclusive == null || fromInclusive.isAfter(toInclusive)) {
+            return List.of();
+        }
+        return blockingTimeTracker.record("db.marketSnapshot.between", "db", () -> marketSnapshotRepository
+                .findBySnapshotTimestampEpochMillisBetweenOrderBySnapshotTimestampEpochMillisAsc(
+                        fromInclusive.toEpochMilli(),
+                        toInclusive.toEpochMilli()
+                )
+                .stream()
+                .map(this::toDomain)
+                .toList());
+    }
+
+    /**
+     * Each tier only reads (id, timestamp) pairs and remembers how far it already got, so a run
+     * rescans just the slot at its watermark plus the rows that aged into the tier since the
+     * previous run.
+     */
+    @Override
+    public synchronized MarketSnapshotPersistenceService.SnapshotCompactionResult compact(Instant now) {
+        Instant safeNow = now == null ? Instant.now() : now;
+        SnapshotCompactionPolicy.TierWindow[] windows = compactionPolicy.windows(safeNow.toEpochMilli());
+
+        List<UUID> toDelete = new ArrayList<>();
+        int scanned = 0;
+        for (int tier = 0; tier < SnapshotCompactionPolicy.TIER_COUNT; tier++) {
+            scanned += compactTier(tier, windows[tier], toDelete);
+        }
+
+        for (int from = 0; from < toDelete.size(); from += COMPACTION_DELETE_BATCH_SIZE) {
+            List<UUID> batch = toDelete.subList(from, Math.min(toDelete.size(), from + COMPACTION_DELETE_BATCH_SIZE));
+            blockingTimeTracker.record("db.marketSnapshot.deleteBatch", "db", () -> marketSnapshotRepository.deleteByIdIn(batch));
+        }
+        return new MarketSnapshotPersistenceService.SnapshotCompactionResult(scanned, toDelete.size(), scanned - toDelete.size());
+    }
+
+    private int compactTier(int tier, SnapshotCompactionPolicy.TierWindow window, List<UUID> toDelete) {
+        long windowEnd = window.end();
+        long slotMillis = window.slotMillis();
+        long watermark = compactionWatermarks[tier];
+        if (watermark > windowEnd) {
+            // Clock went backwards or older rows were restored; fall back to a full pass of the tier.
+            watermark = Long.MIN_VALUE;
+        }
+        long scanStart = watermark == Long.MIN_VALUE
+                ? window.start()
+                : Math.max(window.start(), Math.floorDiv(watermark, slotMillis) * slotMillis);
+        if (scanStart > windowEnd) {
+            return 0;
+        }
+        List<MarketSnapshotRepository.SnapshotKey> keys = blockingTimeTracker.record("db.marketSnapshot.compactionCandidates", "db",
+                () -> marketSnapshotRepository.findSnapshotKeysBetween(scanStart, windowEnd));
+        long keptSlot = Long.MIN_VALUE;
+        boolean hasKept = false;
+        for (MarketSnapshotRepository.SnapshotKey key : keys) {
+            long slot = window.slotOf(key.getSnapshotTimestampEpochMillis());
+            if (hasKept && slot == keptSlot) {
+                toDelete.add(key.getId());
+                continue;
+            }
+            keptSlot = slot;
+            hasKept = true;
+        }
+        compactionWatermarks[tier] = windowEnd;
+        return keys.size();
+    }
+
+    private MarketSnapshot toDomain(MarketSnapshotEntity entity) {
+        Instant snapshotTimestamp = Instant.ofEpochMilli(entity.getSnapshotTimestampEpochMillis());
+        if (entity.getCodecVersion() > 0) {
+            return new MarketSnapshot(
+                    snapshotTimestamp,
+                    marketSnapshotCodec.decodeAuctions(entity.getAuctionsBlob()),
+                    marketSnapshotCodec.decodeBazaar(entity.getBazaarProductsBlob())
+            );
+        }
+        // Rows written before the binary codec still carry the JSON text columns.
+        try {
+            List<AuctionMarketRecord> auctions = objectMapper.readValue(entity.getAuctionsJson(), AUCTIONS_TYPE);
+            Map<String, BazaarMarketRecord> bazaar = objectMapper.readValue(entity.getBazaarProductsJson(), BAZAAR_TYPE);
+            return new MarketSnapshot(snapshotTimestamp, auctions, bazaar);
+        } catch (JacksonException e) {
+            throw new IllegalStateException("Failed to deserialize market snapshot from persistence.", e);
+        }
+    }
+
+    private record SerializedSide(Object source, byte[] blob) {
+    }
+}
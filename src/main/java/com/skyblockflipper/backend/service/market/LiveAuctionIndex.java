@@ -0,0 +1,235 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Active auctions keyed by uuid with per-item aggregates maintained from the delta between
+ * consecutive auction refreshes, so aggregation cost follows listing churn instead of the
+ * total listing count.
+ */
+@Component
+public class LiveAuctionIndex {
+
+    private final Map<String, Entry> byUuid = new LinkedHashMap<>();
+    private final Map<String, ItemAggregate> byItem = new HashMap<>();
+    private final SortedMap<String, UnifiedFlipInputSnapshot.AuctionQuote> quotes = new TreeMap<>();
+    private final Set<String> dirtyItems = new HashSet<>();
+    private long generation;
+    private SortedMap<String, UnifiedFlipInputSnapshot.AuctionQuote> publishedQuotes = Collections.emptySortedMap();
+    private List<AuctionMarketRecord> publishedRecords = List.of();
+
+    public synchronized DeltaResult apply(List<AuctionMarketRecord> auctions) {
+        long currentGeneration = ++generation;
+        int added = 0;
+        int updated = 0;
+        int seen = 0;
+        if (auctions != null) {
+            for (AuctionMarketRecord record : auctions) {
+                if (record == null || record.auctionUuid() == null) {
+                    continue;
+                }
+                Entry existing = byUuid.get(record.auctionUuid());
+                if (existing == null) {
+                    byUuid.put(record.auctionUuid(), new Entry(record, currentGeneration));
+                    addContribution(record);
+                    added++;
+                    seen++;
+                    continue;
+                }
+                if (existing.generation != currentGeneration) {
+                    seen++;
+                }
+                existing.generation = currentGeneration;
+                if (!existing.record.equals(record)) {
+                    removeContribution(existing.record);
+                    existing.record = record;
+                    addContribution(record);
+                    updated++;
+                }
+            }
+        }
+
+        int removed = 0;
+        if (seen < byUuid.size()) {
+            Iterator<Entry> iterator = byUuid.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.generation != currentGeneration) {
+                    removeContribution(entry.record);
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        int refreshedItems = refreshDirtyQuotes();
+        if (added > 0 || updated > 0 || removed > 0) {
+            // Collected into a list that MarketSnapshot's List.copyOf keeps as-is, so sharing survives the snapshot.
+            publishedRecords = byUuid.values().stream().map(entry -> entry.record).collect(Collectors.toUnmodifiableList());
+        }
+        return new DeltaResult(added, updated, removed, refreshedItems, byUuid.size());
+    }
+
+    /**
+     * @return the quotes by item name in name order; an immutable copy that is only rebuilt after a refresh
+     * changed some item, so unchanged ticks share the previous instance
+     */
+    public synchronized SortedMap<String, UnifiedFlipInputSnapshot.AuctionQuote> quotes() {
+        return publishedQuotes;
+    }
+
+    /**
+     * @return the active auctions in first-seen order; an immutable list that is only rebuilt after a refresh
+     * added, changed or removed a listing, so an unchanged refresh shares the previous instance
+     */
+    public synchronized List<AuctionMarketRecord> records() {
+        return publishedRecords;
+    }
+
+    public synchronized int size() {
+        return byUuid.size();
+    }
+
+    private void addContribution(AuctionMarketRecord record) {
+        String itemName = itemKey(record);
+        if (itemName == null) {
+            return;
+        }
+        byItem.computeIfAbsent(itemName, ignored -> new ItemAggregate()).add(record);
+        dirtyItems.add(itemName);
+    }
+
+    private void removeContribution(AuctionMarketRecord record) {
+        String itemName = itemKey(record);
+        if (itemName == null) {
+            return;
+        }
+        ItemAggregate aggregate = byItem.get(itemName);
+        if (aggregate == null) {
+            return;
+        }
+        aggregate.remove(record);
+        dirtyItems.add(itemName);
+    }
+
+    private int refreshDirtyQuotes() {
+        int refreshed = dirtyItems.size();
+        for (String itemName : dirtyItems) {
+            ItemAggregate aggregate = byItem.get(itemName);
+            if (aggregate == null || aggregate.count == 0) {
+                byItem.remove(itemName);
+                quotes.remove(itemName);
+                continue;
+            }
+            quotes.put(itemName, aggregate.toQuote());
+        }
+        dirtyItems.clear();
+        if (refreshed > 0) {
+            publishedQuotes = Collections.unmodifiableSortedMap(new TreeMap<>(quotes));
+        }
+        return refreshed;
+    }
+
+    private static String itemKey(AuctionMarketRecord record) {
+        if (record.itemName() == null || record.itemName().isBlank()) {
+            return null;
+        }
+        return record.itemName();
+    }
+
+    private static long observedPrice(AuctionMarketRecord record) {
+        return record.highestBidAmount() > 0 ? record.highestBidAmount() : record.startingBid();
+    }
+
+    public record DeltaResult(int added, int updated, int removed, int refreshedItems, int activeAuctions) {
+        public boolean changed() {
+            return added > 0 || updated > 0 || removed > 0;
+        }
+    }
+
+    private static final class Entry {
+        private AuctionMarketRecord record;
+        private long generation;
+
+        private Entry(AuctionMarketRecord record, long generation) {
+            this.record = record;
+            this.generation = generation;
+        }
+    }
+
+    private static final class ItemAggregate {
+        private final Map<Long, Integer> startingBids = new HashMap<>();
+        private final Map<Long, Integer> observedPrices = new HashMap<>();
+        private long lowestStartingBid = Long.MAX_VALUE;
+        private long highestObservedBid = 0L;
+        private long observedPriceSum = 0L;
+        private int count = 0;
+        private boolean extremesStale;
+
+        private void add(AuctionMarketRecord record) {
+            long observed = observedPrice(record);
+            startingBids.merge(record.startingBid(), 1, Integer::sum);
+            observedPrices.merge(observed, 1, Integer::sum);
+            if (record.startingBid() < lowestStartingBid) {
+                lowestStartingBid = record.startingBid();
+            }
+            if (observed > highestObservedBid) {
+                highestObservedBid = observed;
+            }
+            observedPriceSum += observed;
+            count++;
+        }
+
+        private void remove(AuctionMarketRecord record) {
+            long observed = observedPrice(record);
+            if (decrement(startingBids, record.startingBid()) && record.startingBid() == lowestStartingBid) {
+                extremesStale = true;
+            }
+            if (decrement(observedPrices, observed) && observed == highestObservedBid) {
+                extremesStale = true;
+            }
+            observedPriceSum -= observed;
+            count--;
+        }
+
+        private UnifiedFlipInputSnapshot.AuctionQuote toQuote() {
+            if (extremesStale) {
+                lowestStartingBid = startingBids.keySet().stream().mapToLong(Long::longValue).min().orElse(Long.MAX_VALUE);
+                highestObservedBid = observedPrices.keySet().stream().mapToLong(Long::longValue).max().orElse(0L);
+                extremesStale = false;
+            }
+            return new UnifiedFlipInputSnapshot.AuctionQuote(
+                    lowestStartingBid,
+                    highestObservedBid,
+                    count == 0 ? 0D : (double) observedPriceSum / count,
+                    count
+            );
+        }
+
+        private static boolean decrement(Map<Long, Integer> counts, long value) {
+            Integer current = counts.get(value);
+            if (current == null) {
+                return false;
+            }
+            if (current <= 1) {
+                counts.remove(value);
+                return true;
+            }
+            counts.put(value, current - 1);
+            return false;
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.skyblockflipper.backend.service.market;
 
+import com.skyblockflipper.backend.hypixel.AuctionRecordPage;
 import com.skyblockflipper.backend.hypixel.HypixelClient;
 import com.skyblockflipper.backend.hypixel.HypixelMarketSnapshotMapper;
 import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
 import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
+import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
 import com.skyblockflipper.backend.instrumentation.CycleInstrumentationService;
+import com.skyblockflipper.backend.instrumentation.InstrumentationProperties;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
@@ -15,6 +20,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -31,6 +39,9 @@ public class MarketDataProcessingService {
     private final HypixelMarketSnapshotMapper marketSnapshotMapper;
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
     private final UnifiedFlipInputMapper unifiedFlipInputMapper;
+    private final MarketStateHolder marketStateHolder;
+    private final LiveAuctionIndex liveAuctionIndex;
+    private final BazaarOrderBookStore bazaarOrderBookStore;
     private final CycleInstrumentationService cycleInstrumentationService;
     private final long auctionBaseIntervalMillis;
     private final long bazaarBaseIntervalMillis;
@@ -39,7 +50,7 @@ public class MarketDataProcessingService {
     private final long retryIntervalMillis;
     private final Object pollStateLock = new Object();
 
-    private AuctionResponse cachedAuctionResponse;
+    private AuctionRecordPage cachedAuctionPage;
     private BazaarResponse cachedBazaarResponse;
     private long nextAuctionFetchAtMillis;
     private long nextBazaarFetchAtMillis;
@@ -47,6 +58,7 @@ public class MarketDataProcessingService {
     private long bazaarCurrentIntervalMillis;
     private long lastAuctionLastUpdated = -1L;
     private long lastBazaarLastUpdated = -1L;
+    private volatile BazaarSide bazaarSide;
 
     public MarketDataProcessingService(HypixelClient hypixelClient,
                                        HypixelMarketSnapshotMapper marketSnapshotMapper,
@@ -56,10 +68,12 @@ public class MarketDataProcessingService {
                 marketSnapshotMapper,
                 marketSnapshotPersistenceService,
                 unifiedFlipInputMapper,
+                new MarketStateHolder(marketSnapshotPersistenceService, unifiedFlipInputMapper),
+                new LiveAuctionIndex(),
+                new BazaarOrderBookStore(),
                 new CycleInstrumentationService(
                         new SimpleMeterRegistry(),
-                        new com.skyblockflipper.backend.instrumentation.BlockingTimeTracker(
-                                new com.skyblockflipper.backend.instrumentation.InstrumentationProperties())),
+                        new BlockingTimeTracker(new InstrumentationProperties())),
                 DEFAULT_AUCTION_BASE_INTERVAL,
                 DEFAULT_BAZAAR_BASE_INTERVAL,
                 DEFAULT_MAX_INTERVAL_MULTIPLIER,
@@ -71,6 +85,9 @@ public class MarketDataProcessingService {
                                        HypixelMarketSnapshotMapper marketSnapshotMapper,
                                        MarketSnapshotPersistenceService marketSnapshotPersistenceService,
                                        UnifiedFlipInputMapper unifiedFlipInputMapper,
+                                       MarketStateHolder marketStateHolder,
+                                       LiveAuctionIndex liveAuctionIndex,
+                                       BazaarOrderBookStore bazaarOrderBookStore,
                                        CycleInstrumentationService cycleInstrumentationService,
                                        @Value("${config.hypixel.polling.auctions-base-interval:PT60S}") Duration auctionBaseInterval,
                                        @Value("${config.hypixel.polling.bazaar-base-interval:PT20S}") Duration bazaarBaseInterval,
@@ -80,6 +97,9 @@ public class MarketDataProcessingService {
         this.marketSnapshotMapper = marketSnapshotMapper;
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
         this.unifiedFlipInputMapper = unifiedFlipInputMapper;
+        this.marketStateHolder = marketStateHolder;
+        this.liveAuctionIndex = liveAuctionIndex;
+        this.bazaarOrderBookStore = bazaarOrderBookStore;
         this.cycleInstrumentationService = cycleInstrumentationService;
         this.auctionBaseIntervalMillis = sanitizeDuration(auctionBaseInterval, DEFAULT_AUCTION_BASE_INTERVAL);
         this.bazaarBaseIntervalMillis = sanitizeDuration(bazaarBaseInterval, DEFAULT_BAZAAR_BASE_INTERVAL);
@@ -103,99 +123,171 @@ public class MarketDataProcessingService {
     public Optional<UnifiedFlipInputSnapshot> captureCurrentSnapshotAndPrepareInput(String cycleId) {
         long pullHttpStart = cycleInstrumentationService.startPhase();
         PollPayload payload = pollPayload();
-        AuctionResponse auctionResponse = payload.auctionResponse();
+        AuctionRecordPage auctionPage = payload.auctionPage();
         BazaarResponse bazaarResponse = payload.bazaarResponse();
-        boolean hasAnyPayload = auctionResponse != null || bazaarResponse != null;
-        long payloadBytes = estimatePayload(auctionResponse, bazaarResponse);
+        boolean hasAnyPayload = auctionPage != null || bazaarResponse != null;
+        long payloadBytes = estimatePayload(auctionPage, bazaarResponse);
         cycleInstrumentationService.endPhase("pull_http", pullHttpStart, hasAnyPayload, payloadBytes);
 
-        return mapAndPersistSnapshot(cycleId, auctionResponse, bazaarResponse, payloadBytes);
+        return prepareSnapshot(cycleId, auctionPage, bazaarResponse, payload.auctions(), payloadBytes)
+                .map(this::persistPrepared);
     }
 
     public Optional<UnifiedFlipInputSnapshot> ingestAuctionPayload(AuctionResponse auctionResponse, String cycleId) {
-        AuctionResponse auctionSnapshot;
+        return ingestAuctionPage(marketSnapshotMapper.toRecordPage(auctionResponse), cycleId);
+    }
+
+    public Optional<UnifiedFlipInputSnapshot> ingestAuctionPage(AuctionRecordPage auctionPage, String cycleId) {
+        return prepareAuctionPage(auctionPage, cycleId).map(this::persistPrepared);
+    }
+
+    public Optional<PreparedSnapshot> prepareAuctionPage(AuctionRecordPage auctionPage, String cycleId) {
+        AuctionRecordPage auctionSnapshot;
         BazaarResponse bazaarSnapshot;
+        AuctionSide auctions;
         long payloadBytes;
         synchronized (pollStateLock) {
-            cachedAuctionResponse = auctionResponse;
-            if (auctionResponse != null && auctionResponse.getLastUpdated() > 0L) {
-                lastAuctionLastUpdated = Math.max(lastAuctionLastUpdated, auctionResponse.getLastUpdated());
+            updateCachedAuctionPage(auctionPage);
+            if (auctionPage != null && auctionPage.lastUpdated() > 0L) {
+                lastAuctionLastUpdated = Math.max(lastAuctionLastUpdated, auctionPage.lastUpdated());
             }
-            auctionSnapshot = cachedAuctionResponse;
+            auctionSnapshot = cachedAuctionPage;
             bazaarSnapshot = cachedBazaarResponse;
+            auctions = currentAuctionSide();
             payloadBytes = estimatePayload(auctionSnapshot, bazaarSnapshot);
         }
-        return mapAndPersistSnapshot(cycleId, auctionSnapshot, bazaarSnapshot, payloadBytes);
+        return prepareSnapshot(cycleId, auctionSnapshot, bazaarSnapshot, auctions, payloadBytes);
     }
 
     public Optional<UnifiedFlipInputSnapshot> ingestBazaarPayload(BazaarResponse bazaarResponse, String cycleId) {
-        AuctionResponse auctionSnapshot;
+        return prepareBazaarPayload(bazaarResponse, cycleId).map(this::persistPrepared);
+    }
+
+    public Optional<PreparedSnapshot> prepareBazaarPayload(BazaarResponse bazaarResponse, String cycleId) {
+        AuctionRecordPage auctionSnapshot;
         BazaarResponse bazaarSnapshot;
+        AuctionSide auctions;
         long payloadBytes;
         synchronized (pollStateLock) {
             cachedBazaarResponse = bazaarResponse;
+            bazaarOrderBookStore.update(bazaarResponse);
             if (bazaarResponse != null && bazaarResponse.getLastUpdated() > 0L) {
                 lastBazaarLastUpdated = Math.max(lastBazaarLastUpdated, bazaarResponse.getLastUpdated());
             }
-            auctionSnapshot = cachedAuctionResponse;
+            auctionSnapshot = cachedAuctionPage;
             bazaarSnapshot = cachedBazaarResponse;
+            auctions = currentAuctionSide();
             payloadBytes = estimatePayload(auctionSnapshot, bazaarSnapshot);
         }
-        return mapAndPersistSnapshot(cycleId, auctionSnapshot, bazaarSnapshot, payloadBytes);
+        return prepareSnapshot(cycleId, auctionSnapshot, bazaarSnapshot, auctions, payloadBytes);
     }
 
-    private Optional<UnifiedFlipInputSnapshot> mapAndPersistSnapshot(String cycleId,
-                                                                     AuctionResponse auctionResponse,
-                                                                     BazaarResponse bazaarResponse,
-                                                                     long payloadBytes) {
-        boolean hasAnyPayload = auctionResponse != null || bazaarResponse != null;
+    /**
+     * Normalizes, derives and publishes a snapshot to the in-memory state without touching the
+     * database, so readers see it before {@link #persistPrepared(PreparedSnapshot)} completes.
+     */
+    private Optional<PreparedSnapshot> prepareSnapshot(String cycleId,
+                                                       AuctionRecordPage auctionPage,
+                                                       BazaarResponse bazaarResponse,
+                                                       AuctionSide auctions,
+                                                       long payloadBytes) {
+        boolean hasAnyPayload = auctionPage != null || bazaarResponse != null;
         if (!hasAnyPayload) {
             log.warn("Both auction and bazaar responses are null, returning empty");
             return Optional.empty();
         }
-        if (auctionResponse == null || bazaarResponse == null) {
-            log.info("Partial data available: auctions={}, bazaar={} cycleId={}", auctionResponse != null, bazaarResponse != null, cycleId);
+        if (auctionPage == null || bazaarResponse == null) {
+            log.info("Partial data available: auctions={}, bazaar={} cycleId={}", auctionPage != null, bazaarResponse != null, cycleId);
         }
 
         long normalizeStart = cycleInstrumentationService.startPhase();
-        MarketSnapshot snapshot = marketSnapshotMapper.map(auctionResponse, bazaarResponse);
+        BazaarSide bazaar = normalizedBazaarSide(bazaarResponse);
+        MarketSnapshot snapshot = marketSnapshotMapper.merge(auctionPage, auctions.records(), bazaarResponse, bazaar.products());
         cycleInstrumentationService.endPhase("normalize", normalizeStart, true, payloadBytes);
 
         long computeStart = cycleInstrumentationService.startPhase();
-        UnifiedFlipInputSnapshot inputSnapshot = unifiedFlipInputMapper.map(snapshot);
+        UnifiedFlipInputSnapshot inputSnapshot = new UnifiedFlipInputSnapshot(
+                snapshot.snapshotTimestamp(),
+                bazaar.quotes(),
+                auctions.quotes()
+        );
         cycleInstrumentationService.endPhase("compute_flips", computeStart, true, payloadBytes);
 
+        long publishStart = cycleInstrumentationService.startPhase();
+        marketStateHolder.publish(snapshot, inputSnapshot);
+        cycleInstrumentationService.endPhase("publish_state", publishStart, true, payloadBytes);
+
+        return Optional.of(new PreparedSnapshot(snapshot, inputSnapshot, payloadBytes));
+    }
+
+    public UnifiedFlipInputSnapshot persistPrepared(PreparedSnapshot prepared) {
         long persistStart = cycleInstrumentationService.startPhase();
-        marketSnapshotPersistenceService.save(snapshot);
-        cycleInstrumentationService.endPhase("persist/cache_update", persistStart, true, payloadBytes);
+        marketSnapshotPersistenceService.save(prepared.snapshot());
+        cycleInstrumentationService.endPhase("persist/cache_update", persistStart, true, prepared.payloadBytes());
+        return prepared.inputSnapshot();
+    }
 
-        return Optional.of(inputSnapshot);
+    /**
+     * Bazaar payloads are immutable once cached, so the bazaar side is normalized once per payload and
+     * reused while only auctions change. The auction side comes from {@link LiveAuctionIndex}, which
+     * already holds it incrementally.
+     */
+    private BazaarSide normalizedBazaarSide(BazaarResponse bazaarResponse) {
+        BazaarSide current = bazaarSide;
+        if (current != null && current.source() == bazaarResponse) {
+            return current;
+        }
+        Map<String, BazaarMarketRecord> products = marketSnapshotMapper.mapBazaarProducts(bazaarResponse);
+        BazaarSide normalized = new BazaarSide(bazaarResponse, products, unifiedFlipInputMapper.mapBazaarQuotes(products));
+        bazaarSide = normalized;
+        return normalized;
     }
 
     public Optional<MarketSnapshot> latestMarketSnapshot() {
-        return marketSnapshotPersistenceService.latest();
+        return marketStateHolder.latestSnapshot();
     }
 
     public Optional<MarketSnapshot> marketSnapshotAsOfSecondsAgo(long secondsAgo) {
         long boundedSecondsAgo = Math.max(0L, secondsAgo);
-        return marketSnapshotPersistenceService.asOf(java.time.Instant.now().minusSeconds(boundedSecondsAgo));
+        return marketStateHolder.snapshotAsOf(Instant.now().minusSeconds(boundedSecondsAgo));
     }
 
     public MarketSnapshotPersistenceService.SnapshotCompactionResult compactSnapshots() {
         return marketSnapshotPersistenceService.compactSnapshots();
     }
 
+    public int purgeExpiredBazaarQuotes() {
+        return marketSnapshotPersistenceService.purgeExpiredBazaarQuotes();
+    }
+
     private PollPayload pollPayload() {
         synchronized (pollStateLock) {
             long now = System.currentTimeMillis();
             maybeRefreshAuctions(now);
             maybeRefreshBazaar(now);
-            return new PollPayload(cachedAuctionResponse, cachedBazaarResponse);
+            return new PollPayload(cachedAuctionPage, cachedBazaarResponse, currentAuctionSide());
         }
     }
 
+    private void updateCachedAuctionPage(AuctionRecordPage auctionPage) {
+        cachedAuctionPage = auctionPage;
+        if (auctionPage == null || !auctionPage.success()) {
+            return;
+        }
+        LiveAuctionIndex.DeltaResult delta = liveAuctionIndex.apply(auctionPage.auctions());
+        log.debug("Live auction index delta: +{} ~{} -{} ({} items refreshed, {} active)",
+                delta.added(), delta.updated(), delta.removed(), delta.refreshedItems(), delta.activeAuctions());
+    }
+
+    private AuctionSide currentAuctionSide() {
+        if (cachedAuctionPage == null || !cachedAuctionPage.success()) {
+            return AuctionSide.EMPTY;
+        }
+        return new AuctionSide(liveAuctionIndex.records(), liveAuctionIndex.quotes());
+    }
+
     private void maybeRefreshAuctions(long now) {
-        boolean shouldFetch = cachedAuctionResponse == null || now >= nextAuctionFetchAtMillis;
+        boolean shouldFetch = cachedAuctionPage == null || now >= nextAuctionFetchAtMillis;
         if (!shouldFetch) {
             return;
         }
@@ -213,7 +305,7 @@ public class MarketDataProcessingService {
             return;
         }
 
-        cachedAuctionResponse = fetched;
+        updateCachedAuctionPage(marketSnapshotMapper.toRecordPage(fetched));
         long fetchedLastUpdated = fetched.getLastUpdated();
         boolean advanced = fetchedLastUpdated > 0L && fetchedLastUpdated > lastAuctionLastUpdated;
         auctionCurrentIntervalMillis = advanced
@@ -245,6 +337,7 @@ public class MarketDataProcessingService {
         }
 
         cachedBazaarResponse = fetched;
+        bazaarOrderBookStore.update(fetched);
         long fetchedLastUpdated = fetched.getLastUpdated();
         boolean advanced = fetchedLastUpdated > 0L && fetchedLastUpdated > lastBazaarLastUpdated;
         bazaarCurrentIntervalMillis = advanced
@@ -261,15 +354,29 @@ public class MarketDataProcessingService {
         return Math.min(currentIntervalMillis + step, maxIntervalMillis);
     }
 
-    private long estimatePayload(AuctionResponse auctionResponse, BazaarResponse bazaarResponse) {
-        long auctionCount = auctionResponse == null || auctionResponse.getAuctions() == null ? 0L : auctionResponse.getAuctions().size();
+    private long estimatePayload(AuctionRecordPage auctionPage, BazaarResponse bazaarResponse) {
+        long auctionCount = auctionPage == null ? 0L : auctionPage.auctions().size();
         long bazaarCount = bazaarResponse == null || bazaarResponse.getProducts() == null ? 0L : bazaarResponse.getProducts().size();
         return (auctionCount * 300L) + (bazaarCount * 200L);
     }
 
+    public record PreparedSnapshot(MarketSnapshot snapshot, UnifiedFlipInputSnapshot inputSnapshot, long payloadBytes) {
+    }
+
+    private record AuctionSide(List<AuctionMarketRecord> records,
+                               Map<String, UnifiedFlipInputSnapshot.AuctionQuote> quotes) {
+        private static final AuctionSide EMPTY = new AuctionSide(List.of(), Map.of());
+    }
+
+    private record BazaarSide(BazaarResponse source,
+                              Map<String, BazaarMarketRecord> products,
+                              Map<String, UnifiedFlipInputSnapshot.BazaarQuote> quotes) {
+    }
+
     private record PollPayload(
-            AuctionResponse auctionResponse,
-            BazaarResponse bazaarResponse
+            AuctionRecordPage auctionPage,
+            BazaarResponse bazaarResponse,
+            AuctionSide auctions
     ) {
     }
 }
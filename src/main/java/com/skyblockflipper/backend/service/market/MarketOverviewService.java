@@ -5,9 +5,9 @@ import com.skyblockflipper.backend.api.UnifiedFlipDto;
 import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
+import com.skyblockflipper.backend.service.flipping.FlipTemplateStore;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
 import org.springframework.stereotype.Service;
 
@@ -25,22 +25,25 @@ public class MarketOverviewService {
     private static final long SEVEN_DAYS_SECONDS = 7L * 24L * 60L * 60L;
 
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
-    private final FlipRepository flipRepository;
+    private final MarketStateHolder marketStateHolder;
+    private final FlipTemplateStore flipTemplateStore;
     private final UnifiedFlipDtoMapper unifiedFlipDtoMapper;
     private final FlipCalculationContextService flipCalculationContextService;
 
     public MarketOverviewService(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
-                                 FlipRepository flipRepository,
+                                 MarketStateHolder marketStateHolder,
+                                 FlipTemplateStore flipTemplateStore,
                                  UnifiedFlipDtoMapper unifiedFlipDtoMapper,
                                  FlipCalculationContextService flipCalculationContextService) {
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
-        this.flipRepository = flipRepository;
+        this.marketStateHolder = marketStateHolder;
+        this.flipTemplateStore = flipTemplateStore;
         this.unifiedFlipDtoMapper = unifiedFlipDtoMapper;
         this.flipCalculationContextService = flipCalculationContextService;
     }
 
     public MarketOverviewDto overview(String productId) {
-        Optional<MarketSnapshot> latestSnapshotOptional = marketSnapshotPersistenceService.latest();
+        Optional<MarketSnapshot> latestSnapshotOptional = marketStateHolder.latestSnapshot();
         if (latestSnapshotOptional.isEmpty()) {
             return new MarketOverviewDto(productId, null, null, null, null, null, null, null, null, null, 0L, null, 0L, null);
         }
@@ -53,19 +56,13 @@ public class MarketOverviewService {
         Instant rangeEnd = latestSnapshot.snapshotTimestamp() != null ? latestSnapshot.snapshotTimestamp() : now;
         Instant rangeStart = rangeEnd.minusSeconds(SEVEN_DAYS_SECONDS);
 
-        List<MarketSnapshot> weeklySnapshots = marketSnapshotPersistenceService.between(rangeStart, rangeEnd);
-
-        List<BazaarMarketRecord> relevantRecords = weeklySnapshots.stream()
-                .map(MarketSnapshot::bazaarProducts)
-                .map(map -> resolveCurrentRecord(map, normalizedProductId))
-                .filter(Objects::nonNull)
-                .toList();
+        List<BazaarMarketRecord> relevantRecords = weeklyRecords(latestSnapshot, normalizedProductId, rangeStart, rangeEnd);
 
         long activeFlips = 0L;
         Long bestProfit = null;
         if (latestSnapshot.snapshotTimestamp() != null) {
             long snapshotEpochMillis = latestSnapshot.snapshotTimestamp().toEpochMilli();
-            List<Flip> flips = flipRepository.findAllBySnapshotTimestampEpochMillis(snapshotEpochMillis);
+            List<Flip> flips = flipTemplateStore.findAllBySnapshotTimestampEpochMillis(snapshotEpochMillis);
             activeFlips = flips.size();
 
             FlipCalculationContext context = flipCalculationContextService.loadContextAsOf(latestSnapshot.snapshotTimestamp());
@@ -119,6 +116,35 @@ public class MarketOverviewService {
         );
     }
 
+    private List<BazaarMarketRecord> weeklyRecords(MarketSnapshot latestSnapshot,
+                                                   String normalizedProductId,
+                                                   Instant rangeStart,
+                                                   Instant rangeEnd) {
+        String quotedProductId = normalizedProductId != null
+                ? normalizedProductId
+                : firstProductId(latestSnapshot.bazaarProducts());
+        List<MarketSnapshotPersistenceService.BazaarQuotePoint> quotes =
+                marketSnapshotPersistenceService.bazaarQuotes(quotedProductId, rangeStart, rangeEnd);
+        if (!quotes.isEmpty()) {
+            return quotes.stream().map(MarketSnapshotPersistenceService.BazaarQuotePoint::record).toList();
+        }
+        return marketSnapshotPersistenceService.between(rangeStart, rangeEnd).stream()
+                .map(MarketSnapshot::bazaarProducts)
+                .map(map -> resolveCurrentRecord(map, normalizedProductId))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private String firstProductId(Map<String, BazaarMarketRecord> bazaarProducts) {
+        if (bazaarProducts == null || bazaarProducts.isEmpty()) {
+            return null;
+        }
+        return bazaarProducts.keySet().stream()
+                .filter(Objects::nonNull)
+                .min(String::compareTo)
+                .orElse(null);
+    }
+
     private String normalizeProductId(String productId) {
         if (productId == null || productId.isBlank()) {
             return null;
@@ -133,10 +159,7 @@ public class MarketOverviewService {
         if (productId != null) {
             return bazaarProducts.get(productId);
         }
-        String firstKey = bazaarProducts.keySet().stream()
-                .filter(Objects::nonNull)
-                .min(String::compareTo)
-                .orElse(null);
+        String firstKey = firstProductId(bazaarProducts);
         return firstKey == null ? null : bazaarProducts.get(firstKey);
     }
 
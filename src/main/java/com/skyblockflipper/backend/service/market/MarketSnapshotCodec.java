@@ -0,0 +1,456 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary encoding for the two sides of a {@link com.skyblockflipper.backend.model.market.MarketSnapshot}.
+ * Each blob starts with a format version and a compression flag, followed by a deflated block.
+ * Repeated auction strings (item name, category, tier) go through a per-blob dictionary, auction
+ * timestamps and bids are delta/zigzag varints, and bazaar prices that are whole cents are stored
+ * as varint cents instead of raw doubles.
+ */
+@Component
+public class MarketSnapshotCodec {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte COMPRESSION_NONE = 0;
+    private static final byte COMPRESSION_DEFLATE = 1;
+    private static final int MIN_COMPRESSIBLE_BYTES = 64;
+
+    private static final int UUID_NULL = 0;
+    private static final int UUID_HEX = 1;
+    private static final int UUID_RAW = 2;
+    private static final int FLAG_CLAIMED = 1 << 2;
+    private static final int FLAG_LORE = 1 << 3;
+    private static final int FLAG_EXTRA = 1 << 4;
+    private static final int NULL_RECORD = 0xFF;
+
+    private static final int PRODUCT_ID_SAME_AS_KEY = 0;
+    private static final int PRODUCT_ID_NULL = 1;
+    private static final int PRODUCT_ID_RAW = 2;
+    private static final double MAX_CENT_ENCODED_PRICE = 1e15D;
+
+    public byte[] encodeAuctions(List<AuctionMarketRecord> auctions) {
+        List<AuctionMarketRecord> safeAuctions = auctions == null ? List.of() : auctions;
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (AuctionMarketRecord auction : safeAuctions) {
+            if (auction == null) {
+                continue;
+            }
+            intern(dictionary, auction.itemName());
+            intern(dictionary, auction.category());
+            intern(dictionary, auction.tier());
+        }
+
+        Buffer body = new Buffer(Math.max(64, safeAuctions.size() * 48));
+        body.writeVarInt(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            body.writeString(value);
+        }
+        body.writeVarInt(safeAuctions.size());
+        long previousStart = 0L;
+        for (AuctionMarketRecord auction : safeAuctions) {
+            if (auction == null) {
+                body.writeVarInt(NULL_RECORD);
+                continue;
+            }
+            byte[] uuidBytes = hexUuid(auction.auctionUuid());
+            int uuidKind = auction.auctionUuid() == null ? UUID_NULL : uuidBytes != null ? UUID_HEX : UUID_RAW;
+            int flags = uuidKind
+                    | (auction.claimed() ? FLAG_CLAIMED : 0)
+                    | (auction.itemLore() != null ? FLAG_LORE : 0)
+                    | (auction.extra() != null ? FLAG_EXTRA : 0);
+            body.writeVarInt(flags);
+            if (uuidKind == UUID_HEX) {
+                body.writeBytes(uuidBytes);
+            } else if (uuidKind == UUID_RAW) {
+                body.writeString(auction.auctionUuid());
+            }
+            body.writeVarInt(dictionaryRef(dictionary, auction.itemName()));
+            body.writeVarInt(dictionaryRef(dictionary, auction.category()));
+            body.writeVarInt(dictionaryRef(dictionary, auction.tier()));
+            body.writeSignedVarLong(auction.startingBid());
+            body.writeSignedVarLong(auction.highestBidAmount() - auction.startingBid());
+            body.writeSignedVarLong(auction.startTimestamp() - previousStart);
+            body.writeSignedVarLong(auction.endTimestamp() - auction.startTimestamp());
+            previousStart = auction.startTimestamp();
+            if (auction.itemLore() != null) {
+                body.writeString(auction.itemLore());
+            }
+            if (auction.extra() != null) {
+                body.writeString(auction.extra());
+            }
+        }
+        return frame(body);
+    }
+
+    public List<AuctionMarketRecord> decodeAuctions(byte[] blob) {
+        ByteBuffer in = unframe(blob);
+        int dictionarySize = readVarInt(in);
+        String[] dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionary[i] = readString(in);
+        }
+        int count = readVarInt(in);
+        List<AuctionMarketRecord> auctions = new ArrayList<>(count);
+        long previousStart = 0L;
+        for (int i = 0; i < count; i++) {
+            int flags = readVarInt(in);
+            if (flags == NULL_RECORD) {
+                auctions.add(null);
+                continue;
+            }
+            int uuidKind = flags & 0b11;
+            String auctionUuid = switch (uuidKind) {
+                case UUID_HEX -> readHexUuid(in);
+                case UUID_RAW -> readString(in);
+                default -> null;
+            };
+            String itemName = dictionaryValue(dictionary, readVarInt(in));
+            String category = dictionaryValue(dictionary, readVarInt(in));
+            String tier = dictionaryValue(dictionary, readVarInt(in));
+            long startingBid = readSignedVarLong(in);
+            long highestBid = startingBid + readSignedVarLong(in);
+            long startTimestamp = previousStart + readSignedVarLong(in);
+            long endTimestamp = startTimestamp + readSignedVarLong(in);
+            previousStart = startTimestamp;
+            String itemLore = (flags & FLAG_LORE) != 0 ? readString(in) : null;
+            String extra = (flags & FLAG_EXTRA) != 0 ? readString(in) : null;
+            auctions.add(new AuctionMarketRecord(
+                    auctionUuid,
+                    itemName,
+                    category,
+                    tier,
+                    startingBid,
+                    highestBid,
+                    startTimestamp,
+                    endTimestamp,
+                    (flags & FLAG_CLAIMED) != 0,
+                    itemLore,
+                    extra
+            ));
+        }
+        return auctions;
+    }
+
+    public byte[] encodeBazaar(Map<String, BazaarMarketRecord> bazaarProducts) {
+        Map<String, BazaarMarketRecord> safeProducts = bazaarProducts == null ? Map.of() : bazaarProducts;
+        Buffer body = new Buffer(Math.max(64, safeProducts.size() * 40));
+        body.writeVarInt(safeProducts.size());
+        for (Map.Entry<String, BazaarMarketRecord> entry : safeProducts.entrySet()) {
+            String key = entry.getKey();
+            BazaarMarketRecord product = entry.getValue();
+            body.writeString(key);
+            if (product == null) {
+                body.writeVarInt(NULL_RECORD);
+                continue;
+            }
+            if (key.equals(product.productId())) {
+                body.writeVarInt(PRODUCT_ID_SAME_AS_KEY);
+            } else if (product.productId() == null) {
+                body.writeVarInt(PRODUCT_ID_NULL);
+            } else {
+                body.writeVarInt(PRODUCT_ID_RAW);
+                body.writeString(product.productId());
+            }
+            writePrice(body, product.buyPrice());
+            writePrice(body, product.sellPrice());
+            body.writeSignedVarLong(product.buyVolume());
+            body.writeSignedVarLong(product.sellVolume());
+            body.writeSignedVarLong(product.buyMovingWeek());
+            body.writeSignedVarLong(product.sellMovingWeek());
+            body.writeSignedVarLong(product.buyOrders());
+            body.writeSignedVarLong(product.sellOrders());
+        }
+        return frame(body);
+    }
+
+    public Map<String, BazaarMarketRecord> decodeBazaar(byte[] blob) {
+        ByteBuffer in = unframe(blob);
+        int count = readVarInt(in);
+        Map<String, BazaarMarketRecord> products = new LinkedHashMap<>(Math.max(16, count * 2));
+        for (int i = 0; i < count; i++) {
+            String key = readString(in);
+            int productIdKind = readVarInt(in);
+            if (productIdKind == NULL_RECORD) {
+                products.put(key, null);
+                continue;
+            }
+            String productId = switch (productIdKind) {
+                case PRODUCT_ID_SAME_AS_KEY -> key;
+                case PRODUCT_ID_RAW -> readString(in);
+                default -> null;
+            };
+            products.put(key, new BazaarMarketRecord(
+                    productId,
+                    readPrice(in),
+                    readPrice(in),
+                    readSignedVarLong(in),
+                    readSignedVarLong(in),
+                    readSignedVarLong(in),
+                    readSignedVarLong(in),
+                    (int) readSignedVarLong(in),
+                    (int) readSignedVarLong(in)
+            ));
+        }
+        return products;
+    }
+
+    private static void intern(Map<String, Integer> dictionary, String value) {
+        if (value != null) {
+            dictionary.putIfAbsent(value, dictionary.size());
+        }
+    }
+
+    private static int dictionaryRef(Map<String, Integer> dictionary, String value) {
+        return value == null ? 0 : dictionary.get(value) + 1;
+    }
+
+    private static String dictionaryValue(String[] dictionary, int ref) {
+        if (ref == 0) {
+            return null;
+        }
+        if (ref > dictionary.length) {
+            throw new IllegalStateException("Snapshot blob references unknown dictionary entry " + ref);
+        }
+        return dictionary[ref - 1];
+    }
+
+    // Prices that survive a round trip through whole cents are stored as (cents << 1), everything
+    // else as a tag bit followed by the raw IEEE bits.
+    private static void writePrice(Buffer out, double price) {
+        if (Double.compare(price, 0D) >= 0 && price <= MAX_CENT_ENCODED_PRICE) {
+            long cents = Math.round(price * 100D);
+            if (cents / 100D == price) {
+                out.writeVarLong(cents << 1);
+                return;
+            }
+        }
+        out.writeVarLong(1L);
+        out.writeLong(Double.doubleToRawLongBits(price));
+    }
+
+    private static double readPrice(ByteBuffer in) {
+        long tagged = readVarLong(in);
+        if ((tagged & 1L) == 0L) {
+            return (tagged >>> 1) / 100D;
+        }
+        return Double.longBitsToDouble(in.getLong());
+    }
+
+    private static byte[] hexUuid(String uuid) {
+        if (uuid == null || uuid.length() != 32) {
+            return null;
+        }
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 16; i++) {
+            int high = lowerHexDigit(uuid.charAt(i * 2));
+            int low = lowerHexDigit(uuid.charAt(i * 2 + 1));
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+
+    // Only lowercase hex is packed so decoding reproduces the original string exactly.
+    private static int lowerHexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static String readHexUuid(ByteBuffer in) {
+        char[] chars = new char[32];
+        for (int i = 0; i < 16; i++) {
+            int value = in.get() & 0xFF;
+            chars[i * 2] = Character.forDigit(value >>> 4, 16);
+            chars[i * 2 + 1] = Character.forDigit(value & 0xF, 16);
+        }
+        return new String(chars);
+    }
+
+    private static byte[] frame(Buffer body) {
+        byte[] raw = body.bytes();
+        Buffer out = new Buffer(raw.length / 2 + 16);
+        out.writeByte(FORMAT_VERSION);
+        if (raw.length < MIN_COMPRESSIBLE_BYTES) {
+            out.writeByte(COMPRESSION_NONE);
+            out.writeBytes(raw);
+            return out.bytes();
+        }
+        out.writeByte(COMPRESSION_DEFLATE);
+        out.writeVarInt(raw.length);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(chunk);
+                out.writeBytes(chunk, written);
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.bytes();
+    }
+
+    private static ByteBuffer unframe(byte[] blob) {
+        if (blob == null || blob.length < 2) {
+            throw new IllegalStateException("Snapshot blob is empty or truncated");
+        }
+        int version = blob[0];
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported snapshot codec version " + version);
+        }
+        ByteBuffer in = ByteBuffer.wrap(blob, 2, blob.length - 2);
+        byte compression = blob[1];
+        if (compression == COMPRESSION_NONE) {
+            return in.slice();
+        }
+        if (compression != COMPRESSION_DEFLATE) {
+            throw new IllegalStateException("Unsupported snapshot compression " + compression);
+        }
+        int rawLength = readVarInt(in);
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(blob, in.position(), in.remaining());
+            int read = 0;
+            while (read < rawLength) {
+                int inflated = inflater.inflate(raw, read, rawLength - read);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != rawLength) {
+                throw new IllegalStateException("Snapshot blob inflated to " + read + " of " + rawLength + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Snapshot blob is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        return (int) readVarLong(in);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0L;
+        int shift = 0;
+        while (shift < 64) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+        throw new IllegalStateException("Malformed varint in snapshot blob");
+    }
+
+    private static long readSignedVarLong(ByteBuffer in) {
+        long zigzag = readVarLong(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1L);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static final class Buffer {
+        private final Map<String, byte[]> utf8Cache = new HashMap<>();
+        private byte[] data;
+        private int size;
+
+        private Buffer(int initialCapacity) {
+            this.data = new byte[Math.max(16, initialCapacity)];
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            data[size++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeBytes(bytes, bytes.length);
+        }
+
+        private void writeBytes(byte[] bytes, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, 0, data, size, length);
+            size += length;
+        }
+
+        private void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0L) {
+                data[size++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            data[size++] = (byte) remaining;
+        }
+
+        private void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                data[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeString(String value) {
+            byte[] utf8 = value.length() <= 64
+                    ? utf8Cache.computeIfAbsent(value, v -> v.getBytes(StandardCharsets.UTF_8))
+                    : value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length);
+            writeBytes(utf8);
+        }
+
+        private byte[] bytes() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -1,15 +1,11 @@
 package com.skyblockflipper.backend.service.market;
 
 import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
-import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarQuoteEntity;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
-import com.skyblockflipper.backend.model.market.MarketSnapshotEntity;
-import com.skyblockflipper.backend.repository.MarketSnapshotRepository;
+import com.skyblockflipper.backend.repository.BazaarQuoteRepository;
 import org.springframework.stereotype.Service;
-import tools.jackson.core.JacksonException;
-import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -18,43 +14,34 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
 
+/**
+ * Persists market snapshots through the configured {@link SnapshotStore} and keeps the per-item
+ * bazaar quotes next to them.
+ */
 @Service
 public class MarketSnapshotPersistenceService {
 
     private static final long SECONDS_PER_DAY = 86_400L;
 
-    private static final TypeReference<List<AuctionMarketRecord>> AUCTIONS_TYPE = new TypeReference<>() {};
-    private static final TypeReference<Map<String, BazaarMarketRecord>> BAZAAR_TYPE = new TypeReference<>() {};
-
-    private final MarketSnapshotRepository marketSnapshotRepository;
-    private final ObjectMapper objectMapper;
+    private final SnapshotStore snapshotStore;
+    private final BazaarQuoteRepository bazaarQuoteRepository;
     private final BlockingTimeTracker blockingTimeTracker;
-    private final long rawWindowSeconds;
-    private final long minuteTierUpperSeconds;
-    private final long twoHourTierUpperSeconds;
-    private final long minuteIntervalMillis;
-    private final long twoHourIntervalMillis;
-
-    public MarketSnapshotPersistenceService(MarketSnapshotRepository marketSnapshotRepository,
-                                            ObjectMapper objectMapper,
+    private final long bazaarQuoteRetentionMillis;
+    private volatile Map<String, BazaarMarketRecord> lastQuotedBazaar;
+
+    public MarketSnapshotPersistenceService(SnapshotStore snapshotStore,
+                                            BazaarQuoteRepository bazaarQuoteRepository,
                                             BlockingTimeTracker blockingTimeTracker,
                                             SnapshotRetentionProperties retentionProperties) {
-        this.marketSnapshotRepository = marketSnapshotRepository;
-        this.objectMapper = objectMapper;
+        this.snapshotStore = snapshotStore;
+        this.bazaarQuoteRepository = bazaarQuoteRepository;
         this.blockingTimeTracker = blockingTimeTracker;
         SnapshotRetentionProperties configuredRetention = Objects.requireNonNull(
                 retentionProperties,
                 "SnapshotRetentionProperties must be injected"
         );
-        this.rawWindowSeconds = sanitizeSeconds(configuredRetention.getRawWindowSeconds(), 90L);
-        this.minuteTierUpperSeconds = sanitizeSeconds(configuredRetention.getMinuteTierUpperSeconds(), 30L * 60L);
-        this.twoHourTierUpperSeconds = sanitizeSeconds(configuredRetention.getTwoHourTierUpperSeconds(), 12L * 60L * 60L);
-        long minuteIntervalSeconds = sanitizeSeconds(configuredRetention.getMinuteIntervalSeconds(), 60L);
-        long twoHourIntervalSeconds = sanitizeSeconds(configuredRetention.getTwoHourIntervalSeconds(), 2L * 60L * 60L);
-        this.minuteIntervalMillis = minuteIntervalSeconds * 1_000L;
-        this.twoHourIntervalMillis = twoHourIntervalSeconds * 1_000L;
+        this.bazaarQuoteRetentionMillis = sanitizeSeconds(configuredRetention.getBazaarQuoteRetentionSeconds(), 35L * SECONDS_PER_DAY) * 1_000L;
     }
 
     private long sanitizeSeconds(long configured, long fallback) {
@@ -65,110 +52,91 @@ public class MarketSnapshotPersistenceService {
     }
 
     public MarketSnapshot save(MarketSnapshot snapshot) {
-        try {
-            MarketSnapshotEntity entity = new MarketSnapshotEntity(
-                    snapshot.snapshotTimestamp().toEpochMilli(),
-                    snapshot.auctions().size(),
-                    snapshot.bazaarProducts().size(),
-                    objectMapper.writeValueAsString(snapshot.auctions()),
-                    objectMapper.writeValueAsString(snapshot.bazaarProducts())
-            );
-            MarketSnapshotEntity saved = blockingTimeTracker.record("db.marketSnapshot.save", "db", () -> marketSnapshotRepository.save(entity));
-            return toDomain(saved);
-        } catch (JacksonException e) {
-            throw new IllegalStateException("Failed to serialize market snapshot for persistence.", e);
-        }
+        MarketSnapshot saved = snapshotStore.save(snapshot);
+        saveBazaarQuotes(saved.snapshotTimestamp().toEpochMilli(), snapshot.bazaarProducts());
+        return saved;
     }
 
-    public Optional<MarketSnapshot> latest() {
-        return blockingTimeTracker.record("db.marketSnapshot.latest", "db", () -> marketSnapshotRepository.findTopByOrderBySnapshotTimestampEpochMillisDesc().map(this::toDomain));
-    }
-
-    public Optional<MarketSnapshot> asOf(Instant asOfTimestamp) {
-        if (asOfTimestamp == null) {
-            return latest();
+    // Quotes are only written when the bazaar side actually changed; readers treat a quote as valid
+    // until the next one for the same item.
+    private void saveBazaarQuotes(long snapshotEpochMillis, Map<String, BazaarMarketRecord> bazaarProducts) {
+        if (bazaarProducts.isEmpty() || bazaarProducts == lastQuotedBazaar) {
+            return;
+        }
+        List<BazaarQuoteEntity> quotes = new ArrayList<>(bazaarProducts.size());
+        for (Map.Entry<String, BazaarMarketRecord> entry : bazaarProducts.entrySet()) {
+            if (entry.getKey() != null && entry.getValue() != null) {
+                quotes.add(new BazaarQuoteEntity(snapshotEpochMillis, entry.getKey(), entry.getValue()));
+            }
         }
-        return blockingTimeTracker.record("db.marketSnapshot.asOf", "db", () -> marketSnapshotRepository
-                .findTopBySnapshotTimestampEpochMillisLessThanEqualOrderBySnapshotTimestampEpochMillisDesc(asOfTimestamp.toEpochMilli())
-                .map(this::toDomain));
+        blockingTimeTracker.recordRunnable("db.bazaarQuote.saveBatch", "db", () -> bazaarQuoteRepository.saveAll(quotes));
+        lastQuotedBazaar = bazaarProducts;
     }
 
-    public List<MarketSnapshot> between(Instant fromInclusive, Instant toInclusive) {
-        if (fromInclusive == null || toInclusive == null || fromInclusive.isAfter(toInclusive)) {
+    public List<BazaarQuotePoint> bazaarQuotes(String itemId, Instant fromInclusive, Instant toInclusive) {
+        if (itemId == null || fromInclusive == null || toInclusive == null || fromInclusive.isAfter(toInclusive)) {
             return List.of();
         }
-        return blockingTimeTracker.record("db.marketSnapshot.between", "db", () -> marketSnapshotRepository
-                .findBySnapshotTimestampEpochMillisBetweenOrderBySnapshotTimestampEpochMillisAsc(
+        return blockingTimeTracker.record("db.bazaarQuote.history", "db", () -> bazaarQuoteRepository
+                .findByItemIdAndSnapshotTimestampEpochMillisBetweenOrderBySnapshotTimestampEpochMillisAsc(
+                        itemId,
                         fromInclusive.toEpochMilli(),
                         toInclusive.toEpochMilli()
                 )
                 .stream()
-                .map(this::toDomain)
+                .map(quote -> new BazaarQuotePoint(Instant.ofEpochMilli(quote.getSnapshotTimestampEpochMillis()), quote.toRecord()))
                 .toList());
     }
 
-    public SnapshotCompactionResult compactSnapshots() {
-        return compactSnapshots(Instant.now());
+    /**
+     * Earliest bazaar side stored in the range, rebuilt from bazaar_quote rows without touching the
+     * snapshot blobs. The returned snapshot carries no auctions.
+     */
+    public Optional<MarketSnapshot> firstBazaarSnapshotBetween(Instant fromInclusive, Instant toInclusive) {
+        if (fromInclusive == null || toInclusive == null || fromInclusive.isAfter(toInclusive)) {
+            return Optional.empty();
+        }
+        return blockingTimeTracker.record("db.bazaarQuote.first", "db", () -> bazaarQuoteRepository
+                .findFirstSnapshotTimestampBetween(fromInclusive.toEpochMilli(), toInclusive.toEpochMilli())
+                .map(snapshotEpochMillis -> {
+                    Map<String, BazaarMarketRecord> products = new LinkedHashMap<>();
+                    for (BazaarQuoteEntity quote : bazaarQuoteRepository.findBySnapshotTimestampEpochMillis(snapshotEpochMillis)) {
+                        products.put(quote.getItemId(), quote.toRecord());
+                    }
+                    return new MarketSnapshot(Instant.ofEpochMilli(snapshotEpochMillis), List.of(), products);
+                }));
     }
 
-    public SnapshotCompactionResult compactSnapshots(Instant now) {
-        Instant safeNow = now == null ? Instant.now() : now;
-        long nowMillis = safeNow.toEpochMilli();
-        long compactionCandidateUpperBound = nowMillis - (rawWindowSeconds * 1_000L);
-
-        List<MarketSnapshotEntity> candidates = blockingTimeTracker.record("db.marketSnapshot.compactionCandidates", "db", () -> marketSnapshotRepository
-                .findBySnapshotTimestampEpochMillisLessThanEqualOrderBySnapshotTimestampEpochMillisAsc(compactionCandidateUpperBound));
-        if (candidates.isEmpty()) {
-            return new SnapshotCompactionResult(0, 0, 0);
-        }
+    public int purgeExpiredBazaarQuotes() {
+        return purgeExpiredBazaarQuotes(Instant.now());
+    }
 
-        Map<Long, UUID> minuteKeepers = new LinkedHashMap<>();
-        Map<Long, UUID> twoHourKeepers = new LinkedHashMap<>();
-        Map<Long, UUID> dailyKeepers = new LinkedHashMap<>();
-        List<UUID> toDelete = new ArrayList<>();
-
-        for (MarketSnapshotEntity entity : candidates) {
-            long snapshotMillis = entity.getSnapshotTimestampEpochMillis();
-            long ageSeconds = Math.max(0L, (nowMillis - snapshotMillis) / 1_000L);
-
-            if (ageSeconds <= minuteTierUpperSeconds) {
-                long slot = Math.floorDiv(snapshotMillis, minuteIntervalMillis);
-                if (minuteKeepers.putIfAbsent(slot, entity.getId()) != null) {
-                    toDelete.add(entity.getId());
-                }
-                continue;
-            }
+    public int purgeExpiredBazaarQuotes(Instant now) {
+        long cutoff = (now == null ? Instant.now() : now).toEpochMilli() - bazaarQuoteRetentionMillis;
+        return blockingTimeTracker.record("db.bazaarQuote.purge", "db", () -> bazaarQuoteRepository.deleteOlderThan(cutoff));
+    }
 
-            if (ageSeconds <= twoHourTierUpperSeconds) {
-                long slot = Math.floorDiv(snapshotMillis, twoHourIntervalMillis);
-                if (twoHourKeepers.putIfAbsent(slot, entity.getId()) != null) {
-                    toDelete.add(entity.getId());
-                }
-                continue;
-            }
+    public Optional<MarketSnapshot> latest() {
+        return snapshotStore.latest();
+    }
 
-            long epochDay = Math.floorDiv(snapshotMillis / 1_000L, SECONDS_PER_DAY);
-            if (dailyKeepers.putIfAbsent(epochDay, entity.getId()) != null) {
-                toDelete.add(entity.getId());
-            }
-        }
+    public Optional<MarketSnapshot> asOf(Instant asOfTimestamp) {
+        return snapshotStore.asOf(asOfTimestamp);
+    }
 
-        if (!toDelete.isEmpty()) {
-            blockingTimeTracker.recordRunnable("db.marketSnapshot.deleteBatch", "db", () -> marketSnapshotRepository.deleteAllByIdInBatch(toDelete));
-        }
+    public List<MarketSnapshot> between(Instant fromInclusive, Instant toInclusive) {
+        return snapshotStore.between(fromInclusive, toInclusive);
+    }
 
-        int keptCount = candidates.size() - toDelete.size();
-        return new SnapshotCompactionResult(candidates.size(), toDelete.size(), keptCount);
+    public SnapshotCompactionResult compactSnapshots() {
+        return compactSnapshots(Instant.now());
     }
 
-    private MarketSnapshot toDomain(MarketSnapshotEntity entity) {
-        try {
-            List<AuctionMarketRecord> auctions = objectMapper.readValue(entity.getAuctionsJson(), AUCTIONS_TYPE);
-            Map<String, BazaarMarketRecord> bazaar = objectMapper.readValue(entity.getBazaarProductsJson(), BAZAAR_TYPE);
-            return new MarketSnapshot(Instant.ofEpochMilli(entity.getSnapshotTimestampEpochMillis()), auctions, bazaar);
-        } catch (JacksonException e) {
-            throw new IllegalStateException("Failed to deserialize market snapshot from persistence.", e);
-        }
+    /**
+     * Thins out snapshots older than the raw window.
+     */
+    public SnapshotCompactionResult compactSnapshots(Instant now) {
+        return snapshotStore.compact(now);
     }
 
     public record SnapshotCompactionResult(
@@ -177,4 +145,7 @@ public class MarketSnapshotPersistenceService {
             int keptCount
     ) {
     }
+
+    public record BazaarQuotePoint(Instant snapshotTimestamp, BazaarMarketRecord record) {
+    }
 }
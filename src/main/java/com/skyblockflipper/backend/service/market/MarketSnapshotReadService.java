@@ -1,18 +1,26 @@
 package com.skyblockflipper.backend.service.market;
 
+import com.skyblockflipper.backend.api.CursorPageDto;
+import com.skyblockflipper.backend.api.InvalidCursorException;
 import com.skyblockflipper.backend.api.MarketSnapshotDto;
+import com.skyblockflipper.backend.api.PageCursor;
 import com.skyblockflipper.backend.model.market.MarketSnapshotEntity;
 import com.skyblockflipper.backend.repository.MarketSnapshotRepository;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 
 @Service
 public class MarketSnapshotReadService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+    private static final String CURSOR_SORT_FIELD = "snapshotTimestamp";
+
     private final MarketSnapshotRepository marketSnapshotRepository;
 
     public MarketSnapshotReadService(MarketSnapshotRepository marketSnapshotRepository) {
@@ -24,6 +32,38 @@ public class MarketSnapshotReadService {
         return marketSnapshotRepository.findAll(pageable).map(this::toDto);
     }
 
+    /**
+     * Newest-first keyset page over (snapshot timestamp, id), served from the matching index. Snapshots are
+     * only appended or compacted away, so the cursor needs no version pin and carries version 0.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<MarketSnapshotDto> listSnapshotsAfter(PageCursor cursor, int limit) {
+        int safeLimit = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+        if (cursor != null && (cursor.sortKey() == null || cursor.id() == null)) {
+            throw new InvalidCursorException("Malformed snapshot cursor");
+        }
+        if (cursor != null) {
+            cursor.requireSort(CURSOR_SORT_FIELD, true);
+        }
+        Pageable window = PageRequest.of(0, safeLimit + 1);
+        List<MarketSnapshotEntity> rows = cursor == null
+                ? marketSnapshotRepository.findAllByOrderBySnapshotTimestampEpochMillisDescIdDesc(window)
+                : marketSnapshotRepository.findPageBefore(cursor.longSortKey(), cursor.uuidId(), window);
+        if (rows.size() <= safeLimit) {
+            return new CursorPageDto<>(rows.stream().map(this::toDto).toList(), safeLimit, null);
+        }
+        List<MarketSnapshotEntity> page = rows.subList(0, safeLimit);
+        MarketSnapshotEntity last = page.getLast();
+        String nextCursor = new PageCursor(
+                0L,
+                CURSOR_SORT_FIELD,
+                true,
+                Long.toString(last.getSnapshotTimestampEpochMillis()),
+                last.getId().toString()
+        ).encode();
+        return new CursorPageDto<>(page.stream().map(this::toDto).toList(), safeLimit, nextCursor);
+    }
+
     private MarketSnapshotDto toDto(MarketSnapshotEntity entity) {
         return new MarketSnapshotDto(
                 entity.getId(),
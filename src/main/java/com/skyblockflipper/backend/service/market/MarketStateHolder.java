@@ -0,0 +1,105 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.model.market.MarketState;
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the most recently ingested market state in memory so read paths do not have to
+ * load and decode the latest snapshot row on every request. The database is only consulted
+ * on a cold start (nothing published yet) or for as-of lookups older than the current state.
+ * Every newly published snapshot also advances the timescale feature engine, once.
+ */
+@Component
+@Slf4j
+public class MarketStateHolder {
+
+    private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
+    private final UnifiedFlipInputMapper unifiedFlipInputMapper;
+    private final MarketTimescaleFeatureService marketTimescaleFeatureService;
+    private final AtomicReference<MarketState> current = new AtomicReference<>();
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final Object coldLoadLock = new Object();
+
+    public MarketStateHolder(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
+                             UnifiedFlipInputMapper unifiedFlipInputMapper) {
+        this(marketSnapshotPersistenceService, unifiedFlipInputMapper, null);
+    }
+
+    @Autowired
+    public MarketStateHolder(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
+                             UnifiedFlipInputMapper unifiedFlipInputMapper,
+                             MarketTimescaleFeatureService marketTimescaleFeatureService) {
+        this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
+        this.unifiedFlipInputMapper = unifiedFlipInputMapper;
+        this.marketTimescaleFeatureService = marketTimescaleFeatureService;
+    }
+
+    public MarketState publish(MarketSnapshot snapshot, UnifiedFlipInputSnapshot flipInput) {
+        if (snapshot == null) {
+            return current.get();
+        }
+        UnifiedFlipInputSnapshot safeFlipInput = flipInput == null ? unifiedFlipInputMapper.map(snapshot) : flipInput;
+        MarketState candidate = new MarketState(versionCounter.incrementAndGet(), snapshot, safeFlipInput, Instant.now());
+        MarketState published = current.accumulateAndGet(candidate, MarketStateHolder::newer);
+        if (published == candidate && marketTimescaleFeatureService != null) {
+            marketTimescaleFeatureService.ingest(snapshot);
+        }
+        return published;
+    }
+
+    public Optional<MarketState> current() {
+        MarketState state = current.get();
+        if (state != null) {
+            return Optional.of(state);
+        }
+        return Optional.ofNullable(coldLoad());
+    }
+
+    public Optional<MarketSnapshot> latestSnapshot() {
+        return current().map(MarketState::snapshot);
+    }
+
+    public Optional<MarketSnapshot> snapshotAsOf(Instant asOfTimestamp) {
+        if (asOfTimestamp == null) {
+            return latestSnapshot();
+        }
+        Optional<MarketState> state = current();
+        if (state.isPresent() && !asOfTimestamp.isBefore(state.get().snapshotTimestamp())) {
+            return state.map(MarketState::snapshot);
+        }
+        return marketSnapshotPersistenceService.asOf(asOfTimestamp);
+    }
+
+    private MarketState coldLoad() {
+        synchronized (coldLoadLock) {
+            MarketState state = current.get();
+            if (state != null) {
+                return state;
+            }
+            Optional<MarketSnapshot> persisted = marketSnapshotPersistenceService.latest();
+            if (persisted.isEmpty()) {
+                return null;
+            }
+            MarketState loaded = publish(persisted.get(), null);
+            log.info("Loaded market state {} from persistence (snapshot {})", loaded.version(), loaded.snapshotTimestamp());
+            return loaded;
+        }
+    }
+
+    private static MarketState newer(MarketState existing, MarketState candidate) {
+        if (existing == null || !candidate.snapshotTimestamp().isBefore(existing.snapshotTimestamp())) {
+            return candidate;
+        }
+        return existing;
+    }
+}
@@ -3,6 +3,7 @@ package com.skyblockflipper.backend.service.market;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -12,31 +13,118 @@ import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 @Service
+@Slf4j
 public class MarketTimescaleFeatureService {
 
-    private static final long SECONDS_PER_UTC_DAY = 86_400L;
-    private static final int MICRO_WINDOW_SECONDS = 60;
-    private static final int MACRO_WINDOW_DAYS = 30;
+    static final long SECONDS_PER_UTC_DAY = 86_400L;
+    static final int MICRO_WINDOW_SECONDS = 60;
+    static final int MACRO_WINDOW_DAYS = 30;
     private static final int MICRO_HIGH_CONFIDENCE_POINTS = 10;
     private static final int MICRO_MEDIUM_CONFIDENCE_POINTS = 6;
     private static final int MACRO_HIGH_CONFIDENCE_RETURNS = 7;
     private static final int MACRO_MEDIUM_CONFIDENCE_RETURNS = 3;
-    private static final double MICRO_LOG_RETURN_CAP = 0.20D;
+    static final double MICRO_LOG_RETURN_CAP = 0.20D;
     private static final double STRUCTURAL_SPREAD_THRESHOLD = 0.05D;
     private static final double STRUCTURAL_TURNOVER_PER_HOUR_THRESHOLD = 10D;
+    static final int LIQUIDITY_LOOKBACK_DAYS = 7;
+    private static final int PUBLISHED_VERSIONS = 8;
 
     private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
+    private final Object engineLock = new Object();
+    private final ConcurrentNavigableMap<Long, FlipScoreFeatureSet> publishedByTimestamp = new ConcurrentSkipListMap<>();
+    private TimescaleFeatureEngine engine = new TimescaleFeatureEngine();
+    private volatile long lastIngestedEpochMillis = Long.MIN_VALUE;
 
     public MarketTimescaleFeatureService(MarketSnapshotPersistenceService marketSnapshotPersistenceService) {
         this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
     }
 
+    /**
+     * Feature sets of ingested snapshots are served from memory; a snapshot newer than the engine is
+     * ingested first, and only as-of reads behind the published versions rescan persisted history.
+     */
     public FlipScoreFeatureSet computeFor(MarketSnapshot latestSnapshot) {
         if (latestSnapshot == null || latestSnapshot.bazaarProducts().isEmpty()) {
             return FlipScoreFeatureSet.empty();
         }
+        long timestampEpochMillis = latestSnapshot.snapshotTimestamp().toEpochMilli();
+        FlipScoreFeatureSet published = publishedByTimestamp.get(timestampEpochMillis);
+        if (published != null) {
+            return published;
+        }
+        if (timestampEpochMillis > lastIngestedEpochMillis) {
+            return ingest(latestSnapshot);
+        }
+        return computeFromHistory(latestSnapshot);
+    }
+
+    /**
+     * Advances the per-item rolling windows by one snapshot and publishes its feature set. The first
+     * ingest seeds the engine from persisted history; snapshots older than the last ingested one fall
+     * back to {@link #computeFromHistory(MarketSnapshot)}.
+     */
+    public FlipScoreFeatureSet ingest(MarketSnapshot snapshot) {
+        if (snapshot == null) {
+            return FlipScoreFeatureSet.empty();
+        }
+        long timestampEpochMillis = snapshot.snapshotTimestamp().toEpochMilli();
+        synchronized (engineLock) {
+            FlipScoreFeatureSet published = publishedByTimestamp.get(timestampEpochMillis);
+            if (published != null) {
+                return published;
+            }
+            if (timestampEpochMillis <= engine.lastTimestampEpochMillis()) {
+                return computeFromHistory(snapshot);
+            }
+            try {
+                if (engine.isEmpty()) {
+                    seed(snapshot.snapshotTimestamp());
+                }
+                FlipScoreFeatureSet featureSet = engine.apply(snapshot);
+                publishedByTimestamp.put(timestampEpochMillis, featureSet);
+                while (publishedByTimestamp.size() > PUBLISHED_VERSIONS) {
+                    publishedByTimestamp.pollFirstEntry();
+                }
+                lastIngestedEpochMillis = timestampEpochMillis;
+                return featureSet;
+            } catch (RuntimeException e) {
+                log.warn("Timescale feature ingest failed for snapshot {}, reseeding on next ingest", snapshot.snapshotTimestamp(), e);
+                engine = new TimescaleFeatureEngine();
+                return computeFromHistory(snapshot);
+            }
+        }
+    }
+
+    private void seed(Instant evaluationTs) {
+        List<MarketSnapshot> microSnapshots = marketSnapshotPersistenceService
+                .between(evaluationTs.minusSeconds(MICRO_WINDOW_SECONDS), evaluationTs);
+        long earliestEpochDay = epochDay(evaluationTs) - (MACRO_WINDOW_DAYS + 2L);
+        List<MarketSnapshot> dailySnapshots = marketSnapshotPersistenceService
+                .between(Instant.ofEpochSecond(earliestEpochDay * SECONDS_PER_UTC_DAY), evaluationTs);
+        sortedBefore(dailySnapshots, evaluationTs).forEach(engine::seedAnchor);
+        sortedBefore(microSnapshots, evaluationTs).forEach(engine::seedMicro);
+        log.info("Seeded timescale feature engine at {} from {} persisted snapshots",
+                evaluationTs, dailySnapshots == null ? 0 : dailySnapshots.size());
+    }
+
+    private List<MarketSnapshot> sortedBefore(List<MarketSnapshot> snapshots, Instant exclusiveEnd) {
+        if (snapshots == null || snapshots.isEmpty()) {
+            return List.of();
+        }
+        return snapshots.stream()
+                .filter(snapshot -> snapshot != null && snapshot.snapshotTimestamp().isBefore(exclusiveEnd))
+                .sorted(Comparator.comparing(MarketSnapshot::snapshotTimestamp))
+                .toList();
+    }
+
+    FlipScoreFeatureSet computeFromHistory(MarketSnapshot latestSnapshot) {
+        if (latestSnapshot == null || latestSnapshot.bazaarProducts().isEmpty()) {
+            return FlipScoreFeatureSet.empty();
+        }
 
         Instant evaluationTs = latestSnapshot.snapshotTimestamp();
         List<MarketSnapshot> microSnapshots = marketSnapshotPersistenceService
@@ -116,7 +204,7 @@ public class MarketTimescaleFeatureService {
                                                                           Map<Long, MarketSnapshot> dailyAnchors) {
         Double microReturn = computeOneMinuteReturn(microSeries, evaluationTs);
         Double microVolatility = computeLogReturnStdev(microSeries);
-        FlipScoreFeatureSet.ConfidenceLevel microConfidence = resolveMicroConfidence(microSeries, microReturn, microVolatility);
+        FlipScoreFeatureSet.ConfidenceLevel microConfidence = resolveMicroConfidence(microSeries.size(), microReturn, microVolatility);
 
         DailyFeatureSeries dailySeries = buildDailySeries(itemId, dailyAnchors);
         Double macroReturn = resolveLatestDailyReturn(dailySeries, evaluationTs);
@@ -135,10 +223,9 @@ public class MarketTimescaleFeatureService {
         );
     }
 
-    private FlipScoreFeatureSet.ConfidenceLevel resolveMicroConfidence(List<PricePoint> points,
-                                                                       Double microReturn,
-                                                                       Double microVolatility) {
-        int pointCount = points == null ? 0 : points.size();
+    static FlipScoreFeatureSet.ConfidenceLevel resolveMicroConfidence(int pointCount,
+                                                                      Double microReturn,
+                                                                      Double microVolatility) {
         boolean hasSignal = microReturn != null || microVolatility != null;
         if (pointCount >= MICRO_HIGH_CONFIDENCE_POINTS && microReturn != null && microVolatility != null) {
             return FlipScoreFeatureSet.ConfidenceLevel.HIGH;
@@ -149,7 +236,7 @@ public class MarketTimescaleFeatureService {
         return FlipScoreFeatureSet.ConfidenceLevel.LOW;
     }
 
-    private FlipScoreFeatureSet.ConfidenceLevel resolveMacroConfidence(int returnCount) {
+    static FlipScoreFeatureSet.ConfidenceLevel resolveMacroConfidence(int returnCount) {
         if (returnCount >= MACRO_HIGH_CONFIDENCE_RETURNS) {
             return FlipScoreFeatureSet.ConfidenceLevel.HIGH;
         }
@@ -272,6 +359,27 @@ public class MarketTimescaleFeatureService {
     }
 
     private boolean isStructurallyIlliquid(BazaarMarketRecord latestRecord, List<DailyLiquidityObservation> dailyObservations) {
+        if (dailyObservations == null) {
+            return isStructurallyIlliquid(latestRecord, List.of(), List.of());
+        }
+        int startIndex = Math.max(0, dailyObservations.size() - LIQUIDITY_LOOKBACK_DAYS);
+        List<DailyLiquidityObservation> recent = dailyObservations.subList(startIndex, dailyObservations.size());
+        List<Double> spreads = new ArrayList<>(recent.size());
+        List<Double> turnovers = new ArrayList<>(recent.size());
+        for (DailyLiquidityObservation observation : recent) {
+            spreads.add(observation.spreadRel());
+            turnovers.add(observation.turnoverPerHour());
+        }
+        return isStructurallyIlliquid(latestRecord, spreads, turnovers);
+    }
+
+    /**
+     * @param recentSpreads   relative spreads of the last {@value #LIQUIDITY_LOOKBACK_DAYS} daily anchors
+     * @param recentTurnovers conservative hourly turnovers of the same anchors
+     */
+    static boolean isStructurallyIlliquid(BazaarMarketRecord latestRecord,
+                                          List<Double> recentSpreads,
+                                          List<Double> recentTurnovers) {
         if (latestRecord == null) {
             return false;
         }
@@ -280,25 +388,15 @@ public class MarketTimescaleFeatureService {
         if (latestSpread >= STRUCTURAL_SPREAD_THRESHOLD && latestTurnover <= STRUCTURAL_TURNOVER_PER_HOUR_THRESHOLD) {
             return true;
         }
-        if (dailyObservations == null || dailyObservations.size() < 3) {
+        if (recentSpreads.size() < 3) {
             return false;
         }
-
-        int startIndex = Math.max(0, dailyObservations.size() - 7);
-        List<DailyLiquidityObservation> recent = dailyObservations.subList(startIndex, dailyObservations.size());
-        List<Double> spreads = new ArrayList<>(recent.size());
-        List<Double> turnovers = new ArrayList<>(recent.size());
-        for (DailyLiquidityObservation observation : recent) {
-            spreads.add(observation.spreadRel());
-            turnovers.add(observation.turnoverPerHour());
-        }
-
-        double medianSpread = median(spreads);
-        double medianTurnover = median(turnovers);
+        double medianSpread = median(recentSpreads);
+        double medianTurnover = median(recentTurnovers);
         return medianSpread >= STRUCTURAL_SPREAD_THRESHOLD || medianTurnover <= STRUCTURAL_TURNOVER_PER_HOUR_THRESHOLD;
     }
 
-    private Double resolveMid(BazaarMarketRecord record) {
+    static Double resolveMid(BazaarMarketRecord record) {
         if (record == null) {
             return null;
         }
@@ -311,7 +409,7 @@ public class MarketTimescaleFeatureService {
         return mid;
     }
 
-    private double computeRelativeSpread(BazaarMarketRecord record) {
+    static double computeRelativeSpread(BazaarMarketRecord record) {
         Double mid = resolveMid(record);
         if (mid == null) {
             return 1D;
@@ -321,7 +419,7 @@ public class MarketTimescaleFeatureService {
         return Math.max(0D, (high - low) / mid);
     }
 
-    private double resolveConservativeTurnoverPerHour(BazaarMarketRecord record) {
+    static double resolveConservativeTurnoverPerHour(BazaarMarketRecord record) {
         if (record == null) {
             return 0D;
         }
@@ -330,7 +428,7 @@ public class MarketTimescaleFeatureService {
         return Math.max(0D, Math.min(buyTurnover, sellTurnover));
     }
 
-    private Double safeLogRatio(double numerator, double denominator) {
+    static Double safeLogRatio(double numerator, double denominator) {
         if (numerator <= 0D || denominator <= 0D) {
             return null;
         }
@@ -362,7 +460,7 @@ public class MarketTimescaleFeatureService {
         return Math.sqrt(variance);
     }
 
-    private double median(List<Double> values) {
+    static double median(List<Double> values) {
         if (values == null || values.isEmpty()) {
             return 0D;
         }
@@ -375,11 +473,11 @@ public class MarketTimescaleFeatureService {
         return copy.get(mid);
     }
 
-    private double clamp(double value, double min, double max) {
+    static double clamp(double value, double min, double max) {
         return Math.max(min, Math.min(max, value));
     }
 
-    private long epochDay(Instant instant) {
+    static long epochDay(Instant instant) {
         if (instant == null) {
             return 0L;
         }
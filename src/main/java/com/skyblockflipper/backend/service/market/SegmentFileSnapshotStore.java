@@ -0,0 +1,547 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Stores snapshots in local append-only segment files, without a database. Each snapshot side is one
+ * codec blob (already deflated) appended to the active segment; a side that did not change since the
+ * previous save points at the existing block instead of being written again. A memory-mapped index
+ * file holds one fixed-width entry per snapshot, sorted by timestamp, so point-in-time lookups are
+ * a binary search over the mapping.
+ * <p>
+ * Compaction removes index entries following the shared retention tiers. Segments that no entry
+ * refers to any more are deleted; sparsely used ones have their live blocks copied into the active
+ * segment first. Writes are not fsynced per snapshot: data is written before the index entry that
+ * points at it, and the index is forced on shutdown.
+ */
+@Component
+@ConditionalOnProperty(name = "config.snapshot.store.type", havingValue = "segment-file")
+@Slf4j
+public class SegmentFileSnapshotStore implements SnapshotStore {
+
+    static final String INDEX_FILE_NAME = "snapshots.idx";
+    static final int ENTRY_BYTES = 40;
+
+    private static final int INDEX_MAGIC = 0x534E4958;
+    private static final int INDEX_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int INITIAL_INDEX_CAPACITY = 4_096;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    // Segments whose live blocks fill less than this share of the file are rewritten on compaction.
+    private static final double REWRITE_LIVE_RATIO = 0.5D;
+
+    private final MarketSnapshotCodec marketSnapshotCodec;
+    private final BlockingTimeTracker blockingTimeTracker;
+    private final SnapshotCompactionPolicy compactionPolicy;
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, FileChannel> segments = new TreeMap<>();
+    private final FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int indexCapacity;
+    private int entryCount;
+    private int activeSegment;
+    private long activeSegmentSize;
+    private WrittenSide lastAuctions;
+    private WrittenSide lastBazaar;
+    private boolean closed;
+
+    public SegmentFileSnapshotStore(MarketSnapshotCodec marketSnapshotCodec,
+                                    BlockingTimeTracker blockingTimeTracker,
+                                    SnapshotRetentionProperties retentionProperties,
+                                    @Value("${config.snapshot.store.directory:var/snapshots}") Path directory,
+                                    @Value("${config.snapshot.store.segment-max-bytes:67108864}") long segmentMaxBytes) {
+        this.marketSnapshotCodec = marketSnapshotCodec;
+        this.blockingTimeTracker = blockingTimeTracker;
+        this.compactionPolicy = new SnapshotCompactionPolicy(retentionProperties);
+        this.directory = directory;
+        this.segmentMaxBytes = Math.max(1L, segmentMaxBytes);
+        try {
+            Files.createDirectories(directory);
+            this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            openIndex();
+            openSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open snapshot segment store in " + directory, e);
+        }
+        log.info("Opened snapshot segment store {} with {} snapshots in {} segments", directory, entryCount, segments.size());
+    }
+
+    @Override
+    public MarketSnapshot save(MarketSnapshot snapshot) {
+        long timestamp = snapshot.snapshotTimestamp().toEpochMilli();
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            blockingTimeTracker.recordRunnable("io.snapshotSegment.save", "io", () -> {
+                BlockRef auctions = writeAuctions(snapshot.auctions());
+                BlockRef bazaar = writeBazaar(snapshot.bazaarProducts());
+                putEntry(timestamp, auctions, bazaar);
+            });
+            return snapshot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<MarketSnapshot> latest() {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            return entryCount == 0 ? Optional.empty() : Optional.of(read(entryCount - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<MarketSnapshot> asOf(Instant asOfTimestamp) {
+        if (asOfTimestamp == null) {
+            return latest();
+        }
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            int position = upperBound(asOfTimestamp.toEpochMilli()) - 1;
+            return position < 0 ? Optional.empty() : Optional.of(read(position));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<MarketSnapshot> between(Instant fromInclusive, Instant toInclusive) {
+        if (fromInclusive == null || toInclusive == null || fromInclusive.isAfter(toInclusive)) {
+            return List.of();
+        }
+        long toMillis = toInclusive.toEpochMilli();
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            List<MarketSnapshot> snapshots = new ArrayList<>();
+            for (int position = lowerBound(fromInclusive.toEpochMilli());
+                 position < entryCount && timestampAt(position) <= toMillis;
+                 position++) {
+                snapshots.add(read(position));
+            }
+            return snapshots;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public MarketSnapshotPersistenceService.SnapshotCompactionResult compact(Instant now) {
+        long nowMillis = (now == null ? Instant.now() : now).toEpochMilli();
+        SnapshotCompactionPolicy.TierWindow[] windows = compactionPolicy.windows(nowMillis);
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            long[] keptSlots = new long[SnapshotCompactionPolicy.TIER_COUNT];
+            boolean[] hasKept = new boolean[SnapshotCompactionPolicy.TIER_COUNT];
+            int scanned = 0;
+            int survivors = 0;
+            for (int position = 0; position < entryCount; position++) {
+                long timestamp = timestampAt(position);
+                int tier = tierOf(windows, timestamp);
+                boolean keep = true;
+                if (tier >= 0) {
+                    scanned++;
+                    long slot = windows[tier].slotOf(timestamp);
+                    if (hasKept[tier] && keptSlots[tier] == slot) {
+                        keep = false;
+                    } else {
+                        keptSlots[tier] = slot;
+                        hasKept[tier] = true;
+                    }
+                }
+                if (keep) {
+                    if (survivors != position) {
+                        copyEntry(position, survivors);
+                    }
+                    survivors++;
+                }
+            }
+            int deleted = entryCount - survivors;
+            if (deleted > 0) {
+                setEntryCount(survivors);
+            }
+            reclaimSegments();
+            return new MarketSnapshotPersistenceService.SnapshotCompactionResult(scanned, deleted, scanned - deleted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int snapshotCount() {
+        lock.readLock().lock();
+        try {
+            return entryCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            index.force();
+            for (FileChannel channel : segments.values()) {
+                channel.close();
+            }
+            segments.clear();
+            indexChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close snapshot segment store {}: {}", directory, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int tierOf(SnapshotCompactionPolicy.TierWindow[] windows, long timestamp) {
+        for (int tier = 0; tier < windows.length; tier++) {
+            if (windows[tier].contains(timestamp)) {
+                return tier;
+            }
+        }
+        return -1;
+    }
+
+    private void openIndex() throws IOException {
+        long size = indexChannel.size();
+        if (size < HEADER_BYTES) {
+            indexCapacity = INITIAL_INDEX_CAPACITY;
+            index = mapIndex(indexCapacity);
+            index.putInt(0, INDEX_MAGIC);
+            index.putInt(4, INDEX_VERSION);
+            index.putLong(COUNT_OFFSET, 0L);
+            entryCount = 0;
+            return;
+        }
+        indexCapacity = (int) Math.max(INITIAL_INDEX_CAPACITY, (size - HEADER_BYTES) / ENTRY_BYTES);
+        index = mapIndex(indexCapacity);
+        if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != INDEX_VERSION) {
+            throw new IOException("Unsupported snapshot index format in " + directory.resolve(INDEX_FILE_NAME));
+        }
+        entryCount = (int) index.getLong(COUNT_OFFSET);
+    }
+
+    private MappedByteBuffer mapIndex(int capacity) throws IOException {
+        return indexChannel.map(FileChannel.MapMode.READ_WRITE, 0L, HEADER_BYTES + ((long) capacity * ENTRY_BYTES));
+    }
+
+    private void openSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    int segment = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(segment, FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            activeSegment = 0;
+            segments.put(activeSegment, openSegment(activeSegment));
+        } else {
+            activeSegment = segments.lastKey();
+        }
+        activeSegmentSize = segments.get(activeSegment).size();
+    }
+
+    private FileChannel openSegment(int segment) throws IOException {
+        return FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    // Snapshot sides are immutable and reused across snapshots while unchanged, so the block of the
+    // previous save is referenced again by identity.
+    private BlockRef writeAuctions(List<AuctionMarketRecord> auctions) throws IOException {
+        WrittenSide cached = lastAuctions;
+        if (cached != null && cached.source() == auctions) {
+            return cached.block();
+        }
+        BlockRef block = append(marketSnapshotCodec.encodeAuctions(auctions));
+        lastAuctions = new WrittenSide(auctions, block);
+        return block;
+    }
+
+    private BlockRef writeBazaar(Map<String, BazaarMarketRecord> bazaarProducts) throws IOException {
+        WrittenSide cached = lastBazaar;
+        if (cached != null && cached.source() == bazaarProducts) {
+            return cached.block();
+        }
+        BlockRef block = append(marketSnapshotCodec.encodeBazaar(bazaarProducts));
+        lastBazaar = new WrittenSide(bazaarProducts, block);
+        return block;
+    }
+
+    private BlockRef append(byte[] blob) throws IOException {
+        if (activeSegmentSize > 0L && activeSegmentSize + blob.length > segmentMaxBytes) {
+            activeSegment++;
+            segments.put(activeSegment, openSegment(activeSegment));
+            activeSegmentSize = 0L;
+        }
+        FileChannel channel = segments.get(activeSegment);
+        ByteBuffer buffer = ByteBuffer.wrap(blob);
+        long offset = activeSegmentSize;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        activeSegmentSize += blob.length;
+        return new BlockRef(activeSegment, offset, blob.length);
+    }
+
+    private byte[] readBlock(BlockRef block) throws IOException {
+        FileChannel channel = segments.get(block.segment());
+        if (channel == null) {
+            throw new IOException("Snapshot segment " + block.segment() + " is missing in " + directory);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(block.length());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, block.offset() + buffer.position()) < 0) {
+                throw new IOException("Snapshot segment " + block.segment() + " ends before offset "
+                        + (block.offset() + block.length()));
+            }
+        }
+        return buffer.array();
+    }
+
+    private MarketSnapshot read(int position) {
+        long timestamp = timestampAt(position);
+        BlockRef auctions = auctionsAt(position);
+        BlockRef bazaar = bazaarAt(position);
+        return blockingTimeTracker.record("io.snapshotSegment.read", "io", () -> new MarketSnapshot(
+                Instant.ofEpochMilli(timestamp),
+                marketSnapshotCodec.decodeAuctions(readBlock(auctions)),
+                marketSnapshotCodec.decodeBazaar(readBlock(bazaar))
+        ));
+    }
+
+    // Entries stay sorted: the common in-order append lands at the end, a late snapshot shifts the
+    // newer entries up by one and a repeated timestamp replaces its entry.
+    private void putEntry(long timestamp, BlockRef auctions, BlockRef bazaar) throws IOException {
+        int position = lowerBound(timestamp);
+        if (position < entryCount && timestampAt(position) == timestamp) {
+            writeEntry(position, timestamp, auctions, bazaar);
+            return;
+        }
+        if (entryCount == indexCapacity) {
+            indexCapacity *= 2;
+            index = mapIndex(indexCapacity);
+        }
+        for (int moved = entryCount; moved > position; moved--) {
+            copyEntry(moved - 1, moved);
+        }
+        writeEntry(position, timestamp, auctions, bazaar);
+        setEntryCount(entryCount + 1);
+    }
+
+    private void writeEntry(int position, long timestamp, BlockRef auctions, BlockRef bazaar) {
+        int base = entryOffset(position);
+        index.putLong(base, timestamp);
+        index.putInt(base + 8, auctions.segment());
+        index.putLong(base + 12, auctions.offset());
+        index.putInt(base + 20, auctions.length());
+        index.putInt(base + 24, bazaar.segment());
+        index.putLong(base + 28, bazaar.offset());
+        index.putInt(base + 36, bazaar.length());
+    }
+
+    private void copyEntry(int from, int to) {
+        int source = entryOffset(from);
+        int target = entryOffset(to);
+        for (int offset = 0; offset < ENTRY_BYTES; offset += 8) {
+            index.putLong(target + offset, index.getLong(source + offset));
+        }
+    }
+
+    private void setEntryCount(int count) {
+        entryCount = count;
+        index.putLong(COUNT_OFFSET, count);
+    }
+
+    private long timestampAt(int position) {
+        return index.getLong(entryOffset(position));
+    }
+
+    private BlockRef auctionsAt(int position) {
+        int base = entryOffset(position);
+        return new BlockRef(index.getInt(base + 8), index.getLong(base + 12), index.getInt(base + 20));
+    }
+
+    private BlockRef bazaarAt(int position) {
+        int base = entryOffset(position);
+        return new BlockRef(index.getInt(base + 24), index.getLong(base + 28), index.getInt(base + 36));
+    }
+
+    private static int entryOffset(int position) {
+        return HEADER_BYTES + (position * ENTRY_BYTES);
+    }
+
+    // First position whose timestamp is >= the given one.
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position whose timestamp is > the given one.
+    private int upperBound(long timestamp) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void reclaimSegments() {
+        blockingTimeTracker.recordRunnable("io.snapshotSegment.reclaim", "io", () -> {
+            Map<Integer, Set<BlockRef>> liveBlocks = liveBlocksBySegment();
+            // Relocated blocks land in the active segment or newer ones, which are never reclaimed here.
+            int firstRetainedSegment = activeSegment;
+            List<Integer> reclaimed = new ArrayList<>();
+            for (int segment : List.copyOf(segments.headMap(firstRetainedSegment).keySet())) {
+                Set<BlockRef> live = liveBlocks.getOrDefault(segment, Set.of());
+                long liveBytes = live.stream().mapToLong(BlockRef::length).sum();
+                long segmentBytes = segments.get(segment).size();
+                if (!live.isEmpty() && liveBytes >= segmentBytes * REWRITE_LIVE_RATIO) {
+                    continue;
+                }
+                if (!live.isEmpty()) {
+                    relocate(live);
+                }
+                reclaimed.add(segment);
+            }
+            if (reclaimed.isEmpty()) {
+                return;
+            }
+            // The old copies are the only durable ones until the relocated blocks and the index entries
+            // pointing at them are on disk; deleting first could lose snapshots on a crash.
+            for (FileChannel channel : segments.tailMap(firstRetainedSegment).values()) {
+                channel.force(false);
+            }
+            index.force();
+            for (int segment : reclaimed) {
+                segments.remove(segment).close();
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        });
+    }
+
+    private Map<Integer, Set<BlockRef>> liveBlocksBySegment() {
+        Map<Integer, Set<BlockRef>> live = new HashMap<>();
+        for (int position = 0; position < entryCount; position++) {
+            BlockRef auctions = auctionsAt(position);
+            BlockRef bazaar = bazaarAt(position);
+            live.computeIfAbsent(auctions.segment(), ignored -> new HashSet<>()).add(auctions);
+            live.computeIfAbsent(bazaar.segment(), ignored -> new HashSet<>()).add(bazaar);
+        }
+        // The last written sides may be referenced again by the next save.
+        for (WrittenSide side : new WrittenSide[]{lastAuctions, lastBazaar}) {
+            if (side != null) {
+                live.computeIfAbsent(side.block().segment(), ignored -> new HashSet<>()).add(side.block());
+            }
+        }
+        return live;
+    }
+
+    private void relocate(Set<BlockRef> blocks) throws IOException {
+        Map<BlockRef, BlockRef> moved = new HashMap<>();
+        for (BlockRef block : blocks) {
+            moved.put(block, append(readBlock(block)));
+        }
+        for (int position = 0; position < entryCount; position++) {
+            BlockRef auctions = auctionsAt(position);
+            BlockRef bazaar = bazaarAt(position);
+            if (moved.containsKey(auctions) || moved.containsKey(bazaar)) {
+                writeEntry(position, timestampAt(position),
+                        moved.getOrDefault(auctions, auctions),
+                        moved.getOrDefault(bazaar, bazaar));
+            }
+        }
+        if (lastAuctions != null && moved.containsKey(lastAuctions.block())) {
+            lastAuctions = new WrittenSide(lastAuctions.source(), moved.get(lastAuctions.block()));
+        }
+        if (lastBazaar != null && moved.containsKey(lastBazaar.block())) {
+            lastBazaar = new WrittenSide(lastBazaar.source(), moved.get(lastBazaar.block()));
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Snapshot segment store " + directory + " is closed.");
+        }
+    }
+
+    private record BlockRef(int segment, long offset, int length) {
+    }
+
+    private record WrittenSide(Object source, BlockRef block) {
+    }
+}
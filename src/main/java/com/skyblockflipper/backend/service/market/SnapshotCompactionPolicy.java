@@ -0,0 +1,69 @@
+package com.skyblockflipper.backend.service.market;
+
+/**
+ * The retention tiers shared by every {@link SnapshotStore}: a raw window that is never touched,
+ * then a minute tier, a two-hour tier and a daily tier that each keep the first snapshot per slot.
+ */
+final class SnapshotCompactionPolicy {
+
+    static final int MINUTE_TIER = 0;
+    static final int TWO_HOUR_TIER = 1;
+    static final int DAILY_TIER = 2;
+    static final int TIER_COUNT = 3;
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final long rawWindowSeconds;
+    private final long minuteTierUpperSeconds;
+    private final long twoHourTierUpperSeconds;
+    private final long minuteIntervalMillis;
+    private final long twoHourIntervalMillis;
+
+    SnapshotCompactionPolicy(SnapshotRetentionProperties retentionProperties) {
+        SnapshotRetentionProperties configuredRetention = retentionProperties == null
+                ? new SnapshotRetentionProperties()
+                : retentionProperties;
+        this.rawWindowSeconds = sanitizeSeconds(configuredRetention.getRawWindowSeconds(), 90L);
+        this.minuteTierUpperSeconds = sanitizeSeconds(configuredRetention.getMinuteTierUpperSeconds(), 30L * 60L);
+        this.twoHourTierUpperSeconds = sanitizeSeconds(configuredRetention.getTwoHourTierUpperSeconds(), 12L * 60L * 60L);
+        this.minuteIntervalMillis = sanitizeSeconds(configuredRetention.getMinuteIntervalSeconds(), 60L) * 1_000L;
+        this.twoHourIntervalMillis = sanitizeSeconds(configuredRetention.getTwoHourIntervalSeconds(), 2L * 60L * 60L) * 1_000L;
+    }
+
+    /**
+     * The inclusive timestamp window and slot width of every tier at {@code nowMillis}, indexed by
+     * tier. A window whose start lies after its end is empty.
+     */
+    TierWindow[] windows(long nowMillis) {
+        // A snapshot belongs to a tier while its whole-second age is <= the tier's upper bound.
+        long minuteTierStart = nowMillis - ((minuteTierUpperSeconds + 1L) * 1_000L) + 1L;
+        long twoHourTierStart = nowMillis - ((twoHourTierUpperSeconds + 1L) * 1_000L) + 1L;
+        long compactionCandidateUpperBound = nowMillis - (rawWindowSeconds * 1_000L);
+
+        TierWindow[] windows = new TierWindow[TIER_COUNT];
+        windows[MINUTE_TIER] = new TierWindow(minuteTierStart, compactionCandidateUpperBound, minuteIntervalMillis);
+        windows[TWO_HOUR_TIER] = new TierWindow(twoHourTierStart,
+                Math.min(compactionCandidateUpperBound, minuteTierStart - 1L), twoHourIntervalMillis);
+        windows[DAILY_TIER] = new TierWindow(Long.MIN_VALUE,
+                Math.min(compactionCandidateUpperBound, twoHourTierStart - 1L), DAY_MILLIS);
+        return windows;
+    }
+
+    private static long sanitizeSeconds(long configured, long fallback) {
+        if (configured <= 0L) {
+            return fallback;
+        }
+        return configured;
+    }
+
+    record TierWindow(long start, long end, long slotMillis) {
+
+        boolean contains(long timestampEpochMillis) {
+            return timestampEpochMillis >= start && timestampEpochMillis <= end;
+        }
+
+        long slotOf(long timestampEpochMillis) {
+            return Math.floorDiv(timestampEpochMillis, slotMillis);
+        }
+    }
+}
@@ -10,6 +10,9 @@ public class SnapshotRetentionProperties {
     private long twoHourTierUpperSeconds = 12L * 60L * 60L;
     private long minuteIntervalSeconds = 60L;
     private long twoHourIntervalSeconds = 2L * 60L * 60L;
+    private long bazaarQuoteRetentionSeconds = 35L * 24L * 60L * 60L;
+    private long dailyTierRetentionDays = 90L;
+    private int partitionsAheadDays = 3;
 
     public long getRawWindowSeconds() {
         return rawWindowSeconds;
@@ -50,4 +53,28 @@ public class SnapshotRetentionProperties {
     public void setTwoHourIntervalSeconds(long twoHourIntervalSeconds) {
         this.twoHourIntervalSeconds = twoHourIntervalSeconds;
     }
+
+    public long getBazaarQuoteRetentionSeconds() {
+        return bazaarQuoteRetentionSeconds;
+    }
+
+    public void setBazaarQuoteRetentionSeconds(long bazaarQuoteRetentionSeconds) {
+        this.bazaarQuoteRetentionSeconds = bazaarQuoteRetentionSeconds;
+    }
+
+    public long getDailyTierRetentionDays() {
+        return dailyTierRetentionDays;
+    }
+
+    public void setDailyTierRetentionDays(long dailyTierRetentionDays) {
+        this.dailyTierRetentionDays = dailyTierRetentionDays;
+    }
+
+    public int getPartitionsAheadDays() {
+        return partitionsAheadDays;
+    }
+
+    public void setPartitionsAheadDays(int partitionsAheadDays) {
+        this.partitionsAheadDays = partitionsAheadDays;
+    }
 }
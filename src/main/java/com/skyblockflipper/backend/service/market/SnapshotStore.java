@@ -0,0 +1,33 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage backend for market snapshots. The active implementation is chosen with
+ * {@code config.snapshot.store.type}: {@code jpa} (default) or {@code segment-file}.
+ */
+public interface SnapshotStore {
+
+    MarketSnapshot save(MarketSnapshot snapshot);
+
+    Optional<MarketSnapshot> latest();
+
+    /**
+     * The newest snapshot taken at or before the given timestamp.
+     */
+    Optional<MarketSnapshot> asOf(Instant asOfTimestamp);
+
+    /**
+     * Snapshots in the inclusive range, oldest first.
+     */
+    List<MarketSnapshot> between(Instant fromInclusive, Instant toInclusive);
+
+    /**
+     * Thins out snapshots older than the raw window following the retention tiers.
+     */
+    MarketSnapshotPersistenceService.SnapshotCompactionResult compact(Instant now);
+}
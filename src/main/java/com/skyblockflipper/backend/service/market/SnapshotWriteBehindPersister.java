@@ -0,0 +1,206 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persists market snapshots on a dedicated writer thread so a slow insert no longer holds up the
+ * adaptive pipeline. The queue is bounded: a full queue blocks the submitter, which in turn backs up
+ * the pipeline stages. With coalescing enabled a pending snapshot is replaced by a newer one from the
+ * same minute slot unless it is the first of that slot, i.e. the one compaction would keep.
+ */
+@Component
+@Slf4j
+public class SnapshotWriteBehindPersister {
+
+    private final MarketSnapshotPersistenceService marketSnapshotPersistenceService;
+    private final MeterRegistry meterRegistry;
+    private final int queueCapacity;
+    private final boolean coalesceEnabled;
+    private final long coalesceSlotMillis;
+    private final Duration flushTimeout;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final Deque<PendingSnapshot> pending = new ArrayDeque<>();
+    private final ExecutorService writer;
+    private long lastEnqueuedSlot = Long.MIN_VALUE;
+    private boolean writing;
+    private boolean closed;
+
+    public SnapshotWriteBehindPersister(MarketSnapshotPersistenceService marketSnapshotPersistenceService,
+                                        MeterRegistry meterRegistry,
+                                        SnapshotRetentionProperties retentionProperties,
+                                        @Value("${config.snapshot.write-behind.queue-capacity:4}") int queueCapacity,
+                                        @Value("${config.snapshot.write-behind.coalesce-enabled:true}") boolean coalesceEnabled,
+                                        @Value("${config.snapshot.write-behind.flush-timeout:PT30S}") Duration flushTimeout) {
+        this.marketSnapshotPersistenceService = marketSnapshotPersistenceService;
+        this.meterRegistry = meterRegistry;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.coalesceEnabled = coalesceEnabled;
+        long minuteIntervalSeconds = retentionProperties == null ? 60L : retentionProperties.getMinuteIntervalSeconds();
+        this.coalesceSlotMillis = Math.max(1L, minuteIntervalSeconds) * 1_000L;
+        this.flushTimeout = flushTimeout == null || flushTimeout.isNegative() ? Duration.ofSeconds(30) : flushTimeout;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SnapshotWriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("skyblock.snapshot.write_behind.queue_depth", this, SnapshotWriteBehindPersister::depth)
+                .register(meterRegistry);
+        Gauge.builder("skyblock.snapshot.write_behind.oldest_pending_age_ms", this, SnapshotWriteBehindPersister::oldestPendingAgeMillis)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the snapshot for persistence, blocking while the queue is full. Returns false if the
+     * persister is closed or the caller was interrupted while waiting.
+     */
+    public boolean submit(MarketSnapshot snapshot) {
+        if (snapshot == null) {
+            return false;
+        }
+        long slot = Math.floorDiv(snapshot.snapshotTimestamp().toEpochMilli(), coalesceSlotMillis);
+        lock.lock();
+        try {
+            if (coalesceEnabled) {
+                PendingSnapshot tail = pending.peekLast();
+                if (tail != null && !tail.slotHead() && tail.slot() == slot) {
+                    pending.pollLast();
+                    pending.addLast(new PendingSnapshot(snapshot, slot, false, tail.enqueuedAtNanos()));
+                    meterRegistry.counter("skyblock.snapshot.write_behind.coalesced").increment();
+                    return true;
+                }
+            }
+            while (pending.size() >= queueCapacity && !closed) {
+                meterRegistry.counter("skyblock.snapshot.write_behind.backpressure").increment();
+                notFull.await();
+            }
+            if (closed) {
+                meterRegistry.counter("skyblock.snapshot.write_behind.rejected").increment();
+                return false;
+            }
+            pending.addLast(new PendingSnapshot(snapshot, slot, slot != lastEnqueuedSlot, System.nanoTime()));
+            lastEnqueuedSlot = slot;
+            if (!writing) {
+                writing = true;
+                writer.execute(this::drain);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            meterRegistry.counter("skyblock.snapshot.write_behind.rejected").increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every queued snapshot has been written or the timeout elapses. Returns whether the
+     * queue was fully drained.
+     */
+    public boolean flush(Duration timeout) {
+        long remainingNanos = (timeout == null ? flushTimeout : timeout).toNanos();
+        lock.lock();
+        try {
+            while (writing || !pending.isEmpty()) {
+                if (remainingNanos <= 0L) {
+                    log.warn("Snapshot write-behind flush timed out with {} snapshot(s) pending", pending.size());
+                    return false;
+                }
+                remainingNanos = drained.awaitNanos(remainingNanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush(flushTimeout);
+        lock.lock();
+        try {
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        writer.shutdown();
+    }
+
+    private void drain() {
+        for (;;) {
+            PendingSnapshot next;
+            lock.lock();
+            try {
+                next = pending.pollFirst();
+                if (next == null) {
+                    writing = false;
+                    drained.signalAll();
+                    return;
+                }
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            write(next);
+        }
+    }
+
+    private void write(PendingSnapshot next) {
+        long startedAt = System.nanoTime();
+        try {
+            marketSnapshotPersistenceService.save(next.snapshot());
+            meterRegistry.counter("skyblock.snapshot.write_behind.written").increment();
+        } catch (RuntimeException e) {
+            meterRegistry.counter("skyblock.snapshot.write_behind.failed").increment();
+            log.warn("Failed to persist market snapshot {}: {}", next.snapshot().snapshotTimestamp(), e.getMessage());
+        } finally {
+            long now = System.nanoTime();
+            meterRegistry.timer("skyblock.snapshot.write_behind.write").record(now - startedAt, TimeUnit.NANOSECONDS);
+            meterRegistry.summary("skyblock.snapshot.write_behind.lag_ms")
+                    .record(TimeUnit.NANOSECONDS.toMillis(now - next.enqueuedAtNanos()));
+        }
+    }
+
+    private int depth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double oldestPendingAgeMillis() {
+        lock.lock();
+        try {
+            PendingSnapshot oldest = pending.peekFirst();
+            return oldest == null ? 0D : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.enqueuedAtNanos());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record PendingSnapshot(MarketSnapshot snapshot, long slot, boolean slotHead, long enqueuedAtNanos) {
+    }
+}
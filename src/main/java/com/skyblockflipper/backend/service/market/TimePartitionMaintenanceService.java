@@ -0,0 +1,127 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps the day partitions of market_snapshot and flip_snapshot_membership in shape: creates the partitions
+ * for the next days ahead of time and drops whole days once they fall out of the daily tier.
+ * On databases without native partitioning (H2 in tests) retention falls back to deleting the
+ * same day range row by row.
+ */
+@Service
+@Slf4j
+public class TimePartitionMaintenanceService {
+
+    private static final long DAY_MILLIS = 86_400_000L;
+    // Memberships first, so a partially applied run never leaves flips pointing at a dropped snapshot.
+    private static final List<String> PARTITIONED_TABLES = List.of(
+            "flip_snapshot_membership",
+            "market_snapshot"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingTimeTracker blockingTimeTracker;
+    private final long dailyTierRetentionMillis;
+    private final int partitionsAheadDays;
+    private volatile Boolean partitioned;
+
+    public TimePartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                           BlockingTimeTracker blockingTimeTracker,
+                                           SnapshotRetentionProperties retentionProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockingTimeTracker = blockingTimeTracker;
+        SnapshotRetentionProperties configuredRetention = retentionProperties == null
+                ? new SnapshotRetentionProperties()
+                : retentionProperties;
+        this.dailyTierRetentionMillis = Math.max(0L, configuredRetention.getDailyTierRetentionDays()) * DAY_MILLIS;
+        this.partitionsAheadDays = Math.max(1, configuredRetention.getPartitionsAheadDays());
+    }
+
+    public int ensureUpcomingPartitions() {
+        return ensureUpcomingPartitions(Instant.now());
+    }
+
+    public int ensureUpcomingPartitions(Instant now) {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        long nowMillis = (now == null ? Instant.now() : now).toEpochMilli();
+        long fromMillis = nowMillis - DAY_MILLIS;
+        long toMillis = nowMillis + (partitionsAheadDays * DAY_MILLIS);
+        int created = 0;
+        for (String table : PARTITIONED_TABLES) {
+            Integer tableCreated = blockingTimeTracker.record("db.partition.ensure", "db", () -> jdbcTemplate.queryForObject(
+                    "select ensure_epoch_day_partitions(?, ?, ?)", Integer.class, table, fromMillis, toMillis));
+            created += tableCreated == null ? 0 : tableCreated;
+        }
+        return created;
+    }
+
+    public PartitionRetentionResult dropExpiredDays() {
+        return dropExpiredDays(Instant.now());
+    }
+
+    /**
+     * Removes every full UTC day older than the daily-tier retention. A retention of zero keeps the
+     * daily tier forever.
+     */
+    public PartitionRetentionResult dropExpiredDays(Instant now) {
+        if (dailyTierRetentionMillis <= 0L) {
+            return new PartitionRetentionResult(0L, 0, 0);
+        }
+        long nowMillis = (now == null ? Instant.now() : now).toEpochMilli();
+        long cutoffMillis = Math.floorDiv(nowMillis - dailyTierRetentionMillis, DAY_MILLIS) * DAY_MILLIS;
+        int droppedPartitions = 0;
+        int deletedRows = 0;
+        boolean nativePartitions = isPartitioned();
+        for (String table : PARTITIONED_TABLES) {
+            if (nativePartitions) {
+                Integer dropped = blockingTimeTracker.record("db.partition.drop", "db", () -> jdbcTemplate.queryForObject(
+                        "select drop_epoch_day_partitions_before(?, ?)", Integer.class, table, cutoffMillis));
+                droppedPartitions += dropped == null ? 0 : dropped;
+            } else {
+                deletedRows += blockingTimeTracker.record("db.partition.deleteRows", "db", () -> jdbcTemplate.update(
+                        "delete from " + table + " where snapshot_timestamp_epoch_millis < ?", cutoffMillis));
+            }
+        }
+        return new PartitionRetentionResult(cutoffMillis, droppedPartitions, deletedRows);
+    }
+
+    public boolean isPartitioned() {
+        Boolean cached = partitioned;
+        if (cached == null) {
+            cached = detectPartitioning();
+            partitioned = cached;
+        }
+        return cached;
+    }
+
+    private boolean detectPartitioning() {
+        Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        if (!Boolean.TRUE.equals(postgres)) {
+            return false;
+        }
+        Boolean nativePartitions = jdbcTemplate.queryForObject(
+                "select exists (select 1 from pg_partitioned_table where partrelid = to_regclass('market_snapshot'))",
+                Boolean.class);
+        if (!Boolean.TRUE.equals(nativePartitions)) {
+            log.warn("market_snapshot is not partitioned; daily-tier retention falls back to row deletes.");
+        }
+        return Boolean.TRUE.equals(nativePartitions);
+    }
+
+    public record PartitionRetentionResult(
+            long cutoffEpochMillis,
+            int droppedPartitions,
+            int deletedRows
+    ) {
+    }
+}
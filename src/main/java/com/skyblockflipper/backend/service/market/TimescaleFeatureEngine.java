@@ -0,0 +1,427 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.LIQUIDITY_LOOKBACK_DAYS;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.MACRO_WINDOW_DAYS;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.MICRO_LOG_RETURN_CAP;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.MICRO_WINDOW_SECONDS;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.clamp;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.computeRelativeSpread;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.epochDay;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.isStructurallyIlliquid;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.resolveConservativeTurnoverPerHour;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.resolveMacroConfidence;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.resolveMicroConfidence;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.resolveMid;
+import static com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService.safeLogRatio;
+
+/**
+ * Streaming form of {@link MarketTimescaleFeatureService#computeFromHistory(MarketSnapshot)}. Snapshots are
+ * applied once and in timestamp order; every item keeps a primitive ring of its mids inside the micro window
+ * and its series of daily anchors (the first snapshot of each UTC day), with volatilities maintained by
+ * add/remove Welford accumulators. Not thread-safe, the owning service serializes access.
+ */
+final class TimescaleFeatureEngine {
+
+    private static final long MICRO_WINDOW_MILLIS = MICRO_WINDOW_SECONDS * 1_000L;
+    private static final long DAILY_WINDOW_DAYS = MACRO_WINDOW_DAYS + 2L;
+    private static final int MOMENTS_REBUILD_INTERVAL = 1_024;
+
+    private final Map<String, ItemSeries> seriesByItem = new HashMap<>();
+    private long lastTimestampEpochMillis = Long.MIN_VALUE;
+    private long lastAnchorDay = Long.MIN_VALUE;
+
+    boolean isEmpty() {
+        return lastTimestampEpochMillis == Long.MIN_VALUE && lastAnchorDay == Long.MIN_VALUE;
+    }
+
+    long lastTimestampEpochMillis() {
+        return lastTimestampEpochMillis;
+    }
+
+    /**
+     * Seeds the daily series only; snapshots must arrive in timestamp order so the first one of a day wins.
+     */
+    void seedAnchor(MarketSnapshot snapshot) {
+        long day = epochDay(snapshot.snapshotTimestamp());
+        if (day > lastAnchorDay) {
+            appendAnchor(snapshot, day);
+        }
+    }
+
+    /**
+     * Seeds the micro windows only.
+     */
+    void seedMicro(MarketSnapshot snapshot) {
+        long timestampEpochMillis = snapshot.snapshotTimestamp().toEpochMilli();
+        if (timestampEpochMillis > lastTimestampEpochMillis) {
+            appendMicro(snapshot, timestampEpochMillis);
+        }
+    }
+
+    FlipScoreFeatureSet apply(MarketSnapshot snapshot) {
+        long timestampEpochMillis = snapshot.snapshotTimestamp().toEpochMilli();
+        long day = epochDay(snapshot.snapshotTimestamp());
+        if (day > lastAnchorDay) {
+            appendAnchor(snapshot, day);
+        }
+        appendMicro(snapshot, timestampEpochMillis);
+        if (snapshot.bazaarProducts().isEmpty()) {
+            return FlipScoreFeatureSet.empty();
+        }
+
+        long microStartEpochMillis = timestampEpochMillis - MICRO_WINDOW_MILLIS;
+        long dailyStartDay = day - DAILY_WINDOW_DAYS;
+        Map<String, FlipScoreFeatureSet.ItemTimescaleFeatures> byItem = new LinkedHashMap<>();
+        for (Map.Entry<String, BazaarMarketRecord> entry : snapshot.bazaarProducts().entrySet()) {
+            ItemSeries series = seriesByItem.get(entry.getKey());
+            series.micro().evictBefore(microStartEpochMillis);
+            series.daily().evictBefore(dailyStartDay);
+            byItem.put(entry.getKey(), features(series, entry.getValue()));
+        }
+        return new FlipScoreFeatureSet(byItem);
+    }
+
+    private void appendAnchor(MarketSnapshot snapshot, long day) {
+        lastAnchorDay = day;
+        seriesByItem.values().removeIf(series -> series.lastSeenDay() < day - DAILY_WINDOW_DAYS);
+        for (Map.Entry<String, BazaarMarketRecord> entry : snapshot.bazaarProducts().entrySet()) {
+            BazaarMarketRecord record = entry.getValue();
+            Double mid = resolveMid(record);
+            if (mid == null) {
+                continue;
+            }
+            ItemSeries series = series(entry.getKey(), day);
+            series.daily().evictBefore(day - DAILY_WINDOW_DAYS);
+            series.daily().add(day, mid, computeRelativeSpread(record), resolveConservativeTurnoverPerHour(record));
+        }
+    }
+
+    private void appendMicro(MarketSnapshot snapshot, long timestampEpochMillis) {
+        lastTimestampEpochMillis = timestampEpochMillis;
+        long day = epochDay(snapshot.snapshotTimestamp());
+        long microStartEpochMillis = timestampEpochMillis - MICRO_WINDOW_MILLIS;
+        for (Map.Entry<String, BazaarMarketRecord> entry : snapshot.bazaarProducts().entrySet()) {
+            ItemSeries series = series(entry.getKey(), day);
+            series.micro().evictBefore(microStartEpochMillis);
+            Double mid = resolveMid(entry.getValue());
+            if (mid != null) {
+                series.micro().add(timestampEpochMillis, mid);
+            }
+        }
+    }
+
+    private ItemSeries series(String itemId, long day) {
+        ItemSeries series = seriesByItem.computeIfAbsent(itemId, ignored -> new ItemSeries());
+        series.lastSeenDay(day);
+        return series;
+    }
+
+    private FlipScoreFeatureSet.ItemTimescaleFeatures features(ItemSeries series, BazaarMarketRecord latestRecord) {
+        MicroWindow micro = series.micro();
+        Double microReturn = micro.windowReturn();
+        Double microVolatility = micro.moments().stdev();
+
+        DailySeries daily = series.daily();
+        Double macroVolatility = daily.tailMoments().stdev();
+        return new FlipScoreFeatureSet.ItemTimescaleFeatures(
+                microVolatility,
+                microReturn,
+                resolveMicroConfidence(micro.size(), microReturn, microVolatility),
+                macroVolatility,
+                daily.latestReturn(),
+                resolveMacroConfidence(daily.returnCount()),
+                isStructurallyIlliquid(latestRecord, daily.recentSpreads(), daily.recentTurnovers())
+        );
+    }
+
+    private static final class ItemSeries {
+        private final MicroWindow micro = new MicroWindow();
+        private final DailySeries daily = new DailySeries();
+        private long lastSeenDay;
+
+        MicroWindow micro() {
+            return micro;
+        }
+
+        DailySeries daily() {
+            return daily;
+        }
+
+        long lastSeenDay() {
+            return lastSeenDay;
+        }
+
+        void lastSeenDay(long day) {
+            lastSeenDay = Math.max(lastSeenDay, day);
+        }
+    }
+
+    /**
+     * Mids of one item inside the micro window. {@code returns[i]} is the capped log return from the
+     * previous point and is NaN for the head, so the moments always cover exactly the in-window returns.
+     */
+    private static final class MicroWindow {
+        private long[] timestamps = new long[8];
+        private double[] mids = new double[8];
+        private double[] returns = new double[8];
+        private final RollingMoments moments = new RollingMoments();
+        private int head;
+        private int size;
+        private int updatesSinceRebuild;
+
+        void add(long timestampEpochMillis, double mid) {
+            double ret = Double.NaN;
+            if (size > 0) {
+                Double logReturn = safeLogRatio(mid, mids[index(size - 1)]);
+                if (logReturn != null) {
+                    ret = clamp(logReturn, -MICRO_LOG_RETURN_CAP, MICRO_LOG_RETURN_CAP);
+                    moments.add(ret);
+                }
+            }
+            if (size == timestamps.length) {
+                grow();
+            }
+            int index = index(size);
+            timestamps[index] = timestampEpochMillis;
+            mids[index] = mid;
+            returns[index] = ret;
+            size++;
+        }
+
+        void evictBefore(long startInclusiveEpochMillis) {
+            while (size > 0 && timestamps[head] < startInclusiveEpochMillis) {
+                head = (head + 1) % timestamps.length;
+                size--;
+                if (size > 0 && !Double.isNaN(returns[head])) {
+                    moments.remove(returns[head]);
+                    returns[head] = Double.NaN;
+                    if (++updatesSinceRebuild >= MOMENTS_REBUILD_INTERVAL) {
+                        rebuildMoments();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Every point is inside {@code [evaluation - 60s, evaluation]}, so the head is the point closest
+         * to the one-minute-ago boundary.
+         */
+        Double windowReturn() {
+            if (size < 2) {
+                return null;
+            }
+            int last = index(size - 1);
+            if (timestamps[head] >= timestamps[last]) {
+                return null;
+            }
+            return safeLogRatio(mids[last], mids[head]);
+        }
+
+        RollingMoments moments() {
+            return moments;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void rebuildMoments() {
+            moments.clear();
+            for (int i = 1; i < size; i++) {
+                double ret = returns[index(i)];
+                if (!Double.isNaN(ret)) {
+                    moments.add(ret);
+                }
+            }
+            updatesSinceRebuild = 0;
+        }
+
+        private int index(int offset) {
+            return (head + offset) % timestamps.length;
+        }
+
+        private void grow() {
+            int capacity = timestamps.length * 2;
+            long[] grownTimestamps = new long[capacity];
+            double[] grownMids = new double[capacity];
+            double[] grownReturns = new double[capacity];
+            for (int i = 0; i < size; i++) {
+                int index = index(i);
+                grownTimestamps[i] = timestamps[index];
+                grownMids[i] = mids[index];
+                grownReturns[i] = returns[index];
+            }
+            timestamps = grownTimestamps;
+            mids = grownMids;
+            returns = grownReturns;
+            head = 0;
+        }
+    }
+
+    /**
+     * Daily anchor points of one item. {@code returns[i]} is the log return from the previous point when
+     * both days are adjacent and NaN otherwise; the tail moments cover the newest
+     * {@value MarketTimescaleFeatureService#MACRO_WINDOW_DAYS} of them.
+     */
+    private static final class DailySeries {
+        private static final int CAPACITY = (int) DAILY_WINDOW_DAYS + 1;
+
+        private final long[] days = new long[CAPACITY];
+        private final double[] mids = new double[CAPACITY];
+        private final double[] spreads = new double[CAPACITY];
+        private final double[] turnovers = new double[CAPACITY];
+        private final double[] returns = new double[CAPACITY];
+        private final RollingMoments tailMoments = new RollingMoments();
+        private int head;
+        private int size;
+        private int returnCount;
+
+        void add(long day, double mid, double spreadRel, double turnoverPerHour) {
+            double ret = Double.NaN;
+            if (size > 0) {
+                int last = index(size - 1);
+                if (day - days[last] == 1L) {
+                    Double logReturn = safeLogRatio(mid, mids[last]);
+                    ret = logReturn == null ? Double.NaN : logReturn;
+                }
+            }
+            if (size == CAPACITY) {
+                evictHead();
+            }
+            int index = index(size);
+            days[index] = day;
+            mids[index] = mid;
+            spreads[index] = spreadRel;
+            turnovers[index] = turnoverPerHour;
+            returns[index] = ret;
+            size++;
+            if (!Double.isNaN(ret)) {
+                returnCount++;
+                tailMoments.add(ret);
+                if (returnCount > MACRO_WINDOW_DAYS) {
+                    tailMoments.remove(validReturn(returnCount - MACRO_WINDOW_DAYS - 1));
+                }
+            }
+        }
+
+        void evictBefore(long startInclusiveDay) {
+            while (size > 0 && days[head] < startInclusiveDay) {
+                evictHead();
+            }
+        }
+
+        Double latestReturn() {
+            if (size < 2) {
+                return null;
+            }
+            double ret = returns[index(size - 1)];
+            return Double.isNaN(ret) ? null : ret;
+        }
+
+        RollingMoments tailMoments() {
+            return tailMoments;
+        }
+
+        int returnCount() {
+            return returnCount;
+        }
+
+        List<Double> recentSpreads() {
+            return recent(spreads);
+        }
+
+        List<Double> recentTurnovers() {
+            return recent(turnovers);
+        }
+
+        private List<Double> recent(double[] values) {
+            int count = Math.min(LIQUIDITY_LOOKBACK_DAYS, size);
+            List<Double> recent = new ArrayList<>(count);
+            for (int i = size - count; i < size; i++) {
+                recent.add(values[index(i)]);
+            }
+            return recent;
+        }
+
+        private void evictHead() {
+            head = (head + 1) % CAPACITY;
+            size--;
+            if (size > 0 && !Double.isNaN(returns[head])) {
+                if (returnCount <= MACRO_WINDOW_DAYS) {
+                    tailMoments.remove(returns[head]);
+                }
+                returnCount--;
+                returns[head] = Double.NaN;
+            }
+        }
+
+        private double validReturn(int rank) {
+            int seen = 0;
+            for (int i = 0; i < size; i++) {
+                double ret = returns[index(i)];
+                if (!Double.isNaN(ret) && seen++ == rank) {
+                    return ret;
+                }
+            }
+            throw new IllegalStateException("No daily return at rank " + rank);
+        }
+
+        private int index(int offset) {
+            return (head + offset) % CAPACITY;
+        }
+    }
+
+    /**
+     * Population mean and variance over a sliding set of values (Welford, with removal).
+     */
+    private static final class RollingMoments {
+        private long count;
+        private double mean;
+        private double m2;
+
+        void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        void remove(double value) {
+            if (count <= 1) {
+                clear();
+                return;
+            }
+            double delta = value - mean;
+            count--;
+            mean -= delta / count;
+            m2 = Math.max(0D, m2 - delta * (value - mean));
+        }
+
+        void clear() {
+            count = 0L;
+            mean = 0D;
+            m2 = 0D;
+        }
+
+        Double stdev() {
+            if (count < 2) {
+                return null;
+            }
+            double variance = m2 / count;
+            if (Double.isNaN(variance) || Double.isInfinite(variance) || variance < 0D) {
+                return null;
+            }
+            return Math.sqrt(variance);
+        }
+    }
+}
@@ -73,12 +73,19 @@ public class AdaptivePoller<T> {
         log.info("Adaptive poller started for endpoint {}", endpoint);
     }
 
-    public void stop() {
+    /**
+     * Stops scheduling polls; payloads already handed to the processing pipeline keep running.
+     */
+    public void stopPolling() {
         running.set(false);
         ScheduledFuture<?> scheduled = nextScheduled;
         if (scheduled != null) {
             scheduled.cancel(true);
         }
+    }
+
+    public void stop() {
+        stopPolling();
         processingPipeline.close();
         log.info("Adaptive poller stopped for endpoint {}", endpoint);
     }
@@ -120,14 +127,25 @@ public class AdaptivePoller<T> {
                 return;
             }
 
-            long globalDelay = globalRequestLimiter.reserveDelayMillis();
-            long endpointDelay = burstRequestLimiter.reserveDelayMillis();
-            if (globalDelay > 0L || endpointDelay > 0L) {
-                scheduleAfter(Math.max(globalDelay, endpointDelay));
+            // The endpoint bucket is only ever touched from this poller's guarded tick, so peeking it and
+            // taking the token after the shared bucket granted one cannot race; neither limiter loses a
+            // token when the other one says wait.
+            long endpointDelay = burstRequestLimiter.peekDelayMillis(GlobalRequestLimiter.Priority.HIGH);
+            if (endpointDelay > 0L) {
+                scheduleAfter(endpointDelay);
                 return;
             }
+            long globalDelay = globalRequestLimiter.tryAcquire(cfg.getPriority());
+            if (globalDelay > 0L) {
+                scheduleAfter(globalDelay);
+                return;
+            }
+            burstRequestLimiter.tryAcquire(GlobalRequestLimiter.Priority.HIGH);
 
             PollExecution<T> execution = executeWithRetry();
+            if (execution != null && execution.httpResult() != null) {
+                globalRequestLimiter.observe(execution.httpResult().headers());
+            }
             long nextDelay = decideNextDelay(execution, now);
             scheduleAfter(nextDelay);
         } catch (RuntimeException e) {
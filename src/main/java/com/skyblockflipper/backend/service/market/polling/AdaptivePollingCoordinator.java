@@ -1,21 +1,22 @@
 package com.skyblockflipper.backend.service.market.polling;
 
 import com.skyblockflipper.backend.config.properties.AdaptivePollingProperties;
+import com.skyblockflipper.backend.hypixel.AuctionPageFetcher;
+import com.skyblockflipper.backend.hypixel.AuctionRecordPage;
 import com.skyblockflipper.backend.hypixel.HypixelConditionalClient;
 import com.skyblockflipper.backend.hypixel.HypixelHttpResult;
-import com.skyblockflipper.backend.hypixel.model.Auction;
-import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
 import com.skyblockflipper.backend.hypixel.model.BazaarProduct;
 import com.skyblockflipper.backend.hypixel.model.BazaarQuickStatus;
 import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
 import com.skyblockflipper.backend.instrumentation.CycleInstrumentationService;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.service.flipping.FlipGenerationService;
 import com.skyblockflipper.backend.service.market.MarketDataProcessingService;
+import com.skyblockflipper.backend.service.market.SnapshotWriteBehindPersister;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
@@ -28,6 +29,7 @@ import java.util.Comparator;
 import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @Component
 @Slf4j
@@ -38,11 +40,13 @@ public class AdaptivePollingCoordinator {
     private final MeterRegistry meterRegistry;
     private final MarketDataProcessingService marketDataProcessingService;
     private final FlipGenerationService flipGenerationService;
+    private final SnapshotWriteBehindPersister snapshotWriteBehindPersister;
     private final CycleInstrumentationService cycleInstrumentationService;
+    private final GlobalRequestLimiter globalRequestLimiter;
     private final String apiUrl;
     private final String apiKey;
 
-    private AdaptivePoller<AuctionResponse> auctionsPoller;
+    private AdaptivePoller<AuctionRecordPage> auctionsPoller;
     private AdaptivePoller<BazaarResponse> bazaarPoller;
 
     public AdaptivePollingCoordinator(AdaptivePollingProperties adaptivePollingProperties,
@@ -50,7 +54,9 @@ public class AdaptivePollingCoordinator {
                                       MeterRegistry meterRegistry,
                                       MarketDataProcessingService marketDataProcessingService,
                                       FlipGenerationService flipGenerationService,
+                                      SnapshotWriteBehindPersister snapshotWriteBehindPersister,
                                       CycleInstrumentationService cycleInstrumentationService,
+                                      GlobalRequestLimiter globalRequestLimiter,
                                       @Value("${config.hypixel.api-url}") String apiUrl,
                                       @Value("${config.hypixel.api-key:}") String apiKey) {
         this.adaptivePollingProperties = adaptivePollingProperties;
@@ -58,7 +64,9 @@ public class AdaptivePollingCoordinator {
         this.meterRegistry = meterRegistry;
         this.marketDataProcessingService = marketDataProcessingService;
         this.flipGenerationService = flipGenerationService;
+        this.snapshotWriteBehindPersister = snapshotWriteBehindPersister;
         this.cycleInstrumentationService = cycleInstrumentationService;
+        this.globalRequestLimiter = globalRequestLimiter;
         this.apiUrl = apiUrl;
         this.apiKey = apiKey;
     }
@@ -70,41 +78,52 @@ public class AdaptivePollingCoordinator {
             return;
         }
 
-        GlobalRequestLimiter globalLimiter = new GlobalRequestLimiter(adaptivePollingProperties.getGlobalMaxRequestsPerSecond());
-        auctionsPoller = buildAuctionsPoller(globalLimiter);
-        bazaarPoller = buildBazaarPoller(globalLimiter);
+        auctionsPoller = buildAuctionsPoller(globalRequestLimiter);
+        bazaarPoller = buildBazaarPoller(globalRequestLimiter);
         auctionsPoller.start();
         bazaarPoller.start();
     }
 
     @PreDestroy
     public void stop() {
+        if (auctionsPoller != null) {
+            auctionsPoller.stopPolling();
+        }
+        if (bazaarPoller != null) {
+            bazaarPoller.stopPolling();
+        }
+        // Nothing new is fetched anymore; drain the pipelines stage by stage so every accepted payload
+        // reaches the write-behind persister, then write out what is pending there.
         if (auctionsPoller != null) {
             auctionsPoller.stop();
         }
         if (bazaarPoller != null) {
             bazaarPoller.stop();
         }
+        snapshotWriteBehindPersister.flush(null);
     }
 
-    private AdaptivePoller<AuctionResponse> buildAuctionsPoller(GlobalRequestLimiter globalLimiter) {
+    private AdaptivePoller<AuctionRecordPage> buildAuctionsPoller(GlobalRequestLimiter globalLimiter) {
         AdaptivePollingProperties.Endpoint endpointCfg = adaptivePollingProperties.getAuctions();
         HypixelConditionalClient client = new HypixelConditionalClient(
                 apiUrl,
                 apiKey,
                 endpointCfg.getConnectTimeout(),
-                endpointCfg.getRequestTimeout()
+                endpointCfg.getRequestTimeout(),
+                new AuctionPageFetcher(
+                        endpointCfg.getName(),
+                        adaptivePollingProperties.getAuctionPageConcurrency(),
+                        globalLimiter,
+                        meterRegistry
+                )
         );
-        ProcessingPipeline<AuctionResponse> processingPipeline = new ProcessingPipeline<>(
+        ProcessingPipeline<AuctionRecordPage> processingPipeline = buildProcessingPipeline(
                 endpointCfg.getName(),
-                meterRegistry,
-                adaptivePollingProperties.getPipeline().getQueueCapacity(),
-                adaptivePollingProperties.getPipeline().isCoalesceEnabled(),
-                this::processAuctionsUpdate
+                response -> marketDataProcessingService.prepareAuctionPage(response, "adaptive-auctions").orElse(null)
         );
-        AdaptivePoller.PollExecutor<AuctionResponse> pollExecutor = detector -> {
+        AdaptivePoller.PollExecutor<AuctionRecordPage> pollExecutor = detector -> {
             ChangeDetector.ConditionalHeaders conditionalHeaders = detector.conditionalHeaders();
-            HypixelHttpResult<AuctionResponse> probe = client.fetchAuctionPage(
+            HypixelHttpResult<AuctionRecordPage> probe = client.fetchAuctionPage(
                     endpointCfg.getPath(),
                     0,
                     conditionalHeaders.ifNoneMatch(),
@@ -113,17 +132,17 @@ public class AdaptivePollingCoordinator {
             String probeHash = hashAuctionsProbe(probe.body());
             ChangeDetector.ChangeDecision decision = detector.evaluate(probe, probeHash);
             if (!decision.isChanged()) {
-                long changeTs = probe.body() == null ? 0L : probe.body().getLastUpdated();
+                long changeTs = probe.body() == null ? 0L : probe.body().lastUpdated();
                 return new AdaptivePoller.PollExecution<>(decision, null, changeTs, probe);
             }
-            if (probe.body() == null || !probe.body().isSuccess()) {
+            if (probe.body() == null || !probe.body().success()) {
                 return new AdaptivePoller.PollExecution<>(ChangeDetector.ChangeDecision.error(), null, 0L, probe);
             }
-            HypixelHttpResult<AuctionResponse> full = client.fetchAllAuctionPages(endpointCfg.getPath(), probe.body());
-            if (!full.isSuccessful() || full.body() == null || !full.body().isSuccess()) {
+            HypixelHttpResult<AuctionRecordPage> full = client.fetchAllAuctionPages(endpointCfg.getPath(), probe.body());
+            if (!full.isSuccessful() || full.body() == null || !full.body().success()) {
                 return new AdaptivePoller.PollExecution<>(ChangeDetector.ChangeDecision.error(), null, 0L, full);
             }
-            return new AdaptivePoller.PollExecution<>(decision, full.body(), full.body().getLastUpdated(), full);
+            return new AdaptivePoller.PollExecution<>(decision, full.body(), full.body().lastUpdated(), full);
         };
 
         return new AdaptivePoller<>(
@@ -145,12 +164,9 @@ public class AdaptivePollingCoordinator {
                 endpointCfg.getConnectTimeout(),
                 endpointCfg.getRequestTimeout()
         );
-        ProcessingPipeline<BazaarResponse> processingPipeline = new ProcessingPipeline<>(
+        ProcessingPipeline<BazaarResponse> processingPipeline = buildProcessingPipeline(
                 endpointCfg.getName(),
-                meterRegistry,
-                adaptivePollingProperties.getPipeline().getQueueCapacity(),
-                adaptivePollingProperties.getPipeline().isCoalesceEnabled(),
-                this::processBazaarUpdate
+                response -> marketDataProcessingService.prepareBazaarPayload(response, "adaptive-bazaar").orElse(null)
         );
         AdaptivePoller.PollExecutor<BazaarResponse> pollExecutor = detector -> {
             ChangeDetector.ConditionalHeaders conditionalHeaders = detector.conditionalHeaders();
@@ -179,52 +195,50 @@ public class AdaptivePollingCoordinator {
         );
     }
 
-    private void processAuctionsUpdate(AuctionResponse response) {
-        processUpdate("auctions", estimateAuctionBytes(response), () -> marketDataProcessingService
-                .ingestAuctionPayload(response, "adaptive-auctions").ifPresent(snapshot -> flipGenerationService.generateIfMissingForSnapshot(snapshot.snapshotTimestamp())));
-    }
-
-    private void processBazaarUpdate(BazaarResponse response) {
-        processUpdate("bazaar", estimateBazaarBytes(response), () -> marketDataProcessingService
-                .ingestBazaarPayload(response, "adaptive-bazaar").ifPresent(snapshot -> flipGenerationService.generateIfMissingForSnapshot(snapshot.snapshotTimestamp())));
-    }
-
-    private void processUpdate(String endpoint, long payloadBytes, Runnable processor) {
-        cycleInstrumentationService.startCycle();
-        boolean success = false;
-        long totalStart = cycleInstrumentationService.startPhase();
-        try {
-            processor.run();
-            success = true;
-        } catch (RuntimeException e) {
-            log.warn("Adaptive processing failed for {}: {}", endpoint, ExceptionUtils.getStackTrace(e));
-        } finally {
-            cycleInstrumentationService.endPhase("total_cycle", totalStart, success, payloadBytes);
-            cycleInstrumentationService.finishCycle(success);
-            meterRegistry.counter("skyblock.adaptive.processed_updates", "endpoint", endpoint).increment();
-        }
+    /**
+     * Normalize/derive/publish, persist and flip generation run on separate stage executors.
+     * Persisting only hands the snapshot to the write-behind persister, and flips are generated from
+     * the in-memory snapshot, so neither waits for the database insert. Decoding already
+     * happens on the poller thread before the payload is submitted.
+     */
+    private <T> ProcessingPipeline<T> buildProcessingPipeline(String endpoint,
+                                                              Function<T, MarketDataProcessingService.PreparedSnapshot> prepare) {
+        AdaptivePollingProperties.Pipeline pipelineCfg = adaptivePollingProperties.getPipeline();
+        return ProcessingPipeline.<T>builder(endpoint, meterRegistry)
+                .queueCapacity(pipelineCfg.getQueueCapacity())
+                .coalesceEnabled(pipelineCfg.isCoalesceEnabled())
+                .stageQueueCapacity(pipelineCfg.getStageQueueCapacity())
+                .shutdownTimeout(pipelineCfg.getShutdownTimeout())
+                .instrumentation(cycleInstrumentationService)
+                .stage("normalize", prepare)
+                .stage("persist", prepared -> {
+                    snapshotWriteBehindPersister.submit(prepared.snapshot());
+                    return prepared;
+                })
+                .sink("flips", prepared -> {
+                    flipGenerationService.generateIfMissingForSnapshot(prepared.snapshot(), prepared.inputSnapshot());
+                    meterRegistry.counter("skyblock.adaptive.processed_updates", "endpoint", endpoint).increment();
+                });
     }
 
-    private String hashAuctionsProbe(AuctionResponse response) {
+    private String hashAuctionsProbe(AuctionRecordPage response) {
         if (response == null) {
             return null;
         }
         StringBuilder builder = new StringBuilder(512);
-        builder.append(response.getLastUpdated()).append('|')
-                .append(response.getTotalAuctions()).append('|')
-                .append(response.getTotalPages()).append('|');
-        if (response.getAuctions() != null) {
-            int limit = Math.min(40, response.getAuctions().size());
-            for (int i = 0; i < limit; i++) {
-                Auction auction = response.getAuctions().get(i);
-                if (auction == null) {
-                    continue;
-                }
-                builder.append(auction.getUuid()).append(':')
-                        .append(auction.getStart()).append(':')
-                        .append(auction.getEnd()).append(':')
-                        .append(auction.getHighestBidAmount()).append(';');
+        builder.append(response.lastUpdated()).append('|')
+                .append(response.totalAuctions()).append('|')
+                .append(response.totalPages()).append('|');
+        int limit = Math.min(40, response.auctions().size());
+        for (int i = 0; i < limit; i++) {
+            AuctionMarketRecord auction = response.auctions().get(i);
+            if (auction == null) {
+                continue;
             }
+            builder.append(auction.auctionUuid()).append(':')
+                    .append(auction.startTimestamp()).append(':')
+                    .append(auction.endTimestamp()).append(':')
+                    .append(auction.highestBidAmount()).append(';');
         }
         return sha256(builder.toString());
     }
@@ -267,18 +281,4 @@ public class AdaptivePollingCoordinator {
             throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-
-    private long estimateAuctionBytes(AuctionResponse response) {
-        if (response == null || response.getAuctions() == null) {
-            return 0L;
-        }
-        return response.getAuctions().size() * 320L;
-    }
-
-    private long estimateBazaarBytes(BazaarResponse response) {
-        if (response == null || response.getProducts() == null) {
-            return 0L;
-        }
-        return response.getProducts().size() * 220L;
-    }
 }
@@ -1,21 +1,149 @@
 package com.skyblockflipper.backend.service.market.polling;
 
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket shared by every Hypixel caller, kept as a single theoretical arrival time
+ * (GCRA) that is advanced with CAS. Up to {@code burstCapacity} requests pass back to back after an
+ * idle period; lower priorities leave {@code priorityReserve} tokens per level untouched so probes
+ * never queue behind a page sweep. The refill rate follows RateLimit-Remaining/RateLimit-Reset
+ * whenever Hypixel reports a tighter quota than the configured one.
+ */
 public class GlobalRequestLimiter {
 
-    private final long intervalNanos;
-    private long nextAllowedNano;
+    public enum Priority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    private final long configuredIntervalNanos;
+    private final int burstCapacity;
+    private final int priorityReserve;
+    private final AtomicLong theoreticalArrivalNanos;
+    private volatile QuotaWindow quotaWindow;
 
     public GlobalRequestLimiter(double requestsPerSecond) {
-        double requestsPerSecond1 = Math.max(0.1d, requestsPerSecond);
-        this.intervalNanos = Math.max(1L, Math.round(1_000_000_000d / requestsPerSecond1));
-        this.nextAllowedNano = System.nanoTime() - this.intervalNanos;
+        this(requestsPerSecond, 1, 0);
+    }
+
+    public GlobalRequestLimiter(double requestsPerSecond, int burstCapacity, int priorityReserve) {
+        this.configuredIntervalNanos = toIntervalNanos(requestsPerSecond);
+        this.burstCapacity = Math.max(1, burstCapacity);
+        this.priorityReserve = Math.max(0, priorityReserve);
+        this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes a token and returns how long the caller has to wait before sending. The reservation is
+     * kept even when a wait is returned, so callers must sleep instead of asking again.
+     */
+    public long reserveDelayMillis() {
+        return reserveDelayMillis(Priority.NORMAL);
     }
 
-    public synchronized long reserveDelayMillis() {
+    public long reserveDelayMillis(Priority priority) {
         long now = System.nanoTime();
-        long earliest = Math.max(now, nextAllowedNano);
-        nextAllowedNano = earliest + intervalNanos;
-        long delayNanos = Math.max(0L, earliest - now);
-        return Math.round(delayNanos / 1_000_000d);
+        long interval = intervalNanos(now);
+        long tolerance = toleranceNanos(priority, interval);
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long start = Math.max(tat, now);
+            long delay = Math.max(0L, start - tolerance - now);
+            if (theoreticalArrivalNanos.compareAndSet(tat, start + interval)) {
+                return toMillis(delay);
+            }
+        }
+    }
+
+    /**
+     * Takes a token only if one is available right now. Returns 0 on success, otherwise the wait
+     * until the next attempt can succeed without consuming anything.
+     */
+    public long tryAcquire(Priority priority) {
+        long now = System.nanoTime();
+        long interval = intervalNanos(now);
+        long tolerance = toleranceNanos(priority, interval);
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long start = Math.max(tat, now);
+            long delay = start - tolerance - now;
+            if (delay > 0L) {
+                return Math.max(1L, toMillis(delay));
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, start + interval)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Returns how long a {@link #tryAcquire(Priority)} with the same priority would have to wait right
+     * now, without consuming anything. 0 means a token is available.
+     */
+    public long peekDelayMillis(Priority priority) {
+        long now = System.nanoTime();
+        long interval = intervalNanos(now);
+        long delay = Math.max(theoreticalArrivalNanos.get(), now) - toleranceNanos(priority, interval) - now;
+        return delay > 0L ? Math.max(1L, toMillis(delay)) : 0L;
+    }
+
+    /**
+     * Narrows the refill rate to the quota left in the current Hypixel window. Without quota headers
+     * the configured rate applies again once the previously reported window has reset.
+     */
+    public void observe(HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+        long remaining = RateLimitHandler.parseRemaining(headers);
+        long nowMillis = System.currentTimeMillis();
+        long resetAtMillis = RateLimitHandler.parseResetAt(headers, nowMillis);
+        if (remaining < 0L || resetAtMillis <= nowMillis) {
+            return;
+        }
+        long now = System.nanoTime();
+        long windowNanos = (resetAtMillis - nowMillis) * 1_000_000L;
+        long resetAtNanos = now + windowNanos;
+        if (remaining == 0L) {
+            long blockedUntil = resetAtNanos + ((burstCapacity - 1L) * configuredIntervalNanos);
+            theoreticalArrivalNanos.accumulateAndGet(blockedUntil, Math::max);
+            quotaWindow = new QuotaWindow(configuredIntervalNanos, resetAtNanos);
+            return;
+        }
+        long quotaInterval = Math.max(configuredIntervalNanos, windowNanos / remaining);
+        quotaWindow = new QuotaWindow(quotaInterval, resetAtNanos);
+    }
+
+    public double effectiveRequestsPerSecond() {
+        return 1_000_000_000d / intervalNanos(System.nanoTime());
+    }
+
+    private long intervalNanos(long now) {
+        QuotaWindow window = quotaWindow;
+        if (window == null || now - window.resetAtNanos() >= 0L) {
+            return configuredIntervalNanos;
+        }
+        return window.intervalNanos();
+    }
+
+    private long toleranceNanos(Priority priority, long interval) {
+        Priority safePriority = priority == null ? Priority.NORMAL : priority;
+        int usableTokens = Math.max(1, burstCapacity - (priorityReserve * safePriority.ordinal()));
+        return (usableTokens - 1L) * interval;
+    }
+
+    private static long toIntervalNanos(double requestsPerSecond) {
+        double safeRequestsPerSecond = Math.max(0.1d, requestsPerSecond);
+        return Math.max(1L, Math.round(1_000_000_000d / safeRequestsPerSecond));
+    }
+
+    private static long toMillis(long nanos) {
+        return Math.round(nanos / 1_000_000d);
+    }
+
+    private record QuotaWindow(long intervalNanos, long resetAtNanos) {
     }
 }
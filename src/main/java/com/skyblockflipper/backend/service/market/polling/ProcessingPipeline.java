@@ -1,119 +1,372 @@
 package com.skyblockflipper.backend.service.market.polling;
 
+import com.skyblockflipper.backend.instrumentation.CycleContext;
+import com.skyblockflipper.backend.instrumentation.CycleInstrumentationService;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * Runs payloads through a chain of stages, each on its own single-thread executor. Only the entry
+ * stage coalesces or drops; later stages are fed through bounded queues that block the upstream
+ * stage when full, so stage N+1 of one payload overlaps with stage N of the next without letting
+ * work pile up. A stage returning {@code null} ends the chain for that payload. Closing drains the
+ * stages upstream first, so every payload that was accepted still reaches the last stage.
+ */
 @Slf4j
 public class ProcessingPipeline<T> implements AutoCloseable {
 
+    private static final String DEFAULT_STAGE = "process";
+    private static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
     private final String endpoint;
     private final MeterRegistry meterRegistry;
-    private final Consumer<T> processor;
-    private final ExecutorService executor;
-    private final boolean coalesceEnabled;
-    private final BlockingQueue<Envelope<T>> queue;
-    private final AtomicReference<Envelope<T>> latestPending = new AtomicReference<>();
-    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final CycleInstrumentationService cycleInstrumentationService;
+    private final Duration shutdownTimeout;
+    private final List<StageWorker> workers;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
     public ProcessingPipeline(String endpoint,
                               MeterRegistry meterRegistry,
                               int queueCapacity,
                               boolean coalesceEnabled,
                               Consumer<T> processor) {
+        this(endpoint, meterRegistry, null, queueCapacity, coalesceEnabled, queueCapacity, DEFAULT_SHUTDOWN_TIMEOUT,
+                List.of(new StageDefinition(DEFAULT_STAGE, payload -> {
+                    processor.accept(cast(payload));
+                    return null;
+                })));
+    }
+
+    private ProcessingPipeline(String endpoint,
+                               MeterRegistry meterRegistry,
+                               CycleInstrumentationService cycleInstrumentationService,
+                               int queueCapacity,
+                               boolean coalesceEnabled,
+                               int stageQueueCapacity,
+                               Duration shutdownTimeout,
+                               List<StageDefinition> stages) {
         this.endpoint = endpoint;
         this.meterRegistry = meterRegistry;
-        this.processor = processor;
-        this.coalesceEnabled = coalesceEnabled;
-        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
-        this.executor = Executors.newSingleThreadExecutor(new PipelineThreadFactory(endpoint));
+        this.cycleInstrumentationService = cycleInstrumentationService;
+        this.shutdownTimeout = shutdownTimeout == null || shutdownTimeout.isNegative()
+                ? DEFAULT_SHUTDOWN_TIMEOUT
+                : shutdownTimeout;
+        List<StageWorker> built = new ArrayList<>(stages.size());
+        StageWorker next = null;
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            boolean entry = i == 0;
+            StageDefinition definition = stages.get(i);
+            next = new StageWorker(definition, entry, entry && coalesceEnabled,
+                    entry ? queueCapacity : stageQueueCapacity, next);
+            built.addFirst(next);
+        }
+        this.workers = List.copyOf(built);
+    }
+
+    public static <T> Builder<T, T> builder(String endpoint, MeterRegistry meterRegistry) {
+        return new Builder<>(endpoint, meterRegistry);
     }
 
     public boolean submit(T payload) {
-        Envelope<T> envelope = new Envelope<>(payload, System.currentTimeMillis());
-        boolean accepted;
-        if (coalesceEnabled) {
-            Envelope<T> replaced = latestPending.getAndSet(envelope);
-            accepted = true;
-            if (replaced != null) {
-                meterRegistry.counter("skyblock.adaptive.processing_dropped", "endpoint", endpoint).increment();
-            }
-        } else {
-            accepted = queue.offer(envelope);
-            if (!accepted) {
-                meterRegistry.counter("skyblock.adaptive.processing_dropped", "endpoint", endpoint).increment();
+        if (closed.get()) {
+            meterRegistry.counter("skyblock.adaptive.processing_dropped", "endpoint", endpoint).increment();
+            return false;
+        }
+        return workers.getFirst().submit(new Envelope(payload, System.currentTimeMillis(), 0L, null));
+    }
+
+    /**
+     * Stops accepting payloads and shuts the stages down in order, waiting for each to finish what it
+     * holds before the next one is shut down, since only then can no further hand-off reach it. A
+     * stage still busy when the shutdown timeout runs out is interrupted together with everything
+     * downstream of it.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (int i = 0; i < workers.size(); i++) {
+            StageWorker worker = workers.get(i);
+            worker.executor.shutdown();
+            if (!awaitTermination(worker.executor, deadline)) {
+                log.warn("Processing stage {} for endpoint {} did not drain within {}; interrupting remaining stages",
+                        worker.stage, endpoint, shutdownTimeout);
+                for (int j = i; j < workers.size(); j++) {
+                    workers.get(j).executor.shutdownNow();
+                }
+                return;
             }
         }
-        triggerDrain();
-        return accepted;
     }
 
-    private void triggerDrain() {
-        if (!draining.compareAndSet(false, true)) {
+    private static boolean awaitTermination(ExecutorService executor, long deadlineNanos) {
+        try {
+            return executor.awaitTermination(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void complete(Envelope envelope, boolean success) {
+        if (success) {
+            meterRegistry.counter("skyblock.adaptive.processing_success", "endpoint", endpoint).increment();
+        }
+        if (cycleInstrumentationService == null || envelope.cycle() == null) {
             return;
         }
-        executor.execute(() -> {
+        cycleInstrumentationService.endPhase("total_cycle", envelope.cycleStartNanos(), success, envelope.cycle().getPayloadBytes());
+        cycleInstrumentationService.finishCycle(success);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object payload) {
+        return (T) payload;
+    }
+
+    private final class StageWorker {
+        private final String stage;
+        private final Function<Object, Object> function;
+        private final boolean entry;
+        private final boolean coalesceEnabled;
+        private final BlockingQueue<Envelope> queue;
+        private final AtomicReference<Envelope> latestPending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final ExecutorService executor;
+        private final StageWorker next;
+
+        private StageWorker(StageDefinition definition,
+                            boolean entry,
+                            boolean coalesceEnabled,
+                            int queueCapacity,
+                            StageWorker next) {
+            this.stage = definition.name();
+            this.function = definition.function();
+            this.entry = entry;
+            this.coalesceEnabled = coalesceEnabled;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            this.next = next;
+            this.executor = Executors.newSingleThreadExecutor(new PipelineThreadFactory(threadName()));
+            Gauge.builder("skyblock.pipeline.stage_queue_depth", this, StageWorker::depth)
+                    .tag("endpoint", endpoint)
+                    .tag("stage", stage)
+                    .register(meterRegistry);
+        }
+
+        private boolean submit(Envelope envelope) {
+            boolean accepted;
+            if (coalesceEnabled) {
+                Envelope replaced = latestPending.getAndSet(envelope);
+                accepted = true;
+                if (replaced != null) {
+                    meterRegistry.counter("skyblock.adaptive.processing_dropped", "endpoint", endpoint).increment();
+                }
+            } else {
+                accepted = queue.offer(envelope);
+                if (!accepted) {
+                    meterRegistry.counter("skyblock.adaptive.processing_dropped", "endpoint", endpoint).increment();
+                }
+            }
+            triggerDrain();
+            return accepted;
+        }
+
+        private boolean handOff(Envelope envelope) {
             try {
-                drainLoop();
-            } finally {
+                queue.put(envelope);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                meterRegistry.counter("skyblock.adaptive.processing_dropped", "endpoint", endpoint).increment();
+                return false;
+            }
+            triggerDrain();
+            return true;
+        }
+
+        private void triggerDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        drainLoop();
+                    } finally {
+                        draining.set(false);
+                        if (depth() > 0) {
+                            triggerDrain();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Only reachable by a submit racing close(); the payload is left behind like any other drop.
                 draining.set(false);
-                if ((coalesceEnabled && latestPending.get() != null) || (!coalesceEnabled && !queue.isEmpty())) {
-                    triggerDrain();
+                meterRegistry.counter("skyblock.adaptive.processing_dropped", "endpoint", endpoint).increment();
+            }
+        }
+
+        private void drainLoop() {
+            for (;;) {
+                Envelope envelope = coalesceEnabled ? latestPending.getAndSet(null) : queue.poll();
+                if (envelope == null) {
+                    return;
                 }
+                process(envelope);
             }
-        });
-    }
+        }
 
-    private void drainLoop() {
-        for (;;) {
-            Envelope<T> envelope = coalesceEnabled ? latestPending.getAndSet(null) : queue.poll();
-            if (envelope == null) {
-                return;
+        private void process(Envelope envelope) {
+            long lagMillis = Math.max(0L, System.currentTimeMillis() - envelope.enqueuedAtMillis());
+            if (entry) {
+                meterRegistry.summary("skyblock.adaptive.processing_lag_ms", "endpoint", endpoint).record(lagMillis);
             }
-            long lagMillis = Math.max(0L, System.currentTimeMillis() - envelope.enqueuedAtMillis);
-            meterRegistry.summary("skyblock.adaptive.processing_lag_ms", "endpoint", endpoint).record(lagMillis);
+            Envelope current = bindCycle(envelope);
             long startedAt = System.nanoTime();
+            boolean success = false;
+            Object output = null;
             try {
-                processor.accept(envelope.payload);
-                meterRegistry.counter("skyblock.adaptive.processing_success", "endpoint", endpoint).increment();
+                output = function.apply(current.payload());
+                success = true;
             } catch (RuntimeException e) {
                 meterRegistry.counter("skyblock.adaptive.processing_error", "endpoint", endpoint).increment();
-                log.warn("Processing failed for endpoint {}: {}", endpoint, e.getMessage());
+                log.warn("Processing stage {} failed for endpoint {}: {}", stage, endpoint, e.getMessage());
             } finally {
                 long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
-                meterRegistry.summary("skyblock.adaptive.processing_duration_ms", "endpoint", endpoint).record(tookMillis);
+                if (entry) {
+                    meterRegistry.summary("skyblock.adaptive.processing_duration_ms", "endpoint", endpoint).record(tookMillis);
+                }
+                if (cycleInstrumentationService != null) {
+                    cycleInstrumentationService.recordStage(endpoint, stage, lagMillis, tookMillis, success);
+                }
+            }
+
+            if (success && output != null && next != null) {
+                Envelope forwarded = new Envelope(output, System.currentTimeMillis(), current.cycleStartNanos(), current.cycle());
+                if (cycleInstrumentationService != null) {
+                    cycleInstrumentationService.detach();
+                }
+                if (next.handOff(forwarded)) {
+                    return;
+                }
+                if (cycleInstrumentationService != null) {
+                    cycleInstrumentationService.attach(current.cycle());
+                }
+                success = false;
+            }
+            complete(current, success);
+        }
+
+        private Envelope bindCycle(Envelope envelope) {
+            if (cycleInstrumentationService == null) {
+                return envelope;
+            }
+            if (entry) {
+                CycleContext cycle = cycleInstrumentationService.startCycle();
+                return new Envelope(envelope.payload(), envelope.enqueuedAtMillis(), System.nanoTime(), cycle);
             }
+            cycleInstrumentationService.attach(envelope.cycle());
+            return envelope;
+        }
+
+        private int depth() {
+            return coalesceEnabled ? (latestPending.get() == null ? 0 : 1) : queue.size();
+        }
+
+        private String threadName() {
+            return DEFAULT_STAGE.equals(stage) ? "AdaptivePipeline-" + endpoint : "AdaptivePipeline-" + endpoint + "-" + stage;
         }
     }
 
-    @Override
-    public void close() {
-        executor.shutdownNow();
+    public static final class Builder<T, O> {
+        private final String endpoint;
+        private final MeterRegistry meterRegistry;
+        private final List<StageDefinition> stages = new ArrayList<>();
+        private CycleInstrumentationService cycleInstrumentationService;
+        private int queueCapacity = 1;
+        private int stageQueueCapacity = 1;
+        private boolean coalesceEnabled = true;
+        private Duration shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+
+        private Builder(String endpoint, MeterRegistry meterRegistry) {
+            this.endpoint = endpoint;
+            this.meterRegistry = meterRegistry;
+        }
+
+        public Builder<T, O> queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder<T, O> stageQueueCapacity(int stageQueueCapacity) {
+            this.stageQueueCapacity = stageQueueCapacity;
+            return this;
+        }
+
+        public Builder<T, O> coalesceEnabled(boolean coalesceEnabled) {
+            this.coalesceEnabled = coalesceEnabled;
+            return this;
+        }
+
+        public Builder<T, O> shutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+            return this;
+        }
+
+        public Builder<T, O> instrumentation(CycleInstrumentationService cycleInstrumentationService) {
+            this.cycleInstrumentationService = cycleInstrumentationService;
+            return this;
+        }
+
+        public <R> Builder<T, R> stage(String name, Function<? super O, ? extends R> function) {
+            stages.add(new StageDefinition(name, payload -> function.apply(cast(payload))));
+            return cast(this);
+        }
+
+        public ProcessingPipeline<T> sink(String name, Consumer<? super O> consumer) {
+            stages.add(new StageDefinition(name, payload -> {
+                consumer.accept(cast(payload));
+                return null;
+            }));
+            return new ProcessingPipeline<>(endpoint, meterRegistry, cycleInstrumentationService,
+                    queueCapacity, coalesceEnabled, stageQueueCapacity, shutdownTimeout, List.copyOf(stages));
+        }
+    }
+
+    private record StageDefinition(String name, Function<Object, Object> function) {
     }
 
-    private record Envelope<T>(T payload, long enqueuedAtMillis) {
+    private record Envelope(Object payload, long enqueuedAtMillis, long cycleStartNanos, CycleContext cycle) {
     }
 
     private static final class PipelineThreadFactory implements ThreadFactory {
-        private final String endpoint;
+        private final String name;
 
-        private PipelineThreadFactory(String endpoint) {
-            this.endpoint = endpoint;
+        private PipelineThreadFactory(String name) {
+            this.name = name;
         }
 
         @Override
         public Thread newThread(Runnable r) {
             Thread thread = new Thread(r);
-            thread.setName("AdaptivePipeline-" + endpoint);
+            thread.setName(name);
             thread.setDaemon(true);
             return thread;
         }
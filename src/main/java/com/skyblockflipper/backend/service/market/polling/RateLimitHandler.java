@@ -31,11 +31,30 @@ public class RateLimitHandler {
 
     static long parseBlockedUntil(HttpHeaders headers, long nowMillis) {
         long fromRetryAfter = parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER), nowMillis);
+        return Math.max(fromRetryAfter, parseResetAt(headers, nowMillis));
+    }
+
+    static long parseResetAt(HttpHeaders headers, long nowMillis) {
         long fromRateLimitReset = parseReset(headers.getFirst("RateLimit-Reset"), nowMillis);
         if (fromRateLimitReset <= 0L) {
             fromRateLimitReset = parseReset(headers.getFirst("X-RateLimit-Reset"), nowMillis);
         }
-        return Math.max(fromRetryAfter, fromRateLimitReset);
+        return fromRateLimitReset;
+    }
+
+    static long parseRemaining(HttpHeaders headers) {
+        String value = headers.getFirst("RateLimit-Remaining");
+        if (!StringUtils.hasText(value)) {
+            value = headers.getFirst("X-RateLimit-Remaining");
+        }
+        if (!StringUtils.hasText(value)) {
+            return -1L;
+        }
+        String trimmed = value.trim();
+        if (!trimmed.chars().allMatch(Character::isDigit)) {
+            return -1L;
+        }
+        return Long.parseLong(trimmed);
     }
 
     private static long parseRetryAfter(String value, long nowMillis) {
@@ -0,0 +1,14 @@
+alter table market_snapshot
+    add column codec_version smallint not null default 0;
+
+alter table market_snapshot
+    add column auctions_blob bytea;
+
+alter table market_snapshot
+    add column bazaar_products_blob bytea;
+
+alter table market_snapshot
+    alter column auctions_json drop not null;
+
+alter table market_snapshot
+    alter column bazaar_products_json drop not null;
@@ -0,0 +1,20 @@
+create table bazaar_quote (
+    id uuid not null,
+    snapshot_timestamp_epoch_millis bigint not null,
+    item_id varchar(255) not null,
+    buy_price float(53) not null,
+    sell_price float(53) not null,
+    buy_volume bigint not null,
+    sell_volume bigint not null,
+    buy_moving_week bigint not null,
+    sell_moving_week bigint not null,
+    buy_orders integer not null,
+    sell_orders integer not null,
+    primary key (id)
+);
+
+create index idx_bazaar_quote_item_snapshot_ts
+    on bazaar_quote (item_id, snapshot_timestamp_epoch_millis);
+
+create index idx_bazaar_quote_snapshot_ts
+    on bazaar_quote (snapshot_timestamp_epoch_millis);
@@ -0,0 +1,4 @@
+create index idx_market_snapshot_snapshot_ts_id
+    on market_snapshot (snapshot_timestamp_epoch_millis, id);
+
+drop index if exists idx_market_snapshot_snapshot_ts_epoch_millis;
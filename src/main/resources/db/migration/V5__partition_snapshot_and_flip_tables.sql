@@ -0,0 +1,204 @@
+-- Range-partition market_snapshot and the flip tables by snapshot_timestamp_epoch_millis, one
+-- partition per UTC day. Retention drops whole day partitions instead of deleting rows.
+
+create or replace function epoch_day_partition_name(parent text, day_start_millis bigint)
+returns text
+language sql
+immutable
+as $$
+    select parent || '_p' || to_char(to_timestamp(day_start_millis / 1000) at time zone 'UTC', 'YYYYMMDD')
+$$;
+
+-- Creates the missing day partitions of parent covering [from_millis, to_millis]. Rows that already
+-- landed in the default partition for such a day are moved into the new partition.
+create or replace function ensure_epoch_day_partitions(parent text, from_millis bigint, to_millis bigint)
+returns integer
+language plpgsql
+as $$
+declare
+    day_millis constant bigint := 86400000;
+    day_start bigint := floor(from_millis::numeric / day_millis)::bigint * day_millis;
+    partition_name text;
+    created integer := 0;
+begin
+    while day_start <= to_millis loop
+        partition_name := epoch_day_partition_name(parent, day_start);
+        if to_regclass(partition_name) is null then
+            execute format('create table %I (like %I including defaults including constraints)', partition_name, parent);
+            execute format(
+                    'with moved as (delete from %I where snapshot_timestamp_epoch_millis >= %s '
+                        || 'and snapshot_timestamp_epoch_millis < %s returning *) '
+                        || 'insert into %I select * from moved',
+                    parent || '_default', day_start, day_start + day_millis, partition_name);
+            execute format('alter table %I attach partition %I for values from (%s) to (%s)',
+                    parent, partition_name, day_start, day_start + day_millis);
+            created := created + 1;
+        end if;
+        day_start := day_start + day_millis;
+    end loop;
+    return created;
+end;
+$$;
+
+-- Drops every day partition of parent whose upper bound is at or before cutoff_millis.
+create or replace function drop_epoch_day_partitions_before(parent text, cutoff_millis bigint)
+returns integer
+language plpgsql
+as $$
+declare
+    part record;
+    upper_bound bigint;
+    dropped integer := 0;
+begin
+    for part in
+        select c.relname, pg_get_expr(c.relpartbound, c.oid) as bound
+        from pg_inherits i
+                 join pg_class c on c.oid = i.inhrelid
+        where i.inhparent = to_regclass(parent)
+    loop
+        if part.bound = 'DEFAULT' then
+            continue;
+        end if;
+        upper_bound := substring(part.bound from 'TO \(''?(-?[0-9]+)''?\)')::bigint;
+        if upper_bound <= cutoff_millis then
+            execute format('drop table %I', part.relname);
+            dropped := dropped + 1;
+        end if;
+    end loop;
+    return dropped;
+end;
+$$;
+
+alter table market_snapshot rename to market_snapshot_legacy;
+alter table market_snapshot_legacy rename constraint market_snapshot_pkey to market_snapshot_legacy_pkey;
+alter table flip_constraints rename to flip_constraints_legacy;
+alter table flip_step rename to flip_step_legacy;
+alter table flip_step_legacy rename constraint flip_step_pkey to flip_step_legacy_pkey;
+alter table flip rename to flip_legacy;
+alter table flip_legacy rename constraint flip_pkey to flip_legacy_pkey;
+
+create table market_snapshot (
+    auction_count integer not null,
+    bazaar_product_count integer not null,
+    created_at_epoch_millis bigint not null,
+    snapshot_timestamp_epoch_millis bigint not null,
+    id uuid not null,
+    auctions_json text,
+    bazaar_products_json text,
+    codec_version smallint not null default 0,
+    auctions_blob bytea,
+    bazaar_products_blob bytea,
+    primary key (id, snapshot_timestamp_epoch_millis)
+) partition by range (snapshot_timestamp_epoch_millis);
+
+-- Child tables carry the parent's timestamp so a day's flips, steps and constraints live in
+-- partitions with identical bounds. Foreign keys to flip are not possible without that column
+-- being part of every reference, so they are dropped.
+create table flip (
+    snapshot_timestamp_epoch_millis bigint not null,
+    id uuid not null,
+    flip_type varchar(255) check ((flip_type in ('AUCTION','BAZAAR','CRAFTING','FORGE','KATGRADE','FUSION'))),
+    result_item_id varchar(255) not null,
+    primary key (id, snapshot_timestamp_epoch_millis)
+) partition by range (snapshot_timestamp_epoch_millis);
+
+create table flip_step (
+    duration_factor float(53),
+    resource_units integer not null,
+    step_order integer,
+    base_duration_seconds bigint,
+    flip_id uuid not null,
+    id uuid not null,
+    duration_type varchar(255) not null check ((duration_type in ('FIXED','MARKET_BASED','INSTANT'))),
+    params_json text,
+    resource varchar(255) not null check ((resource in ('NONE','FORGE_SLOT'))),
+    scheduling_policy varchar(255) not null check ((scheduling_policy in ('NONE','BEST_EFFORT','LIMITED_BY_RESOURCE'))),
+    type varchar(255) not null check ((type in ('BUY','SELL','CRAFT','FORGE','FUSION','WAIT'))),
+    snapshot_timestamp_epoch_millis bigint not null,
+    primary key (id, snapshot_timestamp_epoch_millis)
+) partition by range (snapshot_timestamp_epoch_millis);
+
+create table flip_constraints (
+    int_value integer,
+    long_value bigint,
+    flip_id uuid not null,
+    constraint_type varchar(255) not null check ((constraint_type in ('MIN_FORGE_SLOTS','RECIPE_UNLOCKED','MIN_CAPITAL'))),
+    string_value varchar(255),
+    snapshot_timestamp_epoch_millis bigint not null
+) partition by range (snapshot_timestamp_epoch_millis);
+
+create table market_snapshot_default partition of market_snapshot default;
+create table flip_default partition of flip default;
+create table flip_step_default partition of flip_step default;
+create table flip_constraints_default partition of flip_constraints default;
+
+do $$
+declare
+    day_start bigint;
+    now_millis bigint := (extract(epoch from now()) * 1000)::bigint;
+begin
+    for day_start in
+        select distinct floor(snapshot_timestamp_epoch_millis::numeric / 86400000)::bigint * 86400000
+        from market_snapshot_legacy
+    loop
+        perform ensure_epoch_day_partitions('market_snapshot', day_start, day_start);
+    end loop;
+    for day_start in
+        select distinct floor(coalesce(snapshot_timestamp_epoch_millis, 0)::numeric / 86400000)::bigint * 86400000
+        from flip_legacy
+    loop
+        perform ensure_epoch_day_partitions('flip', day_start, day_start);
+        perform ensure_epoch_day_partitions('flip_step', day_start, day_start);
+        perform ensure_epoch_day_partitions('flip_constraints', day_start, day_start);
+    end loop;
+    perform ensure_epoch_day_partitions('market_snapshot', now_millis - 86400000, now_millis + 3 * 86400000);
+    perform ensure_epoch_day_partitions('flip', now_millis - 86400000, now_millis + 3 * 86400000);
+    perform ensure_epoch_day_partitions('flip_step', now_millis - 86400000, now_millis + 3 * 86400000);
+    perform ensure_epoch_day_partitions('flip_constraints', now_millis - 86400000, now_millis + 3 * 86400000);
+end;
+$$;
+
+insert into market_snapshot (auction_count, bazaar_product_count, created_at_epoch_millis,
+                             snapshot_timestamp_epoch_millis, id, auctions_json, bazaar_products_json,
+                             codec_version, auctions_blob, bazaar_products_blob)
+select auction_count, bazaar_product_count, created_at_epoch_millis,
+       snapshot_timestamp_epoch_millis, id, auctions_json, bazaar_products_json,
+       codec_version, auctions_blob, bazaar_products_blob
+from market_snapshot_legacy;
+
+insert into flip (snapshot_timestamp_epoch_millis, id, flip_type, result_item_id)
+select coalesce(snapshot_timestamp_epoch_millis, 0), id, flip_type, result_item_id
+from flip_legacy;
+
+insert into flip_step (duration_factor, resource_units, step_order, base_duration_seconds, flip_id, id,
+                       duration_type, params_json, resource, scheduling_policy, type,
+                       snapshot_timestamp_epoch_millis)
+select s.duration_factor, s.resource_units, s.step_order, s.base_duration_seconds, s.flip_id, s.id,
+       s.duration_type, s.params_json, s.resource, s.scheduling_policy, s.type,
+       coalesce(f.snapshot_timestamp_epoch_millis, 0)
+from flip_step_legacy s
+         join flip_legacy f on f.id = s.flip_id;
+
+insert into flip_constraints (int_value, long_value, flip_id, constraint_type, string_value,
+                              snapshot_timestamp_epoch_millis)
+select c.int_value, c.long_value, c.flip_id, c.constraint_type, c.string_value,
+       coalesce(f.snapshot_timestamp_epoch_millis, 0)
+from flip_constraints_legacy c
+         join flip_legacy f on f.id = c.flip_id;
+
+drop table flip_constraints_legacy;
+drop table flip_step_legacy;
+drop table flip_legacy;
+drop table market_snapshot_legacy;
+
+create index idx_market_snapshot_snapshot_ts_id
+    on market_snapshot (snapshot_timestamp_epoch_millis, id);
+
+create index idx_flip_snapshot_ts_epoch_millis
+    on flip (snapshot_timestamp_epoch_millis);
+
+create index idx_flip_step_flip_id
+    on flip_step (flip_id, snapshot_timestamp_epoch_millis);
+
+create index idx_flip_constraints_flip_id
+    on flip_constraints (flip_id, snapshot_timestamp_epoch_millis);
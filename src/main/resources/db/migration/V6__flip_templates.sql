@@ -0,0 +1,137 @@
+-- Store each distinct flip definition once as a template keyed by a content hash. A snapshot only
+-- records which templates it contains in flip_snapshot_membership, partitioned by day like
+-- market_snapshot. The old per-snapshot flip tables are folded into templates and dropped.
+
+create table flip_template (
+    id uuid not null,
+    flip_type varchar(255) check ((flip_type in ('AUCTION','BAZAAR','CRAFTING','FORGE','KATGRADE','FUSION'))),
+    result_item_id varchar(255) not null,
+    content_hash varchar(64) not null,
+    primary key (id)
+);
+
+create unique index idx_flip_template_content_hash
+    on flip_template (content_hash);
+
+create table flip_template_step (
+    duration_factor float(53),
+    resource_units integer not null,
+    step_order integer,
+    base_duration_seconds bigint,
+    flip_id uuid not null references flip_template (id),
+    id uuid not null,
+    duration_type varchar(255) not null check ((duration_type in ('FIXED','MARKET_BASED','INSTANT'))),
+    params_json text,
+    resource varchar(255) not null check ((resource in ('NONE','FORGE_SLOT'))),
+    scheduling_policy varchar(255) not null check ((scheduling_policy in ('NONE','BEST_EFFORT','LIMITED_BY_RESOURCE'))),
+    type varchar(255) not null check ((type in ('BUY','SELL','CRAFT','FORGE','FUSION','WAIT'))),
+    primary key (id)
+);
+
+create index idx_flip_template_step_flip_id
+    on flip_template_step (flip_id);
+
+create table flip_template_constraints (
+    int_value integer,
+    long_value bigint,
+    flip_id uuid not null references flip_template (id),
+    constraint_type varchar(255) not null check ((constraint_type in ('MIN_FORGE_SLOTS','RECIPE_UNLOCKED','MIN_CAPITAL'))),
+    string_value varchar(255)
+);
+
+create index idx_flip_template_constraints_flip_id
+    on flip_template_constraints (flip_id);
+
+create table flip_snapshot_membership (
+    snapshot_timestamp_epoch_millis bigint not null,
+    template_id uuid not null,
+    flip_type varchar(255) check ((flip_type in ('AUCTION','BAZAAR','CRAFTING','FORGE','KATGRADE','FUSION'))),
+    primary key (snapshot_timestamp_epoch_millis, template_id)
+) partition by range (snapshot_timestamp_epoch_millis);
+
+create table flip_snapshot_membership_default partition of flip_snapshot_membership default;
+
+-- Same canonical form as Flip.computeContentHash: type, result item, ordered steps and sorted
+-- constraints separated by the ASCII record (30), group (29) and unit (31) separators.
+create temporary table flip_content as
+select f.id as flip_id,
+       f.snapshot_timestamp_epoch_millis,
+       f.flip_type,
+       f.result_item_id,
+       encode(sha256(convert_to(
+               coalesce(f.flip_type, '') || chr(30) || f.result_item_id || chr(30)
+                   || coalesce(s.rendered, '') || chr(30) || coalesce(c.rendered, ''),
+               'UTF8')), 'hex') as content_hash
+from flip f
+         left join lateral (
+    select string_agg(concat_ws(chr(31), st.type, st.duration_type,
+                                coalesce(st.base_duration_seconds::text, ''),
+                                coalesce(st.duration_factor::text, ''), st.resource,
+                                st.resource_units::text, st.scheduling_policy,
+                                coalesce(st.params_json, '')),
+                      chr(29) order by st.step_order) as rendered
+    from flip_step st
+    where st.flip_id = f.id
+      and st.snapshot_timestamp_epoch_millis = f.snapshot_timestamp_epoch_millis
+    ) s on true
+         left join lateral (
+    select string_agg(r.rendered, chr(29) order by r.rendered collate "C") as rendered
+    from (select concat_ws(chr(31), fc.constraint_type, coalesce(fc.string_value, ''),
+                           coalesce(fc.int_value::text, ''), coalesce(fc.long_value::text, '')) as rendered
+          from flip_constraints fc
+          where fc.flip_id = f.id
+            and fc.snapshot_timestamp_epoch_millis = f.snapshot_timestamp_epoch_millis) r
+    ) c on true;
+
+-- The most recent flip of each content hash becomes the template and keeps its id.
+create temporary table flip_template_source as
+select content_hash,
+       (array_agg(flip_id order by snapshot_timestamp_epoch_millis desc, flip_id))[1] as template_id
+from flip_content
+group by content_hash;
+
+insert into flip_template (id, flip_type, result_item_id, content_hash)
+select src.template_id, fc.flip_type, fc.result_item_id, src.content_hash
+from flip_template_source src
+         join flip_content fc on fc.flip_id = src.template_id;
+
+insert into flip_template_step (duration_factor, resource_units, step_order, base_duration_seconds, flip_id, id,
+                                duration_type, params_json, resource, scheduling_policy, type)
+select st.duration_factor, st.resource_units, st.step_order, st.base_duration_seconds, st.flip_id, st.id,
+       st.duration_type, st.params_json, st.resource, st.scheduling_policy, st.type
+from flip_step st
+         join flip_template t on t.id = st.flip_id;
+
+insert into flip_template_constraints (int_value, long_value, flip_id, constraint_type, string_value)
+select fc.int_value, fc.long_value, fc.flip_id, fc.constraint_type, fc.string_value
+from flip_constraints fc
+         join flip_template t on t.id = fc.flip_id;
+
+do $$
+declare
+    day_start bigint;
+    now_millis bigint := (extract(epoch from now()) * 1000)::bigint;
+begin
+    for day_start in
+        select distinct floor(snapshot_timestamp_epoch_millis::numeric / 86400000)::bigint * 86400000
+        from flip_content
+    loop
+        perform ensure_epoch_day_partitions('flip_snapshot_membership', day_start, day_start);
+    end loop;
+    perform ensure_epoch_day_partitions('flip_snapshot_membership', now_millis - 86400000, now_millis + 3 * 86400000);
+end;
+$$;
+
+insert into flip_snapshot_membership (snapshot_timestamp_epoch_millis, template_id, flip_type)
+select distinct fc.snapshot_timestamp_epoch_millis, src.template_id, fc.flip_type
+from flip_content fc
+         join flip_template_source src on src.content_hash = fc.content_hash;
+
+create index idx_flip_snapshot_membership_template
+    on flip_snapshot_membership (template_id, snapshot_timestamp_epoch_millis);
+
+drop table flip_template_source;
+drop table flip_content;
+drop table flip_constraints;
+drop table flip_step;
+drop table flip;
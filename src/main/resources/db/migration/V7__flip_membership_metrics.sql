@@ -0,0 +1,24 @@
+-- Materialize the per-snapshot flip metrics next to the membership rows so that the min/max filters
+-- and sort keys of the flip endpoints run in SQL. Rows written before this migration keep
+-- metrics_computed = false and are still evaluated in memory.
+
+alter table flip_snapshot_membership
+    add column metrics_computed boolean not null default false,
+    add column expected_profit bigint,
+    add column roi float(53),
+    add column roi_per_hour float(53),
+    add column liquidity_score float(53),
+    add column risk_score float(53),
+    add column required_capital bigint,
+    add column fees bigint,
+    add column duration_seconds bigint,
+    add column partial boolean;
+
+create index idx_flip_snapshot_membership_profit
+    on flip_snapshot_membership (snapshot_timestamp_epoch_millis, expected_profit);
+
+create index idx_flip_snapshot_membership_liquidity
+    on flip_snapshot_membership (snapshot_timestamp_epoch_millis, liquidity_score);
+
+create index idx_flip_snapshot_membership_risk
+    on flip_snapshot_membership (snapshot_timestamp_epoch_millis, risk_score);
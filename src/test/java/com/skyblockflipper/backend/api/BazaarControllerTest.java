@@ -37,8 +37,8 @@ class BazaarControllerTest {
         BazaarReadService service = mock(BazaarReadService.class);
         BazaarController controller = new BazaarController(service);
         BazaarOrderBookDto expected = new BazaarOrderBookDto(
-                List.of(new BazaarOrderBookDto.OrderLevelDto(101.0, 5, 1)),
-                List.of(new BazaarOrderBookDto.OrderLevelDto(99.0, 10, 2))
+                List.of(new BazaarOrderBookDto.OrderLevelDto(101.0, 5, 1, 5), new BazaarOrderBookDto.OrderLevelDto(102.0, 7, 2, 12)),
+                List.of(new BazaarOrderBookDto.OrderLevelDto(99.0, 10, 2, 10))
         );
         when(service.getOrderBook("A", 15)).thenReturn(expected);
 
@@ -0,0 +1,32 @@
+package com.skyblockflipper.backend.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorRequestsTest {
+
+    @Test
+    void invalidCursorIsTheClientsError() {
+        String token = new PageCursor(0L, "PRICE", true, "900", "a1").encode();
+
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class, () -> CursorRequests.page(token, cursor -> {
+            cursor.requireSort("PRICE", false);
+            return new CursorPageDto<>(List.of(), 25, null);
+        }));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+    }
+
+    @Test
+    void otherArgumentErrorsOfTheLoaderAreNotMappedToBadRequest() {
+        assertThrows(IllegalArgumentException.class, () -> CursorRequests.page(null, cursor -> {
+            throw new IllegalArgumentException("bug in the loader");
+        }));
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.List;
@@ -17,8 +18,10 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class FlipControllerTest {
@@ -56,6 +59,24 @@ class FlipControllerTest {
         verify(service).listFlips(FlipType.FORGE, snapshotTimestamp, pageable);
     }
 
+    @Test
+    void cursorListingPassesDecodedCursorAndRejectsMalformedTokens() {
+        FlipReadService service = mock(FlipReadService.class);
+        FlipController controller = new FlipController(service);
+        PageCursor cursor = new PageCursor(1_771_531_200_000L, "id", false, null, UUID.randomUUID().toString());
+        CursorPageDto<UnifiedFlipDto> expected = new CursorPageDto<>(List.of(sampleDto()), 25, null);
+
+        when(service.listFlipsAfter(FlipType.FORGE, null, cursor, 25)).thenReturn(expected);
+
+        assertEquals(expected, controller.listFlipsByCursor(FlipType.FORGE, null, cursor.encode(), 25));
+
+        FlipReadService untouched = mock(FlipReadService.class);
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> new FlipController(untouched).listFlipsByCursor(null, null, "%%%", 25));
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        verifyNoInteractions(untouched);
+    }
+
     @Test
     void filterFlipsDelegatesToService() {
         FlipReadService service = mock(FlipReadService.class);
@@ -0,0 +1,50 @@
+package com.skyblockflipper.backend.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        PageCursor cursor = new PageCursor(1_771_531_200_000L, "LIQUIDITY", true, "-0.25", "aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+        PageCursor missingKey = new PageCursor(0L, "id", false, null, "HYPERION");
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+        assertEquals(missingKey, PageCursor.decode(missingKey.encode()));
+    }
+
+    @Test
+    void cursorIsOnlyAcceptedForTheOrderingItWasIssuedFor() {
+        PageCursor cursor = PageCursor.decode(new PageCursor(0L, "PRICE", true, "900", "a1").encode());
+
+        cursor.requireSort("PRICE", true);
+        assertThrows(InvalidCursorException.class, () -> cursor.requireSort("PRICE", false));
+        assertThrows(InvalidCursorException.class, () -> cursor.requireSort("ENDING_SOON", true));
+    }
+
+    @Test
+    void blankTokenStartsAtTheFirstPageAndGarbageIsRejected() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> PageCursor.decode("AA"));
+    }
+
+    @Test
+    void typedFieldsParseOrRejectTheCursor() {
+        PageCursor cursor = new PageCursor(0L, "PRICE", true, "900", "aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+        PageCursor forged = new PageCursor(0L, "PRICE", true, "nine hundred", "a1");
+
+        assertEquals(900L, cursor.longSortKey());
+        assertEquals(900.0D, cursor.doubleSortKey());
+        assertEquals("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa", cursor.uuidId().toString());
+        assertNull(new PageCursor(0L, "PRICE", true, null, "a1").longSortKey());
+        assertThrows(InvalidCursorException.class, forged::longSortKey);
+        assertThrows(InvalidCursorException.class, forged::doubleSortKey);
+        assertThrows(InvalidCursorException.class, forged::uuidId);
+    }
+}
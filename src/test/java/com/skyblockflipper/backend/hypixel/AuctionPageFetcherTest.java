@@ -0,0 +1,112 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.hypixel.model.Auction;
+import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
+import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.instrumentation.CycleContext;
+import com.skyblockflipper.backend.instrumentation.CycleContextHolder;
+import com.skyblockflipper.backend.instrumentation.InstrumentationProperties;
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuctionPageFetcherTest {
+
+    @Test
+    void mergesPagesInPageOrderRegardlessOfCompletionOrder() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuctionPageFetcher fetcher = new AuctionPageFetcher("auctions", 4, new GlobalRequestLimiter(1000d), meterRegistry);
+
+        HypixelHttpResult<AuctionResponse> result = fetcher.fetchAll(page(0, 5), pageIndex -> {
+            sleepQuietly((5 - pageIndex) * 20L);
+            return HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(pageIndex, 5));
+        });
+
+        assertTrue(result.isSuccessful());
+        List<String> uuids = result.body().getAuctions().stream().map(Auction::getUuid).toList();
+        assertEquals(List.of("uuid-0", "uuid-1", "uuid-2", "uuid-3", "uuid-4"), uuids);
+        assertEquals(5, result.body().getTotalPages());
+        assertEquals(4L, meterRegistry.find("skyblock.hypixel.auction_page_latency_ms").summary().count());
+    }
+
+    @Test
+    void neverExceedsConfiguredConcurrency() {
+        AuctionPageFetcher fetcher = new AuctionPageFetcher("auctions", 2, null, null);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        HypixelHttpResult<AuctionResponse> result = fetcher.fetchAll(page(0, 9), pageIndex -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            sleepQuietly(15L);
+            inFlight.decrementAndGet();
+            return HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(pageIndex, 9));
+        });
+
+        assertTrue(result.isSuccessful());
+        assertEquals(9, result.body().getAuctions().size());
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void blockingPointsOfForkedPagesLandInTheCallersCycle() {
+        BlockingTimeTracker tracker = new BlockingTimeTracker(new InstrumentationProperties());
+        AuctionPageFetcher fetcher = new AuctionPageFetcher("auctions", 4, null, null);
+        CycleContext cycle = new CycleContext("cycle-1", Instant.now());
+        CycleContextHolder.set(cycle);
+        try {
+            HypixelHttpResult<AuctionResponse> result = fetcher.fetchAll(page(0, 4), pageIndex -> tracker.record(
+                    "hypixel.auctionPage", "http", () -> HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(pageIndex, 4))));
+
+            assertTrue(result.isSuccessful());
+        } finally {
+            CycleContextHolder.clear();
+        }
+
+        assertEquals(3, cycle.getBlockingPoints().size());
+    }
+
+    @Test
+    void reportsFailedPageAsError() {
+        AuctionPageFetcher fetcher = AuctionPageFetcher.sequential("auctions");
+
+        HypixelHttpResult<AuctionResponse> result = fetcher.fetchAll(page(0, 3), pageIndex -> pageIndex == 2
+                ? HypixelHttpResult.error(429, HttpHeaders.EMPTY, "rate limited")
+                : HypixelHttpResult.success(200, HttpHeaders.EMPTY, page(pageIndex, 3)));
+
+        assertFalse(result.isSuccessful());
+        assertEquals(429, result.statusCode());
+        assertEquals("Failed to fetch auctions page 2", result.errorMessage());
+    }
+
+    @Test
+    void rejectsMissingFirstPage() {
+        HypixelHttpResult<AuctionResponse> result = AuctionPageFetcher.sequential("auctions")
+                .fetchAll(null, pageIndex -> null);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(500, result.statusCode());
+    }
+
+    private static AuctionResponse page(int page, int totalPages) {
+        Auction auction = new Auction("uuid-" + page, "a", "p", List.of(), 1L, 2L, "item", "lore", "e", "c", "COMMON", 100L, true, List.of(), 100L, List.of());
+        return new AuctionResponse(true, page, totalPages, totalPages, 1_000L, List.of(auction));
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.hypixel.model.AuctionResponse;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuctionPageStreamDecoderTest {
+
+    private static final String PAGE = """
+            {
+              "success": true,
+              "page": 3,
+              "totalPages": 62,
+              "totalAuctions": 61234,
+              "lastUpdated": 1771675200000,
+              "auctions": [
+                {
+                  "uuid": "a1",
+                  "auctioneer": "seller",
+                  "profile_id": "profile",
+                  "coop": ["seller", "friend"],
+                  "start": 1771670000000,
+                  "end": 1771680000000,
+                  "item_name": "Hyperion",
+                  "item_lore": "lore",
+                  "extra": "extra",
+                  "category": "weapon",
+                  "tier": "LEGENDARY",
+                  "starting_bid": 900000000,
+                  "item_bytes": {"type": 0, "data": "H4sIAAAAAAAA"},
+                  "claimed": false,
+                  "claimed_bidders": [],
+                  "highest_bid_amount": 910000000,
+                  "bids": [
+                    {"auction_id": "a1", "bidder": "b", "profile_id": "p", "amount": 910000000, "timestamp": 1771671000000}
+                  ],
+                  "bin": false
+                },
+                {
+                  "uuid": "a2",
+                  "start": 1771672000000,
+                  "end": 1771682000000,
+                  "item_name": "Enchanted Diamond",
+                  "tier": "UNCOMMON",
+                  "starting_bid": 1500,
+                  "claimed": true,
+                  "highest_bid_amount": 0,
+                  "bin": true
+                }
+              ]
+            }
+            """;
+
+    private final AuctionPageStreamDecoder decoder = new AuctionPageStreamDecoder();
+
+    @Test
+    void decodesPageMetadataAndRecords() {
+        AuctionRecordPage page = decoder.decode(PAGE.getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(page.success());
+        assertEquals(3, page.page());
+        assertEquals(62, page.totalPages());
+        assertEquals(61234, page.totalAuctions());
+        assertEquals(1771675200000L, page.lastUpdated());
+        assertEquals(2, page.auctions().size());
+
+        AuctionMarketRecord second = page.auctions().get(1);
+        assertEquals("a2", second.auctionUuid());
+        assertEquals(1500L, second.startingBid());
+        assertEquals(0L, second.highestBidAmount());
+        assertTrue(second.claimed());
+        assertNull(second.category());
+    }
+
+    @Test
+    void matchesDatabindMappingForKeptFields() {
+        AuctionResponse bound = new ObjectMapper().readValue(PAGE, AuctionResponse.class);
+        AuctionRecordPage expected = new HypixelMarketSnapshotMapper().toRecordPage(bound);
+
+        AuctionRecordPage decoded = decoder.decode(PAGE.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(expected, decoded);
+    }
+
+    @Test
+    void metadataDecodeSkipsAuctionsArrayAndReadsFieldsAfterIt() {
+        AuctionRecordPage page = decoder.decodeMetadata(PAGE.getBytes(StandardCharsets.UTF_8));
+        AuctionRecordPage trailingHeader = decoder.decodeMetadata("""
+                {"success": true, "auctions": [{"uuid": "a1"}], "page": 4, "lastUpdated": 1771675260000}
+                """.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(3, page.page());
+        assertEquals(1771675200000L, page.lastUpdated());
+        assertTrue(page.auctions().isEmpty());
+        assertEquals(4, trailingHeader.page());
+        assertEquals(1771675260000L, trailingHeader.lastUpdated());
+        assertTrue(trailingHeader.auctions().isEmpty());
+    }
+
+    @Test
+    void handlesUnsuccessfulAndEmptyBodies() {
+        AuctionRecordPage failed = decoder.decode("{\"success\":false,\"cause\":\"Page not found\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(failed.success());
+        assertTrue(failed.auctions().isEmpty());
+        assertNull(decoder.decode(new byte[0]));
+        assertNull(decoder.decode(null));
+    }
+}
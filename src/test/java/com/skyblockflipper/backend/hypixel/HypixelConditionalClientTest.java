@@ -0,0 +1,161 @@
+package com.skyblockflipper.backend.hypixel;
+
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HypixelConditionalClientTest {
+
+    private static final AuctionRecordPage FIRST_PAGE = new AuctionRecordPage(true, 0, 2, 2, 1_000L, List.of());
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void reusesDecodedRecordsWhenPageAnswersNotModified() {
+        RestClient restClient = mock(RestClient.class);
+        RestClient.RequestHeadersUriSpec uriSpec = mock(RestClient.RequestHeadersUriSpec.class);
+        RestClient.RequestHeadersSpec unconditional = mock(RestClient.RequestHeadersSpec.class);
+        RestClient.RequestHeadersSpec conditional = mock(RestClient.RequestHeadersSpec.class);
+        RestClient.ResponseSpec fullResponse = mock(RestClient.ResponseSpec.class);
+        RestClient.ResponseSpec notModifiedResponse = mock(RestClient.ResponseSpec.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"page-1-v1\"");
+        when(restClient.get()).thenReturn(uriSpec);
+        when(uriSpec.uri(anyString())).thenReturn(unconditional);
+        when(unconditional.header(HttpHeaders.IF_NONE_MATCH, "\"page-1-v1\"")).thenReturn(conditional);
+        when(unconditional.retrieve()).thenReturn(fullResponse);
+        when(conditional.retrieve()).thenReturn(notModifiedResponse);
+        when(fullResponse.toEntity(any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok().headers(headers).body(page(1_000L, "a1")));
+        when(notModifiedResponse.toEntity(any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        HypixelConditionalClient client = client(restClient);
+
+        HypixelHttpResult<AuctionRecordPage> first = client.fetchAllAuctionPages("/skyblock/auctions", FIRST_PAGE);
+        AuctionRecordPage cachedPage = cachedPage(client);
+        HypixelHttpResult<AuctionRecordPage> second = client.fetchAllAuctionPages("/skyblock/auctions", FIRST_PAGE);
+
+        assertTrue(first.isSuccessful());
+        assertTrue(second.isSuccessful());
+        assertEquals("a1", second.body().auctions().getFirst().auctionUuid());
+        assertSame(cachedPage, cachedPage(client));
+        verify(unconditional, times(1)).retrieve();
+        verify(conditional, times(1)).retrieve();
+    }
+
+    @Test
+    void reusesDecodedRecordsWhenOnlyPageHeaderChanged() {
+        RestClient restClient = mock(RestClient.class, Answers.RETURNS_DEEP_STUBS);
+        when(restClient.get().uri(anyString()).retrieve().toEntity(any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok().body(page(1_000L, "a1")))
+                .thenAnswer(invocation -> ResponseEntity.ok().body(page(2_000L, "a1")));
+        HypixelConditionalClient client = client(restClient);
+
+        AuctionRecordPage first = client.fetchAllAuctionPages("/skyblock/auctions", FIRST_PAGE).body();
+        AuctionRecordPage cachedPage = cachedPage(client);
+        client.fetchAllAuctionPages("/skyblock/auctions", FIRST_PAGE);
+
+        assertEquals(1, first.auctions().size());
+        assertSame(cachedPage.auctions(), cachedPage(client).auctions());
+        assertEquals(2_000L, cachedPage(client).lastUpdated());
+    }
+
+    @Test
+    void decodesAgainWhenAuctionsChanged() {
+        RestClient restClient = mock(RestClient.class, Answers.RETURNS_DEEP_STUBS);
+        when(restClient.get().uri(anyString()).retrieve().toEntity(any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok().body(page(1_000L, "a1")))
+                .thenAnswer(invocation -> ResponseEntity.ok().body(page(2_000L, "a2")));
+        HypixelConditionalClient client = client(restClient);
+
+        client.fetchAllAuctionPages("/skyblock/auctions", FIRST_PAGE);
+        AuctionRecordPage second = client.fetchAllAuctionPages("/skyblock/auctions", FIRST_PAGE).body();
+
+        assertEquals("a2", second.auctions().getFirst().auctionUuid());
+    }
+
+    @Test
+    void notModifiedWithoutCachedPageRefetchesUnconditionally() {
+        RestClient restClient = mock(RestClient.class, Answers.RETURNS_DEEP_STUBS);
+        when(restClient.get().uri(anyString()).retrieve().toEntity(any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build())
+                .thenAnswer(invocation -> ResponseEntity.ok().body(page(1_000L, "a1")));
+        GlobalRequestLimiter limiter = new GlobalRequestLimiter(0.1d, 2, 0);
+        HypixelConditionalClient client = client(restClient, new AuctionPageFetcher("auctions", 1, limiter, null));
+
+        HypixelHttpResult<AuctionRecordPage> result = client.fetchAllAuctionPages("/skyblock/auctions", FIRST_PAGE);
+
+        assertTrue(result.isSuccessful());
+        assertEquals("a1", result.body().auctions().getFirst().auctionUuid());
+        assertTrue(limiter.peekDelayMillis(GlobalRequestLimiter.Priority.LOW) > 0L);
+    }
+
+    @Test
+    void fingerprintFindsAuctionsArrayBehindLargeHeader() {
+        RestClient restClient = mock(RestClient.class, Answers.RETURNS_DEEP_STUBS);
+        String padding = "x".repeat(8_192);
+        when(restClient.get().uri(anyString()).retrieve().toEntity(any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok().body(paddedPage(1_000L, padding)))
+                .thenAnswer(invocation -> ResponseEntity.ok().body(paddedPage(2_000L, padding)));
+        HypixelConditionalClient client = client(restClient);
+
+        client.fetchAllAuctionPages("/skyblock/auctions", FIRST_PAGE);
+        AuctionRecordPage cachedPage = cachedPage(client);
+        client.fetchAllAuctionPages("/skyblock/auctions", FIRST_PAGE);
+
+        assertSame(cachedPage.auctions(), cachedPage(client).auctions());
+        assertEquals(2_000L, cachedPage(client).lastUpdated());
+    }
+
+    private static HypixelConditionalClient client(RestClient restClient) {
+        return client(restClient, AuctionPageFetcher.sequential("auctions"));
+    }
+
+    private static HypixelConditionalClient client(RestClient restClient, AuctionPageFetcher fetcher) {
+        HypixelConditionalClient client = new HypixelConditionalClient(
+                "http://localhost", "", Duration.ofSeconds(1), Duration.ofSeconds(1), fetcher);
+        ReflectionTestUtils.setField(client, "restClient", restClient);
+        return client;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AuctionRecordPage cachedPage(HypixelConditionalClient client) {
+        Map<Integer, ?> cache = (Map<Integer, ?>) ReflectionTestUtils.getField(client, "auctionPageCache");
+        return (AuctionRecordPage) ReflectionTestUtils.invokeMethod(cache.get(1), "page");
+    }
+
+    private static byte[] page(long lastUpdated, String uuid) {
+        return ("""
+                {"success":true,"page":1,"totalPages":2,"totalAuctions":2,"lastUpdated":%d,
+                 "auctions":[{"uuid":"%s","item_name":"Hyperion","tier":"LEGENDARY","starting_bid":900,"claimed":false}]}
+                """.formatted(lastUpdated, uuid)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] paddedPage(long lastUpdated, String padding) {
+        return ("""
+                {"success":true,"page":1,"totalPages":2,"notes":"%s \\"auctions\\"","lastUpdated":%d,
+                 "auctions":[{"uuid":"a1","item_name":"Hyperion","tier":"LEGENDARY","starting_bid":900,"claimed":false}],
+                 "totalAuctions":2}
+                """.formatted(padding, lastUpdated)).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -7,10 +7,12 @@ import com.skyblockflipper.backend.hypixel.model.BazaarQuickStatus;
 import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -51,6 +53,21 @@ class HypixelMarketSnapshotMapperTest {
         assertEquals(9.5, record.sellPrice());
     }
 
+    @Test
+    void bazaarProductsKeepTheResponseOrder() {
+        BazaarQuickStatus quickStatus = new BazaarQuickStatus(10.0, 9.5, 100, 90, 1000, 900, 4, 3);
+        Map<String, BazaarProduct> products = new LinkedHashMap<>();
+        for (String productId : java.util.List.of("ZOMBIE_HEART", "ENCHANTED_DIAMOND", "BOOSTER_COOKIE", "ASPECT_OF_THE_END")) {
+            products.put(productId, new BazaarProduct(productId, quickStatus, java.util.List.of(), java.util.List.of()));
+        }
+
+        Map<String, BazaarMarketRecord> mapped = mapper.mapBazaarProducts(new BazaarResponse(true, 2_000L, products));
+
+        assertEquals(java.util.List.copyOf(products.keySet()), java.util.List.copyOf(mapped.keySet()));
+        assertEquals(java.util.List.copyOf(products.keySet()),
+                java.util.List.copyOf(new UnifiedFlipInputMapper().mapBazaarQuotes(mapped).keySet()));
+    }
+
     @Test
     void mapHandlesMissingOrFailedResponses() {
         AuctionResponse failedAuctions = new AuctionResponse(false, 0, 0, 0, 0L, java.util.List.of());
@@ -7,9 +7,13 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FlipTest {
@@ -67,6 +71,31 @@ class FlipTest {
         assertEquals(1, flip.getSteps().size());
     }
 
+    @Test
+    void contentHashIgnoresIdsAndConstraintOrder() {
+        Flip first = new Flip(null, FlipType.FORGE, List.of(Step.forForgeFixed(60L)), "item",
+                List.of(Constraint.minForgeSlots(1), Constraint.recipeUnlocked("item:forge:0")));
+        Flip second = new Flip(UUID.randomUUID(), FlipType.FORGE, List.of(Step.forForgeFixed(60L)), "item",
+                List.of(Constraint.recipeUnlocked("item:forge:0"), Constraint.minForgeSlots(1)));
+        Flip longerForge = new Flip(null, FlipType.FORGE, List.of(Step.forForgeFixed(120L)), "item",
+                List.of(Constraint.minForgeSlots(1), Constraint.recipeUnlocked("item:forge:0")));
+
+        assertEquals(first.computeContentHash(), second.computeContentHash());
+        assertNotEquals(first.computeContentHash(), longerForge.computeContentHash());
+    }
+
+    @Test
+    void forSnapshotSharesDefinitionAndBindsTimestamp() {
+        Flip template = new Flip(UUID.randomUUID(), FlipType.CRAFTING, List.of(Step.forCraftInstant(10L)), "item", List.of());
+
+        Flip bound = template.forSnapshot(1_700_000_000_000L);
+
+        assertEquals(template.getId(), bound.getId());
+        assertEquals(1_700_000_000_000L, bound.getSnapshotTimestampEpochMillis());
+        assertNull(template.getSnapshotTimestampEpochMillis());
+        assertSame(template.getSteps(), bound.getSteps());
+    }
+
     @Test
     void totalDurationSkipsNullBaseSeconds() {
         Step craft = new Step(null, StepType.CRAFT, DurationType.FIXED, null, null,
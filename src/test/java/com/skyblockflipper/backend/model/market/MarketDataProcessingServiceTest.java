@@ -11,13 +11,17 @@ import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import com.skyblockflipper.backend.service.market.MarketDataProcessingService;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -99,4 +103,59 @@ class MarketDataProcessingServiceTest {
         verify(client, times(1)).fetchBazaar();
         verify(persistenceService, times(2)).save(org.mockito.ArgumentMatchers.any(MarketSnapshot.class));
     }
+
+    @Test
+    void bazaarOnlyUpdateReusesNormalizedAuctionSide() {
+        HypixelClient client = mock(HypixelClient.class);
+        HypixelMarketSnapshotMapper snapshotMapper = new HypixelMarketSnapshotMapper();
+        MarketSnapshotPersistenceService persistenceService = mock(MarketSnapshotPersistenceService.class);
+        UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
+        MarketDataProcessingService service = new MarketDataProcessingService(client, snapshotMapper, persistenceService, inputMapper);
+
+        Auction auction = new Auction(
+                "a-1", "auctioneer", "profile", List.of(), 1L, 2L,
+                "ENCHANTED_DIAMOND", "lore", "extra", "misc", "RARE",
+                100L, false, List.of(), 120L, List.of()
+        );
+        BazaarQuickStatus quickStatus = new BazaarQuickStatus(10.0, 9.0, 100, 90, 1000, 900, 4, 3);
+        BazaarQuickStatus nextQuickStatus = new BazaarQuickStatus(11.0, 9.5, 100, 90, 1000, 900, 4, 3);
+
+        service.ingestAuctionPayload(new AuctionResponse(true, 0, 1, 1, 10_000L, List.of(auction)), "test");
+        service.ingestBazaarPayload(new BazaarResponse(true, 11_000L, Map.of(
+                "ENCHANTED_DIAMOND", new BazaarProduct("ENCHANTED_DIAMOND", quickStatus, List.of(), List.of()))), "test");
+        UnifiedFlipInputSnapshot input = service.ingestBazaarPayload(new BazaarResponse(true, 12_000L, Map.of(
+                "ENCHANTED_DIAMOND", new BazaarProduct("ENCHANTED_DIAMOND", nextQuickStatus, List.of(), List.of()))), "test")
+                .orElseThrow();
+
+        ArgumentCaptor<MarketSnapshot> saved = ArgumentCaptor.forClass(MarketSnapshot.class);
+        verify(persistenceService, times(3)).save(saved.capture());
+        List<MarketSnapshot> snapshots = saved.getAllValues();
+        assertSame(snapshots.get(1).auctions(), snapshots.get(2).auctions());
+        assertNotSame(snapshots.get(1).bazaarProducts(), snapshots.get(2).bazaarProducts());
+        assertEquals(11.0, input.bazaarQuotes().get("ENCHANTED_DIAMOND").buyPrice());
+        assertEquals(1, input.auctionQuotesByItem().size());
+        assertEquals(12_000L, input.snapshotTimestamp().toEpochMilli());
+    }
+
+    @Test
+    void preparePublishesSnapshotBeforePersisting() {
+        HypixelClient client = mock(HypixelClient.class);
+        HypixelMarketSnapshotMapper snapshotMapper = new HypixelMarketSnapshotMapper();
+        MarketSnapshotPersistenceService persistenceService = mock(MarketSnapshotPersistenceService.class);
+        UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
+        MarketDataProcessingService service = new MarketDataProcessingService(client, snapshotMapper, persistenceService, inputMapper);
+        BazaarQuickStatus quickStatus = new BazaarQuickStatus(10.0, 9.0, 100, 90, 1000, 900, 4, 3);
+
+        MarketDataProcessingService.PreparedSnapshot prepared = service.prepareBazaarPayload(new BazaarResponse(true, 11_000L, Map.of(
+                "ENCHANTED_DIAMOND", new BazaarProduct("ENCHANTED_DIAMOND", quickStatus, List.of(), List.of()))), "test")
+                .orElseThrow();
+
+        verify(persistenceService, never()).save(org.mockito.ArgumentMatchers.any(MarketSnapshot.class));
+        assertEquals(11_000L, service.latestMarketSnapshot().orElseThrow().snapshotTimestamp().toEpochMilli());
+
+        UnifiedFlipInputSnapshot input = service.persistPrepared(prepared);
+
+        verify(persistenceService, times(1)).save(prepared.snapshot());
+        assertSame(prepared.inputSnapshot(), input);
+    }
 }
@@ -0,0 +1,55 @@
+package com.skyblockflipper.backend.repository;
+
+import com.skyblockflipper.backend.model.Flipping.Constraint;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.model.Flipping.Enums.StepType;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.Step;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class FlipRepositoryTest {
+
+    @Autowired
+    private FlipRepository flipRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void reloadedRecipeKeepsEveryStepAndConstraintOnce() {
+        Flip recipe = new Flip(null, FlipType.CRAFTING,
+                List.of(
+                        Step.forBuyMarketBased(30L, "{\"itemId\":\"ENCHANTED_DIAMOND\"}"),
+                        Step.forBuyMarketBased(30L, "{\"itemId\":\"ENCHANTED_GOLD\"}"),
+                        Step.forCraftInstant(1L),
+                        Step.forSellMarketBased(60L, "{\"itemId\":\"DIVAN_DRILL\"}")
+                ),
+                "DIVAN_DRILL",
+                List.of(Constraint.recipeUnlocked("DIVAN_DRILL"), Constraint.minCapital(1_000_000L)));
+        flipRepository.saveAndFlush(recipe);
+        entityManager.clear();
+
+        Flip byId = flipRepository.findAllByIdIn(List.of(recipe.getId())).getFirst();
+        Flip fromTemplates = flipRepository.findAllTemplates().stream()
+                .filter(flip -> flip.getId().equals(recipe.getId()))
+                .findFirst()
+                .orElseThrow();
+
+        for (Flip reloaded : List.of(byId, fromTemplates)) {
+            assertEquals(List.of(StepType.BUY, StepType.BUY, StepType.CRAFT, StepType.SELL),
+                    reloaded.getSteps().stream().map(Step::getType).toList());
+            assertEquals(2, reloaded.getConstraints().size());
+            assertEquals(recipe.computeContentHash(), reloaded.computeContentHash());
+        }
+    }
+}
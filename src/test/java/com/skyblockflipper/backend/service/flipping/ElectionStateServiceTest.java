@@ -0,0 +1,152 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.hypixel.HypixelConditionalClient;
+import com.skyblockflipper.backend.hypixel.HypixelHttpResult;
+import com.skyblockflipper.backend.service.market.polling.GlobalRequestLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ElectionStateServiceTest {
+
+    private static final JsonNode DERPY_ELECTION = new ObjectMapper().readTree("""
+            {
+              "success": true,
+              "mayor": {
+                "name": "Derpy",
+                "perks": [
+                  {
+                    "name": "QUAD TAXES!!!",
+                    "description": "The Auction House has 4x the listing fee and tax."
+                  }
+                ]
+              }
+            }
+            """);
+
+    @Test
+    void coldLoadDerivesDerpyMultiplierOnce() {
+        HypixelConditionalClient client = mock(HypixelConditionalClient.class);
+        when(client.fetchElection(anyString(), any(), any())).thenReturn(HypixelHttpResult.success(200, HttpHeaders.EMPTY, DERPY_ELECTION));
+        ElectionStateService service = service(client, new SimpleMeterRegistry(), Duration.ofMinutes(30));
+
+        ElectionState first = service.current();
+        ElectionState second = service.current();
+
+        assertEquals(4.0D, first.auctionTaxMultiplier());
+        assertTrue(first.derpyActive());
+        assertFalse(first.partial());
+        assertEquals(first, second);
+        verify(client, times(1)).fetchElection(anyString(), any(), any());
+    }
+
+    @Test
+    void revalidatesWithEtagAndKeepsStateWhenNotModified() {
+        HypixelConditionalClient client = mock(HypixelConditionalClient.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"election-v1\"");
+        when(client.fetchElection(anyString(), any(), any())).thenReturn(HypixelHttpResult.success(200, headers, DERPY_ELECTION));
+        when(client.fetchElection(anyString(), eq("\"election-v1\""), any())).thenReturn(HypixelHttpResult.success(304, headers, null));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ElectionStateService service = service(client, meterRegistry, Duration.ofMinutes(30));
+
+        service.refresh();
+        service.refresh();
+
+        assertTrue(service.current().derpyActive());
+        assertEquals(1.0D, meterRegistry.counter("skyblock.election.refresh", "result", "not_modified").count());
+    }
+
+    @Test
+    void servesLastGoodStateWhenRefreshFailsAndMarksItPartialOnceStale() throws InterruptedException {
+        HypixelConditionalClient client = mock(HypixelConditionalClient.class);
+        when(client.fetchElection(anyString(), any(), any()))
+                .thenReturn(HypixelHttpResult.success(200, HttpHeaders.EMPTY, DERPY_ELECTION))
+                .thenReturn(HypixelHttpResult.transportError("timeout"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ElectionStateService fresh = service(client, meterRegistry, Duration.ofMinutes(30));
+
+        fresh.refresh();
+        fresh.refresh();
+
+        assertEquals(4.0D, fresh.current().auctionTaxMultiplier());
+        assertFalse(fresh.current().partial());
+        assertEquals(1.0D, meterRegistry.counter("skyblock.election.refresh", "result", "failed").count());
+
+        HypixelConditionalClient staleClient = mock(HypixelConditionalClient.class);
+        when(staleClient.fetchElection(anyString(), any(), any())).thenReturn(HypixelHttpResult.success(200, HttpHeaders.EMPTY, DERPY_ELECTION));
+        ElectionStateService stale = service(staleClient, new SimpleMeterRegistry(), Duration.ofNanos(1));
+        stale.refresh();
+        Thread.sleep(5L);
+
+        assertTrue(stale.current().partial());
+        assertEquals(4.0D, stale.current().auctionTaxMultiplier());
+    }
+
+    @Test
+    void unavailableElectionIsPartialWithStandardTax() {
+        HypixelConditionalClient client = mock(HypixelConditionalClient.class);
+        when(client.fetchElection(anyString(), any(), any())).thenReturn(HypixelHttpResult.error(503, HttpHeaders.EMPTY, "unavailable"));
+        ElectionStateService service = service(client, new SimpleMeterRegistry(), Duration.ofMinutes(30));
+
+        ElectionState state = service.current();
+
+        assertTrue(state.partial());
+        assertEquals(1.0D, state.auctionTaxMultiplier());
+    }
+
+    @Test
+    void retriesFailedColdLoadAfterBackoff() throws InterruptedException {
+        HypixelConditionalClient client = mock(HypixelConditionalClient.class);
+        when(client.fetchElection(anyString(), any(), any()))
+                .thenReturn(HypixelHttpResult.transportError("timeout"))
+                .thenReturn(HypixelHttpResult.success(200, HttpHeaders.EMPTY, DERPY_ELECTION));
+        ElectionStateService service = new ElectionStateService(
+                client, null, new SimpleMeterRegistry(), Duration.ofMinutes(30), Duration.ofMillis(20));
+
+        assertTrue(service.current().partial());
+        assertTrue(service.current().partial());
+        verify(client, times(1)).fetchElection(anyString(), any(), any());
+
+        Thread.sleep(30L);
+
+        assertTrue(service.current().derpyActive());
+        verify(client, times(2)).fetchElection(anyString(), any(), any());
+    }
+
+    @Test
+    void refreshTakesSharedLimiterTokenAndObservesQuotaHeaders() {
+        HttpHeaders quota = new HttpHeaders();
+        quota.set("RateLimit-Remaining", "0");
+        quota.set("RateLimit-Reset", "60");
+        HypixelConditionalClient client = mock(HypixelConditionalClient.class);
+        when(client.fetchElection(anyString(), any(), any())).thenReturn(HypixelHttpResult.success(200, quota, DERPY_ELECTION));
+        GlobalRequestLimiter limiter = new GlobalRequestLimiter(10.0d, 1, 0);
+        ElectionStateService service = new ElectionStateService(
+                client, limiter, new SimpleMeterRegistry(), Duration.ofMinutes(30), Duration.ofSeconds(15));
+
+        service.refresh();
+
+        assertTrue(limiter.peekDelayMillis(GlobalRequestLimiter.Priority.HIGH) > 50_000L);
+    }
+
+    private static ElectionStateService service(HypixelConditionalClient client, MeterRegistry meterRegistry, Duration maxStaleness) {
+        return new ElectionStateService(client, new GlobalRequestLimiter(100.0d, 10, 0), meterRegistry, maxStaleness, Duration.ofSeconds(15));
+    }
+}
@@ -0,0 +1,110 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.model.Flipping.Constraint;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.model.Flipping.Enums.StepType;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.Step;
+import com.skyblockflipper.backend.repository.FlipRepository;
+import com.skyblockflipper.backend.repository.FlipSnapshotMembershipRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+@SpringBootTest
+@Transactional
+class FlipBulkWriterTest {
+
+    private static final long SNAPSHOT_MILLIS = 1_771_450_200_000L;
+
+    @Autowired
+    private FlipBulkWriter flipBulkWriter;
+
+    @Autowired
+    private FlipRepository flipRepository;
+
+    @Autowired
+    private FlipSnapshotMembershipRepository membershipRepository;
+
+    @Test
+    void insertTemplatesWritesStepsAndConstraintsReadableThroughJpa() {
+        Flip flip = new Flip(null, FlipType.FORGE,
+                List.of(Step.forBuyMarketBased(60L, "{\"itemId\":\"IRON\"}"), Step.forForgeFixed(3_600L)),
+                "REFINED_MITHRIL", List.of(Constraint.minForgeSlots(1), Constraint.minCapital(50_000L)));
+
+        int inserted = flipBulkWriter.insertTemplates(List.of(flip));
+
+        assertEquals(1, inserted);
+        assertNotNull(flip.getId());
+        Flip stored = flipRepository.findAllByIdIn(List.of(flip.getId())).getFirst();
+        assertEquals(FlipType.FORGE, stored.getFlipType());
+        assertEquals(flip.computeContentHash(), stored.getContentHash());
+        assertEquals(List.of(StepType.BUY, StepType.FORGE), stored.getSteps().stream().map(Step::getType).toList());
+        assertEquals(2, stored.getConstraints().size());
+    }
+
+    @Test
+    void insertTemplatesSkipsContentThatIsAlreadyStored() {
+        Flip stored = new Flip(null, FlipType.FORGE, List.of(Step.forForgeFixed(3_600L)), "REFINED_TITANIUM",
+                List.of(Constraint.minForgeSlots(1)));
+        Flip duplicate = new Flip(null, FlipType.FORGE, List.of(Step.forForgeFixed(3_600L)), "REFINED_TITANIUM",
+                List.of(Constraint.minForgeSlots(1)));
+        flipBulkWriter.insertTemplates(List.of(stored));
+
+        int inserted = flipBulkWriter.insertTemplates(List.of(duplicate));
+
+        assertEquals(0, inserted);
+        assertEquals(Map.of(stored.getContentHash(), stored.getId()),
+                flipBulkWriter.findTemplateIdsByContentHash(List.of(duplicate.getContentHash())));
+        Flip reloaded = flipRepository.findAllByIdIn(List.of(stored.getId())).getFirst();
+        assertEquals(1, reloaded.getSteps().size());
+        assertEquals(1, reloaded.getConstraints().size());
+    }
+
+    @Test
+    void insertTemplatesRetriesAfterConcurrentInsertOfSameContent() {
+        Flip stored = new Flip(null, FlipType.FORGE, List.of(Step.forForgeFixed(7_200L)), "REFINED_UMBER",
+                List.of(Constraint.minForgeSlots(1)));
+        Flip duplicate = new Flip(null, FlipType.FORGE, List.of(Step.forForgeFixed(7_200L)), "REFINED_UMBER",
+                List.of(Constraint.minForgeSlots(1)));
+        Flip fresh = new Flip(null, FlipType.FORGE, List.of(Step.forForgeFixed(7_200L)), "REFINED_TUNGSTEN",
+                List.of());
+        flipBulkWriter.insertTemplates(List.of(stored));
+        FlipBulkWriter racing = spy(flipBulkWriter);
+        doReturn(Map.of()).doCallRealMethod().when(racing).findTemplateIdsByContentHash(anyCollection());
+
+        int inserted = racing.insertTemplates(List.of(duplicate, fresh));
+
+        assertEquals(1, inserted);
+        assertEquals(Map.of(stored.getContentHash(), stored.getId(), fresh.getContentHash(), fresh.getId()),
+                flipBulkWriter.findTemplateIdsByContentHash(List.of(duplicate.getContentHash(), fresh.getContentHash())));
+        assertEquals(1, flipRepository.findAllByIdIn(List.of(stored.getId())).getFirst().getSteps().size());
+    }
+
+    @Test
+    void insertMembershipsSplitsLargeBatches() {
+        long storedBefore = flipRepository.count();
+        List<Flip> templates = new ArrayList<>();
+        for (int i = 0; i < FlipBulkWriter.ROWS_PER_STATEMENT + 5; i++) {
+            templates.add(new Flip(null, FlipType.CRAFTING, List.of(Step.forCraftInstant(1L)), "ITEM_" + i, List.of()));
+        }
+        flipBulkWriter.insertTemplates(templates);
+
+        int inserted = flipBulkWriter.insertMemberships(SNAPSHOT_MILLIS, templates);
+
+        assertEquals(FlipBulkWriter.ROWS_PER_STATEMENT + 5, inserted);
+        assertEquals(FlipBulkWriter.ROWS_PER_STATEMENT + 5, membershipRepository.findTemplateIds(SNAPSHOT_MILLIS).size());
+        assertEquals(storedBefore + FlipBulkWriter.ROWS_PER_STATEMENT + 5, flipRepository.count());
+    }
+}
@@ -1,44 +1,57 @@
 package com.skyblockflipper.backend.service.flipping;
 
-import com.skyblockflipper.backend.hypixel.HypixelClient;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
 import com.skyblockflipper.backend.service.market.MarketTimescaleFeatureService;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketStateHolder;
 import org.junit.jupiter.api.Test;
-import tools.jackson.databind.ObjectMapper;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class FlipCalculationContextServiceTest {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
     @Test
     void marksElectionAsPartialWhenEndpointUnavailable() {
         MarketSnapshotPersistenceService marketSnapshotService = mock(MarketSnapshotPersistenceService.class);
-        HypixelClient hypixelClient = mock(HypixelClient.class);
+        ElectionStateService electionStateService = mock(ElectionStateService.class);
         UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
         MarketTimescaleFeatureService featureService = mock(MarketTimescaleFeatureService.class);
 
         MarketSnapshot snapshot = new MarketSnapshot(Instant.parse("2026-02-16T10:00:00Z"), null, null);
         when(marketSnapshotService.latest()).thenReturn(Optional.of(snapshot));
         when(featureService.computeFor(snapshot)).thenReturn(FlipScoreFeatureSet.empty());
-        when(hypixelClient.fetchElection()).thenReturn(null);
+        when(electionStateService.current()).thenReturn(ElectionState.unknown());
 
         FlipCalculationContextService service = new FlipCalculationContextService(
                 marketSnapshotService,
+                new MarketStateHolder(marketSnapshotService, inputMapper),
                 inputMapper,
                 featureService,
-                hypixelClient
+                electionStateService
         );
 
         FlipCalculationContext context = service.loadCurrentContext();
@@ -51,33 +64,21 @@ class FlipCalculationContextServiceTest {
     }
 
     @Test
-    void appliesDerpyMultiplierWhenQuadTaxesPerkIsPresent() {
+    void appliesElectionStateMultiplier() {
         MarketSnapshotPersistenceService marketSnapshotService = mock(MarketSnapshotPersistenceService.class);
-        HypixelClient hypixelClient = mock(HypixelClient.class);
+        ElectionStateService electionStateService = mock(ElectionStateService.class);
         UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
         MarketTimescaleFeatureService featureService = mock(MarketTimescaleFeatureService.class);
 
         when(marketSnapshotService.latest()).thenReturn(Optional.empty());
-        when(hypixelClient.fetchElection()).thenReturn(objectMapper.readTree("""
-                {
-                  "success": true,
-                  "mayor": {
-                    "name": "Derpy",
-                    "perks": [
-                      {
-                        "name": "QUAD TAXES!!!",
-                        "description": "The Auction House has 4x the listing fee and tax."
-                      }
-                    ]
-                  }
-                }
-                """));
+        when(electionStateService.current()).thenReturn(ElectionState.of(true, Instant.now()));
 
         FlipCalculationContextService service = new FlipCalculationContextService(
                 marketSnapshotService,
+                new MarketStateHolder(marketSnapshotService, inputMapper),
                 inputMapper,
                 featureService,
-                hypixelClient
+                electionStateService
         );
 
         FlipCalculationContext context = service.loadCurrentContext();
@@ -91,7 +92,7 @@ class FlipCalculationContextServiceTest {
     @Test
     void loadContextAsOfUsesRequestedTimestampWhenSnapshotMissing() {
         MarketSnapshotPersistenceService marketSnapshotService = mock(MarketSnapshotPersistenceService.class);
-        HypixelClient hypixelClient = mock(HypixelClient.class);
+        ElectionStateService electionStateService = mock(ElectionStateService.class);
         UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
         MarketTimescaleFeatureService featureService = mock(MarketTimescaleFeatureService.class);
         Instant asOfTimestamp = Instant.parse("2026-02-10T12:00:00Z");
@@ -100,9 +101,10 @@ class FlipCalculationContextServiceTest {
 
         FlipCalculationContextService service = new FlipCalculationContextService(
                 marketSnapshotService,
+                new MarketStateHolder(marketSnapshotService, inputMapper),
                 inputMapper,
                 featureService,
-                hypixelClient
+                electionStateService
         );
 
         FlipCalculationContext context = service.loadContextAsOf(asOfTimestamp);
@@ -112,19 +114,157 @@ class FlipCalculationContextServiceTest {
         assertEquals(1.0D, context.auctionTaxMultiplier());
     }
 
+    @Test
+    void asOfContextOfAnOlderResolvedSnapshotIsNotCached() {
+        MarketSnapshotPersistenceService marketSnapshotService = mock(MarketSnapshotPersistenceService.class);
+        UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
+        MarketTimescaleFeatureService featureService = mock(MarketTimescaleFeatureService.class);
+        Instant pendingTimestamp = Instant.parse("2026-02-10T12:01:00Z");
+        Instant storedTimestamp = Instant.parse("2026-02-10T12:00:00Z");
+        MarketSnapshot stored = new MarketSnapshot(storedTimestamp, List.of(), Map.of());
+        MarketSnapshot pending = new MarketSnapshot(pendingTimestamp, List.of(), Map.of());
+        when(marketSnapshotService.asOf(pendingTimestamp))
+                .thenReturn(Optional.of(stored))
+                .thenReturn(Optional.of(pending));
+
+        FlipCalculationContextService service = new FlipCalculationContextService(
+                marketSnapshotService,
+                new MarketStateHolder(marketSnapshotService, inputMapper),
+                inputMapper,
+                featureService,
+                mock(ElectionStateService.class)
+        );
+
+        assertEquals(storedTimestamp, service.loadContextAsOf(pendingTimestamp).marketSnapshot().snapshotTimestamp());
+        FlipCalculationContext persisted = service.loadContextAsOf(pendingTimestamp);
+
+        assertEquals(pendingTimestamp, persisted.marketSnapshot().snapshotTimestamp());
+        assertSame(persisted, service.loadContextAsOf(pendingTimestamp));
+        verify(marketSnapshotService, times(2)).asOf(pendingTimestamp);
+    }
+
+    @Test
+    void contextForInMemorySnapshotNeverResolvesAnotherSnapshot() {
+        MarketSnapshotPersistenceService marketSnapshotService = mock(MarketSnapshotPersistenceService.class);
+        UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
+        MarketTimescaleFeatureService featureService = mock(MarketTimescaleFeatureService.class);
+        Instant snapshotTimestamp = Instant.parse("2026-02-10T12:00:00Z");
+        MarketSnapshot snapshot = new MarketSnapshot(snapshotTimestamp, List.of(), Map.of());
+        UnifiedFlipInputSnapshot flipInput = new UnifiedFlipInputSnapshot(snapshotTimestamp, Map.of(), Map.of());
+        FlipScoreFeatureSet features = FlipScoreFeatureSet.empty();
+        when(featureService.computeFor(snapshot)).thenReturn(features);
+
+        FlipCalculationContextService service = new FlipCalculationContextService(
+                marketSnapshotService,
+                new MarketStateHolder(marketSnapshotService, inputMapper),
+                inputMapper,
+                featureService,
+                mock(ElectionStateService.class)
+        );
+
+        FlipCalculationContext context = service.loadContextFor(snapshot, flipInput);
+
+        assertSame(flipInput, context.marketSnapshot());
+        assertSame(features, context.scoreFeatureSet());
+        assertSame(context, service.loadContextAsOf(snapshotTimestamp));
+        verify(marketSnapshotService, never()).asOf(any());
+    }
+
     @Test
     void loadContextAsOfRejectsNullTimestamp() {
         MarketSnapshotPersistenceService marketSnapshotService = mock(MarketSnapshotPersistenceService.class);
-        HypixelClient hypixelClient = mock(HypixelClient.class);
+        ElectionStateService electionStateService = mock(ElectionStateService.class);
         UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
         MarketTimescaleFeatureService featureService = mock(MarketTimescaleFeatureService.class);
         FlipCalculationContextService service = new FlipCalculationContextService(
                 marketSnapshotService,
+                new MarketStateHolder(marketSnapshotService, inputMapper),
                 inputMapper,
                 featureService,
-                hypixelClient
+                electionStateService
         );
 
         assertThrows(NullPointerException.class, () -> service.loadContextAsOf(null));
     }
+
+    @Test
+    void concurrentAsOfLoadsForTheSameSnapshotBuildOnce() throws Exception {
+        MarketSnapshotPersistenceService marketSnapshotService = mock(MarketSnapshotPersistenceService.class);
+        ElectionStateService electionStateService = mock(ElectionStateService.class);
+        UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
+        MarketTimescaleFeatureService featureService = mock(MarketTimescaleFeatureService.class);
+        Instant asOfTimestamp = Instant.parse("2026-02-10T12:00:00Z");
+        MarketSnapshot snapshot = new MarketSnapshot(asOfTimestamp, null, null);
+        CountDownLatch buildStarted = new CountDownLatch(1);
+        CountDownLatch releaseBuild = new CountDownLatch(1);
+
+        when(marketSnapshotService.asOf(asOfTimestamp)).thenReturn(Optional.of(snapshot));
+        when(featureService.computeFor(snapshot)).thenAnswer(invocation -> {
+            buildStarted.countDown();
+            releaseBuild.await(5, TimeUnit.SECONDS);
+            return FlipScoreFeatureSet.empty();
+        });
+
+        FlipCalculationContextService service = new FlipCalculationContextService(
+                marketSnapshotService,
+                new MarketStateHolder(marketSnapshotService, inputMapper),
+                inputMapper,
+                featureService,
+                electionStateService
+        );
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<FlipCalculationContext>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> service.loadContextAsOf(asOfTimestamp)));
+            assertTrue(buildStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit(() -> service.loadContextAsOf(asOfTimestamp)));
+            }
+            releaseBuild.countDown();
+
+            FlipCalculationContext first = futures.getFirst().get(5, TimeUnit.SECONDS);
+            for (Future<FlipCalculationContext> future : futures) {
+                assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(featureService, times(1)).computeFor(snapshot);
+        verify(marketSnapshotService, times(1)).asOf(asOfTimestamp);
+    }
+
+    @Test
+    void currentContextIsRebuiltOnlyAfterNewSnapshotIsPublished() {
+        MarketSnapshotPersistenceService marketSnapshotService = mock(MarketSnapshotPersistenceService.class);
+        ElectionStateService electionStateService = mock(ElectionStateService.class);
+        UnifiedFlipInputMapper inputMapper = new UnifiedFlipInputMapper();
+        MarketTimescaleFeatureService featureService = mock(MarketTimescaleFeatureService.class);
+        MarketStateHolder marketStateHolder = new MarketStateHolder(marketSnapshotService, inputMapper);
+        MarketSnapshot first = new MarketSnapshot(Instant.parse("2026-02-16T10:00:00Z"), null, null);
+        MarketSnapshot second = new MarketSnapshot(Instant.parse("2026-02-16T10:00:20Z"), null, null);
+
+        when(featureService.computeFor(any(MarketSnapshot.class))).thenReturn(FlipScoreFeatureSet.empty());
+        when(electionStateService.current()).thenReturn(ElectionState.of(false, Instant.now()));
+
+        FlipCalculationContextService service = new FlipCalculationContextService(
+                marketSnapshotService,
+                marketStateHolder,
+                inputMapper,
+                featureService,
+                electionStateService
+        );
+
+        marketStateHolder.publish(first, null);
+        FlipCalculationContext initial = service.loadCurrentContext();
+        assertSame(initial, service.loadCurrentContext());
+
+        marketStateHolder.publish(second, null);
+        FlipCalculationContext refreshed = service.loadCurrentContext();
+
+        assertNotSame(initial, refreshed);
+        assertEquals(second.snapshotTimestamp(), refreshed.marketSnapshot().snapshotTimestamp());
+        verify(featureService, times(1)).computeFor(first);
+        verify(featureService, times(1)).computeFor(second);
+    }
 }
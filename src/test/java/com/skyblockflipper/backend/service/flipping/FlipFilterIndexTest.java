@@ -0,0 +1,108 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlipFilterIndexTest {
+
+    @Test
+    void bitmapFilterMatchesRowByRowScanForRandomCriteria() {
+        SplittableRandom random = new SplittableRandom(7L);
+        int size = 1_000;
+        FlipType[] types = new FlipType[size];
+        boolean[] partials = new boolean[size];
+        double[] liquidity = new double[size];
+        double[] risk = new double[size];
+        double[] roi = new double[size];
+        double[] roiPerHour = new double[size];
+        long[] profit = new long[size];
+        long[] capital = new long[size];
+        for (int row = 0; row < size; row++) {
+            types[row] = FlipType.values()[random.nextInt(FlipType.values().length)];
+            partials[row] = random.nextInt(4) == 0;
+            liquidity[row] = randomDouble(random, 100.0D);
+            risk[row] = randomDouble(random, 100.0D);
+            roi[row] = randomDouble(random, 2.0D);
+            roiPerHour[row] = randomDouble(random, 0.5D);
+            profit[row] = randomLong(random, 1_000_000L);
+            capital[row] = randomLong(random, 10_000_000L);
+        }
+        FlipFilterIndex index = FlipFilterIndex.of(types, partials, liquidity, risk, roi, roiPerHour, profit, capital);
+
+        for (int round = 0; round < 200; round++) {
+            FlipType type = random.nextBoolean() ? null : types[random.nextInt(size)];
+            FlipMetricsCriteria criteria = new FlipMetricsCriteria(
+                    random.nextBoolean() ? null : random.nextDouble(100.0D),
+                    random.nextBoolean() ? null : random.nextDouble(100.0D),
+                    random.nextBoolean() ? null : random.nextLong(1_000_000L),
+                    random.nextBoolean() ? null : random.nextDouble(2.0D),
+                    random.nextInt(3) == 0 ? liquidity[random.nextInt(size)] : null,
+                    random.nextBoolean() ? null : random.nextLong(10_000_000L),
+                    random.nextInt(3) == 0 ? random.nextBoolean() : null
+            );
+
+            long[] matches = index.matching(type, criteria);
+            if (type == null && criteria.equals(FlipMetricsCriteria.none())) {
+                assertNull(matches);
+                continue;
+            }
+            int expectedCount = 0;
+            for (int row = 0; row < size; row++) {
+                boolean expected = (type == null || types[row] == type)
+                        && (criteria.minLiquidityScore() == null || liquidity[row] >= criteria.minLiquidityScore())
+                        && (criteria.maxRiskScore() == null || risk[row] <= criteria.maxRiskScore())
+                        && (criteria.minExpectedProfit() == null
+                        || (profit[row] != FlipView.NULL_LONG && profit[row] >= criteria.minExpectedProfit()))
+                        && (criteria.minRoi() == null || roi[row] >= criteria.minRoi())
+                        && (criteria.minRoiPerHour() == null || roiPerHour[row] >= criteria.minRoiPerHour())
+                        && (criteria.maxRequiredCapital() == null
+                        || (capital[row] != FlipView.NULL_LONG && capital[row] <= criteria.maxRequiredCapital()))
+                        && (criteria.partial() == null || partials[row] == criteria.partial());
+                assertEquals(expected, FlipFilterIndex.contains(matches, row), "row " + row + " in round " + round);
+                if (expected) {
+                    expectedCount++;
+                }
+            }
+            assertEquals(expectedCount, FlipFilterIndex.cardinality(matches));
+        }
+    }
+
+    @Test
+    void missingValuesNeverMatchAThresholdAndBoundsAreInclusive() {
+        FlipType[] types = {FlipType.BAZAAR, FlipType.BAZAAR, FlipType.AUCTION};
+        boolean[] partials = {false, true, false};
+        double[] missing = {Double.NaN, Double.NaN, Double.NaN};
+        long[] profit = {100L, FlipView.NULL_LONG, 250L};
+        long[] capital = {FlipView.NULL_LONG, FlipView.NULL_LONG, FlipView.NULL_LONG};
+        FlipFilterIndex index = FlipFilterIndex.of(types, partials, missing, missing, missing, missing, profit, capital);
+
+        long[] profitable = index.matching(null, new FlipMetricsCriteria(null, null, 100L, null, null, null, null));
+        assertTrue(FlipFilterIndex.contains(profitable, 0));
+        assertFalse(FlipFilterIndex.contains(profitable, 1));
+        assertTrue(FlipFilterIndex.contains(profitable, 2));
+
+        long[] liquid = index.matching(null, new FlipMetricsCriteria(0.0D, null, null, null, null, null, null));
+        assertEquals(0, FlipFilterIndex.cardinality(liquid));
+
+        long[] bazaarComplete = index.matching(FlipType.BAZAAR, new FlipMetricsCriteria(null, null, null, null, null, null, false));
+        assertEquals(1, FlipFilterIndex.cardinality(bazaarComplete));
+        assertTrue(FlipFilterIndex.contains(bazaarComplete, 0));
+
+        assertEquals(0, FlipFilterIndex.cardinality(index.matching(FlipType.FORGE, null)));
+    }
+
+    private static double randomDouble(SplittableRandom random, double bound) {
+        return random.nextInt(10) == 0 ? Double.NaN : random.nextDouble(bound);
+    }
+
+    private static long randomLong(SplittableRandom random, long bound) {
+        return random.nextInt(10) == 0 ? FlipView.NULL_LONG : random.nextLong(bound);
+    }
+}
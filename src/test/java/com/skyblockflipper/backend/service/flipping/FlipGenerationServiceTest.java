@@ -9,7 +9,6 @@ import com.skyblockflipper.backend.model.Flipping.Recipe.RecipeProcessType;
 import com.skyblockflipper.backend.model.Flipping.Recipe.RecipeToFlipMapper;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.repository.RecipeRepository;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
 import org.junit.jupiter.api.Test;
@@ -19,11 +18,13 @@ import org.springframework.data.domain.Sort;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -33,27 +34,26 @@ class FlipGenerationServiceTest {
 
     @Test
     void generateIfMissingSkipsWhenSnapshotAlreadyGenerated() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         RecipeRepository recipeRepository = mock(RecipeRepository.class);
         RecipeToFlipMapper mapper = mock(RecipeToFlipMapper.class);
-        FlipGenerationService service = new FlipGenerationService(flipRepository, recipeRepository, mapper);
+        FlipGenerationService service = new FlipGenerationService(flipTemplateStore, recipeRepository, mapper);
         Instant snapshot = Instant.parse("2026-02-18T21:30:00Z");
 
-        when(flipRepository.existsBySnapshotTimestampEpochMillis(snapshot.toEpochMilli())).thenReturn(true);
+        when(flipTemplateStore.existsBySnapshotTimestampEpochMillis(snapshot.toEpochMilli())).thenReturn(true);
 
         FlipGenerationService.GenerationResult result = service.generateIfMissingForSnapshot(snapshot);
 
         assertTrue(result.noOp());
-        verify(flipRepository, never()).saveAll(any());
-        verify(flipRepository, never()).deleteBySnapshotTimestampEpochMillis(anyLong());
+        verify(flipTemplateStore, never()).replaceSnapshot(anyLong(), any());
     }
 
     @Test
     void generateIfMissingMapsRecipesAndPersistsFlipsForSnapshot() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         RecipeRepository recipeRepository = mock(RecipeRepository.class);
         RecipeToFlipMapper mapper = mock(RecipeToFlipMapper.class);
-        FlipGenerationService service = new FlipGenerationService(flipRepository, recipeRepository, mapper);
+        FlipGenerationService service = new FlipGenerationService(flipTemplateStore, recipeRepository, mapper);
         Instant snapshot = Instant.parse("2026-02-18T21:30:00Z");
 
         Item outputItem = Item.builder().id("ENCHANTED_HAY_BALE").build();
@@ -66,7 +66,7 @@ class FlipGenerationServiceTest {
         );
         Flip mappedFlip = new Flip(null, FlipType.CRAFTING, List.of(), "ENCHANTED_HAY_BALE", List.of());
 
-        when(flipRepository.existsBySnapshotTimestampEpochMillis(snapshot.toEpochMilli())).thenReturn(false);
+        when(flipTemplateStore.existsBySnapshotTimestampEpochMillis(snapshot.toEpochMilli())).thenReturn(false);
         when(recipeRepository.findAll(any(Sort.class))).thenReturn(List.of(recipe));
         when(mapper.fromRecipe(recipe)).thenReturn(mappedFlip);
 
@@ -74,22 +74,19 @@ class FlipGenerationServiceTest {
 
         assertEquals(1, result.generatedCount());
         assertEquals(0, result.skippedCount());
-        assertEquals(snapshot.toEpochMilli(), mappedFlip.getSnapshotTimestampEpochMillis());
 
         @SuppressWarnings("unchecked")
         ArgumentCaptor<List<Flip>> savedFlipsCaptor = ArgumentCaptor.forClass(List.class);
-        verify(flipRepository).deleteBySnapshotTimestampEpochMillis(snapshot.toEpochMilli());
-        verify(flipRepository).saveAll(savedFlipsCaptor.capture());
-        assertEquals(1, savedFlipsCaptor.getValue().size());
-        assertEquals(snapshot.toEpochMilli(), savedFlipsCaptor.getValue().getFirst().getSnapshotTimestampEpochMillis());
+        verify(flipTemplateStore).replaceSnapshot(eq(snapshot.toEpochMilli()), savedFlipsCaptor.capture());
+        assertEquals(List.of(mappedFlip), savedFlipsCaptor.getValue());
     }
 
     @Test
     void regenerateForSnapshotDoesNotDeleteWhenRecipesAreEmpty() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         RecipeRepository recipeRepository = mock(RecipeRepository.class);
         RecipeToFlipMapper mapper = mock(RecipeToFlipMapper.class);
-        FlipGenerationService service = new FlipGenerationService(flipRepository, recipeRepository, mapper);
+        FlipGenerationService service = new FlipGenerationService(flipTemplateStore, recipeRepository, mapper);
         Instant snapshot = Instant.parse("2026-02-18T21:30:00Z");
 
         when(recipeRepository.findAll(any(Sort.class))).thenReturn(List.of());
@@ -97,13 +94,12 @@ class FlipGenerationServiceTest {
         FlipGenerationService.GenerationResult result = service.regenerateForSnapshot(snapshot);
 
         assertTrue(result.noOp());
-        verify(flipRepository, never()).deleteBySnapshotTimestampEpochMillis(anyLong());
-        verify(flipRepository, never()).saveAll(any());
+        verify(flipTemplateStore, never()).replaceSnapshot(anyLong(), any());
     }
 
     @Test
     void regenerateForSnapshotIncludesMarketGeneratedFlips() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         RecipeRepository recipeRepository = mock(RecipeRepository.class);
         RecipeToFlipMapper recipeMapper = mock(RecipeToFlipMapper.class);
         MarketSnapshotPersistenceService snapshotPersistenceService = mock(MarketSnapshotPersistenceService.class);
@@ -111,7 +107,7 @@ class FlipGenerationServiceTest {
         MarketFlipMapper marketFlipMapper = mock(MarketFlipMapper.class);
 
         FlipGenerationService service = new FlipGenerationService(
-                flipRepository,
+                flipTemplateStore,
                 recipeRepository,
                 recipeMapper,
                 snapshotPersistenceService,
@@ -131,8 +127,69 @@ class FlipGenerationServiceTest {
         FlipGenerationService.GenerationResult result = service.regenerateForSnapshot(snapshotTimestamp);
 
         assertEquals(1, result.generatedCount());
-        assertEquals(snapshotTimestamp.toEpochMilli(), marketFlip.getSnapshotTimestampEpochMillis());
-        verify(flipRepository).deleteBySnapshotTimestampEpochMillis(snapshotTimestamp.toEpochMilli());
-        verify(flipRepository).saveAll(List.of(marketFlip));
+        verify(flipTemplateStore).replaceSnapshot(snapshotTimestamp.toEpochMilli(), List.of(marketFlip));
+    }
+
+    @Test
+    void generateIfMissingFromInputSnapshotDoesNotReloadFromDatabase() {
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        RecipeToFlipMapper recipeMapper = mock(RecipeToFlipMapper.class);
+        MarketSnapshotPersistenceService snapshotPersistenceService = mock(MarketSnapshotPersistenceService.class);
+        UnifiedFlipInputMapper inputMapper = mock(UnifiedFlipInputMapper.class);
+        MarketFlipMapper marketFlipMapper = mock(MarketFlipMapper.class);
+
+        FlipGenerationService service = new FlipGenerationService(
+                flipTemplateStore,
+                recipeRepository,
+                recipeMapper,
+                snapshotPersistenceService,
+                inputMapper,
+                marketFlipMapper
+        );
+        Instant snapshotTimestamp = Instant.parse("2026-02-18T21:30:00Z");
+        MarketSnapshot marketSnapshot = new MarketSnapshot(snapshotTimestamp, List.of(), Map.of());
+        UnifiedFlipInputSnapshot inputSnapshot = new UnifiedFlipInputSnapshot(snapshotTimestamp, Map.of(), Map.of());
+        Flip marketFlip = new Flip(null, FlipType.BAZAAR, List.of(), "ENCHANTED_SUGAR", List.of());
+
+        when(recipeRepository.findAll(any(Sort.class))).thenReturn(List.of());
+        when(marketFlipMapper.fromMarketSnapshot(inputSnapshot)).thenReturn(List.of(marketFlip));
+
+        FlipGenerationService.GenerationResult result = service.generateIfMissingForSnapshot(marketSnapshot, inputSnapshot);
+
+        assertEquals(1, result.generatedCount());
+        verify(snapshotPersistenceService, never()).asOf(any());
+        verify(flipTemplateStore).replaceSnapshot(snapshotTimestamp.toEpochMilli(), List.of(marketFlip));
+    }
+
+    @Test
+    void metricsOfInMemorySnapshotAreComputedFromThatSnapshot() {
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+        MarketFlipMapper marketFlipMapper = mock(MarketFlipMapper.class);
+        FlipMetricsCalculator metricsCalculator = mock(FlipMetricsCalculator.class);
+        FlipGenerationService service = new FlipGenerationService(
+                flipTemplateStore,
+                recipeRepository,
+                mock(RecipeToFlipMapper.class),
+                mock(MarketSnapshotPersistenceService.class),
+                mock(UnifiedFlipInputMapper.class),
+                marketFlipMapper,
+                metricsCalculator
+        );
+        Instant snapshotTimestamp = Instant.parse("2026-02-18T21:30:00Z");
+        MarketSnapshot marketSnapshot = new MarketSnapshot(snapshotTimestamp, List.of(), Map.of());
+        UnifiedFlipInputSnapshot inputSnapshot = new UnifiedFlipInputSnapshot(snapshotTimestamp, Map.of(), Map.of());
+        Flip marketFlip = new Flip(null, FlipType.BAZAAR, List.of(), "ENCHANTED_SUGAR", List.of());
+        Function<Flip, FlipMetrics> metrics = flip -> null;
+
+        when(recipeRepository.findAll(any(Sort.class))).thenReturn(List.of());
+        when(marketFlipMapper.fromMarketSnapshot(inputSnapshot)).thenReturn(List.of(marketFlip));
+        when(metricsCalculator.forSnapshot(marketSnapshot, inputSnapshot)).thenReturn(metrics);
+
+        service.generateIfMissingForSnapshot(marketSnapshot, inputSnapshot);
+
+        verify(flipTemplateStore).replaceSnapshot(snapshotTimestamp.toEpochMilli(), List.of(marketFlip), metrics);
+        verify(metricsCalculator, never()).forSnapshot(any(Instant.class));
     }
 }
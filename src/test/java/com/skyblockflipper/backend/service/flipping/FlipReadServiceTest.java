@@ -1,12 +1,13 @@
 package com.skyblockflipper.backend.service.flipping;
 
+import com.skyblockflipper.backend.api.CursorPageDto;
 import com.skyblockflipper.backend.api.FlipCoverageDto;
 import com.skyblockflipper.backend.api.FlipGoodnessDto;
 import com.skyblockflipper.backend.api.FlipSortBy;
+import com.skyblockflipper.backend.api.PageCursor;
 import com.skyblockflipper.backend.api.UnifiedFlipDto;
 import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
 import com.skyblockflipper.backend.model.Flipping.Flip;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -21,11 +22,19 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -34,16 +43,16 @@ class FlipReadServiceTest {
 
     @Test
     void listFlipsWithoutTypeFilterUsesFindAll() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
         FlipCalculationContext context = FlipCalculationContext.standard(null);
 
         Flip flip = mock(Flip.class);
         UnifiedFlipDto dto = sampleDto();
         Pageable pageable = PageRequest.of(0, 20);
-        when(flipRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(flip)));
+        when(flipTemplateStore.findAll(pageable)).thenReturn(new PageImpl<>(List.of(flip)));
         when(contextService.loadCurrentContext()).thenReturn(context);
         when(mapper.toDto(flip, context)).thenReturn(dto);
 
@@ -51,23 +60,23 @@ class FlipReadServiceTest {
 
         assertEquals(1, result.getTotalElements());
         assertEquals(dto, result.getContent().getFirst());
-        verify(flipRepository).findAll(pageable);
+        verify(flipTemplateStore).findAll(pageable);
         verify(contextService).loadCurrentContext();
         verify(mapper).toDto(flip, context);
     }
 
     @Test
     void listFlipsWithTypeFilterUsesTypeQuery() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
         FlipCalculationContext context = FlipCalculationContext.standard(null);
 
         Flip flip = mock(Flip.class);
         UnifiedFlipDto dto = sampleDto();
         Pageable pageable = PageRequest.of(1, 10);
-        when(flipRepository.findAllByFlipType(FlipType.BAZAAR, pageable)).thenReturn(new PageImpl<>(List.of(flip)));
+        when(flipTemplateStore.findAllByFlipType(FlipType.BAZAAR, pageable)).thenReturn(new PageImpl<>(List.of(flip)));
         when(contextService.loadCurrentContext()).thenReturn(context);
         when(mapper.toDto(flip, context)).thenReturn(dto);
 
@@ -75,23 +84,23 @@ class FlipReadServiceTest {
 
         assertEquals(1, result.getTotalElements());
         assertEquals(dto, result.getContent().getFirst());
-        verify(flipRepository).findAllByFlipType(FlipType.BAZAAR, pageable);
+        verify(flipTemplateStore).findAllByFlipType(FlipType.BAZAAR, pageable);
         verify(contextService).loadCurrentContext();
         verify(mapper).toDto(flip, context);
     }
 
     @Test
     void findFlipByIdMapsEntityWhenPresent() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
         FlipCalculationContext context = FlipCalculationContext.standard(null);
 
         UUID id = UUID.randomUUID();
         Flip flip = mock(Flip.class);
         UnifiedFlipDto dto = sampleDto();
-        when(flipRepository.findById(id)).thenReturn(Optional.of(flip));
+        when(flipTemplateStore.findById(id)).thenReturn(Optional.of(flip));
         when(flip.getSnapshotTimestampEpochMillis()).thenReturn(null);
         when(contextService.loadCurrentContext()).thenReturn(context);
         when(mapper.toDto(flip, context)).thenReturn(dto);
@@ -100,42 +109,42 @@ class FlipReadServiceTest {
 
         assertTrue(result.isPresent());
         assertEquals(dto, result.get());
-        verify(flipRepository).findById(id);
+        verify(flipTemplateStore).findById(id);
         verify(contextService).loadCurrentContext();
         verify(mapper).toDto(flip, context);
     }
 
     @Test
     void findFlipByIdReturnsEmptyWhenMissing() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
 
         UUID id = UUID.randomUUID();
-        when(flipRepository.findById(id)).thenReturn(Optional.empty());
+        when(flipTemplateStore.findById(id)).thenReturn(Optional.empty());
 
         Optional<UnifiedFlipDto> result = service.findFlipById(id);
 
         assertTrue(result.isEmpty());
-        verify(flipRepository).findById(id);
+        verify(flipTemplateStore).findById(id);
         verify(contextService, never()).loadCurrentContext();
         verifyNoInteractions(mapper);
     }
 
     @Test
     void findFlipByIdUsesSnapshotBoundContextWhenSnapshotTimestampExists() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
         FlipCalculationContext context = FlipCalculationContext.standard(null);
 
         UUID id = UUID.randomUUID();
         Flip flip = mock(Flip.class);
         Instant snapshotTimestamp = Instant.parse("2026-02-18T21:00:00Z");
         UnifiedFlipDto dto = sampleDto();
-        when(flipRepository.findById(id)).thenReturn(Optional.of(flip));
+        when(flipTemplateStore.findById(id)).thenReturn(Optional.of(flip));
         when(flip.getSnapshotTimestampEpochMillis()).thenReturn(snapshotTimestamp.toEpochMilli());
         when(contextService.loadContextAsOf(snapshotTimestamp)).thenReturn(context);
         when(mapper.toDto(flip, context)).thenReturn(dto);
@@ -150,10 +159,10 @@ class FlipReadServiceTest {
 
     @Test
     void listSupportedFlipTypesReturnsSortedEnumValues() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
 
         List<FlipType> expected = Arrays.stream(FlipType.values())
                 .sorted((a, b) -> a.name().compareTo(b.name()))
@@ -164,14 +173,14 @@ class FlipReadServiceTest {
 
     @Test
     void snapshotStatsUsesLatestSnapshotWhenNoTimestampProvided() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
         long snapshotEpochMillis = Instant.parse("2026-02-19T20:00:00Z").toEpochMilli();
 
-        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(snapshotEpochMillis));
-        when(flipRepository.countByFlipTypeForSnapshot(snapshotEpochMillis))
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(snapshotEpochMillis));
+        when(flipTemplateStore.countByFlipTypeForSnapshot(snapshotEpochMillis))
                 .thenReturn(List.of(new Object[]{FlipType.AUCTION, 2L}, new Object[]{FlipType.BAZAAR, 3L}));
 
         var stats = service.snapshotStats(null);
@@ -184,12 +193,12 @@ class FlipReadServiceTest {
 
     @Test
     void snapshotStatsReturnsEmptyCountsWhenNoSnapshotsExist() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
 
-        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.empty());
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.empty());
 
         var stats = service.snapshotStats(null);
 
@@ -201,14 +210,14 @@ class FlipReadServiceTest {
 
     @Test
     void flipTypeCoverageUsesLatestSnapshotCounts() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
 
         long snapshotEpochMillis = Instant.parse("2026-02-19T20:00:00Z").toEpochMilli();
-        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(snapshotEpochMillis));
-        when(flipRepository.countByFlipTypeForSnapshot(snapshotEpochMillis)).thenReturn(List.of(
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(snapshotEpochMillis));
+        when(flipTemplateStore.countByFlipTypeForSnapshot(snapshotEpochMillis)).thenReturn(List.of(
                 new Object[]{FlipType.AUCTION, 3L},
                 new Object[]{FlipType.BAZAAR, 5L},
                 new Object[]{FlipType.CRAFTING, 7L},
@@ -239,12 +248,12 @@ class FlipReadServiceTest {
 
     @Test
     void flipTypeCoverageReturnsZeroCountsWhenSnapshotMissing() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
 
-        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.empty());
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.empty());
 
         FlipCoverageDto result = service.flipTypeCoverage();
 
@@ -256,10 +265,10 @@ class FlipReadServiceTest {
 
     @Test
     void filterFlipsAppliesThresholdsAndSortsByLiquidity() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
 
         Instant snapshotTimestamp = Instant.parse("2026-02-19T20:00:00Z");
         FlipCalculationContext context = FlipCalculationContext.standard(null);
@@ -267,7 +276,7 @@ class FlipReadServiceTest {
         Flip flipB = mock(Flip.class);
         Flip flipC = mock(Flip.class);
 
-        when(flipRepository.findAllBySnapshotTimestampEpochMillis(snapshotTimestamp.toEpochMilli(), Pageable.unpaged()))
+        when(flipTemplateStore.findAllBySnapshotTimestampEpochMillis(snapshotTimestamp.toEpochMilli(), Pageable.unpaged()))
                 .thenReturn(new PageImpl<>(List.of(flipA, flipB, flipC)));
         when(contextService.loadContextAsOf(snapshotTimestamp)).thenReturn(context);
 
@@ -295,17 +304,60 @@ class FlipReadServiceTest {
         assertEquals(UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc"), result.getContent().get(1).id());
     }
 
+    @Test
+    void filterFlipsPushesCriteriaIntoStoreWhenMetricsAreMaterialized() {
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
+        UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
+
+        Instant snapshotTimestamp = Instant.parse("2026-02-19T20:00:00Z");
+        long snapshotEpochMillis = snapshotTimestamp.toEpochMilli();
+        FlipCalculationContext context = FlipCalculationContext.standard(null);
+        Flip flip = mock(Flip.class);
+        UnifiedFlipDto dto = sampleScoredDto(UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa"), 95.0D, 10.0D, 2_000_000L);
+        Pageable pageable = PageRequest.of(2, 1);
+        FlipMetricsCriteria criteria = new FlipMetricsCriteria(90.0D, 20.0D, 1_000_000L, null, null, null, false);
+
+        when(flipTemplateStore.hasMaterializedMetrics(snapshotEpochMillis)).thenReturn(true);
+        when(flipTemplateStore.findBySnapshotMetrics(snapshotEpochMillis, FlipType.BAZAAR, criteria,
+                FlipSortBy.LIQUIDITY_SCORE, Sort.Direction.DESC, pageable))
+                .thenReturn(new PageImpl<>(List.of(flip), pageable, 7));
+        when(contextService.loadContextAsOf(snapshotTimestamp)).thenReturn(context);
+        when(mapper.toDto(flip, context)).thenReturn(dto);
+
+        Page<UnifiedFlipDto> result = service.filterFlips(
+                FlipType.BAZAAR,
+                snapshotTimestamp,
+                90.0D,
+                20.0D,
+                1_000_000L,
+                null,
+                null,
+                null,
+                false,
+                FlipSortBy.LIQUIDITY_SCORE,
+                Sort.Direction.DESC,
+                pageable
+        );
+
+        assertEquals(7, result.getTotalElements());
+        assertEquals(List.of(dto), result.getContent());
+        verify(flipTemplateStore, never()).findAllByFlipTypeAndSnapshotTimestampEpochMillis(
+                FlipType.BAZAAR, snapshotEpochMillis, Pageable.unpaged());
+    }
+
     @Test
     void topLiquidityFlipsSortsDescendingLiquidity() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
         FlipCalculationContext context = FlipCalculationContext.standard(null);
 
         Flip flipA = mock(Flip.class);
         Flip flipB = mock(Flip.class);
-        when(flipRepository.findAllByFlipType(FlipType.AUCTION, Pageable.unpaged()))
+        when(flipTemplateStore.findAllByFlipType(FlipType.AUCTION, Pageable.unpaged()))
                 .thenReturn(new PageImpl<>(List.of(flipA, flipB)));
         when(contextService.loadCurrentContext()).thenReturn(context);
         when(mapper.toDto(flipA, context)).thenReturn(sampleScoredDto(UUID.fromString("dddddddd-dddd-dddd-dddd-dddddddddddd"), 70.0D, 15.0D, 1_500_000L));
@@ -320,15 +372,15 @@ class FlipReadServiceTest {
 
     @Test
     void lowestRiskFlipsSortsAscendingRisk() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
         FlipCalculationContext context = FlipCalculationContext.standard(null);
 
         Flip flipA = mock(Flip.class);
         Flip flipB = mock(Flip.class);
-        when(flipRepository.findAllByFlipType(FlipType.BAZAAR, Pageable.unpaged()))
+        when(flipTemplateStore.findAllByFlipType(FlipType.BAZAAR, Pageable.unpaged()))
                 .thenReturn(new PageImpl<>(List.of(flipA, flipB)));
         when(contextService.loadCurrentContext()).thenReturn(context);
         when(mapper.toDto(flipA, context)).thenReturn(sampleScoredDto(UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff"), 60.0D, 8.0D, 1_500_000L));
@@ -343,16 +395,16 @@ class FlipReadServiceTest {
 
     @Test
     void topGoodnessFlipsRanksByComputedGoodness() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
         FlipCalculationContext context = FlipCalculationContext.standard(null);
 
         Flip flipHigh = mock(Flip.class);
         Flip flipMid = mock(Flip.class);
         Flip flipLowPenalty = mock(Flip.class);
-        when(flipRepository.findAll(Pageable.unpaged())).thenReturn(new PageImpl<>(List.of(flipHigh, flipMid, flipLowPenalty)));
+        when(flipTemplateStore.findAll(Pageable.unpaged())).thenReturn(new PageImpl<>(List.of(flipHigh, flipMid, flipLowPenalty)));
         when(contextService.loadCurrentContext()).thenReturn(context);
 
         when(mapper.toDto(flipHigh, context)).thenReturn(sampleGoodnessDto(
@@ -380,17 +432,17 @@ class FlipReadServiceTest {
 
     @Test
     void topGoodnessFlipsUsesFixedPageSizeTen() {
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        FlipReadService service = new FlipReadService(flipRepository, mapper, contextService);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
         FlipCalculationContext context = FlipCalculationContext.standard(null);
 
         List<Flip> flips = new ArrayList<>();
         for (int i = 0; i < 12; i++) {
             flips.add(mock(Flip.class));
         }
-        when(flipRepository.findAllByFlipType(FlipType.BAZAAR, Pageable.unpaged()))
+        when(flipTemplateStore.findAllByFlipType(FlipType.BAZAAR, Pageable.unpaged()))
                 .thenReturn(new PageImpl<>(flips));
         when(contextService.loadCurrentContext()).thenReturn(context);
         for (int i = 0; i < flips.size(); i++) {
@@ -408,6 +460,159 @@ class FlipReadServiceTest {
         assertEquals(2, secondPage.getContent().size());
     }
 
+    @Test
+    void snapshotReadsAreServedFromOneRankedViewUntilMembershipsChange() {
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
+        UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
+
+        long snapshotEpochMillis = Instant.parse("2026-02-19T20:00:00Z").toEpochMilli();
+        FlipCalculationContext context = FlipCalculationContext.standard(null);
+        Flip flipA = mock(Flip.class);
+        Flip flipB = mock(Flip.class);
+        Flip flipC = mock(Flip.class);
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(snapshotEpochMillis));
+        when(flipTemplateStore.findAllBySnapshotTimestampEpochMillis(snapshotEpochMillis, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(List.of(flipA, flipB, flipC)));
+        when(contextService.loadContextAsOf(Instant.ofEpochMilli(snapshotEpochMillis))).thenReturn(context);
+        when(mapper.toDto(flipA, context)).thenReturn(sampleScoredDto(UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa"), 95.0D, 10.0D, 2_000_000L));
+        when(mapper.toDto(flipB, context)).thenReturn(sampleScoredDto(UUID.fromString("bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb"), null, 50.0D, null));
+        when(mapper.toDto(flipC, context)).thenReturn(sampleScoredDto(UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc"), 92.0D, 12.0D, 3_000_000L));
+
+        Page<UnifiedFlipDto> byLiquidity = service.topLiquidityFlips(null, null, PageRequest.of(1, 1));
+        List<UnifiedFlipDto> top = service.topFlips(FlipType.BAZAAR, null, null, null, 1L, null, null, null, null, 5);
+        Page<UnifiedFlipDto> byRiskAscending = service.lowestRiskFlips(FlipType.AUCTION, null, PageRequest.of(0, 10));
+
+        assertEquals(3, byLiquidity.getTotalElements());
+        assertEquals(UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc"), byLiquidity.getContent().getFirst().id());
+        assertEquals(List.of(UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc"),
+                UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa")), top.stream().map(UnifiedFlipDto::id).toList());
+        assertEquals(0, byRiskAscending.getTotalElements());
+        verify(mapper, times(1)).toDto(flipA, context);
+
+        when(flipTemplateStore.membershipVersion(snapshotEpochMillis - 60_000L)).thenReturn(1L);
+        service.topLiquidityFlips(null, null, PageRequest.of(0, 1));
+        verify(mapper, times(1)).toDto(flipA, context);
+
+        when(flipTemplateStore.membershipVersion(snapshotEpochMillis)).thenReturn(2L);
+        Page<UnifiedFlipDto> lastByLiquidity = service.topLiquidityFlips(null, null, PageRequest.of(2, 1));
+
+        assertEquals(UUID.fromString("bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb"), lastByLiquidity.getContent().getFirst().id());
+        verify(mapper, times(2)).toDto(flipA, context);
+    }
+
+    @Test
+    void concurrentReadersOfOneSnapshotShareASingleViewBuild() throws Exception {
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
+        UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
+
+        long snapshotEpochMillis = Instant.parse("2026-02-19T20:00:00Z").toEpochMilli();
+        FlipCalculationContext context = FlipCalculationContext.standard(null);
+        Flip flip = mock(Flip.class);
+        CountDownLatch mapping = new CountDownLatch(1);
+        CountDownLatch releaseMapping = new CountDownLatch(1);
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(snapshotEpochMillis));
+        when(flipTemplateStore.findAllBySnapshotTimestampEpochMillis(snapshotEpochMillis, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(List.of(flip)));
+        when(contextService.loadContextAsOf(Instant.ofEpochMilli(snapshotEpochMillis))).thenReturn(context);
+        when(mapper.toDto(flip, context)).thenAnswer(invocation -> {
+            mapping.countDown();
+            assertTrue(releaseMapping.await(2, TimeUnit.SECONDS));
+            return sampleScoredDto(UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa"), 90.0D, 10.0D, 1_000L);
+        });
+
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Page<UnifiedFlipDto>> first = readers.submit(() -> service.topLiquidityFlips(null, null, PageRequest.of(0, 1)));
+            assertTrue(mapping.await(2, TimeUnit.SECONDS));
+            Future<Page<UnifiedFlipDto>> second = readers.submit(() -> service.topLiquidityFlips(null, null, PageRequest.of(0, 1)));
+            releaseMapping.countDown();
+
+            assertEquals(1, first.get(2, TimeUnit.SECONDS).getTotalElements());
+            assertEquals(1, second.get(2, TimeUnit.SECONDS).getTotalElements());
+        } finally {
+            readers.shutdownNow();
+        }
+        verify(mapper, times(1)).toDto(flip, context);
+    }
+
+    @Test
+    void cursorPagesSeekThroughTheSnapshotTheyWereIssuedFor() {
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
+        UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
+
+        long snapshotEpochMillis = Instant.parse("2026-02-19T20:00:00Z").toEpochMilli();
+        UUID idA = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+        UUID idB = UUID.fromString("bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb");
+        UUID idC = UUID.fromString("cccccccc-cccc-cccc-cccc-cccccccccccc");
+        FlipCalculationContext context = FlipCalculationContext.standard(null);
+        Flip flipA = mock(Flip.class);
+        Flip flipB = mock(Flip.class);
+        Flip flipC = mock(Flip.class);
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(snapshotEpochMillis));
+        when(flipTemplateStore.findAllBySnapshotTimestampEpochMillis(snapshotEpochMillis, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(List.of(flipA, flipB, flipC)));
+        when(contextService.loadContextAsOf(Instant.ofEpochMilli(snapshotEpochMillis))).thenReturn(context);
+        when(mapper.toDto(flipA, context)).thenReturn(sampleScoredDto(idA, 92.0D, 10.0D, 2_000_000L));
+        when(mapper.toDto(flipB, context)).thenReturn(sampleScoredDto(idB, null, 50.0D, null));
+        when(mapper.toDto(flipC, context)).thenReturn(sampleScoredDto(idC, 92.0D, 12.0D, 3_000_000L));
+
+        CursorPageDto<UnifiedFlipDto> first = service.filterFlipsAfter(
+                null, null, FlipMetricsCriteria.none(), FlipSortBy.LIQUIDITY_SCORE, Sort.Direction.DESC, null, 2);
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis())
+                .thenReturn(Optional.of(snapshotEpochMillis + 60_000L));
+        CursorPageDto<UnifiedFlipDto> second = service.filterFlipsAfter(
+                null, null, FlipMetricsCriteria.none(), FlipSortBy.LIQUIDITY_SCORE, Sort.Direction.DESC,
+                PageCursor.decode(first.nextCursor()), 2);
+
+        assertEquals(List.of(idA, idC), first.items().stream().map(UnifiedFlipDto::id).toList());
+        assertEquals(snapshotEpochMillis, PageCursor.decode(first.nextCursor()).version());
+        assertEquals(List.of(idB), second.items().stream().map(UnifiedFlipDto::id).toList());
+        assertNull(second.nextCursor());
+
+        CursorPageDto<UnifiedFlipDto> byId = service.listFlipsAfter(
+                null, null, new PageCursor(snapshotEpochMillis, "id", false, null, idA.toString()), 1);
+        assertEquals(List.of(idB), byId.items().stream().map(UnifiedFlipDto::id).toList());
+        assertEquals(idB.toString(), PageCursor.decode(byId.nextCursor()).id());
+        verify(mapper, times(1)).toDto(flipA, context);
+    }
+
+    @Test
+    void cursorForAnotherSnapshotOrOrderingIsRejected() {
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
+        UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
+        FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
+        FlipReadService service = new FlipReadService(flipTemplateStore, mapper, contextService);
+
+        long snapshotEpochMillis = Instant.parse("2026-02-19T20:00:00Z").toEpochMilli();
+        String id = "aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
+        PageCursor byLiquidity = new PageCursor(snapshotEpochMillis, "LIQUIDITY_SCORE", true, "0.5", id);
+        when(flipTemplateStore.existsBySnapshotTimestampEpochMillis(snapshotEpochMillis)).thenReturn(true);
+        when(flipTemplateStore.findAllBySnapshotTimestampEpochMillis(snapshotEpochMillis, Pageable.unpaged()))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(contextService.loadContextAsOf(Instant.ofEpochMilli(snapshotEpochMillis)))
+                .thenReturn(FlipCalculationContext.standard(null));
+
+        assertThrows(IllegalArgumentException.class, () -> service.listFlipsAfter(
+                null, null, new PageCursor(snapshotEpochMillis + 1L, "id", false, null, id), 10));
+        assertThrows(IllegalArgumentException.class, () -> service.filterFlipsAfter(
+                null, Instant.ofEpochMilli(snapshotEpochMillis + 60_000L), FlipMetricsCriteria.none(),
+                FlipSortBy.LIQUIDITY_SCORE, Sort.Direction.DESC, byLiquidity, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.filterFlipsAfter(
+                null, null, FlipMetricsCriteria.none(), FlipSortBy.LIQUIDITY_SCORE, Sort.Direction.ASC, byLiquidity, 10));
+        verify(flipTemplateStore, never()).findAllBySnapshotTimestampEpochMillis(snapshotEpochMillis + 1L, Pageable.unpaged());
+
+        CursorPageDto<UnifiedFlipDto> page = service.filterFlipsAfter(
+                null, Instant.ofEpochMilli(snapshotEpochMillis), FlipMetricsCriteria.none(),
+                FlipSortBy.LIQUIDITY_SCORE, Sort.Direction.DESC, byLiquidity, 10);
+        assertTrue(page.items().isEmpty());
+    }
+
     private UnifiedFlipDto sampleDto() {
         return new UnifiedFlipDto(
                 UUID.randomUUID(),
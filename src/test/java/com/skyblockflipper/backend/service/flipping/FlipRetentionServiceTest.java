@@ -0,0 +1,114 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.model.Flipping.Constraint;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.Step;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.repository.FlipRepository;
+import com.skyblockflipper.backend.repository.FlipSnapshotMembershipRepository;
+import com.skyblockflipper.backend.repository.MarketSnapshotRepository;
+import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class FlipRetentionServiceTest {
+
+    @Autowired
+    private FlipRetentionService flipRetentionService;
+
+    @Autowired
+    private FlipTemplateStore flipTemplateStore;
+
+    @Autowired
+    private FlipRepository flipRepository;
+
+    @Autowired
+    private FlipSnapshotMembershipRepository membershipRepository;
+
+    @Autowired
+    private MarketSnapshotRepository marketSnapshotRepository;
+
+    @Autowired
+    private MarketSnapshotPersistenceService marketSnapshotPersistenceService;
+
+    @BeforeEach
+    void clean() {
+        membershipRepository.deleteAll();
+        marketSnapshotRepository.deleteAll();
+        // Collects the templates other tests left behind, keeping the store cache consistent.
+        flipRetentionService.purgeNonKeeperSnapshots(Instant.now().plus(Duration.ofHours(1)));
+    }
+
+    @Test
+    void purgesFlipsOfSnapshotsCompactionDidNotKeep() {
+        Instant base = Instant.now().minus(Duration.ofHours(1)).truncatedTo(ChronoUnit.MINUTES);
+        Instant keeper = base;
+        Instant compacted = base.plusSeconds(60);
+        Instant latestKeeper = base.plusSeconds(120);
+        Instant pendingPersist = base.plusSeconds(180);
+        saveMarketSnapshot(keeper);
+        saveMarketSnapshot(latestKeeper);
+        flipTemplateStore.replaceSnapshot(keeper.toEpochMilli(), List.of(sharedFlip()));
+        flipTemplateStore.replaceSnapshot(compacted.toEpochMilli(), List.of(sharedFlip(), compactedOnlyFlip()));
+        flipTemplateStore.replaceSnapshot(latestKeeper.toEpochMilli(), List.of(sharedFlip()));
+        flipTemplateStore.replaceSnapshot(pendingPersist.toEpochMilli(), List.of(sharedFlip()));
+        int cachedBefore = flipTemplateStore.cachedTemplateCount();
+
+        FlipRetentionService.FlipRetentionResult result =
+                flipRetentionService.purgeNonKeeperSnapshots(Instant.now().plus(Duration.ofHours(1)));
+
+        assertEquals(1, result.purgedSnapshots());
+        assertEquals(2, result.deletedMemberships());
+        assertEquals(1, result.deletedTemplates());
+        assertEquals(2, result.deletedSteps());
+        assertEquals(1, result.deletedConstraints());
+        assertEquals(6, result.deletedRows());
+        assertTrue(result.estimatedBytesReclaimed() > 0);
+        assertFalse(flipTemplateStore.existsBySnapshotTimestampEpochMillis(compacted.toEpochMilli()));
+        assertTrue(flipTemplateStore.existsBySnapshotTimestampEpochMillis(keeper.toEpochMilli()));
+        assertTrue(flipTemplateStore.existsBySnapshotTimestampEpochMillis(latestKeeper.toEpochMilli()));
+        assertTrue(flipTemplateStore.existsBySnapshotTimestampEpochMillis(pendingPersist.toEpochMilli()));
+        assertEquals(1, flipRepository.count());
+        assertEquals(cachedBefore - 1, flipTemplateStore.cachedTemplateCount());
+    }
+
+    @Test
+    void recentlyLinkedTemplatesSurviveTheGracePeriod() {
+        Instant snapshot = Instant.now().minus(Duration.ofHours(1));
+        flipTemplateStore.replaceSnapshot(snapshot.toEpochMilli(), List.of(compactedOnlyFlip()));
+        membershipRepository.deleteAll();
+
+        FlipRetentionService.FlipRetentionResult result = flipRetentionService.purgeNonKeeperSnapshots(Instant.now());
+
+        assertEquals(0, result.deletedTemplates());
+        assertEquals(1, flipRepository.count());
+    }
+
+    private void saveMarketSnapshot(Instant timestamp) {
+        marketSnapshotPersistenceService.save(new MarketSnapshot(timestamp, List.of(), Map.of()));
+    }
+
+    private Flip sharedFlip() {
+        return new Flip(null, FlipType.CRAFTING, List.of(Step.forCraftInstant(10L)), "ENCHANTED_BREAD", List.of());
+    }
+
+    private Flip compactedOnlyFlip() {
+        return new Flip(null, FlipType.CRAFTING,
+                List.of(Step.forBuyMarketBased(30L, "{\"itemId\":\"WHEAT\",\"amount\":60}"), Step.forCraftInstant(0L)),
+                "ENCHANTED_WHEAT", List.of(Constraint.recipeUnlocked("ENCHANTED_WHEAT:craft:0")));
+    }
+}
@@ -0,0 +1,148 @@
+package com.skyblockflipper.backend.service.flipping;
+
+import com.skyblockflipper.backend.api.FlipSortBy;
+import com.skyblockflipper.backend.model.Flipping.Constraint;
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.Step;
+import com.skyblockflipper.backend.repository.FlipRepository;
+import com.skyblockflipper.backend.repository.FlipSnapshotMembershipRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class FlipTemplateStoreTest {
+
+    private static final long FIRST_SNAPSHOT = 1_771_450_200_000L;
+    private static final long SECOND_SNAPSHOT = FIRST_SNAPSHOT + 60_000L;
+
+    @Autowired
+    private FlipTemplateStore flipTemplateStore;
+
+    @Autowired
+    private FlipRepository flipRepository;
+
+    @Autowired
+    private FlipSnapshotMembershipRepository membershipRepository;
+
+    @Test
+    void identicalFlipsAcrossSnapshotsShareOneTemplate() {
+        long templatesBefore = flipRepository.count();
+
+        flipTemplateStore.replaceSnapshot(FIRST_SNAPSHOT, List.of(recipeFlip("ENCHANTED_HAY_BALE"), bazaarFlip()));
+        flipTemplateStore.replaceSnapshot(SECOND_SNAPSHOT, List.of(recipeFlip("ENCHANTED_HAY_BALE"), bazaarFlip()));
+
+        assertEquals(templatesBefore + 2, flipRepository.count());
+        List<Flip> first = flipTemplateStore.findAllBySnapshotTimestampEpochMillis(FIRST_SNAPSHOT);
+        List<Flip> second = flipTemplateStore.findAllBySnapshotTimestampEpochMillis(SECOND_SNAPSHOT);
+        assertEquals(2, first.size());
+        assertEquals(first.stream().map(Flip::getId).toList(), second.stream().map(Flip::getId).toList());
+        assertTrue(first.stream().allMatch(flip -> flip.getSnapshotTimestampEpochMillis() == FIRST_SNAPSHOT));
+        assertTrue(second.stream().allMatch(flip -> flip.getSnapshotTimestampEpochMillis() == SECOND_SNAPSHOT));
+    }
+
+    @Test
+    void replaceSnapshotDeduplicatesWithinSnapshotAndReplacesMemberships() {
+        flipTemplateStore.replaceSnapshot(FIRST_SNAPSHOT, List.of(bazaarFlip(), bazaarFlip(), recipeFlip("A")));
+        assertEquals(2, membershipRepository.findTemplateIds(FIRST_SNAPSHOT).size());
+
+        flipTemplateStore.replaceSnapshot(FIRST_SNAPSHOT, List.of(recipeFlip("B")));
+
+        List<Flip> flips = flipTemplateStore.findByFlipTypeAndSnapshotTimestampEpochMillis(FlipType.CRAFTING, FIRST_SNAPSHOT);
+        assertEquals(1, flips.size());
+        assertEquals("B", flips.getFirst().getResultItemId());
+        assertEquals(1, flipTemplateStore.findAllBySnapshotTimestampEpochMillis(FIRST_SNAPSHOT, PageRequest.of(0, 10))
+                .getTotalElements());
+    }
+
+    @Test
+    void templatesWrittenByOpenTransactionAreNotPublishedToCache() {
+        flipTemplateStore.replaceSnapshot(FIRST_SNAPSHOT, List.of(bazaarFlip()));
+        int cachedBefore = flipTemplateStore.cachedTemplateCount();
+
+        flipTemplateStore.replaceSnapshot(SECOND_SNAPSHOT, List.of(recipeFlip("UNCOMMITTED"), bazaarFlip()));
+
+        assertEquals(cachedBefore, flipTemplateStore.cachedTemplateCount());
+        assertEquals(2, flipTemplateStore.findAllBySnapshotTimestampEpochMillis(SECOND_SNAPSHOT).size());
+        assertEquals(cachedBefore, flipTemplateStore.cachedTemplateCount());
+    }
+
+    @Test
+    void findByIdBindsTemplateToLatestSnapshot() {
+        Flip flip = bazaarFlip();
+        flipTemplateStore.replaceSnapshot(FIRST_SNAPSHOT, List.of(flip));
+        flipTemplateStore.replaceSnapshot(SECOND_SNAPSHOT, List.of(bazaarFlip()));
+
+        Flip found = flipTemplateStore.findById(flip.getId()).orElseThrow();
+
+        assertEquals(SECOND_SNAPSHOT, found.getSnapshotTimestampEpochMillis());
+        assertEquals(2, found.getSteps().size());
+        assertEquals(SECOND_SNAPSHOT, flipTemplateStore.findMaxSnapshotTimestampEpochMillis().orElseThrow());
+    }
+
+    @Test
+    void findBySnapshotMetricsFiltersSortsAndPagesInSql() {
+        Map<String, FlipMetrics> metricsByItem = Map.of(
+                "A", metrics(5_000L, 40D),
+                "B", metrics(20_000L, 80D),
+                "C", metrics(null, 90D),
+                "D", metrics(10_000L, 10D)
+        );
+        flipTemplateStore.replaceSnapshot(FIRST_SNAPSHOT,
+                List.of(recipeFlip("A"), recipeFlip("B"), recipeFlip("C"), recipeFlip("D"), recipeFlip("E")),
+                flip -> metricsByItem.get(flip.getResultItemId()));
+        assertTrue(flipTemplateStore.hasMaterializedMetrics(FIRST_SNAPSHOT));
+
+        Page<Flip> byProfit = flipTemplateStore.findBySnapshotMetrics(FIRST_SNAPSHOT, null, FlipMetricsCriteria.none(),
+                FlipSortBy.EXPECTED_PROFIT, Sort.Direction.DESC, PageRequest.of(0, 2));
+        assertEquals(4, byProfit.getTotalElements());
+        assertEquals(List.of("B", "D"), byProfit.getContent().stream().map(Flip::getResultItemId).toList());
+
+        Page<Flip> lastPage = flipTemplateStore.findBySnapshotMetrics(FIRST_SNAPSHOT, null, FlipMetricsCriteria.none(),
+                FlipSortBy.EXPECTED_PROFIT, Sort.Direction.ASC, PageRequest.of(1, 2));
+        assertEquals(List.of("B", "C"), lastPage.getContent().stream().map(Flip::getResultItemId).toList());
+
+        FlipMetricsCriteria liquid = new FlipMetricsCriteria(30D, null, null, null, null, null, null);
+        Page<Flip> filtered = flipTemplateStore.findBySnapshotMetrics(FIRST_SNAPSHOT, FlipType.CRAFTING, liquid,
+                FlipSortBy.LIQUIDITY_SCORE, Sort.Direction.DESC, PageRequest.of(0, 10));
+        assertEquals(List.of("C", "B", "A"), filtered.getContent().stream().map(Flip::getResultItemId).toList());
+        assertTrue(filtered.getContent().stream().allMatch(flip -> flip.getSnapshotTimestampEpochMillis() == FIRST_SNAPSHOT));
+    }
+
+    @Test
+    void snapshotsWithoutMetricsAreNotMaterialized() {
+        flipTemplateStore.replaceSnapshot(FIRST_SNAPSHOT, List.of(bazaarFlip()));
+
+        assertFalse(flipTemplateStore.hasMaterializedMetrics(FIRST_SNAPSHOT));
+    }
+
+    private FlipMetrics metrics(Long expectedProfit, Double liquidityScore) {
+        return new FlipMetrics(expectedProfit, 0.1D, 0.2D, liquidityScore, 20D, 100_000L, 1_000L, 60L, false);
+    }
+
+    private Flip recipeFlip(String outputItemId) {
+        return new Flip(null, FlipType.CRAFTING,
+                List.of(Step.forBuyMarketBased(30L, "{\"itemId\":\"HAY_BLOCK\",\"amount\":144}"), Step.forCraftInstant(0L)),
+                outputItemId, List.of(Constraint.recipeUnlocked(outputItemId + ":craft:0")));
+    }
+
+    private Flip bazaarFlip() {
+        return new Flip(null, FlipType.BAZAAR,
+                List.of(Step.forBuyMarketBased(30L, "{\"itemId\":\"ENCHANTED_SUGAR\"}"),
+                        Step.forSellMarketBased(30L, "{\"itemId\":\"ENCHANTED_SUGAR\"}")),
+                "ENCHANTED_SUGAR", List.of());
+    }
+}
@@ -11,6 +11,7 @@ import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.repository.RecipeRepository;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketStateHolder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,7 +44,7 @@ class RecipeCostServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new RecipeCostService(recipeRepository, snapshotService, itemRepository);
+        service = new RecipeCostService(recipeRepository, new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), itemRepository);
     }
 
     @Test
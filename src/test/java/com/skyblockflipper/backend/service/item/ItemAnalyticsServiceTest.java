@@ -12,12 +12,14 @@ import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
 import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
+import com.skyblockflipper.backend.service.flipping.FlipTemplateStore;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketStateHolder;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
@@ -32,15 +34,18 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ItemAnalyticsServiceTest {
 
     private MarketSnapshotPersistenceService snapshotService;
-    private FlipRepository flipRepository;
+    private FlipTemplateStore flipTemplateStore;
     private UnifiedFlipDtoMapper mapper;
     private FlipCalculationContextService contextService;
     private ItemRepository itemRepository;
@@ -49,11 +54,11 @@ class ItemAnalyticsServiceTest {
     @BeforeEach
     void setUp() {
         snapshotService = mock(MarketSnapshotPersistenceService.class);
-        flipRepository = mock(FlipRepository.class);
+        flipTemplateStore = mock(FlipTemplateStore.class);
         mapper = mock(UnifiedFlipDtoMapper.class);
         contextService = mock(FlipCalculationContextService.class);
         itemRepository = mock(ItemRepository.class);
-        service = new ItemAnalyticsService(snapshotService, flipRepository, mapper, contextService, itemRepository);
+        service = new ItemAnalyticsService(snapshotService, new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), flipTemplateStore, mapper, contextService, itemRepository);
     }
 
     @Test
@@ -95,6 +100,33 @@ class ItemAnalyticsServiceTest {
         assertEquals(50L, history.get(1).volume());
     }
 
+    @Test
+    void listPriceHistoryReadsBazaarQuotesWithoutLoadingSnapshots() {
+        Instant t1 = Instant.parse("2026-02-21T10:05:00Z");
+        Instant t1Newer = Instant.parse("2026-02-21T10:45:00Z");
+        Instant t2 = Instant.parse("2026-02-21T11:00:00Z");
+        MarketSnapshot latest = new MarketSnapshot(t2, List.of(), Map.of());
+
+        when(snapshotService.latest()).thenReturn(Optional.of(latest));
+        when(snapshotService.bazaarQuotes("ENCHANTED_DIAMOND", t2.minus(PriceHistoryRange.H24.lookback()), t2)).thenReturn(List.of(
+                new MarketSnapshotPersistenceService.BazaarQuotePoint(t1,
+                        new BazaarMarketRecord("ENCHANTED_DIAMOND", 10D, 9D, 5L, 4L, 0L, 0L, 1, 1)),
+                new MarketSnapshotPersistenceService.BazaarQuotePoint(t1Newer,
+                        new BazaarMarketRecord("ENCHANTED_DIAMOND", 12D, 11D, 7L, 6L, 0L, 0L, 1, 1)),
+                new MarketSnapshotPersistenceService.BazaarQuotePoint(t2,
+                        new BazaarMarketRecord("ENCHANTED_DIAMOND", 15D, 14D, 8L, 7L, 0L, 0L, 1, 1))
+        ));
+
+        List<PricePointDto> history = service.listPriceHistory("enchanted_diamond", PriceHistoryRange.H24);
+
+        assertEquals(2, history.size());
+        assertEquals(t1Newer, history.getFirst().timestamp());
+        assertEquals(12L, history.getFirst().buyPrice());
+        assertEquals(7L, history.getFirst().volume());
+        assertEquals(14L, history.get(1).sellPrice());
+        verify(snapshotService, never()).between(any(), any());
+    }
+
     @Test
     void listPriceHistoryReturnsEmptyForInvalidInputOrMissingSnapshot() {
         when(snapshotService.latest()).thenReturn(Optional.empty());
@@ -157,14 +189,14 @@ class ItemAnalyticsServiceTest {
     @Test
     void listFlipsForItemFiltersByInputAndOutputAliasesAndPaginates() {
         long snapshotEpoch = Instant.parse("2026-02-21T12:00:00Z").toEpochMilli();
-        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(snapshotEpoch));
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(snapshotEpoch));
         when(itemRepository.findById("HYPERION"))
                 .thenReturn(Optional.of(Item.builder().id("HYPERION").displayName("Hyperion").minecraftId("hyperion").build()));
 
         Flip flipOne = new Flip(UUID.randomUUID(), FlipType.AUCTION, List.of(), "A", List.of());
         Flip flipTwo = new Flip(UUID.randomUUID(), FlipType.BAZAAR, List.of(), "B", List.of());
         Flip flipThree = new Flip(UUID.randomUUID(), FlipType.CRAFTING, List.of(), "C", List.of());
-        when(flipRepository.findAllBySnapshotTimestampEpochMillis(snapshotEpoch)).thenReturn(List.of(flipOne, flipTwo, flipThree));
+        when(flipTemplateStore.findAllBySnapshotTimestampEpochMillis(snapshotEpoch)).thenReturn(List.of(flipOne, flipTwo, flipThree));
 
         FlipCalculationContext context = new FlipCalculationContext(null, 0.0125D, 1D, false, FlipScoreFeatureSet.empty());
         when(contextService.loadContextAsOf(Instant.ofEpochMilli(snapshotEpoch))).thenReturn(context);
@@ -187,7 +219,7 @@ class ItemAnalyticsServiceTest {
 
     @Test
     void listFlipsForItemReturnsEmptyWhenItemIdOrSnapshotMissing() {
-        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.empty());
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.empty());
 
         assertTrue(service.listFlipsForItem(" ", PageRequest.of(0, 10)).isEmpty());
         assertTrue(service.listFlipsForItem("HYPERION", PageRequest.of(0, 10)).isEmpty());
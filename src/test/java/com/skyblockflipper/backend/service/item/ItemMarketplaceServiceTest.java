@@ -7,8 +7,10 @@ import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
+import com.skyblockflipper.backend.service.flipping.FlipTemplateStore;
 import com.skyblockflipper.backend.service.market.MarketSnapshotPersistenceService;
+import com.skyblockflipper.backend.service.market.MarketStateHolder;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
@@ -28,8 +30,8 @@ class ItemMarketplaceServiceTest {
     @Test
     void resolveMarketplacesClassifiesItemsAcrossAllMarketplaceTypes() {
         MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
-        FlipRepository flipRepository = mock(FlipRepository.class);
-        ItemMarketplaceService service = new ItemMarketplaceService(snapshotService, flipRepository);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
+        ItemMarketplaceService service = new ItemMarketplaceService(new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), flipTemplateStore);
 
         MarketSnapshot snapshot = new MarketSnapshot(
                 Instant.parse("2026-02-21T12:00:00Z"),
@@ -43,8 +45,8 @@ class ItemMarketplaceServiceTest {
                 )
         );
         when(snapshotService.latest()).thenReturn(Optional.of(snapshot));
-        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(123L));
-        when(flipRepository.findByFlipTypeAndSnapshotTimestampEpochMillis(FlipType.AUCTION, 123L))
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(123L));
+        when(flipTemplateStore.findByFlipTypeAndSnapshotTimestampEpochMillis(FlipType.AUCTION, 123L))
                 .thenReturn(List.of(new Flip(UUID.randomUUID(), FlipType.AUCTION, List.of(), "MIDAS_SWORD", List.of())));
 
         Item bazaarOnly = item("ENCHANTED_DIAMOND", "Enchanted Diamond", "enchanted_diamond");
@@ -63,8 +65,8 @@ class ItemMarketplaceServiceTest {
     @Test
     void resolveMarketplacesReturnsEmptyForNullOrEmptyInput() {
         MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
-        FlipRepository flipRepository = mock(FlipRepository.class);
-        ItemMarketplaceService service = new ItemMarketplaceService(snapshotService, flipRepository);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
+        ItemMarketplaceService service = new ItemMarketplaceService(new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), flipTemplateStore);
 
         Map<String, MarketplaceType> nullResult = service.resolveMarketplaces(null);
         Map<String, MarketplaceType> emptyResult = service.resolveMarketplaces(List.of());
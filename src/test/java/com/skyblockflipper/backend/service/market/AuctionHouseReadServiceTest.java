@@ -3,19 +3,25 @@ package com.skyblockflipper.backend.service.market;
 import com.skyblockflipper.backend.NEU.repository.ItemRepository;
 import com.skyblockflipper.backend.api.AhListingDto;
 import com.skyblockflipper.backend.api.AhListingSortBy;
+import com.skyblockflipper.backend.api.CursorPageDto;
+import com.skyblockflipper.backend.api.PageCursor;
 import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -25,7 +31,7 @@ class AuctionHouseReadServiceTest {
     void listListingsParsesStarsReforgeAndGemSlotsFromLore() {
         MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
         ItemRepository itemRepository = mock(ItemRepository.class);
-        AuctionHouseReadService service = new AuctionHouseReadService(snapshotService, itemRepository);
+        AuctionHouseReadService service = new AuctionHouseReadService(new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), itemRepository);
 
         AuctionMarketRecord listing = new AuctionMarketRecord(
                 "auction-1",
@@ -67,4 +73,66 @@ class AuctionHouseReadServiceTest {
         assertTrue(dto.gemSlots().contains("Ruby"));
         assertTrue(dto.gemSlots().contains("Topaz"));
     }
+
+    @Test
+    void cursorPagesFollowTheOffsetOrderWithoutGapsOrRepeats() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        AuctionHouseReadService service = new AuctionHouseReadService(new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), itemRepository);
+
+        long[] prices = {500L, 300L, 300L, 900L, 100L, 300L, 700L};
+        List<AuctionMarketRecord> auctions = new ArrayList<>();
+        for (int i = 0; i < prices.length; i++) {
+            auctions.add(new AuctionMarketRecord(
+                    "auction-" + i, "Hyperion", "weapon", "LEGENDARY", prices[i], 0L, 1_000L, 2_000L + i, false, "", "extra"));
+        }
+        MarketSnapshot snapshot = new MarketSnapshot(Instant.parse("2026-02-21T12:00:00Z"), auctions, Map.of());
+        when(snapshotService.latest()).thenReturn(Optional.of(snapshot));
+        when(itemRepository.findById("HYPERION")).thenReturn(Optional.empty());
+
+        List<String> expected = service.listListings(
+                "HYPERION", AhListingSortBy.PRICE, Sort.Direction.DESC, null, null, null, null, Pageable.unpaged()
+        ).getContent().stream().map(AhListingDto::auctionId).toList();
+
+        List<String> walked = new ArrayList<>();
+        PageCursor cursor = null;
+        do {
+            CursorPageDto<AhListingDto> page = service.listListingsAfter(
+                    "HYPERION", AhListingSortBy.PRICE, Sort.Direction.DESC, null, null, null, null, cursor, 2);
+            page.items().forEach(listing -> walked.add(listing.auctionId()));
+            cursor = PageCursor.decode(page.nextCursor());
+            if (cursor != null) {
+                assertEquals(snapshot.snapshotTimestamp().toEpochMilli(), cursor.version());
+            }
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+
+        PageCursor priceDescending = PageCursor.decode(service.listListingsAfter(
+                "HYPERION", AhListingSortBy.PRICE, Sort.Direction.DESC, null, null, null, null, null, 2).nextCursor());
+        assertThrows(IllegalArgumentException.class, () -> service.listListingsAfter(
+                "HYPERION", AhListingSortBy.PRICE, Sort.Direction.ASC, null, null, null, null, priceDescending, 2));
+    }
+
+    @Test
+    void cursorOfSnapshotThatIsNoLongerAvailableIsRejected() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        AuctionHouseReadService service = new AuctionHouseReadService(
+                new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), mock(ItemRepository.class));
+        List<AuctionMarketRecord> auctions = List.of(
+                new AuctionMarketRecord("auction-0", "Hyperion", "weapon", "LEGENDARY", 500L, 0L, 1_000L, 2_000L, false, "", "extra"));
+        MarketSnapshot older = new MarketSnapshot(Instant.parse("2026-02-21T11:55:00Z"), auctions, Map.of());
+        when(snapshotService.latest()).thenReturn(Optional.of(new MarketSnapshot(Instant.parse("2026-02-21T12:05:00Z"), auctions, Map.of())));
+        when(snapshotService.asOf(any())).thenReturn(Optional.of(older));
+        PageCursor compactedAway = new PageCursor(
+                Instant.parse("2026-02-21T12:00:00Z").toEpochMilli(), AhListingSortBy.PRICE.name(), false, "500", "auction-0");
+
+        assertThrows(IllegalArgumentException.class, () -> service.listListingsAfter(
+                "HYPERION", AhListingSortBy.PRICE, Sort.Direction.ASC, null, null, null, null, compactedAway, 2));
+
+        when(snapshotService.asOf(any())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> service.listListingsAfter(
+                "HYPERION", AhListingSortBy.PRICE, Sort.Direction.ASC, null, null, null, null, compactedAway, 2));
+    }
 }
@@ -5,12 +5,12 @@ import com.skyblockflipper.backend.NEU.repository.ItemRepository;
 import com.skyblockflipper.backend.api.BazaarOrderBookDto;
 import com.skyblockflipper.backend.api.BazaarProductDto;
 import com.skyblockflipper.backend.api.BazaarQuickFlipDto;
-import com.skyblockflipper.backend.hypixel.HypixelClient;
 import com.skyblockflipper.backend.hypixel.model.BazaarProduct;
 import com.skyblockflipper.backend.hypixel.model.BazaarResponse;
 import com.skyblockflipper.backend.hypixel.model.BazaarSummaryEntry;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -28,16 +28,16 @@ import static org.mockito.Mockito.when;
 class BazaarReadServiceTest {
 
     private MarketSnapshotPersistenceService snapshotService;
-    private HypixelClient hypixelClient;
+    private BazaarOrderBookStore orderBookStore;
     private ItemRepository itemRepository;
     private BazaarReadService service;
 
     @BeforeEach
     void setUp() {
         snapshotService = mock(MarketSnapshotPersistenceService.class);
-        hypixelClient = mock(HypixelClient.class);
+        orderBookStore = new BazaarOrderBookStore();
         itemRepository = mock(ItemRepository.class);
-        service = new BazaarReadService(snapshotService, hypixelClient, itemRepository);
+        service = new BazaarReadService(new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), orderBookStore, itemRepository);
     }
 
     @Test
@@ -74,19 +74,23 @@ class BazaarReadServiceTest {
                         new BazaarSummaryEntry(8L, 205300.0, 2)
                 )
         );
-        when(hypixelClient.fetchBazaar()).thenReturn(new BazaarResponse(true, 0L, Map.of("ENCHANTED_DIAMOND_BLOCK", product)));
+        orderBookStore.update(new BazaarResponse(true, 0L, Map.of("ENCHANTED_DIAMOND_BLOCK", product)));
 
-        BazaarOrderBookDto result = service.getOrderBook("ENCHANTED_DIAMOND_BLOCK", 1);
+        BazaarOrderBookDto result = service.getOrderBook(" enchanted_diamond_block ", 1);
+        BazaarOrderBookDto full = service.getOrderBook("ENCHANTED_DIAMOND_BLOCK", 10);
 
         assertEquals(1, result.sellOrders().size());
         assertEquals(1, result.buyOrders().size());
         assertEquals(205100.0, result.sellOrders().getFirst().pricePerUnit());
         assertEquals(198000.0, result.buyOrders().getFirst().pricePerUnit());
+        assertEquals(2, full.sellOrders().size());
+        assertEquals(11L, full.sellOrders().get(1).cumulativeAmount());
+        assertEquals(15L, full.buyOrders().get(1).cumulativeAmount());
     }
 
     @Test
-    void getOrderBookReturnsEmptyWhenBazaarResponseMissing() {
-        when(hypixelClient.fetchBazaar()).thenReturn(null);
+    void getOrderBookReturnsEmptyWhenBazaarNotIngested() {
+        orderBookStore.update(null);
 
         BazaarOrderBookDto result = service.getOrderBook("ANY", 10);
 
@@ -94,6 +98,26 @@ class BazaarReadServiceTest {
         assertTrue(result.sellOrders().isEmpty());
     }
 
+    @Test
+    void getOrderBookSeedsTopOfBookFromLatestSnapshotAfterRestart() {
+        BazaarMarketRecord record = new BazaarMarketRecord("ENCHANTED_DIAMOND_BLOCK", 205000.0, 198000.0, 100, 90, 200, 180, 5, 4);
+        when(snapshotService.latest()).thenReturn(Optional.of(new MarketSnapshot(
+                Instant.parse("2026-02-21T10:00:00Z"), List.of(), Map.of("ENCHANTED_DIAMOND_BLOCK", record))));
+
+        BazaarOrderBookDto seeded = service.getOrderBook("enchanted_diamond_block", 10);
+
+        assertEquals(List.of(new BazaarOrderBookDto.OrderLevelDto(205000.0, 100L, 5, 100L)), seeded.sellOrders());
+        assertEquals(List.of(new BazaarOrderBookDto.OrderLevelDto(198000.0, 90L, 4, 90L)), seeded.buyOrders());
+        assertEquals(Instant.parse("2026-02-21T10:00:00Z").toEpochMilli(), orderBookStore.lastUpdated());
+
+        orderBookStore.update(new BazaarResponse(true, 1L, Map.of("ENCHANTED_DIAMOND_BLOCK", new BazaarProduct(
+                "ENCHANTED_DIAMOND_BLOCK", null, List.of(), List.of(new BazaarSummaryEntry(3L, 205100.0, 1))))));
+
+        assertEquals(205100.0, service.getOrderBook("ENCHANTED_DIAMOND_BLOCK", 10).sellOrders().getFirst().pricePerUnit());
+        assertFalse(orderBookStore.seed(new MarketSnapshot(
+                Instant.parse("2026-02-21T10:05:00Z"), List.of(), Map.of("ENCHANTED_DIAMOND_BLOCK", record))));
+    }
+
     @Test
     void quickFlipsFiltersSortsAndUsesDisplayNames() {
         MarketSnapshot snapshot = new MarketSnapshot(
@@ -11,12 +11,13 @@ import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
 import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
+import com.skyblockflipper.backend.service.flipping.FlipTemplateStore;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
 import com.skyblockflipper.backend.service.item.ItemMarketplaceService;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,7 +46,7 @@ class DashboardReadServiceTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private FlipRepository flipRepository;
+    private FlipTemplateStore flipTemplateStore;
     @Mock
     private UnifiedFlipDtoMapper mapper;
     @Mock
@@ -58,7 +59,9 @@ class DashboardReadServiceTest {
     @BeforeEach
     void setUp() {
         service = new DashboardReadService(
-                snapshotService, itemRepository, flipRepository, mapper, contextService, marketplaceService
+                snapshotService,
+                new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()),
+                itemRepository, flipTemplateStore, mapper, contextService, marketplaceService
         );
     }
 
@@ -90,11 +93,11 @@ class DashboardReadServiceTest {
         );
         when(itemRepository.count()).thenReturn(10L);
         when(snapshotService.latest()).thenReturn(Optional.of(snapshot));
-        when(flipRepository.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(ts.toEpochMilli()));
+        when(flipTemplateStore.findMaxSnapshotTimestampEpochMillis()).thenReturn(Optional.of(ts.toEpochMilli()));
 
         Flip f1 = new Flip(UUID.randomUUID(), FlipType.AUCTION, List.of(), "A", List.of());
         Flip f2 = new Flip(UUID.randomUUID(), FlipType.BAZAAR, List.of(), "B", List.of());
-        when(flipRepository.findAllBySnapshotTimestampEpochMillis(ts.toEpochMilli())).thenReturn(List.of(f1, f2));
+        when(flipTemplateStore.findAllBySnapshotTimestampEpochMillis(ts.toEpochMilli())).thenReturn(List.of(f1, f2));
 
         FlipCalculationContext context = new FlipCalculationContext(null, 0.0125D, 1D, false, FlipScoreFeatureSet.empty());
         when(contextService.loadContextAsOf(ts)).thenReturn(context);
@@ -0,0 +1,106 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.model.market.UnifiedFlipInputSnapshot;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LiveAuctionIndexTest {
+
+    @Test
+    void appliesAddsUpdatesAndRemovalsBetweenRefreshes() {
+        LiveAuctionIndex index = new LiveAuctionIndex();
+
+        LiveAuctionIndex.DeltaResult first = index.apply(List.of(
+                auction("a1", "HYPERION", 900L, 0L),
+                auction("a2", "HYPERION", 800L, 0L),
+                auction("a3", "TERMINATOR", 500L, 0L)
+        ));
+        LiveAuctionIndex.DeltaResult second = index.apply(List.of(
+                auction("a1", "HYPERION", 900L, 950L),
+                auction("a3", "TERMINATOR", 500L, 0L),
+                auction("a4", "TERMINATOR", 450L, 0L)
+        ));
+
+        assertEquals(3, first.added());
+        assertEquals(1, second.added());
+        assertEquals(1, second.updated());
+        assertEquals(1, second.removed());
+        assertEquals(3, second.activeAuctions());
+
+        UnifiedFlipInputSnapshot.AuctionQuote hyperion = index.quotes().get("HYPERION");
+        assertEquals(900L, hyperion.lowestStartingBid());
+        assertEquals(950L, hyperion.highestObservedBid());
+        assertEquals(1, hyperion.sampleSize());
+        assertEquals(450L, index.quotes().get("TERMINATOR").lowestStartingBid());
+    }
+
+    @Test
+    void unchangedRefreshIsANoOp() {
+        LiveAuctionIndex index = new LiveAuctionIndex();
+        List<AuctionMarketRecord> auctions = List.of(
+                auction("a1", "TERMINATOR", 500L, 0L),
+                auction("a2", "HYPERION", 900L, 0L)
+        );
+        index.apply(auctions);
+        Map<String, UnifiedFlipInputSnapshot.AuctionQuote> before = index.quotes();
+
+        LiveAuctionIndex.DeltaResult delta = index.apply(auctions);
+
+        assertFalse(delta.changed());
+        assertEquals(0, delta.refreshedItems());
+        assertSame(before, index.quotes());
+        assertEquals(List.of("HYPERION", "TERMINATOR"), List.copyOf(index.quotes().keySet()));
+    }
+
+    @Test
+    void recordsAreSharedUntilAListingChanges() {
+        LiveAuctionIndex index = new LiveAuctionIndex();
+        index.apply(List.of(auction("a1", "HYPERION", 900L, 0L), auction("a2", "TERMINATOR", 500L, 0L)));
+        List<AuctionMarketRecord> before = index.records();
+
+        index.apply(List.of(auction("a1", "HYPERION", 900L, 0L), auction("a2", "TERMINATOR", 500L, 0L)));
+
+        assertSame(before, index.records());
+
+        index.apply(List.of(auction("a2", "TERMINATOR", 500L, 510L), auction("a3", "JUJU_SHORTBOW", 20L, 0L)));
+
+        assertEquals(List.of(auction("a2", "TERMINATOR", 500L, 510L), auction("a3", "JUJU_SHORTBOW", 20L, 0L)), index.records());
+    }
+
+    @Test
+    void aggregatesMatchFullRebuildAfterChurn() {
+        LiveAuctionIndex index = new LiveAuctionIndex();
+        index.apply(List.of(
+                auction("a1", "HYPERION", 900L, 0L),
+                auction("a2", "HYPERION", 700L, 1_000L),
+                auction("a3", "TERMINATOR", 500L, 0L)
+        ));
+        List<AuctionMarketRecord> current = List.of(
+                auction("a1", "HYPERION", 900L, 920L),
+                auction("a3", "TERMINATOR", 500L, 0L),
+                auction("a5", "TERMINATOR", 300L, 310L),
+                auction("a6", "JUJU_SHORTBOW", 20L, 0L)
+        );
+        index.apply(current);
+
+        Map<String, UnifiedFlipInputSnapshot.AuctionQuote> expected = new UnifiedFlipInputMapper()
+                .map(new MarketSnapshot(Instant.parse("2026-02-21T12:00:00Z"), current, Map.of()))
+                .auctionQuotesByItem();
+
+        assertEquals(expected, index.quotes());
+    }
+
+    private AuctionMarketRecord auction(String uuid, String itemName, long startingBid, long highestBid) {
+        return new AuctionMarketRecord(uuid, itemName, "weapon", "LEGENDARY", startingBid, highestBid, 1L, 2L, false);
+    }
+}
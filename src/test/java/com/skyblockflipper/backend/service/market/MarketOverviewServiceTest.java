@@ -6,11 +6,12 @@ import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
 import com.skyblockflipper.backend.model.Flipping.Flip;
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
-import com.skyblockflipper.backend.repository.FlipRepository;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContext;
 import com.skyblockflipper.backend.service.flipping.FlipCalculationContextService;
 import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
+import com.skyblockflipper.backend.service.flipping.FlipTemplateStore;
 import com.skyblockflipper.backend.service.flipping.UnifiedFlipDtoMapper;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
@@ -31,10 +32,10 @@ class MarketOverviewServiceTest {
     @Test
     void overviewReturnsFallbackWhenNoSnapshotExists() {
         MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        MarketOverviewService service = new MarketOverviewService(snapshotService, flipRepository, mapper, contextService);
+        MarketOverviewService service = new MarketOverviewService(snapshotService, new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), flipTemplateStore, mapper, contextService);
 
         when(snapshotService.latest()).thenReturn(Optional.empty());
 
@@ -49,10 +50,10 @@ class MarketOverviewServiceTest {
     @Test
     void overviewComputesSnapshotMetricsAndBestProfit() {
         MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
-        FlipRepository flipRepository = mock(FlipRepository.class);
+        FlipTemplateStore flipTemplateStore = mock(FlipTemplateStore.class);
         UnifiedFlipDtoMapper mapper = mock(UnifiedFlipDtoMapper.class);
         FlipCalculationContextService contextService = mock(FlipCalculationContextService.class);
-        MarketOverviewService service = new MarketOverviewService(snapshotService, flipRepository, mapper, contextService);
+        MarketOverviewService service = new MarketOverviewService(snapshotService, new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper()), flipTemplateStore, mapper, contextService);
 
         Instant ts = Instant.parse("2026-02-21T12:00:00Z");
         BazaarMarketRecord now = new BazaarMarketRecord("ENCHANTED_DIAMOND_BLOCK", 110D, 100D, 1_000L, 900L, 0, 0, 1, 1);
@@ -67,7 +68,7 @@ class MarketOverviewServiceTest {
 
         Flip flipOne = new Flip(UUID.randomUUID(), FlipType.AUCTION, List.of(), "A", List.of());
         Flip flipTwo = new Flip(UUID.randomUUID(), FlipType.BAZAAR, List.of(), "B", List.of());
-        when(flipRepository.findAllBySnapshotTimestampEpochMillis(ts.toEpochMilli())).thenReturn(List.of(flipOne, flipTwo));
+        when(flipTemplateStore.findAllBySnapshotTimestampEpochMillis(ts.toEpochMilli())).thenReturn(List.of(flipOne, flipTwo));
 
         FlipCalculationContext context = new FlipCalculationContext(null, 0.0125D, 1D, false, FlipScoreFeatureSet.empty());
         when(contextService.loadContextAsOf(ts)).thenReturn(context);
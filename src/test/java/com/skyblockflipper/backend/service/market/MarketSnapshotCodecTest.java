@@ -0,0 +1,70 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarketSnapshotCodecTest {
+
+    private final MarketSnapshotCodec codec = new MarketSnapshotCodec();
+
+    @Test
+    void auctionsRoundTripIncludingNullsAndNonHexIds() {
+        List<AuctionMarketRecord> auctions = new ArrayList<>();
+        auctions.add(new AuctionMarketRecord("0123456789abcdef0123456789abcdef", "Hyperion", "weapon", "LEGENDARY",
+                800_000_000L, 850_000_000L, 1_700_000_000_000L, 1_700_000_360_000L, false, "lore", "{\"id\":1}"));
+        auctions.add(new AuctionMarketRecord("NOT-A-HEX-UUID", "Hyperion", "weapon", "LEGENDARY",
+                790_000_000L, 0L, 1_699_999_000_000L, 1_700_001_000_000L, true));
+        auctions.add(new AuctionMarketRecord(null, null, null, null, 0L, 0L, 0L, 0L, false));
+        auctions.add(null);
+
+        List<AuctionMarketRecord> decoded = codec.decodeAuctions(codec.encodeAuctions(auctions));
+
+        assertEquals(auctions, decoded);
+    }
+
+    @Test
+    void bazaarRoundTripKeepsExactPricesAndKeyOrder() {
+        Map<String, BazaarMarketRecord> products = new LinkedHashMap<>();
+        products.put("ENCHANTED_DIAMOND", new BazaarMarketRecord("ENCHANTED_DIAMOND", 10.0, 9.5, 100, 90, 1000, 900, 4, 3));
+        products.put("BOOSTER_COOKIE", new BazaarMarketRecord("BOOSTER_COOKIE", 4_012_345.7, 3_987_654.123456789, 1, 2, 3, 4, 5, 6));
+        products.put("RENAMED", new BazaarMarketRecord("OTHER_ID", 0.1 + 0.2, -0.0, 0, 0, 0, 0, 0, 0));
+        products.put("NULL_ID", new BazaarMarketRecord(null, Double.NaN, Double.MAX_VALUE, 0, 0, 0, 0, 0, 0));
+
+        Map<String, BazaarMarketRecord> decoded = codec.decodeBazaar(codec.encodeBazaar(products));
+
+        assertEquals(products, decoded);
+        assertEquals(List.copyOf(products.keySet()), List.copyOf(decoded.keySet()));
+    }
+
+    @Test
+    void repetitiveAuctionsCompressWellBelowOneRawRecordEach() {
+        List<AuctionMarketRecord> auctions = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            auctions.add(new AuctionMarketRecord(String.format("%032x", i), "Aspect of the End", "weapon", "RARE",
+                    100_000L + i, 0L, 1_700_000_000_000L + i * 1_000L, 1_700_000_000_000L + i * 1_000L + 3_600_000L, false));
+        }
+
+        byte[] blob = codec.encodeAuctions(auctions);
+
+        assertTrue(blob.length < auctions.size() * 32, "blob was " + blob.length + " bytes");
+        assertEquals(auctions, codec.decodeAuctions(blob));
+    }
+
+    @Test
+    void rejectsUnknownFormatVersion() {
+        byte[] blob = codec.encodeBazaar(Map.of());
+        blob[0] = 99;
+
+        assertThrows(IllegalStateException.class, () -> codec.decodeBazaar(blob));
+    }
+}
@@ -2,6 +2,8 @@ package com.skyblockflipper.backend.service.market;
 
 import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
 import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.model.market.MarketSnapshotEntity;
+import com.skyblockflipper.backend.repository.BazaarQuoteRepository;
 import com.skyblockflipper.backend.repository.MarketSnapshotRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,9 +26,13 @@ class MarketSnapshotPersistenceServiceTest {
     @Autowired
     private MarketSnapshotRepository marketSnapshotRepository;
 
+    @Autowired
+    private BazaarQuoteRepository bazaarQuoteRepository;
+
     @BeforeEach
     void clean() {
         marketSnapshotRepository.deleteAll();
+        bazaarQuoteRepository.deleteAll();
     }
 
     @Test
@@ -45,6 +51,78 @@ class MarketSnapshotPersistenceServiceTest {
         assertTrue(latest.bazaarProducts().containsKey("ENCHANTED_DIAMOND"));
     }
 
+    @Test
+    void saveWritesBazaarQuotesReadablePerItem() {
+        marketSnapshotPersistenceService.save(new MarketSnapshot(
+                Instant.parse("2026-02-15T12:00:00Z"),
+                List.of(),
+                Map.of(
+                        "ENCHANTED_DIAMOND", new BazaarMarketRecord("ENCHANTED_DIAMOND", 10.0, 9.5, 100, 90, 1000, 900, 4, 3),
+                        "ENCHANTED_GOLD", new BazaarMarketRecord("ENCHANTED_GOLD", 5.0, 4.5, 10, 9, 100, 90, 2, 1)
+                )
+        ));
+        marketSnapshotPersistenceService.save(new MarketSnapshot(
+                Instant.parse("2026-02-15T12:01:00Z"),
+                List.of(),
+                Map.of("ENCHANTED_DIAMOND", new BazaarMarketRecord("ENCHANTED_DIAMOND", 11.0, 10.5, 100, 90, 1000, 900, 4, 3))
+        ));
+
+        List<MarketSnapshotPersistenceService.BazaarQuotePoint> quotes = marketSnapshotPersistenceService.bazaarQuotes(
+                "ENCHANTED_DIAMOND",
+                Instant.parse("2026-02-15T12:00:00Z"),
+                Instant.parse("2026-02-15T12:01:00Z")
+        );
+
+        assertEquals(3, bazaarQuoteRepository.count());
+        assertEquals(2, quotes.size());
+        assertEquals(Instant.parse("2026-02-15T12:00:00Z"), quotes.get(0).snapshotTimestamp());
+        assertEquals(10.5, quotes.get(1).record().sellPrice());
+
+        MarketSnapshot first = marketSnapshotPersistenceService.firstBazaarSnapshotBetween(
+                Instant.parse("2026-02-15T11:00:00Z"),
+                Instant.parse("2026-02-15T13:00:00Z")
+        ).orElseThrow();
+        assertEquals(Instant.parse("2026-02-15T12:00:00Z"), first.snapshotTimestamp());
+        assertEquals(2, first.bazaarProducts().size());
+    }
+
+    @Test
+    void purgeExpiredBazaarQuotesDeletesRowsPastRetention() {
+        marketSnapshotPersistenceService.save(new MarketSnapshot(
+                Instant.parse("2026-01-01T00:00:00Z"),
+                List.of(),
+                Map.of("ENCHANTED_DIAMOND", new BazaarMarketRecord("ENCHANTED_DIAMOND", 10.0, 9.5, 100, 90, 1000, 900, 4, 3))
+        ));
+        marketSnapshotPersistenceService.save(new MarketSnapshot(
+                Instant.parse("2026-02-15T00:00:00Z"),
+                List.of(),
+                Map.of("ENCHANTED_DIAMOND", new BazaarMarketRecord("ENCHANTED_DIAMOND", 11.0, 10.5, 100, 90, 1000, 900, 4, 3))
+        ));
+
+        int deleted = marketSnapshotPersistenceService.purgeExpiredBazaarQuotes(Instant.parse("2026-02-16T00:00:00Z"));
+
+        assertEquals(1, deleted);
+        assertEquals(1, bazaarQuoteRepository.count());
+    }
+
+    @Test
+    void latestReadsLegacyJsonRows() {
+        marketSnapshotRepository.save(new MarketSnapshotEntity(
+                Instant.parse("2026-02-15T12:30:00Z").toEpochMilli(),
+                0,
+                1,
+                "[]",
+                "{\"ENCHANTED_DIAMOND\":{\"productId\":\"ENCHANTED_DIAMOND\",\"buyPrice\":10.0,\"sellPrice\":9.5,"
+                        + "\"buyVolume\":100,\"sellVolume\":90,\"buyMovingWeek\":1000,\"sellMovingWeek\":900,"
+                        + "\"buyOrders\":4,\"sellOrders\":3}}"
+        ));
+
+        MarketSnapshot latest = marketSnapshotPersistenceService.latest().orElseThrow();
+
+        assertEquals(Instant.parse("2026-02-15T12:30:00Z"), latest.snapshotTimestamp());
+        assertEquals(9.5, latest.bazaarProducts().get("ENCHANTED_DIAMOND").sellPrice());
+    }
+
     @Test
     void asOfReturnsFloorSnapshot() {
         marketSnapshotPersistenceService.save(new MarketSnapshot(
@@ -135,6 +213,25 @@ class MarketSnapshotPersistenceServiceTest {
         assertTrue(survivors.stream().noneMatch(s -> s.snapshotTimestamp().equals(Instant.parse("2026-02-15T15:00:00Z"))));
     }
 
+    @Test
+    void compactSnapshotsOnlyRescansRowsPastTheWatermark() {
+        Instant now = Instant.parse("2026-03-01T12:00:00Z");
+        saveAt("2026-03-01T11:50:00Z");
+        saveAt("2026-03-01T11:50:20Z"); // same minute slot -> delete
+        saveAt("2026-03-01T06:00:00Z");
+        saveAt("2026-02-28T10:00:00Z");
+
+        MarketSnapshotPersistenceService.SnapshotCompactionResult first = marketSnapshotPersistenceService.compactSnapshots(now);
+        MarketSnapshotPersistenceService.SnapshotCompactionResult second = marketSnapshotPersistenceService.compactSnapshots(now.plusSeconds(30));
+
+        assertEquals(4, first.scannedCount());
+        assertEquals(1, first.deletedCount());
+        // Only the daily slot holding the previous watermark is read again.
+        assertEquals(1, second.scannedCount());
+        assertEquals(0, second.deletedCount());
+        assertEquals(3, marketSnapshotRepository.count());
+    }
+
     private void saveAt(String timestamp) {
         marketSnapshotPersistenceService.save(new MarketSnapshot(
                 Instant.parse(timestamp),
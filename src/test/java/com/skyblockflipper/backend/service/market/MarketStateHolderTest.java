@@ -0,0 +1,96 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.model.market.MarketState;
+import com.skyblockflipper.backend.service.flipping.UnifiedFlipInputMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MarketStateHolderTest {
+
+    @Test
+    void coldLoadsLatestSnapshotOnlyOnce() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        MarketStateHolder holder = new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper());
+        MarketSnapshot snapshot = snapshot("2026-02-21T12:00:00Z");
+        when(snapshotService.latest()).thenReturn(Optional.of(snapshot));
+
+        MarketState first = holder.current().orElseThrow();
+        MarketState second = holder.current().orElseThrow();
+
+        assertSame(first, second);
+        assertSame(snapshot, first.snapshot());
+        assertNotNull(first.flipInput().bazaarQuotes().get("ENCHANTED_DIAMOND"));
+        verify(snapshotService, times(1)).latest();
+    }
+
+    @Test
+    void returnsEmptyWhenNothingPublishedOrPersisted() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        MarketStateHolder holder = new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper());
+        when(snapshotService.latest()).thenReturn(Optional.empty());
+
+        assertTrue(holder.latestSnapshot().isEmpty());
+    }
+
+    @Test
+    void publishedStateIsServedWithoutPersistenceAndIgnoresOlderSnapshots() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        MarketStateHolder holder = new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper());
+        MarketSnapshot newer = snapshot("2026-02-21T12:01:00Z");
+        MarketSnapshot older = snapshot("2026-02-21T12:00:00Z");
+
+        MarketState published = holder.publish(newer, null);
+        MarketState afterStale = holder.publish(older, null);
+
+        assertSame(published, afterStale);
+        assertEquals(newer, holder.latestSnapshot().orElseThrow());
+        verify(snapshotService, never()).latest();
+    }
+
+    @Test
+    void versionIncreasesWithEachPublish() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        MarketStateHolder holder = new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper());
+
+        MarketState first = holder.publish(snapshot("2026-02-21T12:00:00Z"), null);
+        MarketState second = holder.publish(snapshot("2026-02-21T12:01:00Z"), null);
+
+        assertTrue(second.version() > first.version());
+    }
+
+    @Test
+    void asOfServesCurrentStateInMemoryAndDelegatesOlderLookups() {
+        MarketSnapshotPersistenceService snapshotService = mock(MarketSnapshotPersistenceService.class);
+        MarketStateHolder holder = new MarketStateHolder(snapshotService, new UnifiedFlipInputMapper());
+        MarketSnapshot current = snapshot("2026-02-21T12:00:00Z");
+        MarketSnapshot historical = snapshot("2026-02-21T11:00:00Z");
+        Instant historicalAsOf = Instant.parse("2026-02-21T11:30:00Z");
+        when(snapshotService.asOf(historicalAsOf)).thenReturn(Optional.of(historical));
+        holder.publish(current, null);
+
+        assertSame(current, holder.snapshotAsOf(Instant.parse("2026-02-21T12:05:00Z")).orElseThrow());
+        assertSame(historical, holder.snapshotAsOf(historicalAsOf).orElseThrow());
+        verify(snapshotService, times(1)).asOf(historicalAsOf);
+    }
+
+    private MarketSnapshot snapshot(String timestamp) {
+        BazaarMarketRecord diamond = new BazaarMarketRecord("ENCHANTED_DIAMOND", 170D, 160D, 1_000L, 900L, 0, 0, 10, 12);
+        return new MarketSnapshot(Instant.parse(timestamp), List.of(), Map.of("ENCHANTED_DIAMOND", diamond));
+    }
+}
@@ -5,14 +5,23 @@ import com.skyblockflipper.backend.model.market.MarketSnapshot;
 import com.skyblockflipper.backend.service.flipping.FlipScoreFeatureSet;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class MarketTimescaleFeatureServiceTest {
@@ -44,6 +53,96 @@ class MarketTimescaleFeatureServiceTest {
         assertEquals(Math.log(120D / 100D), itemFeatures.macroReturn1d(), 1e-9);
     }
 
+    @Test
+    void incrementalFeaturesMatchFullHistoryRecomputation() {
+        List<MarketSnapshot> history = new ArrayList<>();
+        Random random = new Random(42L);
+        Instant start = Instant.parse("2026-01-01T00:00:30Z");
+        for (int day = 0; day < 40; day++) {
+            Instant dayStart = start.plus(Duration.ofDays(day));
+            for (int tick = 0; tick < 6; tick++) {
+                Instant ts = dayStart.plus(Duration.ofHours(12)).plusSeconds(tick * 20L);
+                Map<String, BazaarMarketRecord> products = new LinkedHashMap<>();
+                products.put("ENCHANTED_DIAMOND", record("ENCHANTED_DIAMOND", 300D + random.nextGaussian() * 20D, 840_000L));
+                if (day % 5 != 3) {
+                    products.put("ENCHANTED_GOLD", record("ENCHANTED_GOLD", 50D + random.nextGaussian() * 4D, 1_000L));
+                }
+                history.add(new MarketSnapshot(ts, List.of(), products));
+            }
+            if (day % 7 != 2) {
+                Map<String, BazaarMarketRecord> anchorProducts = Map.of(
+                        "ENCHANTED_DIAMOND", record("ENCHANTED_DIAMOND", 300D + random.nextGaussian() * 20D, 840_000L),
+                        "ENCHANTED_GOLD", record("ENCHANTED_GOLD", 50D + random.nextGaussian() * 4D, 1_000L)
+                );
+                history.add(new MarketSnapshot(dayStart, List.of(), anchorProducts));
+            }
+        }
+        history.sort(Comparator.comparing(MarketSnapshot::snapshotTimestamp));
+
+        MarketSnapshotPersistenceService historyService = mock(MarketSnapshotPersistenceService.class);
+        when(historyService.between(any(Instant.class), any(Instant.class))).thenAnswer(invocation -> {
+            Instant from = invocation.getArgument(0);
+            Instant to = invocation.getArgument(1);
+            return history.stream()
+                    .filter(snapshot -> !snapshot.snapshotTimestamp().isBefore(from) && !snapshot.snapshotTimestamp().isAfter(to))
+                    .toList();
+        });
+        MarketTimescaleFeatureService reference = new MarketTimescaleFeatureService(historyService);
+        MarketTimescaleFeatureService streaming = new MarketTimescaleFeatureService(mock(MarketSnapshotPersistenceService.class));
+
+        for (MarketSnapshot snapshot : history) {
+            FlipScoreFeatureSet incremental = streaming.ingest(snapshot);
+            if (snapshot.snapshotTimestamp().isBefore(start.plus(Duration.ofDays(33)))) {
+                continue;
+            }
+            FlipScoreFeatureSet expected = reference.computeFromHistory(snapshot);
+            assertEquals(expected.byItemId().keySet(), incremental.byItemId().keySet());
+            for (String itemId : expected.byItemId().keySet()) {
+                assertFeaturesEqual(expected.get(itemId), incremental.get(itemId));
+            }
+        }
+    }
+
+    @Test
+    void computeForServesIngestedSnapshotsWithoutRescanningHistory() {
+        MarketSnapshotPersistenceService persistenceService = mock(MarketSnapshotPersistenceService.class);
+        MarketTimescaleFeatureService featureService = new MarketTimescaleFeatureService(persistenceService);
+        MarketSnapshot first = snapshot("2026-02-18T12:00:00Z", 300D);
+        MarketSnapshot second = snapshot("2026-02-18T12:00:20Z", 303D);
+
+        FlipScoreFeatureSet published = featureService.ingest(first);
+        featureService.ingest(second);
+
+        assertSame(published, featureService.computeFor(first));
+        assertEquals(Math.log(303D / 300D), featureService.computeFor(second).get("ENCHANTED_DIAMOND").microReturn1m(), 1e-9);
+        verify(persistenceService, times(2)).between(any(Instant.class), any(Instant.class));
+    }
+
+    private void assertFeaturesEqual(FlipScoreFeatureSet.ItemTimescaleFeatures expected,
+                                     FlipScoreFeatureSet.ItemTimescaleFeatures actual) {
+        assertNotNull(actual);
+        assertNullableEquals(expected.microVolatility1m(), actual.microVolatility1m());
+        assertNullableEquals(expected.microReturn1m(), actual.microReturn1m());
+        assertNullableEquals(expected.macroVolatility1d(), actual.macroVolatility1d());
+        assertNullableEquals(expected.macroReturn1d(), actual.macroReturn1d());
+        assertEquals(expected.microConfidence(), actual.microConfidence());
+        assertEquals(expected.macroConfidence(), actual.macroConfidence());
+        assertEquals(expected.structurallyIlliquid(), actual.structurallyIlliquid());
+    }
+
+    private void assertNullableEquals(Double expected, Double actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        assertEquals(expected, actual, 1e-9);
+    }
+
+    private BazaarMarketRecord record(String itemId, double midPrice, long movingWeek) {
+        return new BazaarMarketRecord(itemId, midPrice + 2D, midPrice - 2D, 10_000L, 10_000L, movingWeek, movingWeek, 80, 80);
+    }
+
     private MarketSnapshot snapshot(String timestamp, double midPrice) {
         double buyPrice = midPrice + 2D;
         double sellPrice = midPrice - 2D;
@@ -0,0 +1,147 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.instrumentation.InstrumentationProperties;
+import com.skyblockflipper.backend.model.market.AuctionMarketRecord;
+import com.skyblockflipper.backend.model.market.BazaarMarketRecord;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentFileSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<SegmentFileSnapshotStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeStores() {
+        opened.forEach(SegmentFileSnapshotStore::close);
+    }
+
+    @Test
+    void saveAndReadByTimestampRoundTripsSnapshots() {
+        SegmentFileSnapshotStore store = open(1_024L * 1_024L);
+        MarketSnapshot first = snapshot("2026-02-15T12:00:00Z", 10.0D);
+        MarketSnapshot second = snapshot("2026-02-15T12:01:00Z", 11.0D);
+        MarketSnapshot third = snapshot("2026-02-15T12:02:00Z", 12.0D);
+        store.save(first);
+        store.save(third);
+        store.save(second);
+
+        assertEquals(third, store.latest().orElseThrow());
+        assertEquals(second, store.asOf(Instant.parse("2026-02-15T12:01:59Z")).orElseThrow());
+        assertTrue(store.asOf(Instant.parse("2026-02-15T11:59:59Z")).isEmpty());
+        assertEquals(List.of(first, second),
+                store.between(Instant.parse("2026-02-15T12:00:00Z"), Instant.parse("2026-02-15T12:01:00Z")));
+    }
+
+    @Test
+    void reopeningRestoresIndexAndSegments() {
+        SegmentFileSnapshotStore store = open(512L);
+        for (int minute = 0; minute < 20; minute++) {
+            store.save(snapshot(String.format("2026-02-15T12:%02d:00Z", minute), 10.0D + minute));
+        }
+        int segments = store.segmentCount();
+        store.close();
+
+        SegmentFileSnapshotStore reopened = open(512L);
+
+        assertTrue(segments > 1);
+        assertEquals(20, reopened.snapshotCount());
+        assertEquals(segments, reopened.segmentCount());
+        assertEquals(snapshot("2026-02-15T12:07:00Z", 17.0D),
+                reopened.asOf(Instant.parse("2026-02-15T12:07:30Z")).orElseThrow());
+        reopened.save(snapshot("2026-02-15T12:20:00Z", 30.0D));
+        assertEquals(21, reopened.snapshotCount());
+    }
+
+    @Test
+    void unchangedSidesReuseTheWrittenBlock() {
+        SegmentFileSnapshotStore store = open(1_024L * 1_024L);
+        List<AuctionMarketRecord> auctions = List.of(auction());
+        Map<String, BazaarMarketRecord> bazaar = Map.of("ENCHANTED_DIAMOND", bazaarRecord(10.0D));
+        store.save(new MarketSnapshot(Instant.parse("2026-02-15T12:00:00Z"), auctions, bazaar));
+        long sizeAfterFirst = directory.resolve("segment-00000000.dat").toFile().length();
+
+        MarketSnapshot reused = new MarketSnapshot(Instant.parse("2026-02-15T12:00:20Z"), auctions, bazaar);
+        store.save(reused);
+
+        assertEquals(sizeAfterFirst, directory.resolve("segment-00000000.dat").toFile().length());
+        assertEquals(reused, store.latest().orElseThrow());
+    }
+
+    @Test
+    void compactKeepsFirstSnapshotPerSlotAndReclaimsSegments() {
+        // Every block gets its own segment, so each deleted snapshot frees exactly two segments.
+        SegmentFileSnapshotStore store = open(1L);
+        Instant now = Instant.parse("2026-02-17T12:00:00Z");
+        // Two-hour tier: 10:00 and 10:30 share a slot, 08:15 has its own.
+        store.save(snapshot("2026-02-17T08:15:00Z", 1.0D));
+        store.save(snapshot("2026-02-17T10:00:00Z", 2.0D));
+        store.save(snapshot("2026-02-17T10:30:00Z", 3.0D));
+        // Minute tier: 11:50:10 and 11:50:40 share a slot.
+        store.save(snapshot("2026-02-17T11:50:10Z", 4.0D));
+        store.save(snapshot("2026-02-17T11:50:40Z", 5.0D));
+        // Raw window is never compacted.
+        store.save(snapshot("2026-02-17T11:59:30Z", 6.0D));
+        store.save(snapshot("2026-02-17T11:59:40Z", 7.0D));
+        int segmentsBefore = store.segmentCount();
+
+        MarketSnapshotPersistenceService.SnapshotCompactionResult result = store.compact(now);
+
+        assertEquals(5, result.scannedCount());
+        assertEquals(2, result.deletedCount());
+        assertEquals(3, result.keptCount());
+        assertEquals(List.of(
+                Instant.parse("2026-02-17T08:15:00Z"),
+                Instant.parse("2026-02-17T10:00:00Z"),
+                Instant.parse("2026-02-17T11:50:10Z"),
+                Instant.parse("2026-02-17T11:59:30Z"),
+                Instant.parse("2026-02-17T11:59:40Z")
+        ), store.between(Instant.EPOCH, now).stream().map(MarketSnapshot::snapshotTimestamp).toList());
+        assertEquals(segmentsBefore - 4, store.segmentCount());
+        assertEquals(snapshot("2026-02-17T10:00:00Z", 2.0D),
+                store.asOf(Instant.parse("2026-02-17T10:45:00Z")).orElseThrow());
+    }
+
+    private SegmentFileSnapshotStore open(long segmentMaxBytes) {
+        SegmentFileSnapshotStore store = new SegmentFileSnapshotStore(
+                new MarketSnapshotCodec(),
+                new BlockingTimeTracker(new InstrumentationProperties()),
+                new SnapshotRetentionProperties(),
+                directory,
+                segmentMaxBytes
+        );
+        opened.add(store);
+        return store;
+    }
+
+    private MarketSnapshot snapshot(String timestamp, double buyPrice) {
+        return new MarketSnapshot(
+                Instant.parse(timestamp),
+                List.of(auction()),
+                Map.of("ENCHANTED_DIAMOND", bazaarRecord(buyPrice))
+        );
+    }
+
+    private AuctionMarketRecord auction() {
+        return new AuctionMarketRecord("0123456789abcdef0123456789abcdef", "Hyperion", "weapon", "LEGENDARY",
+                800_000_000L, 850_000_000L, 1_700_000_000_000L, 1_700_000_360_000L, false);
+    }
+
+    private BazaarMarketRecord bazaarRecord(double buyPrice) {
+        return new BazaarMarketRecord("ENCHANTED_DIAMOND", buyPrice, buyPrice - 0.5D, 100, 90, 1000, 900, 4, 3);
+    }
+}
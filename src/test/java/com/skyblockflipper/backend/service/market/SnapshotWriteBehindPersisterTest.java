@@ -0,0 +1,76 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SnapshotWriteBehindPersisterTest {
+
+    @Test
+    void coalescesPendingSnapshotsThatCompactionWouldDrop() throws Exception {
+        MarketSnapshotPersistenceService persistenceService = mock(MarketSnapshotPersistenceService.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writerBusy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        }).when(persistenceService).save(org.mockito.ArgumentMatchers.any(MarketSnapshot.class));
+        SnapshotWriteBehindPersister persister = new SnapshotWriteBehindPersister(
+                persistenceService, meterRegistry, new SnapshotRetentionProperties(), 4, true, Duration.ofSeconds(5));
+
+        MarketSnapshot first = snapshotAt("2026-02-15T12:00:10Z");
+        MarketSnapshot intermediate = snapshotAt("2026-02-15T12:00:20Z");
+        MarketSnapshot latestInSlot = snapshotAt("2026-02-15T12:00:30Z");
+        MarketSnapshot nextSlot = snapshotAt("2026-02-15T12:01:05Z");
+
+        assertTrue(persister.submit(first));
+        assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+        assertTrue(persister.submit(intermediate));
+        assertTrue(persister.submit(latestInSlot));
+        assertTrue(persister.submit(nextSlot));
+        release.countDown();
+
+        assertTrue(persister.flush(Duration.ofSeconds(5)));
+        ArgumentCaptor<MarketSnapshot> saved = ArgumentCaptor.forClass(MarketSnapshot.class);
+        verify(persistenceService, times(3)).save(saved.capture());
+        assertEquals(List.of(first, latestInSlot, nextSlot), saved.getAllValues());
+        assertEquals(1.0, meterRegistry.counter("skyblock.snapshot.write_behind.coalesced").count());
+        assertEquals(3.0, meterRegistry.counter("skyblock.snapshot.write_behind.written").count());
+    }
+
+    @Test
+    void closeFlushesPendingSnapshotsAndRejectsLaterSubmits() {
+        MarketSnapshotPersistenceService persistenceService = mock(MarketSnapshotPersistenceService.class);
+        SnapshotWriteBehindPersister persister = new SnapshotWriteBehindPersister(
+                persistenceService, new SimpleMeterRegistry(), new SnapshotRetentionProperties(), 1, false, Duration.ofSeconds(5));
+        MarketSnapshot snapshot = snapshotAt("2026-02-15T12:00:10Z");
+
+        assertTrue(persister.submit(snapshot));
+        persister.close();
+
+        verify(persistenceService).save(snapshot);
+        assertFalse(persister.submit(snapshotAt("2026-02-15T12:00:20Z")));
+    }
+
+    private MarketSnapshot snapshotAt(String timestamp) {
+        return new MarketSnapshot(Instant.parse(timestamp), List.of(), Map.of());
+    }
+}
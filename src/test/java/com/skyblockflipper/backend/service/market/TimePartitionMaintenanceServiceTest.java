@@ -0,0 +1,69 @@
+package com.skyblockflipper.backend.service.market;
+
+import com.skyblockflipper.backend.model.Flipping.Enums.FlipType;
+import com.skyblockflipper.backend.model.Flipping.Flip;
+import com.skyblockflipper.backend.model.Flipping.Step;
+import com.skyblockflipper.backend.model.market.MarketSnapshot;
+import com.skyblockflipper.backend.repository.FlipSnapshotMembershipRepository;
+import com.skyblockflipper.backend.repository.MarketSnapshotRepository;
+import com.skyblockflipper.backend.service.flipping.FlipTemplateStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = "config.snapshot.retention.daily-tier-retention-days=30")
+class TimePartitionMaintenanceServiceTest {
+
+    @Autowired
+    private TimePartitionMaintenanceService timePartitionMaintenanceService;
+
+    @Autowired
+    private MarketSnapshotPersistenceService marketSnapshotPersistenceService;
+
+    @Autowired
+    private MarketSnapshotRepository marketSnapshotRepository;
+
+    @Autowired
+    private FlipTemplateStore flipTemplateStore;
+
+    @Autowired
+    private FlipSnapshotMembershipRepository flipSnapshotMembershipRepository;
+
+    @BeforeEach
+    void clean() {
+        flipSnapshotMembershipRepository.deleteAll();
+        marketSnapshotRepository.deleteAll();
+    }
+
+    @Test
+    void dropExpiredDaysFallsBackToRowDeletesWithoutNativePartitions() {
+        Instant now = Instant.parse("2026-03-31T12:00:00Z");
+        saveSnapshotAndFlip(Instant.parse("2026-02-28T23:59:00Z"));
+        saveSnapshotAndFlip(Instant.parse("2026-03-01T00:00:00Z"));
+
+        TimePartitionMaintenanceService.PartitionRetentionResult result = timePartitionMaintenanceService.dropExpiredDays(now);
+
+        assertFalse(timePartitionMaintenanceService.isPartitioned());
+        assertEquals(Instant.parse("2026-03-01T00:00:00Z").toEpochMilli(), result.cutoffEpochMillis());
+        assertEquals(0, result.droppedPartitions());
+        assertEquals(2, result.deletedRows());
+        assertEquals(1, marketSnapshotRepository.count());
+        assertEquals(1, flipSnapshotMembershipRepository.count());
+        assertEquals(Instant.parse("2026-03-01T00:00:00Z").toEpochMilli(),
+                flipSnapshotMembershipRepository.findAll().getFirst().getSnapshotTimestampEpochMillis());
+    }
+
+    private void saveSnapshotAndFlip(Instant timestamp) {
+        marketSnapshotPersistenceService.save(new MarketSnapshot(timestamp, List.of(), Map.of()));
+        Flip flip = new Flip(null, FlipType.CRAFTING, List.of(Step.forCraftInstant(10L)), "ITEM", List.of());
+        flipTemplateStore.replaceSnapshot(timestamp.toEpochMilli(), List.of(flip));
+    }
+}
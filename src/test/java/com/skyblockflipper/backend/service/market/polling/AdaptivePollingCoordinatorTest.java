@@ -0,0 +1,102 @@
+package com.skyblockflipper.backend.service.market.polling;
+
+import com.skyblockflipper.backend.config.properties.AdaptivePollingProperties;
+import com.skyblockflipper.backend.hypixel.HypixelHttpResult;
+import com.skyblockflipper.backend.service.market.SnapshotWriteBehindPersister;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AdaptivePollingCoordinatorTest {
+
+    @Test
+    void stopDrainsPayloadAlreadyInPipelineBeforeFlushingPersister() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SnapshotWriteBehindPersister persister = mock(SnapshotWriteBehindPersister.class);
+        List<String> events = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            events.add("flush");
+            return true;
+        }).when(persister).flush(any());
+        AdaptivePollingCoordinator coordinator = new AdaptivePollingCoordinator(
+                new AdaptivePollingProperties(),
+                new ThreadPoolTaskScheduler(),
+                meterRegistry,
+                null,
+                null,
+                persister,
+                null,
+                new GlobalRequestLimiter(10d),
+                "http://localhost",
+                ""
+        );
+
+        CountDownLatch normalizing = new CountDownLatch(1);
+        CountDownLatch releaseNormalize = new CountDownLatch(1);
+        ProcessingPipeline<String> pipeline = ProcessingPipeline.<String>builder("auctions", meterRegistry)
+                .coalesceEnabled(false)
+                .stage("normalize", payload -> {
+                    normalizing.countDown();
+                    await(releaseNormalize);
+                    return payload.toUpperCase();
+                })
+                .stage("persist", payload -> {
+                    events.add("persist:" + payload);
+                    return payload;
+                })
+                .sink("flips", payload -> events.add("flips:" + payload));
+        AdaptivePollingProperties.Endpoint cfg = AdaptivePollingProperties.Endpoint.defaults("auctions", "/x", Duration.ofSeconds(20));
+        AdaptivePoller<String> poller = new AdaptivePoller<>(
+                "auctions",
+                cfg,
+                new ThreadPoolTaskScheduler(),
+                meterRegistry,
+                detector -> new AdaptivePoller.PollExecution<>(
+                        ChangeDetector.ChangeDecision.noChange(),
+                        null,
+                        0L,
+                        HypixelHttpResult.success(200, HttpHeaders.EMPTY, null)
+                ),
+                pipeline,
+                new GlobalRequestLimiter(10d)
+        );
+        ReflectionTestUtils.setField(coordinator, "auctionsPoller", poller);
+
+        assertTrue(pipeline.submit("snapshot"));
+        await(normalizing);
+        Thread stopper = new Thread(coordinator::stop);
+        stopper.start();
+        stopper.join(200L);
+        assertTrue(stopper.isAlive());
+        assertTrue(events.isEmpty());
+
+        releaseNormalize.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(List.of("persist:SNAPSHOT", "flips:SNAPSHOT", "flush"), events);
+        assertEquals(1.0, meterRegistry.counter("skyblock.adaptive.processing_success", "endpoint", "auctions").count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
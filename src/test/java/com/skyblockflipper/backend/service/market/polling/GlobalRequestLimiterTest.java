@@ -0,0 +1,81 @@
+package com.skyblockflipper.backend.service.market.polling;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GlobalRequestLimiterTest {
+
+    @Test
+    void allowsConfiguredBurstBeforeSpacingRequests() {
+        GlobalRequestLimiter limiter = new GlobalRequestLimiter(1d, 3, 0);
+
+        assertEquals(0L, limiter.tryAcquire(GlobalRequestLimiter.Priority.NORMAL));
+        assertEquals(0L, limiter.tryAcquire(GlobalRequestLimiter.Priority.NORMAL));
+        assertEquals(0L, limiter.tryAcquire(GlobalRequestLimiter.Priority.NORMAL));
+        long wait = limiter.tryAcquire(GlobalRequestLimiter.Priority.NORMAL);
+        assertTrue(wait > 0L && wait <= 1_000L);
+    }
+
+    @Test
+    void lowPriorityLeavesReservedTokensForProbes() {
+        GlobalRequestLimiter limiter = new GlobalRequestLimiter(1d, 3, 1);
+
+        assertEquals(0L, limiter.tryAcquire(GlobalRequestLimiter.Priority.LOW));
+        assertTrue(limiter.tryAcquire(GlobalRequestLimiter.Priority.LOW) > 0L);
+        assertEquals(0L, limiter.tryAcquire(GlobalRequestLimiter.Priority.HIGH));
+        assertEquals(0L, limiter.tryAcquire(GlobalRequestLimiter.Priority.HIGH));
+        assertTrue(limiter.tryAcquire(GlobalRequestLimiter.Priority.HIGH) > 0L);
+    }
+
+    @Test
+    void peekReportsWaitWithoutConsumingToken() {
+        GlobalRequestLimiter limiter = new GlobalRequestLimiter(1d, 2, 0);
+
+        assertEquals(0L, limiter.peekDelayMillis(GlobalRequestLimiter.Priority.HIGH));
+        assertEquals(0L, limiter.peekDelayMillis(GlobalRequestLimiter.Priority.HIGH));
+        assertEquals(0L, limiter.tryAcquire(GlobalRequestLimiter.Priority.HIGH));
+        assertEquals(0L, limiter.tryAcquire(GlobalRequestLimiter.Priority.HIGH));
+        long peeked = limiter.peekDelayMillis(GlobalRequestLimiter.Priority.HIGH);
+        assertTrue(peeked > 0L && peeked <= 1_000L);
+        assertTrue(limiter.tryAcquire(GlobalRequestLimiter.Priority.HIGH) > 0L);
+    }
+
+    @Test
+    void reservationKeepsTokenEvenWhenCallerHasToWait() {
+        GlobalRequestLimiter limiter = new GlobalRequestLimiter(10d);
+
+        assertEquals(0L, limiter.reserveDelayMillis());
+        long second = limiter.reserveDelayMillis();
+        long third = limiter.reserveDelayMillis();
+
+        assertTrue(second > 0L);
+        assertTrue(third > second);
+    }
+
+    @Test
+    void narrowsRateToRemainingQuota() {
+        GlobalRequestLimiter limiter = new GlobalRequestLimiter(100d, 4, 1);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("RateLimit-Remaining", "2");
+        headers.add("RateLimit-Reset", "20");
+
+        limiter.observe(headers);
+
+        assertEquals(0.1d, limiter.effectiveRequestsPerSecond(), 0.01d);
+    }
+
+    @Test
+    void exhaustedQuotaBlocksUntilReset() {
+        GlobalRequestLimiter limiter = new GlobalRequestLimiter(100d, 4, 1);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("RateLimit-Remaining", "0");
+        headers.add("RateLimit-Reset", "3");
+
+        limiter.observe(headers);
+
+        assertTrue(limiter.tryAcquire(GlobalRequestLimiter.Priority.HIGH) > 2_000L);
+    }
+}
@@ -1,5 +1,8 @@
 package com.skyblockflipper.backend.service.market.polling;
 
+import com.skyblockflipper.backend.instrumentation.BlockingTimeTracker;
+import com.skyblockflipper.backend.instrumentation.CycleInstrumentationService;
+import com.skyblockflipper.backend.instrumentation.InstrumentationProperties;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
@@ -104,6 +107,71 @@ class ProcessingPipelineTest {
         }
     }
 
+    @Test
+    void stagedPipelineOverlapsDownstreamStageWithNextPayload() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CycleInstrumentationService instrumentation = new CycleInstrumentationService(
+                meterRegistry, new BlockingTimeTracker(new InstrumentationProperties()));
+        CountDownLatch persistStarted = new CountDownLatch(1);
+        CountDownLatch unblockPersist = new CountDownLatch(1);
+        List<String> normalized = new CopyOnWriteArrayList<>();
+        List<String> sunk = new CopyOnWriteArrayList<>();
+
+        try (ProcessingPipeline<String> pipeline = ProcessingPipeline.<String>builder("staged", meterRegistry)
+                .queueCapacity(2)
+                .coalesceEnabled(false)
+                .stageQueueCapacity(2)
+                .instrumentation(instrumentation)
+                .stage("normalize", payload -> {
+                    normalized.add(payload);
+                    return payload.toUpperCase();
+                })
+                .stage("persist", payload -> {
+                    if ("FIRST".equals(payload)) {
+                        persistStarted.countDown();
+                        await(unblockPersist, Duration.ofSeconds(2));
+                    }
+                    return payload;
+                })
+                .sink("flips", sunk::add)) {
+            assertTrue(pipeline.submit("first"));
+            await(persistStarted, Duration.ofSeconds(1));
+            assertTrue(pipeline.submit("second"));
+
+            waitFor(() -> normalized.size() == 2, Duration.ofSeconds(1));
+            assertTrue(sunk.isEmpty());
+
+            unblockPersist.countDown();
+            waitFor(() -> sunk.size() == 2, Duration.ofSeconds(2));
+
+            assertEquals(List.of("FIRST", "SECOND"), sunk);
+            assertEquals(2.0, meterRegistry.counter("skyblock.adaptive.processing_success", "endpoint", "staged").count());
+            assertEquals(2L, meterRegistry.timer("skyblock.pipeline.stage",
+                    "endpoint", "staged", "stage", "persist", "outcome", "success").count());
+            assertEquals(2L, meterRegistry.summary("skyblock.pipeline.stage_lag_ms",
+                    "endpoint", "staged", "stage", "flips").count());
+        }
+    }
+
+    @Test
+    void stageReturningNullEndsChainWithoutError() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<Integer> sunk = new CopyOnWriteArrayList<>();
+
+        try (ProcessingPipeline<String> pipeline = ProcessingPipeline.<String>builder("filtered", meterRegistry)
+                .coalesceEnabled(false)
+                .queueCapacity(2)
+                .stage("parse", payload -> payload.isEmpty() ? null : payload.length())
+                .sink("store", sunk::add)) {
+            assertTrue(pipeline.submit(""));
+            assertTrue(pipeline.submit("abc"));
+            waitFor(() -> meterRegistry.counter("skyblock.adaptive.processing_success", "endpoint", "filtered").count() >= 2.0, Duration.ofSeconds(2));
+
+            assertEquals(List.of(3), sunk);
+            assertEquals(0.0, meterRegistry.counter("skyblock.adaptive.processing_error", "endpoint", "filtered").count());
+        }
+    }
+
     private static void await(CountDownLatch latch, Duration timeout) {
         try {
             assertTrue(latch.await(timeout.toMillis(), TimeUnit.MILLISECONDS));